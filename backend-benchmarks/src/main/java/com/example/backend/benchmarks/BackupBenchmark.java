@@ -0,0 +1,161 @@
+package com.example.backend.benchmarks;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.util.ReflectionUtils;
+
+import com.example.backend.benchmarks.support.StubRepository;
+import com.example.backend.benchmarks.support.SyntheticData;
+import com.example.backend.model.Doctor;
+import com.example.backend.model.Patient;
+import com.example.backend.model.Staff;
+import com.example.backend.model.User;
+import com.example.backend.model.appointments.Appointment;
+import com.example.backend.model.clinic.Clinic;
+import com.example.backend.model.queue.QueueLog;
+import com.example.backend.repo.AppointmentRepository;
+import com.example.backend.repo.ClinicRepository;
+import com.example.backend.repo.DoctorRepository;
+import com.example.backend.repo.PatientRepository;
+import com.example.backend.repo.QueueRepository;
+import com.example.backend.repo.StaffRepository;
+import com.example.backend.repo.UserRepository;
+import com.example.backend.service.AutocompleteIndex;
+import com.example.backend.service.BackupService;
+import com.example.backend.service.ClinicQueueIndex;
+import com.example.backend.service.PatientAgeHistogram;
+import com.example.backend.service.ReferenceDataCache;
+
+/**
+ * Benchmark: BackupBenchmark
+ *
+ * Purpose: Backup write and restore throughput
+ *
+ * Key Features:
+ * - createBackup: serialize every entity list into the backup zip on disk
+ * - restoreBackup: read the zip and deserialize every entity list
+ * - rows is the number of patients, appointments and queue logs (plus a fixed
+ *   set of doctors, staff and one clinic)
+ * - Repositories are in-memory stubs (saveAll/deleteAll do nothing), so the
+ *   measurement is JSON, zip and file I/O only
+ *
+ * Version: 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class BackupBenchmark {
+
+    private static final int DOCTORS = 20;
+
+    @Param({ "1000", "10000" })
+    private int rows;
+
+    private Path backupDirectory;
+    private BackupService backupService;
+    private String restoreFile;
+
+    @Setup
+    public void setUp() throws IOException {
+        Clinic clinic = SyntheticData.clinic();
+        List<Patient> patients = SyntheticData.patients(rows);
+        List<Staff> staff = SyntheticData.staff(50, clinic);
+        List<User> users = new ArrayList<>(patients);
+        users.addAll(staff);
+        List<Doctor> doctors = SyntheticData.doctors(DOCTORS);
+        List<Appointment> appointments = SyntheticData.appointments(rows, DOCTORS);
+        List<QueueLog> queueLogs = SyntheticData.queueHistory(rows, DOCTORS);
+
+        QueueRepository queueRepository = entityRepository(QueueRepository.class, queueLogs);
+        backupService = new BackupService(
+                entityRepository(UserRepository.class, users),
+                entityRepository(PatientRepository.class, patients),
+                entityRepository(StaffRepository.class, staff),
+                entityRepository(DoctorRepository.class, doctors),
+                entityRepository(ClinicRepository.class, List.of(clinic)),
+                entityRepository(AppointmentRepository.class, appointments),
+                queueRepository,
+                new ClinicQueueIndex(queueRepository, TransactionOperations.withoutTransaction()),
+                new ReferenceDataCache(StubRepository.of(ClinicRepository.class).build(),
+                        StubRepository.of(DoctorRepository.class).build(),
+                        StubRepository.of(PatientRepository.class).build(), 10_000, 30),
+                new PatientAgeHistogram(StubRepository.of(PatientRepository.class).build(), 10),
+                new AutocompleteIndex(StubRepository.of(PatientRepository.class).build(),
+                        StubRepository.of(StaffRepository.class).build()),
+                Jackson2ObjectMapperBuilder.json().build());
+
+        backupDirectory = Files.createTempDirectory("backup-benchmark");
+        Field directory = ReflectionUtils.findField(BackupService.class, "backupDirectory");
+        ReflectionUtils.makeAccessible(directory);
+        ReflectionUtils.setField(directory, backupService, backupDirectory.toString());
+
+        restoreFile = Path.of(backupService.createBackup()).getFileName().toString();
+    }
+
+    @Benchmark
+    public String createBackup() throws IOException {
+        return backupService.createBackup();
+    }
+
+    @Benchmark
+    public void restoreBackup() throws IOException {
+        backupService.restoreBackup(restoreFile);
+    }
+
+    /**
+     * Backups are named by the second; drop the ones written during the iteration
+     */
+    @TearDown(Level.Iteration)
+    public void removeWrittenBackups() throws IOException {
+        try (Stream<Path> files = Files.list(backupDirectory)) {
+            for (Path file : files.toList()) {
+                if (!file.getFileName().toString().equals(restoreFile)) {
+                    Files.delete(file);
+                }
+            }
+        }
+    }
+
+    @TearDown
+    public void removeBackupDirectory() throws IOException {
+        try (Stream<Path> files = Files.walk(backupDirectory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    private static <R> R entityRepository(Class<R> type, List<?> entities) {
+        return StubRepository.of(type)
+                .on("findAll", args -> entities)
+                .on("deleteAll", args -> null)
+                .on("saveAll", args -> args[0])
+                .build();
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.backend.benchmarks;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of benchmarks.jar
+ *
+ * Accepts the usual JMH command line, but writes results as JSON by default to
+ * jmh-results/&lt;label&gt;-&lt;timestamp&gt;.json, so runs from different builds can be
+ * compared (e.g. with https://jmh.morethan.io). The label defaults to "local";
+ * pass -Dbenchmark.label=&lt;commit or build id&gt; to tell runs apart. An explicit
+ * -rf or -rff on the command line wins.
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions cli = new CommandLineOptions(args);
+        if (cli.shouldHelp() || cli.shouldList() || cli.shouldListWithParams()
+                || cli.shouldListProfilers() || cli.shouldListResultFormats()) {
+            Main.main(args);
+            return;
+        }
+
+        ChainedOptionsBuilder options = new OptionsBuilder().parent(cli);
+        if (!cli.getResultFormat().hasValue()) {
+            options.resultFormat(ResultFormatType.JSON);
+        }
+        if (!cli.getResult().hasValue()) {
+            String label = System.getProperty("benchmark.label", "local");
+            String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+            Path resultFile = Path.of("jmh-results", label + "-" + timestamp + ".json");
+            Files.createDirectories(resultFile.getParent());
+            options.result(resultFile.toString());
+        }
+        new Runner(options.build()).run();
+    }
+}
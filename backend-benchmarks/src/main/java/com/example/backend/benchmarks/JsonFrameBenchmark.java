@@ -0,0 +1,123 @@
+package com.example.backend.benchmarks;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.example.backend.dto.ClinicBoardDTO;
+import com.example.backend.dto.QueuePositionDTO;
+import com.example.backend.service.JsonFrameEncoder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Benchmark: JsonFrameBenchmark
+ *
+ * Purpose: Serialization cost of SSE frames, per-client strings versus shared
+ * pre-encoded bytes
+ *
+ * Key Features:
+ * - position*: one QueuePositionDTO per client, as the position stream sends them
+ *   (String then UTF-8 bytes on a private mapper, versus JsonFrameEncoder)
+ * - board*: one clinic board written to every connected display (serialized per
+ *   display, versus encoded once and the same bytes shared)
+ * - Run with -prof gc; gc.alloc.rate.norm is the allocation per client
+ *
+ * Version: 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonFrameBenchmark {
+
+    @Param({ "100", "1000" })
+    private int clients;
+
+    @Param({ "10", "50" })
+    private int boardSize;
+
+    // What QueueSseService used before: a private mapper and String data
+    private final ObjectMapper privateMapper = new ObjectMapper();
+
+    private JsonFrameEncoder encoder;
+    private List<QueuePositionDTO> positions;
+    private ClinicBoardDTO board;
+
+    @Setup
+    public void setUp() {
+        // Same defaults as the Spring Boot managed mapper
+        encoder = new JsonFrameEncoder(Jackson2ObjectMapperBuilder.json().build());
+
+        positions = new ArrayList<>(clients);
+        for (int i = 0; i < clients; i++) {
+            positions.add(QueuePositionDTO.builder()
+                    .appointmentId((long) i)
+                    .position(i + 1)
+                    .status("IN_QUEUE")
+                    .priority(1 + i % 3)
+                    .totalInQueue(clients)
+                    .estimatedWaitTimeMinutes((i + 1) * 10)
+                    .message("You are number " + (i + 1) + " in queue")
+                    .isQueued(true)
+                    .build());
+        }
+
+        List<ClinicBoardDTO.BoardEntry> next = new ArrayList<>(boardSize);
+        for (int i = 0; i < boardSize; i++) {
+            next.add(new ClinicBoardDTO.BoardEntry((long) i, (long) (1000 + i), (long) (i % 4), 1 + i % 3));
+        }
+        board = ClinicBoardDTO.builder()
+                .clinicId(1L)
+                .serving(next.subList(0, Math.min(3, boardSize)))
+                .next(next)
+                .totalWaiting(boardSize)
+                .missed(List.of())
+                .build();
+    }
+
+    @Benchmark
+    public void positionPrivateMapperString(Blackhole blackhole) throws Exception {
+        for (QueuePositionDTO position : positions) {
+            blackhole.consume(privateMapper.writeValueAsString(position).getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    @Benchmark
+    public void positionSharedWriterBytes(Blackhole blackhole) throws Exception {
+        for (QueuePositionDTO position : positions) {
+            blackhole.consume(encoder.encodePosition(position));
+        }
+    }
+
+    @Benchmark
+    public void boardSerializedPerDisplay(Blackhole blackhole) throws Exception {
+        for (int i = 0; i < clients; i++) {
+            blackhole.consume(privateMapper.writeValueAsString(board).getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    @Benchmark
+    public void boardEncodedOnceShared(Blackhole blackhole) throws Exception {
+        byte[] frame = encoder.encodeBoard(board);
+        for (int i = 0; i < clients; i++) {
+            blackhole.consume(frame);
+        }
+    }
+}
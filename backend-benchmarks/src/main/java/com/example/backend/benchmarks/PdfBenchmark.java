@@ -0,0 +1,74 @@
+package com.example.backend.benchmarks;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.backend.benchmarks.support.SyntheticData;
+import com.example.backend.model.report.DailyReport;
+import com.example.backend.model.report.SystemUsageReport;
+import com.example.backend.util.PdfGenerator;
+
+/**
+ * Benchmark: PdfBenchmark
+ *
+ * Purpose: PDF rendering cost of the report downloads
+ *
+ * Key Features:
+ * - dailyReportPdf: rendering behind GET /api/report/daily
+ * - systemUsageReportPdf: system usage report rendering
+ * - Reports are prebuilt; only iText layout and writing is measured
+ *
+ * Version: 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PdfBenchmark {
+
+    private DailyReport dailyReport;
+    private SystemUsageReport systemUsageReport;
+
+    @Setup
+    public void setUp() {
+        dailyReport = new DailyReport(SyntheticData.CLINIC_ID, SyntheticData.clinic().getName(), SyntheticData.DAY);
+        dailyReport.setTimeGenerated(LocalDateTime.of(2025, 3, 3, 18, 0));
+        dailyReport.setPatientsSeen(184);
+        dailyReport.setAvgWaitTimeMinutes(23.4);
+        dailyReport.setNoShowRatePercent(6.5);
+
+        systemUsageReport = new SystemUsageReport();
+        systemUsageReport.setReportTitle("System Usage Report");
+        systemUsageReport.setStartDate(SyntheticData.DAY.withDayOfMonth(1));
+        systemUsageReport.setEndDate(SyntheticData.DAY);
+        systemUsageReport.setTimeGenerated(LocalDateTime.of(2025, 3, 3, 18, 0));
+        systemUsageReport.setTotalAppointments(5210);
+        systemUsageReport.setTotalCancellations(312);
+        systemUsageReport.setPatientsSeen(4630);
+        systemUsageReport.setAvgWaitTimeMinutes(21.8);
+        systemUsageReport.setNoShowRatePercent(5.9);
+    }
+
+    @Benchmark
+    public byte[] dailyReportPdf() throws Exception {
+        return PdfGenerator.generateDailyReportPdf(dailyReport);
+    }
+
+    @Benchmark
+    public byte[] systemUsageReportPdf() throws Exception {
+        return PdfGenerator.generateSystemUsageReportPdf(systemUsageReport);
+    }
+}
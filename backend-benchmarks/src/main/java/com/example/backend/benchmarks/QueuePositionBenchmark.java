@@ -0,0 +1,150 @@
+package com.example.backend.benchmarks;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.transaction.support.TransactionOperations;
+
+import com.example.backend.benchmarks.support.StubRepository;
+import com.example.backend.benchmarks.support.SyntheticData;
+import com.example.backend.config.ReplicaRouting;
+import com.example.backend.dto.ClinicBoardDTO;
+import com.example.backend.dto.PatientNameDTO;
+import com.example.backend.dto.QueueEntryDTO;
+import com.example.backend.dto.QueuePositionDTO;
+import com.example.backend.model.appointments.Appointment;
+import com.example.backend.model.queue.QueueLog;
+import com.example.backend.repo.AppointmentRepository;
+import com.example.backend.repo.ClinicRepository;
+import com.example.backend.repo.DoctorRepository;
+import com.example.backend.repo.PatientRepository;
+import com.example.backend.repo.QueueRepository;
+import com.example.backend.service.ClinicQueueIndex;
+import com.example.backend.service.LiveQueueStats;
+import com.example.backend.service.QueueMetrics;
+import com.example.backend.service.QueueService;
+import com.example.backend.service.ReferenceDataCache;
+import com.example.backend.service.WaitTimeEstimator;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Benchmark: QueuePositionBenchmark
+ *
+ * Purpose: Queue ordering and position computation at varying queue sizes
+ *
+ * Key Features:
+ * - clinicPositions: one-pass positions of every waiting entry (SSE fan-out path)
+ * - clinicBoard: waiting-room board built from the index
+ * - queueEntryDtos: QueueEntryDTO conversion for the staff queue view (warm reference cache)
+ * - indexReload: rebuilding a clinic's sorted sub-queues after invalidation
+ * - Repositories are in-memory stubs returning precomputed lists, so only service code is measured
+ *
+ * Version: 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QueuePositionBenchmark {
+
+    private static final int DOCTORS = 4;
+
+    @Param({ "10", "100", "1000" })
+    private int queueSize;
+
+    private QueueService queueService;
+    private ClinicQueueIndex clinicQueueIndex;
+
+    @Setup
+    public void setUp() {
+        List<QueueLog> waiting = SyntheticData.waitingEntries(queueSize, DOCTORS);
+        List<QueueLog> waitingOrdered = waiting.stream()
+                .sorted(Comparator.comparing(QueueLog::getPriority).reversed().thenComparing(QueueLog::getCreatedAt))
+                .toList();
+        // Two patients currently with a doctor, numbered after the waiting entries
+        List<QueueLog> called = SyntheticData.waitingEntries(2, DOCTORS);
+        for (QueueLog entry : called) {
+            entry.setQueueId(entry.getQueueId() + queueSize);
+            entry.setAppointmentId(entry.getAppointmentId() + queueSize);
+            entry.setStatus(QueueLog.STATUS_CALLED);
+        }
+
+        Map<Long, Appointment> appointments = SyntheticData.appointments(queueSize + 2, DOCTORS).stream()
+                .collect(Collectors.toMap(Appointment::getAppointmentId, Function.identity()));
+        Map<Long, PatientNameDTO> patientNames = SyntheticData.patients(queueSize + 2).stream()
+                .map(patient -> new PatientNameDTO(patient.getUserId(), patient.getFname(), patient.getLname(),
+                        patient.getEmail()))
+                .collect(Collectors.toMap(PatientNameDTO::getUserId, Function.identity()));
+
+        QueueRepository queueRepository = StubRepository.of(QueueRepository.class)
+                .on("findByClinicIdAndStatus",
+                        args -> QueueLog.STATUS_CALLED.equals(args[1]) ? called : waiting)
+                .on("findByClinicIdAndStatusOrderByPriorityDescCreatedAtAsc", args -> waitingOrdered)
+                .on("findRequeueableMissedEntries", args -> List.of())
+                .build();
+        AppointmentRepository appointmentRepository = StubRepository.of(AppointmentRepository.class)
+                .on("findById", args -> Optional.ofNullable(appointments.get((Long) args[0])))
+                .on("findAllById", args -> ((List<?>) args[0]).stream()
+                        .map(appointments::get).filter(Objects::nonNull).toList())
+                .build();
+        PatientRepository patientRepository = StubRepository.of(PatientRepository.class)
+                .on("findNameById", args -> Optional.ofNullable(patientNames.get((Long) args[0])))
+                .on("findNamesByUserIdIn", args -> ((Collection<?>) args[0]).stream()
+                        .map(patientNames::get).filter(Objects::nonNull).toList())
+                .build();
+
+        ReferenceDataCache referenceDataCache = new ReferenceDataCache(
+                StubRepository.of(ClinicRepository.class).build(),
+                StubRepository.of(DoctorRepository.class).build(),
+                patientRepository, 10_000, 30);
+        clinicQueueIndex = new ClinicQueueIndex(queueRepository, TransactionOperations.withoutTransaction());
+        queueService = new QueueService(queueRepository, appointmentRepository, event -> { }, null,
+                referenceDataCache, clinicQueueIndex, new WaitTimeEstimator(), new ReplicaRouting(),
+                new QueueMetrics(new SimpleMeterRegistry(), clinicQueueIndex), new LiveQueueStats(clinicQueueIndex));
+
+        // Load the index and warm the reference cache outside the measurement
+        queueService.getClinicQueueWithDetails(SyntheticData.CLINIC_ID);
+    }
+
+    @Benchmark
+    public Map<Long, QueuePositionDTO> clinicPositions() {
+        return queueService.getClinicPositions(SyntheticData.CLINIC_ID);
+    }
+
+    @Benchmark
+    public ClinicBoardDTO clinicBoard() {
+        return queueService.getClinicBoard(SyntheticData.CLINIC_ID, 10);
+    }
+
+    @Benchmark
+    public List<QueueEntryDTO> queueEntryDtos() {
+        return queueService.getClinicQueueWithDetails(SyntheticData.CLINIC_ID);
+    }
+
+    @Benchmark
+    public List<ClinicQueueIndex.QueuedEntry> indexReload() {
+        clinicQueueIndex.invalidateClinic(SyntheticData.CLINIC_ID);
+        return clinicQueueIndex.getClinicQueue(SyntheticData.CLINIC_ID);
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.backend.benchmarks;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.backend.benchmarks.support.StubRepository;
+import com.example.backend.benchmarks.support.SyntheticData;
+import com.example.backend.model.appointments.Appointment;
+import com.example.backend.model.clinic.Clinic;
+import com.example.backend.model.queue.QueueLog;
+import com.example.backend.model.report.DailyReport;
+import com.example.backend.model.report.SystemUsageReport;
+import com.example.backend.repo.AppointmentRepository;
+import com.example.backend.repo.ClinicRepository;
+import com.example.backend.repo.QueueRepository;
+import com.example.backend.service.ReportService;
+import com.example.backend.service.SystemUsageReportService;
+
+/**
+ * Benchmark: ReportBenchmark
+ *
+ * Purpose: Report aggregation over synthetic QueueLog datasets
+ *
+ * Key Features:
+ * - dailyReport: patients seen, average wait and no-show rate for one clinic and day
+ *   (the history spans five days, so date filtering is part of the work)
+ * - systemUsageReport: the same metrics system-wide over the five days
+ * - Repositories are in-memory stubs returning precomputed lists
+ *
+ * Version: 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReportBenchmark {
+
+    private static final int DOCTORS = 8;
+
+    @Param({ "1000", "10000", "100000" })
+    private int queueLogs;
+
+    private ReportService reportService;
+    private SystemUsageReportService systemUsageReportService;
+
+    @Setup
+    public void setUp() {
+        List<QueueLog> history = SyntheticData.queueHistory(queueLogs, DOCTORS);
+        List<Appointment> appointments = SyntheticData.appointments(queueLogs, DOCTORS);
+        Clinic clinic = SyntheticData.clinic();
+
+        QueueRepository queueRepository = StubRepository.of(QueueRepository.class)
+                .on("findByClinicId", args -> history)
+                .on("findAll", args -> history)
+                .build();
+        AppointmentRepository appointmentRepository = StubRepository.of(AppointmentRepository.class)
+                .on("findByClinicIdAndDateTimeBetween", args -> appointments)
+                .on("findByDateTimeBetween", args -> appointments)
+                .build();
+        ClinicRepository clinicRepository = StubRepository.of(ClinicRepository.class)
+                .on("findById", args -> Optional.of(clinic))
+                .build();
+
+        reportService = new ReportService(queueRepository, appointmentRepository, clinicRepository);
+        systemUsageReportService = new SystemUsageReportService(appointmentRepository, queueRepository);
+    }
+
+    @Benchmark
+    public DailyReport dailyReport() {
+        return reportService.generateReport(SyntheticData.CLINIC_ID, SyntheticData.DAY);
+    }
+
+    @Benchmark
+    public SystemUsageReport systemUsageReport() {
+        return systemUsageReportService.generateSystemUsageReport(SyntheticData.DAY.minusDays(2),
+                SyntheticData.DAY.plusDays(2));
+    }
+}
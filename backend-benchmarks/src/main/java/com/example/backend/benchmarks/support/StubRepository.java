@@ -0,0 +1,58 @@
+package com.example.backend.benchmarks.support;
+
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * In-memory stand-in for a Spring Data repository interface
+ *
+ * Answers are registered per method name; any other repository method throws, so a
+ * benchmark never silently measures an unstubbed call. Answers should return
+ * precomputed data so the measurement covers the service code, not the stub.
+ *
+ * @param <R> repository interface
+ */
+public final class StubRepository<R> {
+
+    private final Class<R> type;
+    private final Map<String, Function<Object[], Object>> answers = new HashMap<>();
+
+    private StubRepository(Class<R> type) {
+        this.type = type;
+    }
+
+    public static <R> StubRepository<R> of(Class<R> type) {
+        return new StubRepository<>(type);
+    }
+
+    public StubRepository<R> on(String method, Function<Object[], Object> answer) {
+        answers.put(method, answer);
+        return this;
+    }
+
+    public R build() {
+        Map<String, Function<Object[], Object>> registered = Map.copyOf(answers);
+        Object proxy = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type },
+                (self, method, args) -> {
+                    switch (method.getName()) {
+                        case "toString":
+                            return "StubRepository(" + type.getSimpleName() + ")";
+                        case "hashCode":
+                            return System.identityHashCode(self);
+                        case "equals":
+                            return self == args[0];
+                        default:
+                            break;
+                    }
+                    Function<Object[], Object> answer = registered.get(method.getName());
+                    if (answer == null) {
+                        throw new UnsupportedOperationException(type.getSimpleName() + "." + method.getName()
+                                + " is not stubbed");
+                    }
+                    return answer.apply(args);
+                });
+        return type.cast(proxy);
+    }
+}
@@ -0,0 +1,185 @@
+package com.example.backend.benchmarks.support;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import com.example.backend.model.Doctor;
+import com.example.backend.model.Patient;
+import com.example.backend.model.Staff;
+import com.example.backend.model.User;
+import com.example.backend.model.appointments.Appointment;
+import com.example.backend.model.appointments.AppointmentStatus;
+import com.example.backend.model.clinic.Clinic;
+import com.example.backend.model.clinic.ClinicType;
+import com.example.backend.model.queue.QueueLog;
+
+/**
+ * Deterministic synthetic datasets for the benchmarks
+ *
+ * Every generator uses a fixed seed, so two runs (or two builds) measure the same data.
+ * Appointment i belongs to patient i; queue entry i belongs to appointment i.
+ */
+public final class SyntheticData {
+
+    public static final long CLINIC_ID = 1L;
+    public static final LocalDate DAY = LocalDate.of(2025, 3, 3);
+
+    private static final String[] FIRST_NAMES = { "Wei Ling", "Arjun", "Siti", "Marcus", "Mei", "Ravi", "Aisha", "Daniel" };
+    private static final String[] LAST_NAMES = { "Tan", "Lim", "Nair", "Wong", "Rahman", "Lee", "Goh", "Kumar" };
+
+    private SyntheticData() {
+    }
+
+    /**
+     * Waiting (IN_QUEUE) entries of one clinic; roughly a quarter sit in the shared pool
+     */
+    public static List<QueueLog> waitingEntries(int count, int doctors) {
+        Random random = new Random(42);
+        LocalDateTime start = DAY.atTime(8, 0);
+        List<QueueLog> entries = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            QueueLog entry = queueLog(i + 1L, QueueLog.STATUS_IN_QUEUE, start.plusSeconds(i * 30L), random);
+            entry.setDoctorId(random.nextInt(4) == 0 ? null : 1L + random.nextInt(doctors));
+            entries.add(entry);
+        }
+        return entries;
+    }
+
+    /**
+     * A day's queue history of one clinic: mostly DONE with appointment start times,
+     * some MISSED, CALLED and IN_QUEUE, plus entries from the surrounding days
+     */
+    public static List<QueueLog> queueHistory(int count, int doctors) {
+        Random random = new Random(7);
+        List<QueueLog> entries = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            LocalDate day = DAY.plusDays(random.nextInt(5) - 2);
+            LocalDateTime createdAt = day.atTime(8, 0).plusSeconds(random.nextInt(10 * 3600));
+            int roll = random.nextInt(100);
+            String status = roll < 80 ? QueueLog.STATUS_DONE
+                    : roll < 90 ? QueueLog.STATUS_MISSED
+                    : roll < 95 ? QueueLog.STATUS_CALLED
+                    : QueueLog.STATUS_IN_QUEUE;
+            QueueLog entry = queueLog(i + 1L, status, createdAt, random);
+            entry.setDoctorId(1L + random.nextInt(doctors));
+            if (QueueLog.STATUS_DONE.equals(status)) {
+                entry.setAppointmentStart(createdAt.plusSeconds(60 + random.nextInt(90 * 60)));
+            }
+            entries.add(entry);
+        }
+        return entries;
+    }
+
+    public static List<Appointment> appointments(int count, int doctors) {
+        Random random = new Random(11);
+        AppointmentStatus[] statuses = AppointmentStatus.values();
+        List<Appointment> appointments = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Appointment appointment = new Appointment();
+            appointment.setAppointmentId(i + 1L);
+            appointment.setPatientId(i + 1L);
+            appointment.setClinicId(CLINIC_ID);
+            appointment.setDoctorId(1L + random.nextInt(doctors));
+            appointment.setDateTime(DAY.atTime(8, 0).plusMinutes(random.nextInt(10 * 60)));
+            appointment.setApptStatus(statuses[random.nextInt(statuses.length)]);
+            appointment.setCreatedAt(DAY.minusDays(7).atStartOfDay());
+            appointments.add(appointment);
+        }
+        return appointments;
+    }
+
+    public static List<Patient> patients(int count) {
+        Random random = new Random(13);
+        List<Patient> patients = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Patient patient = new Patient();
+            fillUser(patient, i + 1L, "PATIENT", random);
+            patient.setPatientIc(String.format("S%07dA", i));
+            patient.setDateOfBirth(LocalDate.of(1940 + random.nextInt(80), 1 + random.nextInt(12), 1 + random.nextInt(28)));
+            patient.setGender(random.nextBoolean() ? "M" : "F");
+            patient.setEmergencyContact(FIRST_NAMES[random.nextInt(FIRST_NAMES.length)]);
+            patient.setEmergencyContactPhone("9" + (1000000 + random.nextInt(8999999)));
+            patient.setMedicalHistory("Hypertension");
+            patient.setAllergies("None");
+            patient.setBloodType("O+");
+            patients.add(patient);
+        }
+        return patients;
+    }
+
+    public static List<Staff> staff(int count, Clinic clinic) {
+        Random random = new Random(17);
+        List<Staff> staff = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Staff member = new Staff();
+            fillUser(member, 1_000_000L + i, "STAFF", random);
+            member.setClinic(clinic);
+            staff.add(member);
+        }
+        return staff;
+    }
+
+    public static List<Doctor> doctors(int count) {
+        Random random = new Random(19);
+        List<Doctor> doctors = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Doctor doctor = new Doctor();
+            doctor.setId(i + 1L);
+            doctor.setFname(FIRST_NAMES[random.nextInt(FIRST_NAMES.length)]);
+            doctor.setLname(LAST_NAMES[random.nextInt(LAST_NAMES.length)]);
+            doctor.setAssignedClinic(CLINIC_ID);
+            doctor.setShiftDays(List.of(1, 2, 3, 4, 5));
+            doctor.setCreatedAt(DAY.minusYears(1).atStartOfDay());
+            doctors.add(doctor);
+        }
+        return doctors;
+    }
+
+    public static Clinic clinic() {
+        Clinic clinic = new Clinic();
+        clinic.setId(CLINIC_ID);
+        clinic.setName("Bedok Polyclinic");
+        clinic.setAddress("11 Bedok North Street 1");
+        clinic.setTelephoneNo("6243 6740");
+        clinic.setRegion("East");
+        clinic.setArea("Bedok");
+        clinic.setSpecialty("General Practice");
+        clinic.setClinicType(ClinicType.GP);
+        clinic.setMonFriAmStart(LocalTime.of(8, 0));
+        clinic.setMonFriAmEnd(LocalTime.of(12, 30));
+        clinic.setMonFriPmStart(LocalTime.of(13, 30));
+        clinic.setMonFriPmEnd(LocalTime.of(17, 30));
+        clinic.setApptIntervalMin(15L);
+        clinic.setCreatedAt(DAY.minusYears(1).atStartOfDay());
+        return clinic;
+    }
+
+    private static QueueLog queueLog(long id, String status, LocalDateTime createdAt, Random random) {
+        QueueLog entry = new QueueLog();
+        entry.setQueueId(id);
+        entry.setClinicId(CLINIC_ID);
+        entry.setAppointmentId(id);
+        entry.setStatus(status);
+        int roll = random.nextInt(100);
+        entry.setPriority(roll < 85 ? QueueLog.PRIORITY_NORMAL : roll < 97 ? QueueLog.PRIORITY_ELDERLY : QueueLog.PRIORITY_EMERGENCY);
+        entry.setCreatedAt(createdAt);
+        return entry;
+    }
+
+    private static void fillUser(User user, long id, String role, Random random) {
+        String fname = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+        String lname = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+        user.setUserId(id);
+        user.setAuthUuid(new UUID(id, id));
+        user.setEmail("user" + id + "@example.com");
+        user.setFname(fname);
+        user.setLname(lname);
+        user.setRole(role);
+        user.setCreatedAt(DAY.minusDays(30).atStartOfDay());
+    }
+}
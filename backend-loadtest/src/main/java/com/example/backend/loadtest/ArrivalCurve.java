@@ -0,0 +1,93 @@
+package com.example.backend.loadtest;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import com.example.backend.model.clinic.Clinic;
+
+/**
+ * Patient arrival intensity over a clinic's weekday opening hours
+ *
+ * Each session (Mon-Fri AM and PM) is split into an opening rush, a steady middle
+ * and a quiet tail, weighted 1.8 / 1.0 / 0.4: the queue that forms outside before
+ * the doors open, regular bookings, then few walk-ins before closing. Nobody
+ * arrives in the last 15 minutes of a session. Arrival times are drawn
+ * independently from this piecewise-constant density.
+ */
+public class ArrivalCurve {
+
+    private static final double RUSH_WEIGHT = 1.8;
+    private static final double STEADY_WEIGHT = 1.0;
+    private static final double TAIL_WEIGHT = 0.4;
+    private static final int LAST_ARRIVAL_BEFORE_CLOSE_MINUTES = 15;
+
+    private final List<Segment> segments = new ArrayList<>();
+    private final double totalMass;
+
+    public ArrivalCurve(Clinic clinic) {
+        addSession(clinic.getMonFriAmStart(), clinic.getMonFriAmEnd());
+        addSession(clinic.getMonFriPmStart(), clinic.getMonFriPmEnd());
+        if (segments.isEmpty()) {
+            throw new IllegalArgumentException("Clinic " + clinic.getId() + " has no weekday opening hours");
+        }
+        double mass = 0;
+        for (Segment segment : segments) {
+            mass += segment.mass();
+        }
+        totalMass = mass;
+    }
+
+    /**
+     * Opening sessions of the clinic, in order
+     */
+    public static List<LocalTime[]> sessions(Clinic clinic) {
+        List<LocalTime[]> sessions = new ArrayList<>(2);
+        if (clinic.getMonFriAmStart() != null && clinic.getMonFriAmEnd() != null) {
+            sessions.add(new LocalTime[] { clinic.getMonFriAmStart(), clinic.getMonFriAmEnd() });
+        }
+        if (clinic.getMonFriPmStart() != null && clinic.getMonFriPmEnd() != null) {
+            sessions.add(new LocalTime[] { clinic.getMonFriPmStart(), clinic.getMonFriPmEnd() });
+        }
+        return sessions;
+    }
+
+    /**
+     * Draw one arrival time
+     */
+    public LocalTime sample(Random random) {
+        double target = random.nextDouble() * totalMass;
+        for (Segment segment : segments) {
+            if (target < segment.mass()) {
+                double offset = target / segment.weight();
+                return LocalTime.ofSecondOfDay(Math.round(segment.startSecond() + offset));
+            }
+            target -= segment.mass();
+        }
+        Segment last = segments.get(segments.size() - 1);
+        return LocalTime.ofSecondOfDay(last.endSecond() - 1);
+    }
+
+    private void addSession(LocalTime start, LocalTime end) {
+        if (start == null || end == null) {
+            return;
+        }
+        int from = start.toSecondOfDay();
+        int to = end.toSecondOfDay() - LAST_ARRIVAL_BEFORE_CLOSE_MINUTES * 60;
+        if (to <= from) {
+            return;
+        }
+        int quarter = (to - from) / 4;
+        segments.add(new Segment(from, from + quarter, RUSH_WEIGHT));
+        segments.add(new Segment(from + quarter, to - quarter, STEADY_WEIGHT));
+        segments.add(new Segment(to - quarter, to, TAIL_WEIGHT));
+    }
+
+    private record Segment(int startSecond, int endSecond, double weight) {
+
+        double mass() {
+            return (endSecond - startSecond) * weight;
+        }
+    }
+}
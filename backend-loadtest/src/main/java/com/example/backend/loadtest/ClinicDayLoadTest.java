@@ -0,0 +1,167 @@
+package com.example.backend.loadtest;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import com.example.backend.Application;
+import com.example.backend.loadtest.DataSeeder.ClinicPlan;
+import com.example.backend.repo.AppointmentRepository;
+import com.example.backend.repo.ClinicRepository;
+import com.example.backend.repo.DoctorRepository;
+import com.example.backend.repo.PatientRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Entry point of backend-loadtest.jar
+ *
+ * Starts a throwaway Postgres (Testcontainers, or --jdbc-url), boots the backend
+ * in this JVM on a random port with a stub SendGrid client, seeds one clinic day
+ * and runs ClinicDayScenario against it over HTTP. Prints per-endpoint throughput
+ * and p50/p95/p99 latency, Hikari pool pressure and the peak platform thread count
+ * (compare --virtual-threads=false and true), and writes the same as JSON
+ * to loadtest-results/&lt;label&gt;-&lt;timestamp&gt;.json.
+ *
+ * Usage:
+ *   java -jar backend-loadtest/target/backend-loadtest.jar [--clinics=50] [--pool-size=5] [--speedup=60] ...
+ * See LoadTestOptions for every option.
+ */
+public final class ClinicDayLoadTest {
+
+    private static final String POSTGRES_IMAGE = "postgres:16-alpine";
+
+    private ClinicDayLoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+
+        PostgreSQLContainer<?> postgres = null;
+        String jdbcUrl = options.jdbcUrl();
+        String dbUser = options.dbUser();
+        String dbPassword = options.dbPassword();
+        if (jdbcUrl == null) {
+            postgres = new PostgreSQLContainer<>(DockerImageName.parse(POSTGRES_IMAGE));
+            postgres.start();
+            jdbcUrl = postgres.getJdbcUrl();
+            dbUser = postgres.getUsername();
+            dbPassword = postgres.getPassword();
+        }
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(Application.class, LoadTestConfig.class)
+                .properties(Map.of(
+                        "DB_URL", jdbcUrl,
+                        "DB_USERNAME", dbUser,
+                        "DB_PASSWORD", dbPassword,
+                        "SENDGRID_API_KEY", "loadtest-stub"))
+                .run(backendArgs(options))) {
+
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            LocalDate day = LocalDate.now();
+
+            System.out.printf("Seeding %d clinics x %d patients ...%n", options.clinics(), options.patientsPerClinic());
+            List<ClinicPlan> plans = new DataSeeder(
+                    context.getBean(ClinicRepository.class),
+                    context.getBean(DoctorRepository.class),
+                    context.getBean(PatientRepository.class),
+                    context.getBean(AppointmentRepository.class)).seed(options, day);
+
+            // The DataSource bean is the query-profiling proxy; the primary pool sits underneath
+            HikariDataSource primary = context.getBean(DataSource.class).unwrap(HikariDataSource.class);
+
+            ClinicDayScenario scenario = new ClinicDayScenario("http://localhost:" + port, options, plans, day);
+            double elapsedSeconds;
+            Map<String, Object> poolSummary;
+            // Platform threads only: virtual threads do not show up in the thread MXBean
+            ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+            threads.resetPeakThreadCount();
+            System.out.printf("Running the day at %dx ...%n", options.speedup());
+            try (PoolSampler sampler = new PoolSampler(primary.getHikariPoolMXBean(), options.poolSize())) {
+                sampler.start();
+                elapsedSeconds = scenario.run();
+                poolSummary = sampler.summary();
+            }
+
+            Map<String, Map<String, Object>> endpoints = scenario.getRecorder().summary(elapsedSeconds);
+            Map<String, Object> totals = new LinkedHashMap<>();
+            totals.put("elapsedSeconds", elapsedSeconds);
+            totals.put("checkIns", scenario.getCheckIns());
+            totals.put("served", scenario.getServed());
+            totals.put("missed", scenario.getMissed());
+            totals.put("streamsPeak", scenario.getStreamsPeak());
+            totals.put("streamEvents", scenario.getStreamEvents());
+            totals.put("emailsSent", context.getBean(StubSendGrid.class).getCalls());
+            totals.put("platformThreadsPeak", threads.getPeakThreadCount());
+
+            System.out.println();
+            System.out.print(LatencyRecorder.table(endpoints));
+            System.out.println("Day:  " + totals);
+            System.out.println("Pool: " + poolSummary);
+            System.out.println("Results: " + writeResults(options, totals, poolSummary, endpoints));
+        } finally {
+            if (postgres != null) {
+                postgres.stop();
+            }
+        }
+    }
+
+    /**
+     * Command line arguments for the backend; they take precedence over application.properties
+     */
+    private static String[] backendArgs(LoadTestOptions options) {
+        return new String[] {
+                "--server.port=0",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN",
+                "--spring.datasource.hikari.maximum-pool-size=" + options.poolSize(),
+                "--spring.threads.virtual.enabled=" + options.virtualThreads(),
+                "--loadtest.email-latency-ms=" + options.emailLatencyMs()
+        };
+    }
+
+    private static Path writeResults(LoadTestOptions options, Map<String, Object> day, Map<String, Object> pool,
+            Map<String, Map<String, Object>> endpoints) throws Exception {
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("clinics", options.clinics());
+        settings.put("doctorsPerClinic", options.doctorsPerClinic());
+        settings.put("patientsPerClinic", options.patientsPerClinic());
+        settings.put("speedup", options.speedup());
+        settings.put("poolSize", options.poolSize());
+        settings.put("emailLatencyMs", options.emailLatencyMs());
+        settings.put("missedRate", options.missedRate());
+        settings.put("reportsPerClinic", options.reportsPerClinic());
+        settings.put("staffPollMinutes", options.staffPollMinutes());
+        settings.put("virtualThreads", options.virtualThreads());
+        settings.put("seed", options.seed());
+
+        Map<String, Object> results = new LinkedHashMap<>();
+        results.put("label", options.label());
+        results.put("options", settings);
+        results.put("day", day);
+        results.put("pool", pool);
+        results.put("endpoints", endpoints);
+
+        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+        Path resultFile = Path.of("loadtest-results", options.label() + "-" + timestamp + ".json");
+        Files.createDirectories(resultFile.getParent());
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(resultFile.toFile(), results);
+        return resultFile;
+    }
+}
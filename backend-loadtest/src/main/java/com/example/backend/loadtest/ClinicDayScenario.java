@@ -0,0 +1,454 @@
+package com.example.backend.loadtest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntPredicate;
+
+import com.example.backend.loadtest.DataSeeder.ClinicPlan;
+import com.example.backend.loadtest.DataSeeder.Visit;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * One simulated clinic day against a running backend
+ *
+ * Every actor is a virtual thread working on a compressed clock (options.speedup
+ * simulated seconds per real second):
+ * - Patients: check in at their arrival time, then hold the position SSE stream
+ *   until the server closes it
+ * - Doctors: call-next for themselves, see the patient for a random service time and
+ *   mark the appointment done; a share of called patients do not show, are marked
+ *   MISSED and requeued by staff 5-20 minutes later. Doctors pause between sessions
+ *   and after closing keep calling until their clinic's queue is empty
+ * - Waiting-room board: one clinic board stream per clinic, reconnected if dropped
+ * - Staff view: periodic refresh of the clinic queue
+ * - Reports: daily report downloads spread over the day
+ *
+ * The day ends when every clinic has closed and served everyone who checked in.
+ */
+public class ClinicDayScenario {
+
+    private static final String CHECK_IN = "POST /api/queue/check-in";
+    private static final String CALL_NEXT = "POST /api/queue/clinic/{clinicId}/doctor/{doctorId}/call-next";
+    private static final String DONE = "POST /api/queue/appointment/{appointmentId}/done";
+    private static final String MISSED = "PATCH /api/queue/{queueId}/status (MISSED)";
+    private static final String REQUEUE = "POST /api/queue/requeue/{appointmentId}";
+    private static final String STAFF_VIEW = "GET /api/queue/clinic/{clinicId}";
+    private static final String REPORT = "GET /api/report/daily";
+    private static final String POSITION_STREAM = "GET /api/queue/position/{appointmentId}/stream (open)";
+    private static final String BOARD_STREAM = "GET /api/queue/clinic/{clinicId}/stream (open)";
+
+    private static final int MISSED_WAIT_MINUTES = 1;
+    private static final int EMPTY_QUEUE_POLL_MINUTES = 1;
+
+    private final String baseUrl;
+    private final LoadTestOptions options;
+    private final List<ClinicPlan> plans;
+    private final LocalDate day;
+    private final LatencyRecorder recorder = new LatencyRecorder();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final Set<InputStream> openStreams = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger streamsOpen = new AtomicInteger();
+    private final AtomicInteger streamsPeak = new AtomicInteger();
+    private final AtomicLong streamEvents = new AtomicLong();
+    private final AtomicLong checkIns = new AtomicLong();
+    private final AtomicLong served = new AtomicLong();
+    private final AtomicLong missed = new AtomicLong();
+
+    private ExecutorService executor;
+    private HttpClient client;
+    private LocalTime dayStart;
+    private long realStartNanos;
+    private volatile boolean finished;
+
+    public ClinicDayScenario(String baseUrl, LoadTestOptions options, List<ClinicPlan> plans, LocalDate day) {
+        this.baseUrl = baseUrl;
+        this.options = options;
+        this.plans = plans;
+        this.day = day;
+    }
+
+    /**
+     * Run the day to the end
+     *
+     * @return real seconds the day took
+     */
+    public double run() throws InterruptedException {
+        dayStart = LocalTime.MAX;
+        LocalTime dayEnd = LocalTime.MIN;
+        for (ClinicPlan plan : plans) {
+            List<LocalTime[]> sessions = ArrivalCurve.sessions(plan.clinic());
+            dayStart = min(dayStart, sessions.get(0)[0]);
+            dayEnd = max(dayEnd, sessions.get(sessions.size() - 1)[1]);
+        }
+
+        try (ExecutorService actors = Executors.newVirtualThreadPerTaskExecutor()) {
+            executor = actors;
+            client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(10))
+                    .executor(executor)
+                    .build();
+            realStartNanos = System.nanoTime();
+
+            CountDownLatch doctorsDone = new CountDownLatch(plans.stream().mapToInt(plan -> plan.doctorIds().size()).sum());
+            Random seeds = new Random(options.seed());
+            for (ClinicPlan plan : plans) {
+                ClinicState clinic = new ClinicState(plan);
+                for (Visit visit : plan.visits()) {
+                    executor.submit(() -> patient(clinic, visit));
+                }
+                for (Long doctorId : plan.doctorIds()) {
+                    long seed = seeds.nextLong();
+                    executor.submit(() -> {
+                        try {
+                            doctor(clinic, doctorId, new Random(seed));
+                        } finally {
+                            doctorsDone.countDown();
+                        }
+                    });
+                }
+                executor.submit(() -> board(plan.clinic().getId()));
+                executor.submit(() -> staffView(plan.clinic().getId()));
+                for (int i = 0; i < options.reportsPerClinic(); i++) {
+                    LocalTime at = LocalTime.ofSecondOfDay(dayStart.toSecondOfDay()
+                            + seeds.nextInt(Math.max(1, dayEnd.toSecondOfDay() - dayStart.toSecondOfDay())));
+                    executor.submit(() -> report(plan.clinic().getId(), at));
+                }
+            }
+
+            doctorsDone.await();
+            double elapsedSeconds = (System.nanoTime() - realStartNanos) / 1e9;
+
+            finished = true;
+            for (InputStream stream : openStreams) {
+                closeQuietly(stream);
+            }
+            executor.shutdownNow();
+            executor.awaitTermination(30, TimeUnit.SECONDS);
+            return elapsedSeconds;
+        }
+    }
+
+    public LatencyRecorder getRecorder() {
+        return recorder;
+    }
+
+    public int getStreamsPeak() {
+        return streamsPeak.get();
+    }
+
+    public long getStreamEvents() {
+        return streamEvents.get();
+    }
+
+    public long getCheckIns() {
+        return checkIns.get();
+    }
+
+    public long getServed() {
+        return served.get();
+    }
+
+    public long getMissed() {
+        return missed.get();
+    }
+
+    /**
+     * Simulated time of day
+     */
+    public LocalTime now() {
+        long simSeconds = (System.nanoTime() - realStartNanos) * options.speedup() / 1_000_000_000L;
+        return LocalTime.ofSecondOfDay(Math.min(LocalTime.MAX.toSecondOfDay(), dayStart.toSecondOfDay() + simSeconds));
+    }
+
+    // ========== Actors ==========
+
+    private void patient(ClinicState clinic, Visit visit) {
+        try {
+            sleepUntil(visit.arrival());
+            String uri = "/api/queue/check-in?appointmentId=" + visit.appointmentId() + "&priority=" + visit.priority()
+                    + (visit.anyDoctor() ? "&anyDoctor=true" : "");
+            HttpResponse<byte[]> response = send(CHECK_IN, post(uri), status -> status == 201);
+            if (response != null && response.statusCode() == 201) {
+                checkIns.incrementAndGet();
+            }
+        } catch (InterruptedException e) {
+            return;
+        } finally {
+            clinic.outstanding.decrementAndGet();
+        }
+        watchPosition(visit.appointmentId());
+    }
+
+    private void doctor(ClinicState clinic, Long doctorId, Random random) {
+        Long clinicId = clinic.plan.clinic().getId();
+        long meanServiceSeconds = clinic.plan.clinic().getApptIntervalMin() * 60 * 4 / 5;
+        List<LocalTime[]> sessions = ArrivalCurve.sessions(clinic.plan.clinic());
+        try {
+            for (int s = 0; s < sessions.size(); s++) {
+                boolean lastSession = s == sessions.size() - 1;
+                sleepUntil(sessions.get(s)[0]);
+                while (true) {
+                    boolean closed = !now().isBefore(sessions.get(s)[1]);
+                    if (closed && !lastSession) {
+                        break;
+                    }
+                    HttpResponse<byte[]> response = send(CALL_NEXT,
+                            post("/api/queue/clinic/" + clinicId + "/doctor/" + doctorId + "/call-next"),
+                            status -> status == 200 || status == 404);
+                    if (response == null || response.statusCode() != 200) {
+                        if (closed && clinic.outstanding.get() == 0) {
+                            return;
+                        }
+                        sleepSimSeconds(EMPTY_QUEUE_POLL_MINUTES * 60);
+                        continue;
+                    }
+
+                    JsonNode called = objectMapper.readTree(response.body());
+                    long appointmentId = called.path("appointmentId").asLong();
+                    if (random.nextDouble() < options.missedRate()) {
+                        sleepSimSeconds(MISSED_WAIT_MINUTES * 60);
+                        send(MISSED, patch("/api/queue/" + called.path("queueId").asLong() + "/status",
+                                "{\"status\":\"MISSED\"}"), status -> status == 200);
+                        missed.incrementAndGet();
+                        clinic.outstanding.incrementAndGet();
+                        long returnSeconds = (5 + random.nextInt(16)) * 60L;
+                        executor.submit(() -> returnAfterMissing(clinic, appointmentId, returnSeconds));
+                    } else {
+                        long serviceSeconds = Math.min(3 * meanServiceSeconds,
+                                Math.max(120, Math.round(-Math.log(1 - random.nextDouble()) * meanServiceSeconds)));
+                        sleepSimSeconds(serviceSeconds);
+                        send(DONE, post("/api/queue/appointment/" + appointmentId + "/done"), status -> status == 200);
+                        served.incrementAndGet();
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            // scenario shut down
+        } catch (IOException e) {
+            throw new IllegalStateException("Unreadable call-next response", e);
+        }
+    }
+
+    /**
+     * A patient who missed their call comes back and is requeued by staff
+     */
+    private void returnAfterMissing(ClinicState clinic, long appointmentId, long afterSeconds) {
+        try {
+            sleepSimSeconds(afterSeconds);
+            send(REQUEUE, post("/api/queue/requeue/" + appointmentId, "{\"priority\":1}"), status -> status == 200);
+        } catch (InterruptedException e) {
+            return;
+        } finally {
+            clinic.outstanding.decrementAndGet();
+        }
+        watchPosition(appointmentId);
+    }
+
+    private void board(Long clinicId) {
+        while (!finished) {
+            if (!stream(BOARD_STREAM, "/api/queue/clinic/" + clinicId + "/stream")) {
+                try {
+                    Thread.sleep(1000);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void staffView(Long clinicId) {
+        try {
+            while (!finished) {
+                send(STAFF_VIEW, get("/api/queue/clinic/" + clinicId), status -> status == 200);
+                sleepSimSeconds(options.staffPollMinutes() * 60L);
+            }
+        } catch (InterruptedException e) {
+            // scenario shut down
+        }
+    }
+
+    private void report(Long clinicId, LocalTime at) {
+        try {
+            sleepUntil(at);
+            send(REPORT, get("/api/report/daily?clinicId=" + clinicId + "&date=" + day), status -> status == 200);
+        } catch (InterruptedException e) {
+            // scenario shut down
+        }
+    }
+
+    private void watchPosition(long appointmentId) {
+        if (!finished) {
+            stream(POSITION_STREAM, "/api/queue/position/" + appointmentId + "/stream");
+        }
+    }
+
+    // ========== HTTP ==========
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build();
+    }
+
+    private HttpRequest post(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).POST(HttpRequest.BodyPublishers.noBody()).build();
+    }
+
+    private HttpRequest post(String path, String json) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    private HttpRequest patch(String path, String json) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .method("PATCH", HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    /**
+     * Send and record; returns null when no response arrived
+     */
+    private HttpResponse<byte[]> send(String endpoint, HttpRequest request, IntPredicate expected)
+            throws InterruptedException {
+        long start = System.nanoTime();
+        try {
+            HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            recorder.record(endpoint, System.nanoTime() - start, response.statusCode(),
+                    !expected.test(response.statusCode()));
+            return response;
+        } catch (IOException e) {
+            recorder.recordFailure(endpoint);
+            return null;
+        }
+    }
+
+    /**
+     * Open an SSE stream (time to response headers is recorded) and drain it until
+     * the server or the scenario closes it
+     *
+     * @return whether the stream was opened
+     */
+    private boolean stream(String endpoint, String path) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Accept", "text/event-stream")
+                .GET()
+                .build();
+        long start = System.nanoTime();
+        InputStream body;
+        try {
+            HttpResponse<InputStream> response = client.send(request, HttpResponse.BodyHandlers.ofInputStream());
+            recorder.record(endpoint, System.nanoTime() - start, response.statusCode(), response.statusCode() != 200);
+            body = response.body();
+            if (response.statusCode() != 200) {
+                closeQuietly(body);
+                return false;
+            }
+        } catch (IOException | InterruptedException e) {
+            if (!finished) {
+                recorder.recordFailure(endpoint);
+            }
+            return false;
+        }
+
+        openStreams.add(body);
+        streamsPeak.accumulateAndGet(streamsOpen.incrementAndGet(), Math::max);
+        try {
+            drain(body);
+        } finally {
+            streamsOpen.decrementAndGet();
+            openStreams.remove(body);
+            closeQuietly(body);
+        }
+        return true;
+    }
+
+    /**
+     * Read until end of stream, counting events (blank-line terminated frames)
+     */
+    private void drain(InputStream body) {
+        byte[] buffer = new byte[8192];
+        int previous = -1;
+        try {
+            int read;
+            while ((read = body.read(buffer)) != -1) {
+                for (int i = 0; i < read; i++) {
+                    if (buffer[i] == '\n' && previous == '\n') {
+                        streamEvents.incrementAndGet();
+                    }
+                    if (buffer[i] != '\r') {
+                        previous = buffer[i];
+                    }
+                }
+            }
+        } catch (IOException e) {
+            // closed by the server or at the end of the day
+        }
+    }
+
+    private static void closeQuietly(InputStream stream) {
+        try {
+            stream.close();
+        } catch (IOException ignored) {
+            // already closed
+        }
+    }
+
+    // ========== Clock ==========
+
+    private void sleepUntil(LocalTime time) throws InterruptedException {
+        long simSeconds = time.toSecondOfDay() - dayStart.toSecondOfDay();
+        long wakeNanos = realStartNanos + simSeconds * 1_000_000_000L / options.speedup();
+        long remaining = wakeNanos - System.nanoTime();
+        if (remaining > 0) {
+            TimeUnit.NANOSECONDS.sleep(remaining);
+        }
+    }
+
+    private void sleepSimSeconds(long simSeconds) throws InterruptedException {
+        TimeUnit.NANOSECONDS.sleep(simSeconds * 1_000_000_000L / options.speedup());
+    }
+
+    private static LocalTime min(LocalTime a, LocalTime b) {
+        return a.isBefore(b) ? a : b;
+    }
+
+    private static LocalTime max(LocalTime a, LocalTime b) {
+        return a.isAfter(b) ? a : b;
+    }
+
+    /**
+     * Per-clinic bookkeeping: patients not yet checked in plus missed patients not
+     * yet requeued. Doctors only go home once this is zero and the queue is empty.
+     */
+    private static final class ClinicState {
+
+        private final ClinicPlan plan;
+        private final AtomicInteger outstanding;
+
+        ClinicState(ClinicPlan plan) {
+            this.plan = plan;
+            this.outstanding = new AtomicInteger(plan.visits().size());
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.backend.loadtest;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import com.example.backend.model.Doctor;
+import com.example.backend.model.Patient;
+import com.example.backend.model.appointments.Appointment;
+import com.example.backend.model.appointments.AppointmentStatus;
+import com.example.backend.model.clinic.Clinic;
+import com.example.backend.model.clinic.ClinicType;
+import com.example.backend.model.queue.QueueLog;
+import com.example.backend.repo.AppointmentRepository;
+import com.example.backend.repo.ClinicRepository;
+import com.example.backend.repo.DoctorRepository;
+import com.example.backend.repo.PatientRepository;
+
+/**
+ * Seeds one clinic day through the backend's own repositories
+ *
+ * Clinics get varied weekday hours (early/late opening, some evening sessions,
+ * some AM-only); each patient gets one appointment for the day at an arrival
+ * time drawn from the clinic's ArrivalCurve. Everything is derived from the seed,
+ * so two runs with the same options replay the same day.
+ */
+public class DataSeeder {
+
+    private static final String[] FIRST_NAMES = { "Wei Ling", "Arjun", "Siti", "Marcus", "Mei", "Ravi", "Aisha", "Daniel" };
+    private static final String[] LAST_NAMES = { "Tan", "Lim", "Nair", "Wong", "Rahman", "Lee", "Goh", "Kumar" };
+
+    private final ClinicRepository clinicRepository;
+    private final DoctorRepository doctorRepository;
+    private final PatientRepository patientRepository;
+    private final AppointmentRepository appointmentRepository;
+
+    public DataSeeder(ClinicRepository clinicRepository, DoctorRepository doctorRepository,
+            PatientRepository patientRepository, AppointmentRepository appointmentRepository) {
+        this.clinicRepository = clinicRepository;
+        this.doctorRepository = doctorRepository;
+        this.patientRepository = patientRepository;
+        this.appointmentRepository = appointmentRepository;
+    }
+
+    /**
+     * A patient visit planned for the simulated day
+     */
+    public record Visit(long appointmentId, LocalTime arrival, int priority, boolean anyDoctor) {
+    }
+
+    /**
+     * One seeded clinic with its doctors and the day's visits (ordered by arrival)
+     */
+    public record ClinicPlan(Clinic clinic, List<Long> doctorIds, List<Visit> visits) {
+    }
+
+    public List<ClinicPlan> seed(LoadTestOptions options, LocalDate day) {
+        Random random = new Random(options.seed());
+        List<ClinicPlan> plans = new ArrayList<>(options.clinics());
+        long patientNo = 0;
+
+        for (int c = 0; c < options.clinics(); c++) {
+            Clinic clinic = clinicRepository.save(clinic(c));
+
+            List<Doctor> doctors = new ArrayList<>(options.doctorsPerClinic());
+            for (int d = 0; d < options.doctorsPerClinic(); d++) {
+                doctors.add(doctor(clinic.getId(), random));
+            }
+            List<Long> doctorIds = doctorRepository.saveAll(doctors).stream().map(Doctor::getId).toList();
+
+            List<Patient> patients = new ArrayList<>(options.patientsPerClinic());
+            for (int p = 0; p < options.patientsPerClinic(); p++) {
+                patients.add(patient(++patientNo, random));
+            }
+            patients = patientRepository.saveAll(patients);
+
+            ArrivalCurve curve = new ArrivalCurve(clinic);
+            List<LocalTime> arrivals = new ArrayList<>(patients.size());
+            List<Appointment> appointments = new ArrayList<>(patients.size());
+            for (int p = 0; p < patients.size(); p++) {
+                LocalTime arrival = curve.sample(random);
+                arrivals.add(arrival);
+                appointments.add(appointment(clinic, patients.get(p).getUserId(),
+                        doctorIds.get(p % doctorIds.size()), day, arrival));
+            }
+            appointments = appointmentRepository.saveAll(appointments);
+
+            List<Visit> visits = new ArrayList<>(appointments.size());
+            for (int p = 0; p < appointments.size(); p++) {
+                int roll = random.nextInt(100);
+                int priority = roll < 85 ? QueueLog.PRIORITY_NORMAL
+                        : roll < 97 ? QueueLog.PRIORITY_ELDERLY : QueueLog.PRIORITY_EMERGENCY;
+                visits.add(new Visit(appointments.get(p).getAppointmentId(), arrivals.get(p), priority,
+                        random.nextInt(5) == 0));
+            }
+            visits.sort(Comparator.comparing(Visit::arrival));
+            plans.add(new ClinicPlan(clinic, doctorIds, visits));
+        }
+        return plans;
+    }
+
+    private static Clinic clinic(int index) {
+        Clinic clinic = new Clinic();
+        clinic.setName("Load Test Clinic " + (index + 1));
+        clinic.setAddress((index + 1) + " Simulation Avenue");
+        clinic.setTelephoneNo(String.format("6%07d", index + 1));
+        clinic.setRegion("Load Test");
+        clinic.setClinicType(ClinicType.GP);
+        clinic.setMonFriAmStart(index % 2 == 0 ? LocalTime.of(8, 0) : LocalTime.of(8, 30));
+        clinic.setMonFriAmEnd(LocalTime.of(12, 0).plusMinutes(30L * (index % 3)));
+        // Every tenth clinic is AM-only; every fifth of the rest runs an evening session
+        if (index % 10 != 9) {
+            clinic.setMonFriPmStart(index % 3 == 0 ? LocalTime.of(14, 0) : LocalTime.of(13, 30));
+            clinic.setMonFriPmEnd(index % 5 == 4 ? LocalTime.of(21, 0) : LocalTime.of(17, 0).plusMinutes(30L * (index % 2)));
+        }
+        clinic.setApptIntervalMin(index % 4 == 0 ? 10L : 15L);
+        clinic.setCreatedAt(LocalDateTime.now());
+        return clinic;
+    }
+
+    private static Doctor doctor(Long clinicId, Random random) {
+        Doctor doctor = new Doctor();
+        doctor.setFname(FIRST_NAMES[random.nextInt(FIRST_NAMES.length)]);
+        doctor.setLname(LAST_NAMES[random.nextInt(LAST_NAMES.length)]);
+        doctor.setAssignedClinic(clinicId);
+        doctor.setShiftDays(List.of(1, 2, 3, 4, 5));
+        doctor.setCreatedAt(LocalDateTime.now());
+        return doctor;
+    }
+
+    private static Patient patient(long no, Random random) {
+        Patient patient = new Patient();
+        patient.setAuthUuid(new UUID(random.nextLong(), no));
+        patient.setEmail("patient" + no + "@loadtest.invalid");
+        patient.setFname(FIRST_NAMES[random.nextInt(FIRST_NAMES.length)]);
+        patient.setLname(LAST_NAMES[random.nextInt(LAST_NAMES.length)]);
+        patient.setRole("PATIENT");
+        patient.setCreatedAt(LocalDateTime.now());
+        patient.setPatientIc(String.format("T%07dL", no));
+        patient.setDateOfBirth(LocalDate.of(1940 + random.nextInt(80), 1 + random.nextInt(12), 1 + random.nextInt(28)));
+        patient.setGender(random.nextBoolean() ? "M" : "F");
+        return patient;
+    }
+
+    /**
+     * Appointment slot on the clinic's interval grid at or just before the arrival
+     */
+    private static Appointment appointment(Clinic clinic, Long patientId, Long doctorId, LocalDate day, LocalTime arrival) {
+        long intervalSeconds = clinic.getApptIntervalMin() * 60;
+        LocalTime slot = LocalTime.ofSecondOfDay(arrival.toSecondOfDay() / intervalSeconds * intervalSeconds);
+
+        Appointment appointment = new Appointment();
+        appointment.setPatientId(patientId);
+        appointment.setClinicId(clinic.getId());
+        appointment.setDoctorId(doctorId);
+        appointment.setDateTime(day.atTime(slot));
+        appointment.setApptStatus(AppointmentStatus.SCHEDULED);
+        appointment.setCreatedAt(LocalDateTime.now());
+        return appointment;
+    }
+}
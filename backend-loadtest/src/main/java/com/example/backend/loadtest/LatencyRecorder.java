@@ -0,0 +1,103 @@
+package com.example.backend.loadtest;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-endpoint latency samples of a load test run
+ *
+ * Endpoints are keyed by method and path template (e.g. "POST /api/queue/check-in").
+ * Every response is kept, so percentiles are exact. Responses the scenario
+ * expects (such as 404 from call-next on an empty queue) are samples, not
+ * errors; only status codes the caller flags and transport failures count as errors.
+ */
+public class LatencyRecorder {
+
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+    public void record(String endpoint, long nanos, int status, boolean error) {
+        endpoints.computeIfAbsent(endpoint, key -> new Endpoint()).add(nanos, status, error);
+    }
+
+    public void recordFailure(String endpoint) {
+        endpoints.computeIfAbsent(endpoint, key -> new Endpoint()).addFailure();
+    }
+
+    /**
+     * Summary per endpoint, sorted by name
+     *
+     * @param elapsedSeconds measured wall time, for throughput
+     */
+    public Map<String, Map<String, Object>> summary(double elapsedSeconds) {
+        Map<String, Map<String, Object>> summary = new LinkedHashMap<>();
+        new TreeMap<>(endpoints).forEach((name, endpoint) -> summary.put(name, endpoint.summary(elapsedSeconds)));
+        return summary;
+    }
+
+    /**
+     * Fixed-width table of the summary, one line per endpoint
+     */
+    public static String table(Map<String, Map<String, Object>> summary) {
+        StringBuilder out = new StringBuilder(String.format("%-58s %8s %7s %8s %9s %9s %9s %9s%n",
+                "endpoint", "count", "errors", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms"));
+        summary.forEach((name, row) -> out.append(String.format("%-58s %8d %7d %8.1f %9.1f %9.1f %9.1f %9.1f%n",
+                name, row.get("count"), row.get("errors"), row.get("throughputPerSecond"), row.get("p50Ms"),
+                row.get("p95Ms"), row.get("p99Ms"), row.get("maxMs"))));
+        return out.toString();
+    }
+
+    private static final class Endpoint {
+
+        private long[] samples = new long[1024];
+        private int count;
+        private long errors;
+        private final Map<Integer, Long> statuses = new TreeMap<>();
+
+        synchronized void add(long nanos, int status, boolean error) {
+            if (count == samples.length) {
+                samples = Arrays.copyOf(samples, count * 2);
+            }
+            samples[count++] = nanos;
+            statuses.merge(status, 1L, Long::sum);
+            if (error) {
+                errors++;
+            }
+        }
+
+        synchronized void addFailure() {
+            errors++;
+            statuses.merge(0, 1L, Long::sum);
+        }
+
+        synchronized Map<String, Object> summary(double elapsedSeconds) {
+            long[] sorted = Arrays.copyOf(samples, count);
+            Arrays.sort(sorted);
+
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("count", (long) count);
+            row.put("errors", errors);
+            row.put("throughputPerSecond", elapsedSeconds > 0 ? count / elapsedSeconds : 0.0);
+            row.put("p50Ms", percentileMs(sorted, 0.50));
+            row.put("p95Ms", percentileMs(sorted, 0.95));
+            row.put("p99Ms", percentileMs(sorted, 0.99));
+            row.put("maxMs", sorted.length == 0 ? 0.0 : sorted[sorted.length - 1] / 1_000_000.0);
+            // 0 = no response (connect/read failure)
+            row.put("statusCodes", new TreeMap<>(statuses));
+            return row;
+        }
+
+        /**
+         * Nearest-rank percentile
+         */
+        private static double percentileMs(long[] sorted, double percentile) {
+            if (sorted.length == 0) {
+                return 0.0;
+            }
+            int rank = (int) Math.ceil(percentile * sorted.length);
+            return sorted[Math.max(0, rank - 1)] / 1_000_000.0;
+        }
+    }
+}
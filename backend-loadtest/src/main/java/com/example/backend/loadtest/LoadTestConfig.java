@@ -0,0 +1,22 @@
+package com.example.backend.loadtest;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+/**
+ * Beans swapped in for the load test run
+ *
+ * The stub SendGrid client is primary, so NotificationService uses it instead of
+ * the real client built by SendGridConfig.
+ */
+@Configuration
+public class LoadTestConfig {
+
+    @Bean
+    @Primary
+    public StubSendGrid stubSendGrid(@Value("${loadtest.email-latency-ms:150}") long latencyMs) {
+        return new StubSendGrid(latencyMs);
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.backend.loadtest;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Command line options of the clinic-day load test (--name=value)
+ *
+ * @param clinics              clinics simulated at once
+ * @param doctorsPerClinic     doctors calling patients in each clinic
+ * @param patientsPerClinic    appointments (and check-ins) per clinic for the day
+ * @param speedup              simulated seconds per real second (60: one clinic hour per real minute)
+ * @param poolSize             Hikari maximum-pool-size of the backend under test
+ * @param emailLatencyMs       time the stub SendGrid client takes per email
+ * @param missedRate           share of called patients who do not show and are requeued later
+ * @param reportsPerClinic     daily report downloads per clinic over the day
+ * @param staffPollMinutes     simulated minutes between staff queue-view refreshes per clinic
+ * @param virtualThreads       run the backend with spring.threads.virtual.enabled
+ * @param seed                 seed of the synthetic day
+ * @param jdbcUrl              existing database to use instead of a Testcontainers Postgres
+ * @param dbUser               user for jdbcUrl
+ * @param dbPassword           password for jdbcUrl
+ * @param label                name of the run in the results file
+ */
+public record LoadTestOptions(
+        int clinics,
+        int doctorsPerClinic,
+        int patientsPerClinic,
+        int speedup,
+        int poolSize,
+        long emailLatencyMs,
+        double missedRate,
+        int reportsPerClinic,
+        int staffPollMinutes,
+        boolean virtualThreads,
+        long seed,
+        String jdbcUrl,
+        String dbUser,
+        String dbPassword,
+        String label) {
+
+    private static final Set<String> KNOWN = Set.of("clinics", "doctors-per-clinic", "patients-per-clinic",
+            "speedup", "pool-size", "email-latency-ms", "missed-rate", "reports-per-clinic", "staff-poll-minutes",
+            "virtual-threads", "seed", "jdbc-url", "db-user", "db-password", "label");
+
+    public static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got: " + arg);
+            }
+            int eq = arg.indexOf('=');
+            values.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+
+        LoadTestOptions options = new LoadTestOptions(
+                Integer.parseInt(values.getOrDefault("clinics", "50")),
+                Integer.parseInt(values.getOrDefault("doctors-per-clinic", "3")),
+                Integer.parseInt(values.getOrDefault("patients-per-clinic", "120")),
+                Integer.parseInt(values.getOrDefault("speedup", "60")),
+                Integer.parseInt(values.getOrDefault("pool-size", "5")),
+                Long.parseLong(values.getOrDefault("email-latency-ms", "150")),
+                Double.parseDouble(values.getOrDefault("missed-rate", "0.08")),
+                Integer.parseInt(values.getOrDefault("reports-per-clinic", "4")),
+                Integer.parseInt(values.getOrDefault("staff-poll-minutes", "2")),
+                Boolean.parseBoolean(values.getOrDefault("virtual-threads", "false")),
+                Long.parseLong(values.getOrDefault("seed", "42")),
+                values.get("jdbc-url"),
+                values.getOrDefault("db-user", "postgres"),
+                values.getOrDefault("db-password", "postgres"),
+                values.getOrDefault("label", "local"));
+
+        values.keySet().removeAll(KNOWN);
+        if (!values.isEmpty()) {
+            throw new IllegalArgumentException("Unknown options: " + values.keySet());
+        }
+        if (options.clinics < 1 || options.doctorsPerClinic < 1 || options.patientsPerClinic < 1
+                || options.speedup < 1 || options.poolSize < 2) {
+            throw new IllegalArgumentException("clinics, doctors, patients and speedup must be positive; pool-size at least 2");
+        }
+        return options;
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.backend.loadtest;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+/**
+ * Samples the backend's Hikari pool while the day runs
+ *
+ * Threads waiting for a connection (pending) are the signal that the pool is too
+ * small; active connections near the maximum with no waiters mean it is right-sized.
+ */
+public class PoolSampler implements AutoCloseable {
+
+    private static final long INTERVAL_MS = 100;
+
+    private final HikariPoolMXBean pool;
+    private final int maximumPoolSize;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "pool-sampler");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private long samples;
+    private long activeSum;
+    private int activePeak;
+    private long samplesWithWaiters;
+    private int pendingPeak;
+
+    public PoolSampler(HikariPoolMXBean pool, int maximumPoolSize) {
+        this.pool = pool;
+        this.maximumPoolSize = maximumPoolSize;
+    }
+
+    public void start() {
+        scheduler.scheduleAtFixedRate(this::sample, 0, INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    private synchronized void sample() {
+        int active = pool.getActiveConnections();
+        int pending = pool.getThreadsAwaitingConnection();
+        samples++;
+        activeSum += active;
+        activePeak = Math.max(activePeak, active);
+        pendingPeak = Math.max(pendingPeak, pending);
+        if (pending > 0) {
+            samplesWithWaiters++;
+        }
+    }
+
+    public synchronized Map<String, Object> summary() {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("maximumPoolSize", maximumPoolSize);
+        summary.put("samples", samples);
+        summary.put("activeAvg", samples == 0 ? 0.0 : (double) activeSum / samples);
+        summary.put("activePeak", activePeak);
+        summary.put("pendingPeak", pendingPeak);
+        summary.put("timeWithWaitersPercent", samples == 0 ? 0.0 : 100.0 * samplesWithWaiters / samples);
+        return summary;
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.backend.loadtest;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.sendgrid.Request;
+import com.sendgrid.Response;
+import com.sendgrid.SendGrid;
+
+/**
+ * SendGrid client that never leaves the JVM
+ *
+ * Every mail/send call sleeps for the configured latency (roughly what the real
+ * API takes) and answers 202 Accepted, so notification threads are held for a
+ * realistic time without sending anything.
+ */
+public class StubSendGrid extends SendGrid {
+
+    private final long latencyMs;
+    private final AtomicLong calls = new AtomicLong();
+
+    public StubSendGrid(long latencyMs) {
+        super("loadtest-stub");
+        this.latencyMs = latencyMs;
+    }
+
+    @Override
+    public Response api(Request request) throws IOException {
+        calls.incrementAndGet();
+        if (latencyMs > 0) {
+            try {
+                Thread.sleep(latencyMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while sending", e);
+            }
+        }
+        return new Response(202, "", Map.of());
+    }
+
+    public long getCalls() {
+        return calls.get();
+    }
+}
@@ -0,0 +1,249 @@
+package com.example.backend.config;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.example.backend.dto.ErrorResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Admission Control Filter
+ *
+ * Bounds how many requests of each class can run at once so that the small
+ * database connection pool is never exhausted by dashboard polling or reports.
+ *
+ * - CRITICAL: queue writes (check-in, call-next, done, requeue, status changes)
+ * - HEAVY:    reports, backups and admin listings
+ * - STANDARD: everything else under /api
+ *
+ * STANDARD and HEAVY together are capped below the pool size, so at least
+ * admission.reserved-for-critical connections stay free for queue writes.
+ * While critical requests are waiting, heavy requests are shed immediately.
+ * Requests that cannot be admitted within their class's wait budget get a
+ * 429 with a Retry-After header. SSE streams and health checks are not limited.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@RequiredArgsConstructor
+@Slf4j
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    public enum RequestClass {
+        CRITICAL, STANDARD, HEAVY
+    }
+
+    private final ObjectMapper objectMapper;
+
+    @Value("${admission.enabled:true}")
+    private boolean enabled;
+
+    @Value("${spring.datasource.hikari.maximum-pool-size:10}")
+    private int poolSize;
+
+    @Value("${admission.reserved-for-critical:1}")
+    private int reservedForCritical;
+
+    @Value("${admission.critical.max-concurrent:0}")
+    private int criticalLimit;
+
+    @Value("${admission.critical.max-wait-ms:10000}")
+    private long criticalMaxWaitMs;
+
+    @Value("${admission.standard.max-concurrent:0}")
+    private int standardLimit;
+
+    @Value("${admission.standard.max-wait-ms:5000}")
+    private long standardMaxWaitMs;
+
+    @Value("${admission.heavy.max-concurrent:1}")
+    private int heavyLimit;
+
+    @Value("${admission.heavy.max-wait-ms:2000}")
+    private long heavyMaxWaitMs;
+
+    private final Map<RequestClass, Bulkhead> bulkheads = new EnumMap<>(RequestClass.class);
+
+    /**
+     * Concurrency limit for one request class plus its counters
+     */
+    private static final class Bulkhead {
+        private final int limit;
+        private final long maxWaitMs;
+        private final Semaphore permits;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger waiting = new AtomicInteger();
+        private final AtomicLong admitted = new AtomicLong();
+        private final AtomicLong rejected = new AtomicLong();
+        private final AtomicLong totalWaitNanos = new AtomicLong();
+        private final AtomicLong maxWaitNanos = new AtomicLong();
+
+        private Bulkhead(int limit, long maxWaitMs) {
+            this.limit = limit;
+            this.maxWaitMs = maxWaitMs;
+            this.permits = new Semaphore(limit, true);
+        }
+
+        private boolean tryAdmit(long waitMs) throws InterruptedException {
+            long start = System.nanoTime();
+            waiting.incrementAndGet();
+            boolean acquired;
+            try {
+                acquired = permits.tryAcquire(waitMs, TimeUnit.MILLISECONDS);
+            } finally {
+                waiting.decrementAndGet();
+            }
+
+            if (!acquired) {
+                rejected.incrementAndGet();
+                return false;
+            }
+            long waited = System.nanoTime() - start;
+            totalWaitNanos.addAndGet(waited);
+            maxWaitNanos.accumulateAndGet(waited, Math::max);
+            admitted.incrementAndGet();
+            inFlight.incrementAndGet();
+            return true;
+        }
+
+        private void release() {
+            inFlight.decrementAndGet();
+            permits.release();
+        }
+
+        private Map<String, Object> snapshot() {
+            long admittedCount = admitted.get();
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("limit", limit);
+            stats.put("maxWaitMs", maxWaitMs);
+            stats.put("inFlight", inFlight.get());
+            stats.put("waiting", waiting.get());
+            stats.put("admitted", admittedCount);
+            stats.put("rejected", rejected.get());
+            stats.put("avgWaitMs", admittedCount == 0 ? 0.0
+                    : Math.round(totalWaitNanos.get() / 1_000_000.0 / admittedCount * 10) / 10.0);
+            stats.put("observedMaxWaitMs", TimeUnit.NANOSECONDS.toMillis(maxWaitNanos.get()));
+            return stats;
+        }
+    }
+
+    @PostConstruct
+    void initBulkheads() {
+        int sharedCapacity = Math.max(1, poolSize - reservedForCritical);
+        int heavy = Math.max(1, Math.min(heavyLimit, sharedCapacity));
+        int standard = standardLimit > 0 ? standardLimit : Math.max(1, sharedCapacity - heavy);
+        int critical = criticalLimit > 0 ? criticalLimit : poolSize;
+
+        bulkheads.put(RequestClass.CRITICAL, new Bulkhead(critical, criticalMaxWaitMs));
+        bulkheads.put(RequestClass.STANDARD, new Bulkhead(standard, standardMaxWaitMs));
+        bulkheads.put(RequestClass.HEAVY, new Bulkhead(heavy, heavyMaxWaitMs));
+
+        log.info("Admission control {}: pool={}, critical={}, standard={}, heavy={}",
+                enabled ? "enabled" : "disabled", poolSize, critical, standard, heavy);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || classify(request) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RequestClass requestClass = classify(request);
+        Bulkhead bulkhead = bulkheads.get(requestClass);
+
+        // Heavy reads step aside completely while queue writes are waiting for capacity
+        long waitMs = bulkhead.maxWaitMs;
+        if (requestClass == RequestClass.HEAVY && bulkheads.get(RequestClass.CRITICAL).waiting.get() > 0) {
+            waitMs = 0;
+        }
+
+        boolean admitted;
+        try {
+            admitted = bulkhead.tryAdmit(waitMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            admitted = false;
+        }
+
+        if (!admitted) {
+            reject(request, response, requestClass);
+            return;
+        }
+
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    /**
+     * Classify a request; null means it bypasses admission control
+     */
+    RequestClass classify(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        String method = request.getMethod();
+
+        if (path == null || !path.startsWith("/api/") || "OPTIONS".equals(method)
+                || path.endsWith("/stream") || path.startsWith("/api/health")) {
+            return null;
+        }
+
+        if (path.startsWith("/api/queue/") && !"GET".equals(method)) {
+            return RequestClass.CRITICAL;
+        }
+        if (path.startsWith("/api/report") || path.startsWith("/api/admin/backup")
+                || (path.startsWith("/api/admin/") && "GET".equals(method))) {
+            return RequestClass.HEAVY;
+        }
+        return RequestClass.STANDARD;
+    }
+
+    /**
+     * Per-class in-flight, queueing and wait-time statistics
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("poolSize", poolSize);
+        bulkheads.forEach((requestClass, bulkhead) -> stats.put(requestClass.name(), bulkhead.snapshot()));
+        return stats;
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, RequestClass requestClass)
+            throws IOException {
+        log.warn("Shedding {} request {} {} - server busy", requestClass, request.getMethod(), request.getRequestURI());
+
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader("Retry-After", requestClass == RequestClass.HEAVY ? "5" : "1");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), new ErrorResponse(
+                HttpStatus.TOO_MANY_REQUESTS.value(),
+                "Too Many Requests",
+                "Server is busy, please retry shortly",
+                request.getRequestURI()));
+    }
+}
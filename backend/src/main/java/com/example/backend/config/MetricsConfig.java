@@ -0,0 +1,64 @@
+package com.example.backend.config;
+
+import java.util.Map;
+import java.util.function.ToDoubleFunction;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.example.backend.service.LiveQueueStats;
+import com.example.backend.service.QueueStreamService;
+import com.example.backend.service.SseConnectionRegistry;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Metrics Configuration
+ *
+ * Micrometer setup on top of Spring Boot Actuator; everything is scraped by
+ * Prometheus from /actuator/prometheus. HTTP, JVM and Hikari pool meters
+ * (hikaricp.connections.acquire/pending) come from Boot auto-configuration;
+ * this class adds:
+ * - Gauges for open SSE connections and reactive stream subscribers
+ *
+ * Service method timers (check-in, call-next, SSE fan-out, reports, backups) come
+ * from @Observed, see TracingConfig.
+ *
+ * Queue depth and wait-time meters live in QueueMetrics, email meters in NotificationService.
+ */
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Connection gauges, read from the registries' own counters at scrape time
+     */
+    @Bean
+    public MeterBinder sseConnectionMetrics(SseConnectionRegistry connectionRegistry, QueueStreamService queueStreamService,
+            LiveQueueStats liveQueueStats) {
+        return registry -> {
+            Gauge.builder("sse.connections", connectionRegistry, SseConnectionRegistry::size)
+                    .description("Open queue position SSE connections")
+                    .register(registry);
+            streamGauge(registry, queueStreamService, "position", "subscribers");
+            streamGauge(registry, queueStreamService, "board", "boardSubscribers");
+            streamGauge(registry, queueStreamService, "delta", "deltaSubscribers");
+            Gauge.builder("queue.stream.subscribers", liveQueueStats, LiveQueueStats::getSubscriberCount)
+                    .description("Subscribers of the reactive queue streams")
+                    .tag("stream", "stats")
+                    .register(registry);
+        };
+    }
+
+    private static void streamGauge(MeterRegistry registry, QueueStreamService service, String stream, String statKey) {
+        ToDoubleFunction<QueueStreamService> value = s -> {
+            Map<String, Object> stats = s.getStats();
+            return stats.get(statKey) instanceof Number number ? number.doubleValue() : Double.NaN;
+        };
+        Gauge.builder("queue.stream.subscribers", service, value)
+                .description("Subscribers of the reactive queue streams")
+                .tag("stream", stream)
+                .register(registry);
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.backend.config;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Query Count Filter
+ *
+ * Opens a QueryProfiler scope around each /api request and, when it completes:
+ * - records http.server.requests.queries (statements per request) and
+ *   http.server.requests.db (time spent in JDBC) per method and URI template
+ * - logs a warning for requests above query-profiler.request-max-queries or
+ *   query-profiler.request-max-db-ms (typically N+1 lookups)
+ *
+ * Runs outside admission control, so time waiting for admission is not DB time.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 5)
+@RequiredArgsConstructor
+@Slf4j
+public class QueryCountFilter extends OncePerRequestFilter {
+
+    private final QueryProfiler queryProfiler;
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        return path == null || !path.startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        queryProfiler.beginRequest();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            QueryProfiler.RequestQueries queries = queryProfiler.endRequest();
+            if (queries != null) {
+                record(request, queries);
+            }
+        }
+    }
+
+    private void record(HttpServletRequest request, QueryProfiler.RequestQueries queries) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNMATCHED";
+        String method = request.getMethod();
+
+        DistributionSummary.builder("http.server.requests.queries")
+                .description("JDBC statements executed per request")
+                .tags("method", method, "uri", uri)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(queries.getCount());
+        Timer.builder("http.server.requests.db")
+                .description("Time spent in JDBC per request")
+                .tags("method", method, "uri", uri)
+                .register(meterRegistry)
+                .record(Duration.ofMillis(queries.getDbMillis()));
+
+        if (queryProfiler.flag(queries)) {
+            log.warn("{} {} ran {} statements ({} ms in the database)", method, request.getRequestURI(),
+                    queries.getCount(), queries.getDbMillis());
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.example.backend.config;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+
+/**
+ * Query Profiler
+ *
+ * Listener on the JDBC proxy around the application DataSource (see
+ * QueryProfilingConfig). Counts every statement execution and its time against
+ * the HTTP request running on the current thread (QueryCountFilter opens and
+ * closes that scope) and logs statements slower than query-profiler.slow-query-ms.
+ *
+ * Kept cheap enough to stay on in production: the per-statement cost is a
+ * thread-local lookup and two additions; SQL text is only formatted for slow
+ * statements. Bind parameters hold personal data (ICs, emails, names), so they
+ * are never logged unless query-profiler.bind-sample-rate is raised above 0 to
+ * include them in a sample of the slow-statement lines.
+ * Statements on other threads (async notifications, scheduled jobs) are counted
+ * globally but not attributed to a request.
+ */
+@Component
+@Slf4j
+public class QueryProfiler implements QueryExecutionListener {
+
+    private static final int MAX_LOGGED_SQL_CHARS = 2000;
+    private static final int MAX_LOGGED_VALUE_CHARS = 100;
+
+    private static final ThreadLocal<RequestQueries> CURRENT = new ThreadLocal<>();
+
+    @Value("${query-profiler.slow-query-ms:200}")
+    private long slowQueryMs;
+
+    @Value("${query-profiler.bind-sample-rate:0}")
+    private double bindSampleRate;
+
+    @Value("${query-profiler.request-max-queries:25}")
+    private int requestMaxQueries;
+
+    @Value("${query-profiler.request-max-db-ms:500}")
+    private long requestMaxDbMs;
+
+    private final AtomicLong statements = new AtomicLong();
+    private final AtomicLong slowStatements = new AtomicLong();
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong flaggedRequests = new AtomicLong();
+
+    /**
+     * Statement executions and DB time of one request
+     */
+    @Getter
+    public static final class RequestQueries {
+        private int count;
+        private long dbMillis;
+    }
+
+    /**
+     * Start attributing statements on this thread to a new request
+     */
+    public void beginRequest() {
+        CURRENT.set(new RequestQueries());
+    }
+
+    /**
+     * Stop attributing statements on this thread
+     *
+     * @return the request's totals, or null if no request was open
+     */
+    public RequestQueries endRequest() {
+        RequestQueries current = CURRENT.get();
+        CURRENT.remove();
+        if (current != null) {
+            requests.incrementAndGet();
+        }
+        return current;
+    }
+
+    /**
+     * Whether a request ran more statements or spent more time in the database than allowed
+     * Counts flagged requests for getStats()
+     */
+    public boolean flag(RequestQueries queries) {
+        boolean flagged = queries.count > requestMaxQueries || queries.dbMillis > requestMaxDbMs;
+        if (flagged) {
+            flaggedRequests.incrementAndGet();
+        }
+        return flagged;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        // Timing is taken by the proxy; nothing to do before execution
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        long elapsedMs = execInfo.getElapsedTime();
+        statements.incrementAndGet();
+
+        RequestQueries current = CURRENT.get();
+        if (current != null) {
+            current.count++;
+            current.dbMillis += elapsedMs;
+        }
+
+        if (elapsedMs >= slowQueryMs) {
+            slowStatements.incrementAndGet();
+            logSlowQuery(execInfo, queryInfoList, elapsedMs);
+        }
+    }
+
+    /**
+     * Statement, slow-statement and request counters plus the configured thresholds
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("statements", statements.get());
+        stats.put("slowStatements", slowStatements.get());
+        stats.put("requests", requests.get());
+        stats.put("flaggedRequests", flaggedRequests.get());
+        stats.put("slowQueryMs", slowQueryMs);
+        stats.put("requestMaxQueries", requestMaxQueries);
+        stats.put("requestMaxDbMs", requestMaxDbMs);
+        stats.put("bindSampleRate", bindSampleRate);
+        return stats;
+    }
+
+    private void logSlowQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList, long elapsedMs) {
+        String sql = queryInfoList.stream().map(QueryInfo::getQuery).collect(Collectors.joining("; "));
+        if (sql.length() > MAX_LOGGED_SQL_CHARS) {
+            sql = sql.substring(0, MAX_LOGGED_SQL_CHARS) + "...";
+        }
+        String batch = execInfo.isBatch() ? " batch of " + execInfo.getBatchSize() : "";
+
+        if (ThreadLocalRandom.current().nextDouble() < bindSampleRate) {
+            log.warn("Slow query ({} ms{}{}): {} params={}", elapsedMs, batch,
+                    execInfo.isSuccess() ? "" : ", failed", sql, formatParameters(queryInfoList));
+        } else {
+            log.warn("Slow query ({} ms{}{}): {}", elapsedMs, batch, execInfo.isSuccess() ? "" : ", failed", sql);
+        }
+    }
+
+    /**
+     * Bind values (index=value) of the first parameter set of each statement
+     */
+    private static String formatParameters(List<QueryInfo> queryInfoList) {
+        return queryInfoList.stream()
+                .map(queryInfo -> queryInfo.getParametersList().isEmpty() ? "[]"
+                        : queryInfo.getParametersList().get(0).stream()
+                                .map(QueryProfiler::formatParameter)
+                                .collect(Collectors.joining(", ", "[", "]")))
+                .collect(Collectors.joining("; "));
+    }
+
+    private static String formatParameter(ParameterSetOperation operation) {
+        Object[] args = operation.getArgs();
+        if (args == null || args.length < 2) {
+            return "?";
+        }
+        String value = String.valueOf(args[1]);
+        if (value.length() > MAX_LOGGED_VALUE_CHARS) {
+            value = value.substring(0, MAX_LOGGED_VALUE_CHARS) + "...";
+        }
+        return args[0] + "=" + value;
+    }
+}
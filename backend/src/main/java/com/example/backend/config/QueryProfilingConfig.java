@@ -0,0 +1,53 @@
+package com.example.backend.config;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.micrometer.observation.ObservationRegistry;
+
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import net.ttddyy.observation.tracing.DataSourceObservationListener;
+
+/**
+ * Query Profiling Configuration
+ *
+ * Wraps the application DataSource (the "dataSource" bean: the Hikari pool, or the
+ * routing DataSource when a read replica is configured) in a datasource-proxy
+ * that reports every statement to QueryProfiler. Replaces spring.jpa.show-sql for
+ * finding N+1 lookups and slow statements. The same proxy reports connection
+ * acquisition and each statement to the ObservationRegistry, so JDBC work shows up
+ * as child spans in request traces.
+ *
+ * Code that needs the Hikari pool itself should unwrap(HikariDataSource.class).
+ */
+@Configuration
+public class QueryProfilingConfig {
+
+    private static final String DATA_SOURCE_BEAN = "dataSource";
+
+    @Bean
+    public static BeanPostProcessor queryProfilingDataSourcePostProcessor(ObjectProvider<QueryProfiler> queryProfiler,
+            ObjectProvider<ObservationRegistry> observationRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (DATA_SOURCE_BEAN.equals(beanName) && bean instanceof DataSource dataSource
+                        && !(bean instanceof ProxyDataSource)) {
+                    DataSourceObservationListener tracing = new DataSourceObservationListener(observationRegistry::getObject);
+                    return ProxyDataSourceBuilder.create(dataSource)
+                            .name(beanName)
+                            .listener(queryProfiler.getObject())
+                            .listener(tracing)
+                            .methodListener(tracing)
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.backend.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+/**
+ * Routes each new connection to the primary or the read replica
+ *
+ * Wrapped in a LazyConnectionDataSourceProxy so the target is chosen at the
+ * first statement, when the transaction's read-only flag is already known.
+ */
+public class ReadReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public static final String PRIMARY = "primary";
+    public static final String REPLICA = "replica";
+
+    private final ReplicaRouting replicaRouting;
+
+    public ReadReplicaRoutingDataSource(ReplicaRouting replicaRouting) {
+        this.replicaRouting = replicaRouting;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return replicaRouting.shouldUseReplica() ? REPLICA : PRIMARY;
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.backend.config;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Periodically measures replication lag on the read replica and feeds it to
+ * ReplicaRouting, which takes the replica out of rotation while it is too far behind
+ */
+@Component
+@ConditionalOnProperty(name = "app.datasource.replica.url")
+@Slf4j
+public class ReplicaLagMonitor {
+
+    // Zero when caught up (or not a standby); otherwise age of the last replayed transaction
+    private static final String LAG_QUERY =
+            "SELECT CASE WHEN NOT pg_is_in_recovery() THEN 0 " +
+            "WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 " +
+            "ELSE COALESCE(EXTRACT(EPOCH FROM (now() - pg_last_xact_replay_timestamp())) * 1000, 0) END";
+
+    private final DataSource replicaDataSource;
+    private final ReplicaRouting replicaRouting;
+
+    public ReplicaLagMonitor(@Qualifier("replicaDataSource") DataSource replicaDataSource,
+            ReplicaRouting replicaRouting) {
+        this.replicaDataSource = replicaDataSource;
+        this.replicaRouting = replicaRouting;
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replica.lag-check-interval-ms:2000}")
+    public void checkLag() {
+        try (Connection connection = replicaDataSource.getConnection();
+                Statement statement = connection.createStatement();
+                ResultSet resultSet = statement.executeQuery(LAG_QUERY)) {
+            long lagMs = resultSet.next() ? Math.round(resultSet.getDouble(1)) : -1;
+            replicaRouting.updateLag(lagMs);
+        } catch (Exception e) {
+            log.debug("Replica lag check failed: {}", e.getMessage());
+            replicaRouting.updateLag(-1);
+        }
+    }
+}
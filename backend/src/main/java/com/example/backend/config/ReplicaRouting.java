@@ -0,0 +1,164 @@
+package com.example.backend.config;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Read Replica Routing State
+ *
+ * Decides whether the current transaction may read from the replica:
+ * - only read-only transactions started from the service layer are routed
+ *   (repository-level read-only transactions stay on primary, so a
+ *   read-then-write inside a controller never mixes replica data into a write)
+ * - the replica is skipped while its measured lag is above max-lag-ms or it is unreachable
+ * - read-your-writes: keys written recently (e.g. an appointment that was just
+ *   checked in) pin the reading transaction to primary for a short window
+ *
+ * Always present; does nothing unless app.datasource.replica.url is configured.
+ */
+@Component
+@Slf4j
+public class ReplicaRouting {
+
+    private static final int MAX_TRACKED_WRITES = 10_000;
+
+    private static final ThreadLocal<Boolean> FORCE_PRIMARY = new ThreadLocal<>();
+
+    @Value("${app.datasource.replica.url:}")
+    private String replicaUrl;
+
+    @Value("${app.datasource.replica.max-lag-ms:5000}")
+    private long maxLagMs;
+
+    @Value("${app.datasource.replica.read-your-writes-window-ms:2000}")
+    private long readYourWritesWindowMs;
+
+    @Value("${app.datasource.replica.routed-prefix:com.example.backend.service.}")
+    private String routedPrefix;
+
+    private volatile boolean replicaHealthy = true;
+    private volatile long lagMs = 0;
+
+    private final Map<String, Long> recentWrites = new ConcurrentHashMap<>();
+    private final AtomicLong replicaReads = new AtomicLong();
+    private final AtomicLong primaryReads = new AtomicLong();
+    private final AtomicLong readYourWritesHits = new AtomicLong();
+
+    public boolean isEnabled() {
+        return replicaUrl != null && !replicaUrl.isBlank();
+    }
+
+    /**
+     * Whether the connection being opened for the current transaction should come from the replica
+     */
+    public boolean shouldUseReplica() {
+        if (!isEnabled() || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return false;
+        }
+        String name = TransactionSynchronizationManager.getCurrentTransactionName();
+        if (name == null || !name.startsWith(routedPrefix)) {
+            return false;
+        }
+        if (Boolean.TRUE.equals(FORCE_PRIMARY.get()) || !replicaHealthy) {
+            primaryReads.incrementAndGet();
+            return false;
+        }
+        replicaReads.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Remember that a key was written, once the current transaction commits
+     */
+    public void recordWrite(String key) {
+        if (!isEnabled()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    markWritten(key);
+                }
+            });
+        } else {
+            markWritten(key);
+        }
+    }
+
+    /**
+     * Keep the current read-only transaction on primary if the key was written recently
+     * Must be called before the transaction's first query
+     */
+    public void preferPrimaryIfRecentlyWritten(String key) {
+        if (!isEnabled()) {
+            return;
+        }
+        Long writtenAt = recentWrites.get(key);
+        if (writtenAt == null || System.currentTimeMillis() - writtenAt > readYourWritesWindow()) {
+            return;
+        }
+        readYourWritesHits.incrementAndGet();
+        FORCE_PRIMARY.set(Boolean.TRUE);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    FORCE_PRIMARY.remove();
+                }
+            });
+        } else {
+            FORCE_PRIMARY.remove();
+        }
+    }
+
+    /**
+     * Update replica health from the lag monitor (lag < 0 means unreachable)
+     */
+    public void updateLag(long measuredLagMs) {
+        boolean healthy = measuredLagMs >= 0 && measuredLagMs <= maxLagMs;
+        if (healthy != replicaHealthy) {
+            log.warn("Read replica {} (lag {} ms, max {} ms)",
+                    healthy ? "back in rotation" : "taken out of rotation", measuredLagMs, maxLagMs);
+        }
+        lagMs = measuredLagMs;
+        replicaHealthy = healthy;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", isEnabled());
+        stats.put("healthy", replicaHealthy);
+        stats.put("lagMs", lagMs);
+        stats.put("maxLagMs", maxLagMs);
+        stats.put("readYourWritesWindowMs", readYourWritesWindow());
+        stats.put("replicaReads", replicaReads.get());
+        stats.put("primaryFallbackReads", primaryReads.get());
+        stats.put("readYourWritesHits", readYourWritesHits.get());
+        stats.put("trackedWrites", recentWrites.size());
+        return stats;
+    }
+
+    private long readYourWritesWindow() {
+        // Never shorter than the replica is currently behind
+        return Math.max(readYourWritesWindowMs, lagMs + 500);
+    }
+
+    private void markWritten(String key) {
+        long now = System.currentTimeMillis();
+        if (recentWrites.size() >= MAX_TRACKED_WRITES) {
+            long window = readYourWritesWindow();
+            recentWrites.values().removeIf(writtenAt -> now - writtenAt > window);
+        }
+        recentWrites.put(key, now);
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.backend.config;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Search Index Initializer
+ *
+ * Creates the pg_trgm extension and the trigram GIN indexes behind SearchService
+ * once the schema is up (ddl-auto=update cannot create expression or GIN indexes).
+ * Every statement is idempotent, and indexes are built CONCURRENTLY so a first
+ * start against a large table does not block writes. An interrupted concurrent
+ * build leaves an invalid index behind, which IF NOT EXISTS would skip forever;
+ * such an index (pg_index.indisvalid = false) is dropped and built again.
+ *
+ * The lower(fname)/lower(lname) indexes also serve the existing staff
+ * "name contains" queries, which compare the same expressions.
+ *
+ * Disable with search.trigram.create-indexes=false where the schema is managed
+ * by hand; search then works as long as the extension is installed.
+ */
+@Component
+@Slf4j
+public class SearchIndexInitializer {
+
+    // Index name -> definition (created in this order)
+    private static final Map<String, String> INDEXES = new LinkedHashMap<>();
+
+    static {
+        INDEXES.put("idx_user_fname_trgm", "ON \"user\" USING gin (lower(fname) gin_trgm_ops)");
+        INDEXES.put("idx_user_lname_trgm", "ON \"user\" USING gin (lower(lname) gin_trgm_ops)");
+        INDEXES.put("idx_user_email_trgm", "ON \"user\" USING gin (lower(email) gin_trgm_ops)");
+        INDEXES.put("idx_patient_ic_trgm", "ON patient USING gin (lower(patient_ic) gin_trgm_ops)");
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${search.trigram.create-indexes:true}")
+    private boolean createIndexes;
+
+    private volatile boolean trigramAvailable;
+
+    public SearchIndexInitializer(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        if (createIndexes) {
+            try {
+                jdbcTemplate.execute("CREATE EXTENSION IF NOT EXISTS pg_trgm");
+            } catch (DataAccessException e) {
+                log.warn("Could not create extension pg_trgm: {}", e.getMessage());
+            }
+        }
+
+        trigramAvailable = Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM pg_extension WHERE extname = 'pg_trgm')", Boolean.class));
+        if (!trigramAvailable) {
+            log.warn("pg_trgm is not installed; patient and staff search is unavailable");
+            return;
+        }
+
+        if (createIndexes) {
+            INDEXES.forEach(this::createIndex);
+            log.info("Trigram search indexes ready");
+        }
+    }
+
+    /**
+     * Create one index, first dropping an invalid leftover of an interrupted concurrent build
+     * A failure is logged and the next start tries again
+     */
+    void createIndex(String name, String definition) {
+        try {
+            List<Boolean> valid = jdbcTemplate.queryForList(
+                    "SELECT i.indisvalid FROM pg_index i WHERE i.indexrelid = to_regclass(?)", Boolean.class, name);
+            if (valid.contains(Boolean.FALSE)) {
+                log.warn("Dropping invalid search index {} to rebuild it", name);
+                jdbcTemplate.execute("DROP INDEX CONCURRENTLY IF EXISTS " + name);
+            }
+            jdbcTemplate.execute("CREATE INDEX CONCURRENTLY IF NOT EXISTS " + name + " " + definition);
+        } catch (DataAccessException e) {
+            log.warn("Could not create search index {}: {}", name, e.getMessage());
+        }
+    }
+
+    /**
+     * Whether pg_trgm is installed (search queries depend on its operators)
+     */
+    public boolean isTrigramAvailable() {
+        return trigramAvailable;
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.backend.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.support.ContextPropagatingTaskDecorator;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+
+import io.micrometer.observation.ObservationPredicate;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.aop.ObservedAspect;
+
+/**
+ * Tracing Configuration
+ *
+ * Micrometer Observation + Tracing (OpenTelemetry bridge). One observation gives
+ * both a timer (scraped by Prometheus) and a span, so a call-next request traces as
+ * HTTP -> queue.call_next -> JDBC statements, with the SSE fan-out and the SendGrid
+ * calls it triggers as later spans of the same trace.
+ * - @Observed on service methods (queue operations, SSE fan-out, reports, backups)
+ * - Trace context carried into @Async notification sends via the task decorator;
+ *   Reactor operators pick it up through spring.reactor.context-propagation=auto
+ * - Spans exported over OTLP (management.otlp.tracing.endpoint) and/or to a local
+ *   JSON-lines file (tracing.file.path) for offline analysis
+ */
+@Configuration
+public class TracingConfig {
+
+    @Bean
+    public ObservedAspect observedAspect(ObservationRegistry observationRegistry) {
+        return new ObservedAspect(observationRegistry);
+    }
+
+    /**
+     * Applied by Spring Boot to the @Async executor
+     */
+    @Bean
+    public ContextPropagatingTaskDecorator contextPropagatingTaskDecorator() {
+        return new ContextPropagatingTaskDecorator();
+    }
+
+    /**
+     * Prometheus scrapes and health probes would otherwise start a trace each
+     */
+    @Bean
+    public ObservationPredicate skipActuatorObservations() {
+        return (name, context) -> !(context instanceof ServerRequestObservationContext serverContext
+                && serverContext.getCarrier().getRequestURI().startsWith("/actuator"));
+    }
+
+    @Bean
+    @ConditionalOnProperty("tracing.file.path")
+    public FileSpanExporter fileSpanExporter(@Value("${tracing.file.path}") String path) {
+        return new FileSpanExporter(path);
+    }
+}
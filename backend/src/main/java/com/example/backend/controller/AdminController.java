@@ -7,7 +7,13 @@ import com.example.backend.dto.CreateStaffRequestDTO;
 import com.example.backend.dto.CreatePatientRequestDTO;
 import com.example.backend.dto.UpdateStaffRequestDTO;
 import com.example.backend.dto.ErrorResponse;
+import com.example.backend.dto.PageResponse;
+import com.example.backend.repo.PatientRepository;
+import com.example.backend.repo.StaffRepository;
+import com.example.backend.service.AutocompleteIndex;
+import com.example.backend.service.PatientAgeHistogram;
 import com.example.backend.service.PatientService;
+import com.example.backend.service.SearchService;
 import com.example.backend.service.StaffService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -26,6 +32,8 @@ public class AdminController {
     
     private final PatientService patientService;
     private final StaffService staffService;
+    private final SearchService searchService;
+    private final AutocompleteIndex autocompleteIndex;
     
     // GET /api/admin/patients - Get all patients
     @GetMapping("/patients")
@@ -38,6 +46,26 @@ public class AdminController {
         }
     }
     
+    // GET /api/admin/patients?page={page}&size={size}&sort={field,dir}&q={q}&gender={gender}&bloodType={bloodType}&detail={bool}
+    // - Paged, filterable patient listing; summary rows unless detail=true (sort: id, name, email, dateOfBirth, createdAt)
+    @GetMapping(value = "/patients", params = "page")
+    public ResponseEntity<PageResponse<?>> listPatients(
+            @RequestParam int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String gender,
+            @RequestParam(required = false) String bloodType,
+            @RequestParam(defaultValue = "false") boolean detail) {
+        try {
+            return ResponseEntity.ok(patientService.listPatients(q, gender, bloodType, detail, page, size, sort));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+    
     // GET /api/admin/patients/{id} - Get patient by ID
     @GetMapping("/patients/{id}")
     public ResponseEntity<Patient> getPatientById(@PathVariable Long id) {
@@ -104,6 +132,38 @@ public class AdminController {
         try {
             List<Patient> patients = patientService.getPatientsByAgeRange(minAge, maxAge);
             return ResponseEntity.ok(patients);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+    
+    // GET /api/admin/patients/search?q={q}&page={page}&size={size} - Ranked patient search by name, email or IC
+    @GetMapping("/patients/search")
+    public ResponseEntity<SearchService.SearchResults<PatientRepository.SearchHit>> searchPatients(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        try {
+            return ResponseEntity.ok(searchService.searchPatients(q, page, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(503).build();
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+    
+    // GET /api/admin/patients/age-histogram?bucketYears={bucketYears} - Get patient counts per age bucket
+    @GetMapping("/patients/age-histogram")
+    public ResponseEntity<PatientAgeHistogram.Histogram> getPatientAgeHistogram(
+            @RequestParam(defaultValue = "10") int bucketYears) {
+        try {
+            return ResponseEntity.ok(patientService.getAgeHistogram(bucketYears));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             return ResponseEntity.internalServerError().build();
         }
@@ -192,6 +252,26 @@ public class AdminController {
         }
     }
     
+    // GET /api/admin/staff?page={page}&size={size}&sort={field,dir}&q={q}&role={role}&clinicId={clinicId}&detail={bool}
+    // - Paged, filterable staff listing; summary rows unless detail=true (sort: id, name, email, role, createdAt)
+    @GetMapping(value = "/staff", params = "page")
+    public ResponseEntity<PageResponse<?>> listStaff(
+            @RequestParam int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String role,
+            @RequestParam(required = false) Long clinicId,
+            @RequestParam(defaultValue = "false") boolean detail) {
+        try {
+            return ResponseEntity.ok(staffService.listStaff(q, role, clinicId, detail, page, size, sort));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+    
     // GET /api/admin/staff/{id} - Get staff by ID
     @GetMapping("/staff/{id}")
     public ResponseEntity<StaffDTO> getStaffById(@PathVariable Long id) {
@@ -263,6 +343,49 @@ public class AdminController {
     //     }
     // }
     
+    // GET /api/admin/staff/search?q={q}&clinicId={clinicId}&page={page}&size={size} - Ranked staff search by name or email
+    @GetMapping("/staff/search")
+    public ResponseEntity<SearchService.SearchResults<StaffRepository.SearchHit>> searchStaff(
+            @RequestParam String q,
+            @RequestParam(required = false) Long clinicId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        try {
+            return ResponseEntity.ok(searchService.searchStaff(q, clinicId, page, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(503).build();
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+    
+    // GET /api/admin/autocomplete?q={q}&type={patient|staff}&clinicId={clinicId}&limit={limit} - Type-ahead patient/staff suggestions from the in-memory index
+    @GetMapping("/autocomplete")
+    public ResponseEntity<List<AutocompleteIndex.Suggestion>> autocomplete(
+            @RequestParam String q,
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) Long clinicId,
+            @RequestParam(defaultValue = "10") int limit) {
+        try {
+            AutocompleteIndex.Kind kind = type != null ? AutocompleteIndex.Kind.valueOf(type.toUpperCase()) : null;
+            return ResponseEntity.ok(autocompleteIndex.suggest(q, kind, clinicId, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(503).build();
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+    
+    // GET /api/admin/autocomplete/stats - Autocomplete index size and build status
+    @GetMapping("/autocomplete/stats")
+    public ResponseEntity<Map<String, Object>> getAutocompleteStats() {
+        return ResponseEntity.ok(autocompleteIndex.getStats());
+    }
+    
     // GET /api/admin/staff/search/name?query={query} - Search staff by name
     @GetMapping("/staff/search/name")
     public ResponseEntity<List<StaffDTO>> searchStaffByName(@RequestParam String query) {
@@ -16,6 +16,7 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.example.backend.dto.ErrorResponse;
+import com.example.backend.dto.PageResponse;
 import com.example.backend.model.clinic.Clinic;
 import com.example.backend.service.ClinicService;
 
@@ -42,6 +43,34 @@ public class ClinicController {
         }
     }
 
+    // GET /api/clinics?page={page}&size={size}&sort={field,dir}&q={q}&region=&area=&specialty=&clinicType=&detail={bool}
+    // - Paged, filterable clinic listing; summary rows unless detail=true (sort: id, name, region, area, specialty)
+    @GetMapping(params = "page")
+    public ResponseEntity<?> listClinics(
+            @RequestParam int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String region,
+            @RequestParam(required = false) String area,
+            @RequestParam(required = false) String specialty,
+            @RequestParam(required = false) String clinicType,
+            @RequestParam(defaultValue = "false") boolean detail) {
+        try {
+            PageResponse<?> clinics = clinicService.listClinics(q, region, area, specialty, clinicType, detail, page, size, sort);
+            return ResponseEntity.ok(clinics);
+        } catch (IllegalArgumentException e) {
+            ErrorResponse errorResponse = new ErrorResponse(
+                    400,
+                    "Bad Request",
+                    e.getMessage(),
+                    "/api/clinics");
+            return ResponseEntity.badRequest().body(errorResponse);
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
     // GET /api/clinics/{id} - Get clinic by ID
     @GetMapping("/{id}")
     public ResponseEntity<?> getClinicById(@PathVariable Long id) {
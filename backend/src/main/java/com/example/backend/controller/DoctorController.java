@@ -1,7 +1,9 @@
 package com.example.backend.controller;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
@@ -12,11 +14,14 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.example.backend.dto.ErrorResponse;
+import com.example.backend.dto.PageResponse;
 import com.example.backend.exception.ShiftOverlapException;
 import com.example.backend.model.Doctor;
+import com.example.backend.model.DoctorShift;
 import com.example.backend.service.DoctorService;
 
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -48,6 +53,31 @@ public class DoctorController {
         }
     }
 
+    // GET /api/doctors?page={page}&size={size}&sort={field,dir}&q={q}&clinicId={clinicId}&detail={bool}
+    // - Paged, filterable doctor listing; summary rows unless detail=true (sort: id, name, clinic)
+    @GetMapping(params = "page")
+    public ResponseEntity<?> listDoctors(
+            @RequestParam int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) Long clinicId,
+            @RequestParam(defaultValue = "false") boolean detail) {
+        try {
+            PageResponse<?> doctors = doctorService.listDoctors(q, clinicId, detail, page, size, sort);
+            return ResponseEntity.ok(doctors);
+        } catch (IllegalArgumentException e) {
+            ErrorResponse errorResponse = new ErrorResponse(
+                    400,
+                    "Bad Request",
+                    e.getMessage(),
+                    "/api/doctors");
+            return ResponseEntity.badRequest().body(errorResponse);
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
     // GET /api/doctors/{id} - Get doctor by ID
     @GetMapping("/{id}")
     public ResponseEntity<?> getDoctorById(@PathVariable Long id) {
@@ -76,6 +106,68 @@ public class DoctorController {
         }
     }
 
+    // GET /api/doctors/clinic/{clinicId}/on-duty?at={dateTime} - Get doctors on duty (defaults to now)
+    @GetMapping("/clinic/{clinicId}/on-duty")
+    public ResponseEntity<List<Doctor>> getDoctorsOnDuty(
+            @PathVariable Long clinicId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at) {
+        try {
+            List<Doctor> doctors = doctorService.getDoctorsOnDuty(clinicId, at != null ? at : LocalDateTime.now());
+            return ResponseEntity.ok(doctors);
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    // GET /api/doctors/{id}/shifts - Get doctor's time-of-day shifts
+    @GetMapping("/{id}/shifts")
+    public ResponseEntity<?> getDoctorShifts(@PathVariable Long id) {
+        try {
+            if (doctorService.getDoctorById(id).isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+            return ResponseEntity.ok(doctorService.getDoctorShifts(id));
+        } catch (Exception e) {
+            ErrorResponse errorResponse = new ErrorResponse(
+                    500,
+                    "Internal Server Error",
+                    "An unexpected error occurred: " + e.getMessage(),
+                    "/api/doctors/" + id + "/shifts");
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+        }
+    }
+
+    // PUT /api/doctors/{id}/shifts - Replace doctor's time-of-day shifts
+    @PutMapping("/{id}/shifts")
+    public ResponseEntity<?> updateDoctorShifts(@PathVariable Long id, @RequestBody List<DoctorShift> shifts) {
+        try {
+            return doctorService.updateDoctorShifts(id, shifts)
+                    .map(savedShifts -> ResponseEntity.ok(savedShifts))
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (IllegalArgumentException e) {
+            ErrorResponse errorResponse = new ErrorResponse(
+                    400,
+                    "Bad Request",
+                    e.getMessage(),
+                    "/api/doctors/" + id + "/shifts");
+            return ResponseEntity.badRequest().body(errorResponse);
+        } catch (ShiftOverlapException e) {
+            ErrorResponse errorResponse = new ErrorResponse(
+                    409,
+                    "Conflict",
+                    e.getMessage(),
+                    "/api/doctors/" + id + "/shifts");
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(errorResponse);
+        } catch (Exception e) {
+            ErrorResponse errorResponse = new ErrorResponse(
+                    500,
+                    "Internal Server Error",
+                    "An unexpected error occurred: " + e.getMessage(),
+                    "/api/doctors/" + id + "/shifts");
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+        }
+    }
+
     // POST /api/doctors - Create new doctor
     @PostMapping
     public ResponseEntity<?> createDoctor(@RequestBody Doctor doctor) {
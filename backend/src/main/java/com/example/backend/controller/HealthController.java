@@ -1,15 +1,31 @@
 package com.example.backend.controller;
 
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.example.backend.config.AdmissionControlFilter;
+import com.example.backend.config.QueryProfiler;
+import com.example.backend.config.ReplicaRouting;
+import com.example.backend.service.ClinicPositionSnapshots;
+import com.example.backend.service.JsonFrameEncoder;
+import com.example.backend.service.QueueClusterRelay;
+import com.example.backend.service.QueueSseService;
+import com.example.backend.service.QueueStreamService;
+import com.example.backend.service.ReferenceDataCache;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
 import javax.sql.DataSource;
 
 @RestController
@@ -18,6 +34,37 @@ public class HealthController {
     
     @Autowired
     private DataSource dataSource;
+
+    @Autowired
+    private AdmissionControlFilter admissionControlFilter;
+
+    @Autowired
+    private ReplicaRouting replicaRouting;
+
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+
+    @Autowired
+    private QueueSseService queueSseService;
+
+    @Autowired
+    private QueueStreamService queueStreamService;
+
+    @Autowired
+    private ClinicPositionSnapshots clinicPositionSnapshots;
+
+    @Autowired
+    private JsonFrameEncoder jsonFrameEncoder;
+
+    @Autowired
+    private QueryProfiler queryProfiler;
+
+    // Only present when queue.cluster.enabled=true
+    @Autowired(required = false)
+    private QueueClusterRelay queueClusterRelay;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreadsEnabled;
     
     @GetMapping
     public ResponseEntity<Map<String, Object>> healthCheck() {
@@ -95,4 +142,97 @@ public class HealthController {
             return ResponseEntity.status(503).body(response);
         }
     }
+    
+    // GET /api/health/admission - Admission control and connection pool statistics
+    @GetMapping("/admission")
+    public ResponseEntity<Map<String, Object>> admissionStats() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("timestamp", LocalDateTime.now());
+        response.put("admission", admissionControlFilter.getStats());
+        
+        HikariDataSource hikari = unwrapHikari();
+        if (hikari != null && hikari.getHikariPoolMXBean() != null) {
+            HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+            Map<String, Object> poolStats = new HashMap<>();
+            poolStats.put("active", pool.getActiveConnections());
+            poolStats.put("idle", pool.getIdleConnections());
+            poolStats.put("total", pool.getTotalConnections());
+            poolStats.put("threadsAwaitingConnection", pool.getThreadsAwaitingConnection());
+            response.put("connectionPool", poolStats);
+        }
+        
+        return ResponseEntity.ok(response);
+    }
+    
+    // GET /api/health/replica - Read replica routing, lag and fallback statistics
+    @GetMapping("/replica")
+    public ResponseEntity<Map<String, Object>> replicaStats() {
+        Map<String, Object> response = new HashMap<>(replicaRouting.getStats());
+        response.put("timestamp", LocalDateTime.now());
+        return ResponseEntity.ok(response);
+    }
+    
+    // GET /api/health/cache - Reference data cache size and hit-rate statistics
+    @GetMapping("/cache")
+    public ResponseEntity<Map<String, Object>> cacheStats() {
+        Map<String, Object> response = new HashMap<>(referenceDataCache.getStats());
+        response.put("timestamp", LocalDateTime.now());
+        return ResponseEntity.ok(response);
+    }
+    
+    // GET /api/health/sse - SSE connection registry statistics (open, reaped, send failures, send latency)
+    @GetMapping("/sse")
+    public ResponseEntity<Map<String, Object>> sseStats() {
+        Map<String, Object> response = new HashMap<>(queueSseService.getStats());
+        response.put("frames", jsonFrameEncoder.getStats());
+        response.put("positionSnapshots", clinicPositionSnapshots.getStats());
+        response.put("timestamp", LocalDateTime.now());
+        return ResponseEntity.ok(response);
+    }
+
+    // GET /api/health/queries - JDBC statement counts, slow statements and flagged (N+1) requests
+    @GetMapping("/queries")
+    public ResponseEntity<Map<String, Object>> queryStats() {
+        Map<String, Object> response = new HashMap<>(queryProfiler.getStats());
+        response.put("timestamp", LocalDateTime.now());
+        return ResponseEntity.ok(response);
+    }
+
+    // GET /api/health/cluster - Cross-node queue change relay (LISTEN/NOTIFY) statistics
+    @GetMapping("/cluster")
+    public ResponseEntity<Map<String, Object>> clusterStats() {
+        Map<String, Object> response = new HashMap<>();
+        if (queueClusterRelay != null) {
+            response.putAll(queueClusterRelay.getStats());
+        } else {
+            response.put("enabled", false);
+        }
+        response.put("timestamp", LocalDateTime.now());
+        return ResponseEntity.ok(response);
+    }
+    
+    // GET /api/health/threads - JVM thread counts against open SSE streams (virtual-thread mode comparison)
+    @GetMapping("/threads")
+    public ResponseEntity<Map<String, Object>> threadStats() {
+        // ThreadMXBean only counts platform threads; virtual threads do not show up here
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        Map<String, Object> response = new HashMap<>();
+        response.put("timestamp", LocalDateTime.now());
+        response.put("virtualThreadsEnabled", virtualThreadsEnabled);
+        response.put("platformThreads", threads.getThreadCount());
+        response.put("peakPlatformThreads", threads.getPeakThreadCount());
+        response.put("daemonThreads", threads.getDaemonThreadCount());
+        response.put("activeSseConnections", queueSseService.getActiveConnectionCount());
+        response.put("reactiveStreams", queueStreamService.getStats());
+        return ResponseEntity.ok(response);
+    }
+
+    // The DataSource is wrapped by the query profiler proxy (and the replica router, if configured)
+    private HikariDataSource unwrapHikari() {
+        try {
+            return dataSource.isWrapperFor(HikariDataSource.class) ? dataSource.unwrap(HikariDataSource.class) : null;
+        } catch (SQLException e) {
+            return null;
+        }
+    }
 }
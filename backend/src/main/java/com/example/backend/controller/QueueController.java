@@ -4,8 +4,10 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -13,19 +15,26 @@ import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import com.example.backend.dto.LiveQueueStatsDTO;
 import com.example.backend.dto.QueueEntryDTO;
 import com.example.backend.dto.QueuePositionDTO;
 import com.example.backend.dto.QueueStatusUpdateDTO;
 import com.example.backend.dto.RequeueRequestDTO;
 import com.example.backend.exception.QueueException;
+import com.example.backend.exception.SseCapacityException;
 import com.example.backend.model.queue.QueueLog;
+import com.example.backend.service.LiveQueueStats;
 import com.example.backend.service.QueueService;
 import com.example.backend.service.QueueSseService;
+import com.example.backend.service.QueueStreamService;
+
+import reactor.core.publisher.Flux;
 
 import lombok.RequiredArgsConstructor;
 
@@ -40,6 +49,7 @@ import lombok.RequiredArgsConstructor;
  * - Queue position tracking
  * - Status updates and transitions
  * - Missed patient handling
+ * - Live rolling-window queue statistics (JSON and SSE)
  * - Health check endpoint
  *
  * Dependencies:
@@ -57,20 +67,24 @@ public class QueueController {
 
     private final QueueService queueService;
     private final QueueSseService queueSseService;
+    private final QueueStreamService queueStreamService;
+    private final LiveQueueStats liveQueueStats;
 
     /**
      * Check in a patient - create a new queue entry
      *
      * @param appointmentId ID of the appointment
      * @param priority Priority level for queue ordering (1=Normal, 2=Elderly, 3=Emergency)
+     * @param anyDoctor true to queue in the clinic's shared pool instead of the appointment's doctor
      * @return ResponseEntity with created QueueLog or error
      *
-     * POST /api/queue/check-in?appointmentId=1&priority=1
+     * POST /api/queue/check-in?appointmentId=1&priority=1[&anyDoctor=true]
      */
     @PostMapping("/check-in")
     public ResponseEntity<?> checkInPatient(
             @RequestParam Long appointmentId,
-            @RequestParam Integer priority) {
+            @RequestParam Integer priority,
+            @RequestParam(defaultValue = "false") boolean anyDoctor) {
         try {
             // Validate request
             if (appointmentId == null || priority == null) {
@@ -80,7 +94,7 @@ public class QueueController {
             }
 
             // Create queue entry
-            QueueLog queueEntry = queueService.checkInPatient(appointmentId, priority);
+            QueueLog queueEntry = queueService.checkInPatient(appointmentId, priority, anyDoctor);
 
             return ResponseEntity.status(HttpStatus.CREATED).body(queueEntry);
 
@@ -148,14 +162,43 @@ public class QueueController {
      * Stream queue position updates via Server-Sent Events (SSE)
      * Returns real-time queue position updates for a specific appointment
      *
+     * The first event is the full position ("queue-update"); later "queue-delta" events carry
+     * only the changed fields. Reconnecting clients send Last-Event-ID (EventSource does this
+     * automatically) and receive only what changed since that event.
+     *
      * @param appointmentId ID of the appointment to track
-     * @return SseEmitter for streaming queue position updates
+     * @param lastEventId   Last event id received before the connection dropped (optional)
+     * @return SseEmitter for streaming queue position updates, or 503 with Retry-After
+     *         when this node is at its connection limit
      *
      * GET /api/queue/position/{appointmentId}/stream
      */
     @GetMapping(value = "/position/{appointmentId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
-    public SseEmitter streamQueuePosition(@PathVariable Long appointmentId) {
-        return queueSseService.createConnection(appointmentId);
+    public ResponseEntity<SseEmitter> streamQueuePosition(
+            @PathVariable Long appointmentId,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        try {
+            return ResponseEntity.ok(queueSseService.createConnection(appointmentId, lastEventId));
+        } catch (SseCapacityException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "5")
+                .build();
+        }
+    }
+
+    /**
+     * Stream queue position updates from the clinic's shared snapshot stream
+     * One snapshot computation per queue change serves every subscriber of the clinic;
+     * heartbeat comments are sent while the position is unchanged
+     *
+     * @param appointmentId ID of the appointment to track
+     * @return Flux of "queue-update" events carrying QueuePositionDTO
+     *
+     * GET /api/queue/reactive/position/{appointmentId}/stream
+     */
+    @GetMapping(value = "/reactive/position/{appointmentId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<QueuePositionDTO>> streamQueuePositionReactive(@PathVariable Long appointmentId) {
+        return queueStreamService.streamPosition(appointmentId);
     }
 
     /**
@@ -331,6 +374,22 @@ public class QueueController {
         }
     }
 
+    /**
+     * Stream the clinic's queue board via Server-Sent Events (SSE)
+     * For waiting-room displays and staff dashboards: currently serving, the next
+     * waiting entries and missed entries, pushed only when the board changes
+     * Each frame is serialized once and shared by all connected displays
+     *
+     * @param clinicId ID of the clinic
+     * @return Flux of "board-update" events carrying ClinicBoardDTO JSON
+     *
+     * GET /api/queue/clinic/{clinicId}/stream
+     */
+    @GetMapping(value = "/clinic/{clinicId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<byte[]>> streamClinicBoard(@PathVariable Long clinicId) {
+        return queueStreamService.streamClinicBoard(clinicId);
+    }
+
     /**
      * Get all missed queue entries for a clinic
      * Returns patients who didn't show when called and can be re-queued
@@ -386,6 +445,64 @@ public class QueueController {
         }
     }
 
+    /**
+     * Get the waiting lane of a doctor: their sub-queue merged with the shared pool
+     *
+     * @param clinicId ID of the clinic
+     * @param doctorId ID of the doctor
+     * @return ResponseEntity with list of queue entries or error
+     *
+     * GET /api/queue/clinic/{clinicId}/doctor/{doctorId}
+     */
+    @GetMapping("/clinic/{clinicId}/doctor/{doctorId}")
+    public ResponseEntity<?> getDoctorQueue(@PathVariable Long clinicId, @PathVariable Long doctorId) {
+        try {
+            List<QueueEntryDTO> queueEntries = queueService.getDoctorQueueWithDetails(clinicId, doctorId);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("clinicId", clinicId);
+            response.put("doctorId", doctorId);
+            response.put("totalInQueue", queueEntries.size());
+            response.put("queue", queueEntries);
+
+            return ResponseEntity.ok(response);
+
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(new ErrorResponse(500, "Internal Server Error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Call next patient for a doctor - doctors in the same clinic call in parallel
+     *
+     * Atomic operation:
+     * 1. Marks the doctor's current patient (CALLED) as DONE
+     * 2. Calls the next patient from the doctor's sub-queue, or from the shared pool
+     *    when that patient ranks higher
+     * 3. Sends "your turn" notification to newly called patient
+     *
+     * @param clinicId ID of the clinic
+     * @param doctorId ID of the doctor
+     * @return ResponseEntity with called patient details or error
+     *
+     * POST /api/queue/clinic/{clinicId}/doctor/{doctorId}/call-next
+     */
+    @PostMapping("/clinic/{clinicId}/doctor/{doctorId}/call-next")
+    public ResponseEntity<?> callNextForDoctor(@PathVariable Long clinicId, @PathVariable Long doctorId) {
+        try {
+            QueueLog calledPatient = queueService.callNextForDoctor(clinicId, doctorId);
+            return ResponseEntity.ok(calledPatient);
+
+        } catch (QueueException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(new ErrorResponse(404, "Queue Error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(new ErrorResponse(500, "Internal Server Error", e.getMessage()));
+        }
+    }
+
     /**
      * Call specific patient by appointment ID - staff manually selects patient
      *
@@ -412,6 +529,76 @@ public class QueueController {
         }
     }
 
+    /**
+     * Get wait-time estimator statistics for monitoring
+     * Includes per-clinic average service time and the MAE of predicted vs actual waits
+     *
+     * @return ResponseEntity with estimator statistics or error
+     *
+     * GET /api/queue/wait-time/stats
+     */
+    @GetMapping("/wait-time/stats")
+    public ResponseEntity<?> getWaitTimeStats() {
+        try {
+            return ResponseEntity.ok(queueService.getWaitTimeStats());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(new ErrorResponse(500, "Internal Server Error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Get live rolling-window statistics of every clinic with queue activity
+     * Arrival and service rates, utilization, average waits and queue length trend,
+     * served from memory without database access
+     *
+     * @return ResponseEntity with one LiveQueueStatsDTO per clinic
+     *
+     * GET /api/queue/stats/live
+     */
+    @GetMapping("/stats/live")
+    public ResponseEntity<?> getLiveStats() {
+        try {
+            return ResponseEntity.ok(liveQueueStats.getAllClinicStats());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(new ErrorResponse(500, "Internal Server Error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Get live rolling-window statistics of one clinic
+     *
+     * @param clinicId ID of the clinic
+     * @return ResponseEntity with LiveQueueStatsDTO
+     *
+     * GET /api/queue/clinic/{clinicId}/stats/live
+     */
+    @GetMapping("/clinic/{clinicId}/stats/live")
+    public ResponseEntity<?> getClinicLiveStats(@PathVariable Long clinicId) {
+        try {
+            return ResponseEntity.ok(liveQueueStats.getClinicStats(clinicId));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(new ErrorResponse(500, "Internal Server Error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Stream a clinic's live statistics via Server-Sent Events (SSE)
+     * Sends the current statistics, then a new "stats-update" event on every queue
+     * transition and once a minute as the window slides
+     *
+     * @param clinicId ID of the clinic
+     * @return Flux of "stats-update" events carrying LiveQueueStatsDTO
+     *
+     * GET /api/queue/clinic/{clinicId}/stats/live/stream
+     */
+    @GetMapping(value = "/clinic/{clinicId}/stats/live/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<LiveQueueStatsDTO>> streamClinicLiveStats(@PathVariable Long clinicId) {
+        return liveQueueStats.streamClinicStats(clinicId);
+    }
+
     /**
      * Health check endpoint for queue service
      *
@@ -1,5 +1,6 @@
 package com.example.backend.controller;
 
+import com.example.backend.dto.UserSummaryDTO;
 import com.example.backend.model.User;
 import com.example.backend.service.UserService;
 import lombok.RequiredArgsConstructor;
@@ -16,11 +17,11 @@ public class UserController {
     
     private final UserService userService;
     
-    // GET /api/users - Get all users
+    // GET /api/users - Get all users (common user fields only)
     @GetMapping
-    public ResponseEntity<List<User>> getAllUsers() {
+    public ResponseEntity<List<UserSummaryDTO>> getAllUsers() {
         try {
-            List<User> users = userService.getAllUsers();
+            List<UserSummaryDTO> users = userService.getAllUserSummaries();
             return ResponseEntity.ok(users);
         } catch (Exception e) {
             return ResponseEntity.internalServerError().build();
@@ -0,0 +1,75 @@
+package com.example.backend.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO: ClinicBoardDTO
+ *
+ * Purpose: Compact snapshot of a clinic's queue board for waiting-room displays
+ *
+ * Key Features:
+ * - Currently serving (CALLED) entries
+ * - Next K waiting entries in queue order, plus the total waiting count
+ * - Re-queueable missed entries
+ * - Appointment numbers only (no patient details) so it can be shown publicly
+ * - Used for GET /api/queue/clinic/{clinicId}/stream
+ *
+ * Version: 1.0
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ClinicBoardDTO {
+
+    /**
+     * One row on the board
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class BoardEntry {
+
+        private Long queueId;
+
+        private Long appointmentId;
+
+        /**
+         * Doctor sub-queue of the entry, null for the shared pool
+         */
+        private Long doctorId;
+
+        /**
+         * 1 = Normal, 2 = Elderly, 3 = Emergency
+         */
+        private Integer priority;
+    }
+
+    private Long clinicId;
+
+    /**
+     * Entries currently being served (one per doctor calling patients)
+     */
+    private List<BoardEntry> serving;
+
+    /**
+     * First waiting entries in queue order (at most the configured board size)
+     */
+    private List<BoardEntry> next;
+
+    /**
+     * Total number of waiting (IN_QUEUE) entries, including those not listed in next
+     */
+    private Integer totalWaiting;
+
+    /**
+     * Missed entries that can still be re-queued
+     */
+    private List<BoardEntry> missed;
+}
@@ -0,0 +1,33 @@
+package com.example.backend.dto;
+
+import com.example.backend.model.clinic.ClinicType;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO: ClinicSummaryDTO
+ *
+ * Purpose: Clinic row for listings
+ *
+ * Key Features:
+ * - Selected directly by a JPQL constructor query; opening hours, PCN and remarks
+ *   are left out (request detail=true for the full record)
+ *
+ * Version: 1.0
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClinicSummaryDTO {
+
+    private Long id;
+    private String name;
+    private String address;
+    private String telephoneNo;
+    private String region;
+    private String area;
+    private String specialty;
+    private ClinicType clinicType;
+}
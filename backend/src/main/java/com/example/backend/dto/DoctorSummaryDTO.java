@@ -0,0 +1,27 @@
+package com.example.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO: DoctorSummaryDTO
+ *
+ * Purpose: Doctor row for listings
+ *
+ * Key Features:
+ * - Selected directly by a JPQL constructor query; the shift_days JSON is not read
+ *   (request detail=true for the full record)
+ *
+ * Version: 1.0
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DoctorSummaryDTO {
+
+    private Long id;
+    private String fname;
+    private String lname;
+    private Long assignedClinic;
+}
@@ -0,0 +1,110 @@
+package com.example.backend.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO: LiveQueueStatsDTO
+ *
+ * Purpose: Rolling-window operations statistics of one clinic's queue
+ *
+ * Key Features:
+ * - Arrival and service rates, doctor utilization and average waits over the last
+ *   windowMinutes (or since startup, see coveredMinutes)
+ * - Current queue length and its per-minute trend
+ * - Built in memory from queue transitions on this instance; no database access
+ * - Used for GET /api/queue/stats/live, /api/queue/clinic/{clinicId}/stats/live and its /stream
+ *
+ * Version: 1.0
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LiveQueueStatsDTO {
+
+    private Long clinicId;
+
+    /**
+     * Configured window length
+     */
+    private Integer windowMinutes;
+
+    /**
+     * Minutes of the window actually observed (less than windowMinutes shortly after startup)
+     */
+    private Integer coveredMinutes;
+
+    /**
+     * Check-ins and re-queues in the window
+     */
+    private Integer arrivals;
+
+    /**
+     * Patients called in the window
+     */
+    private Integer calls;
+
+    /**
+     * Entries marked DONE in the window
+     */
+    private Integer completions;
+
+    /**
+     * Entries marked MISSED in the window
+     */
+    private Integer missed;
+
+    /**
+     * Arrivals per hour over the covered window
+     */
+    private Double arrivalRatePerHour;
+
+    /**
+     * Completions per hour over the covered window
+     */
+    private Double serviceRatePerHour;
+
+    /**
+     * Share of doctor time spent with a patient, 0..1; null until a patient has been called
+     * Capacity is the largest number of patients served at once within the window
+     */
+    private Double utilization;
+
+    /**
+     * Mean consultation length (CALLED to DONE) in the window, null without samples
+     */
+    private Double averageServiceMinutes;
+
+    /**
+     * Mean check-in to call wait of patients called in the window, null without samples
+     */
+    private Double averageWaitMinutes;
+
+    /**
+     * Mean time already spent in the queue by patients waiting now, null if nobody waits
+     */
+    private Double currentWaitMinutes;
+
+    /**
+     * Patients waiting now
+     */
+    private Integer queueLength;
+
+    /**
+     * Patients being served now
+     */
+    private Integer serving;
+
+    /**
+     * Queue length at the end of each minute of the window, oldest first
+     */
+    private List<Integer> queueLengthTrend;
+
+    private LocalDateTime computedAt;
+}
@@ -0,0 +1,46 @@
+package com.example.backend.dto;
+
+import java.util.List;
+
+import org.springframework.data.domain.Page;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO: PageResponse
+ *
+ * Purpose: One page of an admin listing (patients, staff, clinics, doctors)
+ *
+ * Key Features:
+ * - Stable JSON shape independent of Spring Data's Page implementation
+ * - Returned by the paged mode of the list endpoints (requests with a page parameter)
+ *
+ * Version: 1.0
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PageResponse<T> {
+
+    private List<T> content;
+
+    /**
+     * Zero-based page number
+     */
+    private int page;
+
+    private int size;
+
+    private long totalElements;
+
+    private int totalPages;
+
+    private boolean hasNext;
+
+    public static <T> PageResponse<T> of(Page<T> page) {
+        return new PageResponse<>(page.getContent(), page.getNumber(), page.getSize(),
+                page.getTotalElements(), page.getTotalPages(), page.hasNext());
+    }
+}
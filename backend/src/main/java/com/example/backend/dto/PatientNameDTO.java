@@ -0,0 +1,29 @@
+package com.example.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO: PatientNameDTO
+ *
+ * Purpose: Display fields of a patient for the queue and notification paths
+ *
+ * Key Features:
+ * - Selected directly by a JPQL constructor query (PatientRepository.findNameById and
+ *   findNamesByUserIdIn): no entity is hydrated or tracked, and the patient's TEXT
+ *   columns are never read
+ * - Cached by ReferenceDataCache
+ *
+ * Version: 1.0
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PatientNameDTO {
+
+    private Long userId;
+    private String fname;
+    private String lname;
+    private String email;
+}
@@ -0,0 +1,35 @@
+package com.example.backend.dto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO: PatientSummaryDTO
+ *
+ * Purpose: Patient row for admin listings
+ *
+ * Key Features:
+ * - Selected directly by a JPQL constructor query; medical history, allergies and
+ *   emergency contacts are never read (request detail=true for the full record)
+ *
+ * Version: 1.0
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PatientSummaryDTO {
+
+    private Long userId;
+    private String fname;
+    private String lname;
+    private String email;
+    private String patientIc;
+    private LocalDate dateOfBirth;
+    private String gender;
+    private String bloodType;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,79 @@
+package com.example.backend.dto;
+
+import java.util.Objects;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO: QueueDeltaDTO
+ *
+ * Purpose: Compact position of one active queue entry, and the changed fields of
+ * that position for the delta-encoded position stream
+ *
+ * Key Features:
+ * - "queue-delta" events of GET /api/queue/position/{appointmentId}/stream carry
+ *   appointmentId plus only the fields that changed since the previous event
+ * - Null fields are omitted from the JSON to keep frames small
+ * - The client keeps the last full position and merges each delta into it
+ *   (the message is built on the client)
+ *
+ * Version: 1.1
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class QueueDeltaDTO {
+
+    private Long appointmentId;
+
+    /**
+     * Position within the entry's lane, 0 once called
+     */
+    private Integer position;
+
+    /**
+     * IN_QUEUE or CALLED
+     */
+    private String status;
+
+    private Integer priority;
+
+    private Integer totalInQueue;
+
+    private Integer estimatedWaitTimeMinutes;
+
+    public static QueueDeltaDTO of(QueuePositionDTO position) {
+        return new QueueDeltaDTO(position.getAppointmentId(), position.getPosition(), position.getStatus(),
+                position.getPriority(), position.getTotalInQueue(), position.getEstimatedWaitTimeMinutes());
+    }
+
+    /**
+     * The fields of after that differ from before (appointmentId always set), or null if nothing changed
+     * A null before means the client has nothing yet, so every field is included
+     */
+    public static QueueDeltaDTO changes(QueueDeltaDTO before, QueueDeltaDTO after) {
+        if (before == null) {
+            return after;
+        }
+        if (before.equals(after)) {
+            return null;
+        }
+        return new QueueDeltaDTO(after.appointmentId,
+                changed(before.position, after.position),
+                changed(before.status, after.status),
+                changed(before.priority, after.priority),
+                changed(before.totalInQueue, after.totalInQueue),
+                changed(before.estimatedWaitTimeMinutes, after.estimatedWaitTimeMinutes));
+    }
+
+    private static <T> T changed(T before, T after) {
+        return Objects.equals(before, after) ? null : after;
+    }
+}
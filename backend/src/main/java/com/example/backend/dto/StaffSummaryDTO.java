@@ -0,0 +1,30 @@
+package com.example.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO: StaffSummaryDTO
+ *
+ * Purpose: Staff row for admin listings
+ *
+ * Key Features:
+ * - Selected directly by a JPQL constructor query with the clinic name joined in;
+ *   request detail=true for StaffDTO (auth UUID, creation time, clinic address)
+ *
+ * Version: 1.0
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StaffSummaryDTO {
+
+    private Long userId;
+    private String fname;
+    private String lname;
+    private String email;
+    private String role;
+    private Long clinicId;
+    private String clinicName;
+}
@@ -0,0 +1,35 @@
+package com.example.backend.dto;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO: UserSummaryDTO
+ *
+ * Purpose: Common user fields for the user listing (GET /api/users)
+ *
+ * Key Features:
+ * - Selected by a JPQL constructor query over user columns only, so Hibernate reads the
+ *   "user" table alone instead of outer-joining patient and staff to build subtype entities
+ * - Same JSON fields as the base User entity; patient- and staff-specific fields are
+ *   available from the admin patient and staff endpoints
+ *
+ * Version: 1.0
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserSummaryDTO {
+
+    private Long userId;
+    private UUID authUuid;
+    private String email;
+    private String fname;
+    private String lname;
+    private String role;
+    private LocalDateTime createdAt;
+}
@@ -4,13 +4,19 @@ import lombok.Getter;
 
 /**
  * Event published when queue changes (check-in, status update, requeue)
+ * remote is true when the change was made on another backend node and relayed here
  */
 @Getter
 public class QueueChangedEvent {
     private final Long clinicId;
+    private final boolean remote;
 
     public QueueChangedEvent(Long clinicId) {
+        this(clinicId, false);
+    }
+
+    public QueueChangedEvent(Long clinicId, boolean remote) {
         this.clinicId = clinicId;
+        this.remote = remote;
     }
 }
-
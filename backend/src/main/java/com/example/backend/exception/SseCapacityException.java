@@ -0,0 +1,12 @@
+package com.example.backend.exception;
+
+public class SseCapacityException extends RuntimeException {
+
+    public SseCapacityException(String message) {
+        super(message);
+    }
+
+    public SseCapacityException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.backend.model;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Entity: DoctorShift
+ *
+ * Purpose: A single weekly shift interval worked by a doctor at a clinic
+ *
+ * Key Features:
+ * - Time-of-day granularity (dayOfWeek + start/end time)
+ * - Half-open interval [startTime, endTime) within one day
+ * - Indexed by clinic and doctor for roster lookups
+ *
+ * Dependencies:
+ * - References Doctor entity via doctor_id
+ * - References Clinic entity via clinic_id
+ *
+ * Version: 1.0
+ */
+@Entity
+@Table(name = "doctor_shift", indexes = {
+        @Index(name = "idx_doctor_shift_clinic_day", columnList = "clinic_id, day_of_week"),
+        @Index(name = "idx_doctor_shift_doctor", columnList = "doctor_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DoctorShift {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "doctor_id", nullable = false)
+    private Long doctorId;
+
+    @Column(name = "clinic_id", nullable = false)
+    private Long clinicId;
+
+    /**
+     * Day of week (1 = Monday ... 7 = Sunday), same convention as Doctor.shiftDays
+     */
+    @Column(name = "day_of_week", nullable = false)
+    private Integer dayOfWeek;
+
+    @Column(name = "start_time", nullable = false)
+    private LocalTime startTime;
+
+    /**
+     * Exclusive end of the shift; 23:59 or later is treated as end of day
+     */
+    @Column(name = "end_time", nullable = false)
+    private LocalTime endTime;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    /**
+     * Constructor for creating new shift entries
+     */
+    public DoctorShift(Long doctorId, Long clinicId, Integer dayOfWeek, LocalTime startTime, LocalTime endTime) {
+        this.doctorId = doctorId;
+        this.clinicId = clinicId;
+        this.dayOfWeek = dayOfWeek;
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    /**
+     * Creates a shift covering the whole day (used for legacy shift_days entries)
+     */
+    public static DoctorShift wholeDay(Long doctorId, Long clinicId, Integer dayOfWeek) {
+        return new DoctorShift(doctorId, clinicId, dayOfWeek, LocalTime.MIDNIGHT, LocalTime.of(23, 59));
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+    }
+}
@@ -10,7 +10,9 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "patient")
+@Table(name = "patient", indexes = {
+        @Index(name = "idx_patient_date_of_birth", columnList = "date_of_birth")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -7,6 +7,7 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
@@ -22,16 +23,21 @@ import lombok.NoArgsConstructor;
  * - Tracks patient position in clinic queue
  * - Priority-based queue ordering (Emergency > Elderly > Normal)
  * - Status tracking (IN_QUEUE, CALLED, DONE, MISSED)
+ * - Per-doctor routing (doctor_id; null while waiting in the shared pool)
  * - Audit trail for queue operations
  *
  * Dependencies:
  * - References Clinic entity via clinic_id
  * - References Appointment entity via appointment_id
+ * - References Doctor entity via doctor_id (optional)
  *
  * Version: 1.0
  */
 @Entity
-@Table(name = "queue_log")
+@Table(name = "queue_log", indexes = {
+        @Index(name = "idx_queue_log_clinic_status", columnList = "clinic_id, status"),
+        @Index(name = "idx_queue_log_appointment_status", columnList = "appointment_id, status")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -71,6 +77,13 @@ public class QueueLog {
     @Column(name = "appointment_start")
     private LocalDateTime appointmentStart;
 
+    /**
+     * Doctor this entry is routed to: the preferred doctor while IN_QUEUE, the serving
+     * doctor once CALLED. Null while waiting in the clinic's shared pool.
+     */
+    @Column(name = "doctor_id")
+    private Long doctorId;
+
     /**
      * Constructor for creating new queue entries
      */
@@ -2,9 +2,14 @@ package com.example.backend.repo;
 
 import java.util.List;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.example.backend.dto.ClinicSummaryDTO;
 import com.example.backend.model.clinic.Clinic;
 import com.example.backend.model.clinic.ClinicType;
 
@@ -22,4 +27,24 @@ public interface ClinicRepository extends JpaRepository<Clinic, Long> {
 
     // Find clinics by clinic type
     List<Clinic> findByClinicType(ClinicType clinicType);
+
+    // Listing filters: pattern (lower-cased LIKE on name or address), region, area, specialty and type, each optional
+    String LISTING_FILTER = "(:pattern IS NULL OR lower(c.name) LIKE :pattern OR lower(c.address) LIKE :pattern) " +
+            "AND (:region IS NULL OR c.region = :region) AND (:area IS NULL OR c.area = :area) " +
+            "AND (:specialty IS NULL OR c.specialty = :specialty) AND (:clinicType IS NULL OR c.clinicType = :clinicType)";
+
+    // Listing page without opening hours and remarks (see ClinicSummaryDTO)
+    @Query(value = "SELECT new com.example.backend.dto.ClinicSummaryDTO(c.id, c.name, c.address, c.telephoneNo, " +
+            "c.region, c.area, c.specialty, c.clinicType) FROM Clinic c WHERE " + LISTING_FILTER,
+           countQuery = "SELECT COUNT(c) FROM Clinic c WHERE " + LISTING_FILTER)
+    Page<ClinicSummaryDTO> findSummaries(@Param("pattern") String pattern, @Param("region") String region,
+            @Param("area") String area, @Param("specialty") String specialty,
+            @Param("clinicType") ClinicType clinicType, Pageable pageable);
+
+    // Listing page of full clinic records
+    @Query(value = "SELECT c FROM Clinic c WHERE " + LISTING_FILTER,
+           countQuery = "SELECT COUNT(c) FROM Clinic c WHERE " + LISTING_FILTER)
+    Page<Clinic> findListing(@Param("pattern") String pattern, @Param("region") String region,
+            @Param("area") String area, @Param("specialty") String specialty,
+            @Param("clinicType") ClinicType clinicType, Pageable pageable);
 }
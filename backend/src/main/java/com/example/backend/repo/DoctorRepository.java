@@ -2,9 +2,14 @@ package com.example.backend.repo;
 
 import java.util.List;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.example.backend.dto.DoctorSummaryDTO;
 import com.example.backend.model.Doctor;
 
 @Repository
@@ -12,4 +17,20 @@ public interface DoctorRepository extends JpaRepository<Doctor, Long> {
 
     // Find doctors by assigned clinic
     List<Doctor> findByAssignedClinic(Long assignedClinic);
+
+    // Listing filters: pattern (lower-cased LIKE on name) and assigned clinic, each optional
+    String LISTING_FILTER = "(:pattern IS NULL OR lower(d.fname) LIKE :pattern OR lower(d.lname) LIKE :pattern) " +
+            "AND (:clinicId IS NULL OR d.assignedClinic = :clinicId)";
+
+    // Listing page without the shift_days JSON (see DoctorSummaryDTO)
+    @Query(value = "SELECT new com.example.backend.dto.DoctorSummaryDTO(d.id, d.fname, d.lname, d.assignedClinic) " +
+            "FROM Doctor d WHERE " + LISTING_FILTER,
+           countQuery = "SELECT COUNT(d) FROM Doctor d WHERE " + LISTING_FILTER)
+    Page<DoctorSummaryDTO> findSummaries(@Param("pattern") String pattern, @Param("clinicId") Long clinicId,
+            Pageable pageable);
+
+    // Listing page of full doctor records
+    @Query(value = "SELECT d FROM Doctor d WHERE " + LISTING_FILTER,
+           countQuery = "SELECT COUNT(d) FROM Doctor d WHERE " + LISTING_FILTER)
+    Page<Doctor> findListing(@Param("pattern") String pattern, @Param("clinicId") Long clinicId, Pageable pageable);
 }
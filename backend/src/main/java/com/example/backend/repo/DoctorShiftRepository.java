@@ -0,0 +1,20 @@
+package com.example.backend.repo;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.backend.model.DoctorShift;
+
+@Repository
+public interface DoctorShiftRepository extends JpaRepository<DoctorShift, Long> {
+
+    // Find shifts worked by a doctor
+    List<DoctorShift> findByDoctorId(Long doctorId);
+
+    // Delete all shifts worked by a doctor
+    @Transactional
+    void deleteByDoctorId(Long doctorId);
+}
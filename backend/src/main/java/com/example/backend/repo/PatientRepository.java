@@ -1,10 +1,19 @@
 package com.example.backend.repo;
 
+import com.example.backend.dto.PatientNameDTO;
+import com.example.backend.dto.PatientSummaryDTO;
 import com.example.backend.model.Patient;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface PatientRepository extends JpaRepository<Patient, Long> {
@@ -24,6 +33,77 @@ public interface PatientRepository extends JpaRepository<Patient, Long> {
     // Find patients by blood type
     List<Patient> findByBloodType(String bloodType);
     
+    // Find patients born within [earliest, latest] (uses idx_patient_date_of_birth)
+    List<Patient> findByDateOfBirthBetween(LocalDate earliest, LocalDate latest);
+    
+    // Display fields of one patient, without loading the entity (see PatientNameDTO)
+    @Query("SELECT new com.example.backend.dto.PatientNameDTO(p.userId, p.fname, p.lname, p.email) " +
+           "FROM Patient p WHERE p.userId = :patientId")
+    Optional<PatientNameDTO> findNameById(@Param("patientId") Long patientId);
+    
+    // Display fields of several patients in one query
+    @Query("SELECT new com.example.backend.dto.PatientNameDTO(p.userId, p.fname, p.lname, p.email) " +
+           "FROM Patient p WHERE p.userId IN :patientIds")
+    List<PatientNameDTO> findNamesByUserIdIn(@Param("patientIds") Collection<Long> patientIds);
+    
+    // Patient count per distinct date of birth: [LocalDate, Long] rows
+    @Query("SELECT p.dateOfBirth, COUNT(p) FROM Patient p WHERE p.dateOfBirth IS NOT NULL GROUP BY p.dateOfBirth")
+    List<Object[]> countByDateOfBirth();
+    
+    // One ranked patient search result (see SearchService)
+    interface SearchHit {
+        Long getPatientId();
+        String getFname();
+        String getLname();
+        String getEmail();
+        String getPatientIc();
+        LocalDate getDateOfBirth();
+        Double getScore();
+    }
+    
+    // Ranked patient search on the pg_trgm indexes: name contains or fuzzy-matches the term,
+    // or email / IC starts with the query. Prefix matches rank first, then name similarity.
+    // Candidates are a UNION of one subquery per index, so each is an index scan; an OR across
+    // the user and patient tables would instead join both tables in full before filtering.
+    @Query(value = "WITH candidates AS (" +
+           "SELECT user_id FROM \"user\" WHERE lower(fname) LIKE :contains OR :term <% lower(fname) " +
+           "UNION SELECT user_id FROM \"user\" WHERE lower(lname) LIKE :contains OR :term <% lower(lname) " +
+           "UNION SELECT user_id FROM \"user\" WHERE lower(email) LIKE :prefix " +
+           "UNION SELECT patient_id FROM patient WHERE lower(patient_ic) LIKE :prefix) " +
+           "SELECT u.user_id AS patientId, u.fname AS fname, u.lname AS lname, u.email AS email, " +
+           "p.patient_ic AS patientIc, p.date_of_birth AS dateOfBirth, " +
+           "GREATEST(CASE WHEN lower(p.patient_ic) LIKE :prefix OR lower(u.email) LIKE :prefix THEN 1.0 ELSE 0.0 END, " +
+           "CASE WHEN lower(u.fname) LIKE :prefix OR lower(u.lname) LIKE :prefix THEN 0.9 ELSE 0.0 END, " +
+           "word_similarity(:query, lower(concat_ws(' ', u.fname, u.lname)))) AS score " +
+           "FROM candidates c JOIN \"user\" u ON u.user_id = c.user_id JOIN patient p ON p.patient_id = u.user_id " +
+           "ORDER BY score DESC, u.lname, u.fname, u.user_id " +
+           "LIMIT :limit OFFSET :offset", nativeQuery = true)
+    List<SearchHit> search(@Param("query") String query, @Param("term") String term,
+            @Param("contains") String contains, @Param("prefix") String prefix,
+            @Param("limit") int limit, @Param("offset") long offset);
+    
+    // Autocomplete load, keyset-paged by ID: [userId, fname, lname, email, patientIc] rows
+    @Query("SELECT p.userId, p.fname, p.lname, p.email, p.patientIc FROM Patient p WHERE p.userId > :afterId ORDER BY p.userId")
+    List<Object[]> findAutocompleteRows(@Param("afterId") Long afterId, Pageable pageable);
+    
+    // Admin listing filters: pattern (lower-cased LIKE on name, email or IC), gender and blood type, each optional
+    String LISTING_FILTER = "(:pattern IS NULL OR lower(p.fname) LIKE :pattern OR lower(p.lname) LIKE :pattern " +
+            "OR lower(p.email) LIKE :pattern OR lower(p.patientIc) LIKE :pattern) " +
+            "AND (:gender IS NULL OR p.gender = :gender) AND (:bloodType IS NULL OR p.bloodType = :bloodType)";
+    
+    // Admin listing page without the TEXT columns (see PatientSummaryDTO)
+    @Query(value = "SELECT new com.example.backend.dto.PatientSummaryDTO(p.userId, p.fname, p.lname, p.email, " +
+            "p.patientIc, p.dateOfBirth, p.gender, p.bloodType, p.createdAt) FROM Patient p WHERE " + LISTING_FILTER,
+           countQuery = "SELECT COUNT(p) FROM Patient p WHERE " + LISTING_FILTER)
+    Page<PatientSummaryDTO> findSummaries(@Param("pattern") String pattern, @Param("gender") String gender,
+            @Param("bloodType") String bloodType, Pageable pageable);
+    
+    // Admin listing page of full patient records
+    @Query(value = "SELECT p FROM Patient p WHERE " + LISTING_FILTER,
+           countQuery = "SELECT COUNT(p) FROM Patient p WHERE " + LISTING_FILTER)
+    Page<Patient> findListing(@Param("pattern") String pattern, @Param("gender") String gender,
+            @Param("bloodType") String bloodType, Pageable pageable);
+    
     // Check if patient exists by email
     boolean existsByEmail(String email);
     
@@ -5,6 +5,7 @@ import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -90,11 +91,30 @@ public interface QueueRepository extends JpaRepository<QueueLog, Long> {
      */
     List<QueueLog> findByClinicIdAndStatus(Long clinicId, String status);
 
+    /**
+     * Find queue entries routed to a doctor in a clinic by status
+     */
+    List<QueueLog> findByClinicIdAndDoctorIdAndStatus(Long clinicId, Long doctorId, String status);
+
     /**
      * Check if any IN_QUEUE entry exists for clinic
      */
     boolean existsByClinicIdAndStatus(Long clinicId, String status);
 
+    /**
+     * Find the latest MISSED entry per appointment for a clinic that can still be re-queued
+     * Excludes appointments that have a DONE or IN_QUEUE entry, or whose appointment is CANCELLED
+     * Single round-trip: DISTINCT ON keeps the newest row per appointment, NOT EXISTS does the anti-joins
+     */
+    @Query(value = "SELECT DISTINCT ON (q.appointment_id) q.* FROM queue_log q " +
+           "WHERE q.clinic_id = :clinicId AND q.status = 'MISSED' " +
+           "AND NOT EXISTS (SELECT 1 FROM queue_log o WHERE o.appointment_id = q.appointment_id " +
+           "AND o.status IN ('DONE', 'IN_QUEUE')) " +
+           "AND NOT EXISTS (SELECT 1 FROM appointment a WHERE a.appointment_id = q.appointment_id " +
+           "AND a.appt_status = 'CANCELLED') " +
+           "ORDER BY q.appointment_id, q.created_at DESC", nativeQuery = true)
+    List<QueueLog> findRequeueableMissedEntries(@Param("clinicId") Long clinicId);
+
     /**
      * Find the currently serving (CALLED status) queue entry for a clinic
      * Returns the patient with status = 'CALLED' (being served by doctor)
@@ -102,4 +122,16 @@ public interface QueueRepository extends JpaRepository<QueueLog, Long> {
     @Query(value = "SELECT * FROM queue_log WHERE clinic_id = :clinicId AND status = 'CALLED' " +
            "LIMIT 1", nativeQuery = true)
     Optional<QueueLog> findCurrentlyServing(@Param("clinicId") Long clinicId);
+
+    /**
+     * Claim a waiting entry for a doctor: IN_QUEUE -> CALLED in a single conditional UPDATE
+     * Returns 0 when another caller already moved the entry out of IN_QUEUE, so two doctors
+     * (or two instances) can never call the same patient
+     * Clinic-wide call-next passes the entry's own doctorId (null for the shared pool)
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE QueueLog q SET q.status = 'CALLED', q.doctorId = :doctorId, q.appointmentStart = :appointmentStart " +
+           "WHERE q.queueId = :queueId AND q.status = 'IN_QUEUE'")
+    int claimForDoctor(@Param("queueId") Long queueId, @Param("doctorId") Long doctorId,
+                       @Param("appointmentStart") LocalDateTime appointmentStart);
 }
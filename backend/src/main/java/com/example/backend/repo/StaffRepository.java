@@ -1,6 +1,9 @@
 package com.example.backend.repo;
 
+import com.example.backend.dto.StaffSummaryDTO;
 import com.example.backend.model.Staff;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -51,4 +54,53 @@ public interface StaffRepository extends JpaRepository<Staff, Long> {
     // Find staff by clinic and name
     @Query("SELECT s FROM Staff s WHERE s.clinic.id = :clinicId AND (LOWER(s.fname) LIKE LOWER(CONCAT('%', :name, '%')) OR LOWER(s.lname) LIKE LOWER(CONCAT('%', :name, '%')))")
     List<Staff> findByClinicIdAndNameContainingIgnoreCase(@Param("clinicId") Long clinicId, @Param("name") String name);
+    
+    // One ranked staff search result (see SearchService)
+    interface SearchHit {
+        Long getStaffId();
+        String getFname();
+        String getLname();
+        String getEmail();
+        String getRole();
+        Long getClinicId();
+        Double getScore();
+    }
+    
+    // Ranked staff search on the pg_trgm indexes, optionally within one clinic
+    // (name contains or fuzzy-matches the term, or email starts with the query)
+    @Query(value = "SELECT u.user_id AS staffId, u.fname AS fname, u.lname AS lname, u.email AS email, " +
+           "u.role AS role, s.clinic_id AS clinicId, " +
+           "GREATEST(CASE WHEN lower(u.email) LIKE :prefix THEN 1.0 ELSE 0.0 END, " +
+           "CASE WHEN lower(u.fname) LIKE :prefix OR lower(u.lname) LIKE :prefix THEN 0.9 ELSE 0.0 END, " +
+           "word_similarity(:query, lower(concat_ws(' ', u.fname, u.lname)))) AS score " +
+           "FROM \"user\" u JOIN staff s ON s.staff_id = u.user_id " +
+           "WHERE (CAST(:clinicId AS bigint) IS NULL OR s.clinic_id = :clinicId) " +
+           "AND (lower(u.fname) LIKE :contains OR lower(u.lname) LIKE :contains " +
+           "OR :term <% lower(u.fname) OR :term <% lower(u.lname) OR lower(u.email) LIKE :prefix) " +
+           "ORDER BY score DESC, u.lname, u.fname, u.user_id " +
+           "LIMIT :limit OFFSET :offset", nativeQuery = true)
+    List<SearchHit> search(@Param("query") String query, @Param("term") String term,
+            @Param("contains") String contains, @Param("prefix") String prefix, @Param("clinicId") Long clinicId,
+            @Param("limit") int limit, @Param("offset") long offset);
+    
+    // Autocomplete load, keyset-paged by ID: [userId, fname, lname, email, clinicId] rows
+    @Query("SELECT s.userId, s.fname, s.lname, s.email, c.id FROM Staff s LEFT JOIN s.clinic c WHERE s.userId > :afterId ORDER BY s.userId")
+    List<Object[]> findAutocompleteRows(@Param("afterId") Long afterId, Pageable pageable);
+    
+    // Admin listing filters: pattern (lower-cased LIKE on name or email), role and clinic, each optional
+    String LISTING_FILTER = "(:pattern IS NULL OR lower(s.fname) LIKE :pattern OR lower(s.lname) LIKE :pattern " +
+            "OR lower(s.email) LIKE :pattern) AND (:role IS NULL OR s.role = :role) AND (:clinicId IS NULL OR c.id = :clinicId)";
+    
+    // Admin listing page with the clinic name joined in (see StaffSummaryDTO)
+    @Query(value = "SELECT new com.example.backend.dto.StaffSummaryDTO(s.userId, s.fname, s.lname, s.email, s.role, " +
+            "c.id, c.name) FROM Staff s LEFT JOIN s.clinic c WHERE " + LISTING_FILTER,
+           countQuery = "SELECT COUNT(s) FROM Staff s LEFT JOIN s.clinic c WHERE " + LISTING_FILTER)
+    Page<StaffSummaryDTO> findSummaries(@Param("pattern") String pattern, @Param("role") String role,
+            @Param("clinicId") Long clinicId, Pageable pageable);
+    
+    // Admin listing page of staff with their clinic fetched in the same query
+    @Query(value = "SELECT s FROM Staff s LEFT JOIN FETCH s.clinic c WHERE " + LISTING_FILTER,
+           countQuery = "SELECT COUNT(s) FROM Staff s LEFT JOIN s.clinic c WHERE " + LISTING_FILTER)
+    Page<Staff> findListing(@Param("pattern") String pattern, @Param("role") String role,
+            @Param("clinicId") Long clinicId, Pageable pageable);
 }
@@ -1,9 +1,13 @@
 package com.example.backend.repo;
 
+import com.example.backend.dto.UserSummaryDTO;
 import com.example.backend.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     
@@ -18,4 +22,9 @@ public interface UserRepository extends JpaRepository<User, Long> {
     
     // Check if user exists by user ID
     boolean existsByUserId(Long userId);
+    
+    // All users as flat rows: only "user" columns are selected, so no patient/staff subtype joins
+    @Query("SELECT new com.example.backend.dto.UserSummaryDTO(u.userId, u.authUuid, u.email, u.fname, u.lname, " +
+           "u.role, u.createdAt) FROM User u ORDER BY u.userId")
+    List<UserSummaryDTO> findAllSummaries();
 }
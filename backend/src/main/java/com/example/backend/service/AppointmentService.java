@@ -1,6 +1,5 @@
 package com.example.backend.service;
 
-import java.io.IOException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
@@ -10,16 +9,10 @@ import org.springframework.stereotype.Service;
 
 import com.example.backend.dto.AppointmentUpdateDTO;
 import com.example.backend.exception.DoubleBookingException;
-import com.example.backend.model.Patient;
-import com.example.backend.model.Doctor;
-import com.example.backend.model.clinic.Clinic;
 import com.example.backend.model.appointments.Appointment;
 import com.example.backend.model.appointments.AppointmentStatus;
 import com.example.backend.model.notification.NotificationRequest;
 import com.example.backend.repo.AppointmentRepository;
-import com.example.backend.repo.ClinicRepository;
-import com.example.backend.repo.DoctorRepository;
-import com.example.backend.repo.PatientRepository;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -31,9 +24,7 @@ public class AppointmentService {
 
     private final AppointmentRepository appointmentRepository;
     private final NotificationService notificationService;
-    private final PatientRepository patientRepository;
-    private final ClinicRepository clinicRepository;
-    private final DoctorRepository doctorRepository;
+    private final ReferenceDataCache referenceDataCache;
 
     private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
 
@@ -82,12 +73,12 @@ public class AppointmentService {
      */
     private void sendAppointmentConfirmationNotification(Appointment appointment) {
         try {
-            // Fetch related entities
-            Patient patient = patientRepository.findById(appointment.getPatientId()).orElse(null);
-            Clinic clinic = clinicRepository.findById(appointment.getClinicId()).orElse(null);
-            Doctor doctor = doctorRepository.findById(appointment.getDoctorId()).orElse(null);
+            // Look up related display data (cached)
+            ReferenceDataCache.PatientRef patient = referenceDataCache.getPatient(appointment.getPatientId()).orElse(null);
+            ReferenceDataCache.ClinicRef clinic = referenceDataCache.getClinic(appointment.getClinicId()).orElse(null);
+            ReferenceDataCache.DoctorRef doctor = referenceDataCache.getDoctor(appointment.getDoctorId()).orElse(null);
 
-            if (patient == null || clinic == null || doctor == null || patient.getEmail() == null) {
+            if (patient == null || clinic == null || doctor == null || patient.email() == null) {
                 log.warn(
                         "Cannot send appointment confirmation: missing patient, clinic, doctor, or email for appointment {}",
                         appointment.getAppointmentId());
@@ -95,27 +86,25 @@ public class AppointmentService {
             }
 
             // Build notification request
-            String patientName = formatFullName(patient.getFname(), patient.getLname());
-            String doctorName = formatFullName(doctor.getFname(), doctor.getLname());
+            String patientName = formatFullName(patient.fname(), patient.lname());
+            String doctorName = formatFullName(doctor.fname(), doctor.lname());
             String appointmentDateTime = appointment.getDateTime().format(DATE_TIME_FORMATTER);
 
             NotificationRequest request = new NotificationRequest();
-            request.setToEmail(patient.getEmail());
+            request.setToEmail(patient.email());
             request.setPatientName(patientName);
-            request.setClinicName(clinic.getName());
+            request.setClinicName(clinic.name());
             request.setDoctorName(doctorName);
             request.setAppointmentDateTime(appointmentDateTime);
             request.setQueueNumber(0); // Queue number not applicable for appointment confirmation
             request.setRoomNumber(null); // Room number not applicable
             request.setAppointmentNumber(appointment.getAppointmentId());
 
-            notificationService.sendAppointmentConfirmationEmail(request);
-            log.info("Sent appointment confirmation email to {} for appointment {}", patient.getEmail(),
+            // Sent on the async executor so booking does not wait on SendGrid
+            notificationService.sendAppointmentConfirmationEmailAsync(request);
+            log.info("Queued appointment confirmation email to {} for appointment {}", patient.email(),
                     appointment.getAppointmentId());
 
-        } catch (IOException e) {
-            log.error("Failed to send appointment confirmation email for appointment {}: {}",
-                    appointment.getAppointmentId(), e.getMessage());
         } catch (Exception e) {
             log.error("Unexpected error sending appointment confirmation for appointment {}: {}",
                     appointment.getAppointmentId(), e.getMessage());
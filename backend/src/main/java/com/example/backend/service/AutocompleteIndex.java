@@ -0,0 +1,429 @@
+package com.example.backend.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.backend.model.Patient;
+import com.example.backend.model.Staff;
+import com.example.backend.model.User;
+import com.example.backend.repo.PatientRepository;
+import com.example.backend.repo.StaffRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Component: AutocompleteIndex
+ *
+ * Purpose: In-memory type-ahead over patient and staff names, emails and ICs
+ *
+ * Key Features:
+ * - Sorted token index (skip list of normalized tokens -> user IDs): a prefix
+ *   lookup is one range seek plus a walk over the matching tokens, O(log n + k)
+ * - Tokens: each word of the first and last name, the whole email and the whole IC,
+ *   lower-cased; every word typed must be a prefix of some token of a match
+ * - Results come in token order, so exact and shortest completions rank first
+ * - Built at startup from lightweight column queries (keyset-paged, no entities);
+ *   kept current by PatientService, StaffService and UserService, and rebuilt after
+ *   a backup restore
+ * - Posting arrays are copy-on-write: lookups never lock, writers serialize
+ *
+ * Holds one small record per patient and staff member; disable with
+ * autocomplete.enabled=false on nodes that do not serve the admin screens.
+ *
+ * Dependencies:
+ * - PatientRepository, StaffRepository: Initial load
+ *
+ * Version: 1.0
+ */
+@Component
+@Slf4j
+public class AutocompleteIndex {
+
+    public static final int MAX_LIMIT = 20;
+
+    private static final int BUILD_BATCH_SIZE = 5000;
+
+    // Postings examined per lookup before returning what was found (bounds very common prefixes)
+    private static final int MAX_SCANNED = 5000;
+
+    public enum Kind {
+        PATIENT, STAFF
+    }
+
+    /**
+     * One autocomplete result
+     *
+     * @param patientIc IC for patients, null for staff
+     * @param clinicId  assigned clinic for staff, null for patients
+     */
+    public record Suggestion(Kind kind, Long id, String name, String email, String patientIc, Long clinicId) {
+    }
+
+    private record Entry(Suggestion suggestion, String[] tokens) {
+    }
+
+    private final PatientRepository patientRepository;
+    private final StaffRepository staffRepository;
+
+    @Value("${autocomplete.enabled:true}")
+    private boolean enabled;
+
+    private final ConcurrentSkipListMap<String, long[]> postings = new ConcurrentSkipListMap<>();
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+
+    // Guards postings/entries writes; a build also holds buildLock for its whole duration
+    private final Object writeLock = new Object();
+    private final Object buildLock = new Object();
+
+    // IDs written by services while a build is loading; the build must not overwrite them
+    private final Set<Long> changedDuringBuild = new HashSet<>();
+    private boolean building;
+
+    private volatile boolean ready;
+    private volatile long lastBuildMillis;
+
+    public AutocompleteIndex(PatientRepository patientRepository, StaffRepository staffRepository) {
+        this.patientRepository = patientRepository;
+        this.staffRepository = staffRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Reload the whole index from the database
+     * Lookups are answered from the previous contents until the new index is complete
+     */
+    public void rebuild() {
+        synchronized (buildLock) {
+            long start = System.currentTimeMillis();
+            synchronized (writeLock) {
+                building = true;
+                changedDuringBuild.clear();
+            }
+            try {
+                Map<Long, Entry> loaded = new HashMap<>();
+                loadPatients(loaded);
+                loadStaff(loaded);
+                publish(loaded);
+                ready = true;
+                lastBuildMillis = System.currentTimeMillis() - start;
+                log.info("Autocomplete index built: {} people, {} tokens in {} ms",
+                        entries.size(), postings.size(), lastBuildMillis);
+            } catch (RuntimeException e) {
+                log.error("Autocomplete index build failed: {}", e.getMessage(), e);
+            } finally {
+                synchronized (writeLock) {
+                    building = false;
+                    changedDuringBuild.clear();
+                }
+            }
+        }
+    }
+
+    /**
+     * Rebuild once the current transaction commits (e.g. after a backup restore),
+     * on a separate thread so the caller does not wait for the reload
+     */
+    public void rebuildAfterCommit() {
+        if (enabled) {
+            afterCommit(() -> Thread.ofVirtual().name("autocomplete-rebuild").start(this::rebuild));
+        }
+    }
+
+    /**
+     * Add or replace one person; like the other writes, applied once the current transaction commits
+     */
+    public void putPatient(Patient patient) {
+        if (enabled && patient != null && patient.getUserId() != null) {
+            Suggestion suggestion = new Suggestion(Kind.PATIENT, patient.getUserId(),
+                    fullName(patient.getFname(), patient.getLname()), patient.getEmail(), patient.getPatientIc(), null);
+            afterCommit(() -> put(suggestion));
+        }
+    }
+
+    public void putStaff(Staff staff) {
+        if (enabled && staff != null && staff.getUserId() != null) {
+            Long clinicId = staff.getClinic() != null ? staff.getClinic().getId() : null;
+            Suggestion suggestion = new Suggestion(Kind.STAFF, staff.getUserId(),
+                    fullName(staff.getFname(), staff.getLname()), staff.getEmail(), null, clinicId);
+            afterCommit(() -> put(suggestion));
+        }
+    }
+
+    /**
+     * Refresh the name and email of an indexed patient or staff member edited through the user API
+     */
+    public void updateUser(User user) {
+        if (!enabled || user == null || user.getUserId() == null) {
+            return;
+        }
+        Long userId = user.getUserId();
+        String name = fullName(user.getFname(), user.getLname());
+        String email = user.getEmail();
+        afterCommit(() -> {
+            Entry existing = entries.get(userId);
+            if (existing != null) {
+                Suggestion old = existing.suggestion();
+                put(new Suggestion(old.kind(), userId, name, email, old.patientIc(), old.clinicId()));
+            }
+        });
+    }
+
+    public void remove(Long userId) {
+        if (enabled && userId != null) {
+            afterCommit(() -> {
+                synchronized (writeLock) {
+                    markChanged(userId);
+                    Entry old = entries.remove(userId);
+                    if (old != null) {
+                        unindex(userId, old.tokens());
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Top matches for what has been typed so far
+     *
+     * @param kind     restrict to patients or staff, or null for both
+     * @param clinicId restrict staff to one clinic (patients are not filtered), or null
+     * @throws IllegalArgumentException if limit is not between 1 and MAX_LIMIT
+     * @throws IllegalStateException    if the index is disabled or still loading
+     */
+    public List<Suggestion> suggest(String query, Kind kind, Long clinicId, int limit) {
+        if (!enabled || !ready) {
+            throw new IllegalStateException("Autocomplete index is not available");
+        }
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_LIMIT);
+        }
+        String[] words = words(query);
+        if (words.length == 0) {
+            return List.of();
+        }
+        // The longest word narrows the token range the most
+        String lead = Arrays.stream(words).max(Comparator.comparingInt(String::length)).orElseThrow();
+
+        List<Suggestion> results = new ArrayList<>(limit);
+        Set<Long> seen = new HashSet<>();
+        int scanned = 0;
+        for (long[] ids : postings.subMap(lead, true, lead + Character.MAX_VALUE, false).values()) {
+            for (long id : ids) {
+                if (++scanned > MAX_SCANNED) {
+                    return results;
+                }
+                if (!seen.add(id)) {
+                    continue;
+                }
+                Entry entry = entries.get(id);
+                if (entry != null && matches(entry, words, kind, clinicId)) {
+                    results.add(entry.suggestion());
+                    if (results.size() == limit) {
+                        return results;
+                    }
+                }
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Index size, readiness and last build time for monitoring
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("ready", ready);
+        stats.put("entries", entries.size());
+        stats.put("tokens", postings.size());
+        stats.put("lastBuildMillis", lastBuildMillis);
+        return stats;
+    }
+
+    private void loadPatients(Map<Long, Entry> loaded) {
+        long afterId = 0;
+        List<Object[]> rows;
+        do {
+            rows = patientRepository.findAutocompleteRows(afterId, PageRequest.of(0, BUILD_BATCH_SIZE));
+            for (Object[] row : rows) {
+                Suggestion suggestion = new Suggestion(Kind.PATIENT, (Long) row[0], fullName((String) row[1], (String) row[2]),
+                        (String) row[3], (String) row[4], null);
+                loaded.put(suggestion.id(), new Entry(suggestion, tokens(suggestion)));
+                afterId = suggestion.id();
+            }
+        } while (rows.size() == BUILD_BATCH_SIZE);
+    }
+
+    private void loadStaff(Map<Long, Entry> loaded) {
+        long afterId = 0;
+        List<Object[]> rows;
+        do {
+            rows = staffRepository.findAutocompleteRows(afterId, PageRequest.of(0, BUILD_BATCH_SIZE));
+            for (Object[] row : rows) {
+                Suggestion suggestion = new Suggestion(Kind.STAFF, (Long) row[0], fullName((String) row[1], (String) row[2]),
+                        (String) row[3], null, (Long) row[4]);
+                loaded.put(suggestion.id(), new Entry(suggestion, tokens(suggestion)));
+                afterId = suggestion.id();
+            }
+        } while (rows.size() == BUILD_BATCH_SIZE);
+    }
+
+    /**
+     * Swap in freshly loaded contents, keeping whatever services wrote while loading
+     * Postings are grouped first, so each token's array is allocated once
+     */
+    private void publish(Map<Long, Entry> loaded) {
+        synchronized (writeLock) {
+            Map<Long, Entry> kept = new HashMap<>();
+            for (Long id : changedDuringBuild) {
+                Entry current = entries.get(id);
+                if (current != null) {
+                    kept.put(id, current);
+                }
+                loaded.remove(id);
+            }
+            loaded.putAll(kept);
+
+            Map<String, List<Long>> grouped = new HashMap<>();
+            loaded.forEach((id, entry) -> {
+                for (String token : entry.tokens()) {
+                    grouped.computeIfAbsent(token, t -> new ArrayList<>(1)).add(id);
+                }
+            });
+
+            postings.clear();
+            grouped.forEach((token, ids) -> postings.put(token, ids.stream().mapToLong(Long::longValue).toArray()));
+            entries.clear();
+            entries.putAll(loaded);
+        }
+    }
+
+    private void put(Suggestion suggestion) {
+        Entry entry = new Entry(suggestion, tokens(suggestion));
+        synchronized (writeLock) {
+            markChanged(suggestion.id());
+            Entry old = entries.put(suggestion.id(), entry);
+            if (old != null) {
+                unindex(suggestion.id(), old.tokens());
+            }
+            for (String token : entry.tokens()) {
+                long[] ids = postings.get(token);
+                if (ids == null) {
+                    postings.put(token, new long[] { suggestion.id() });
+                } else {
+                    long[] grown = Arrays.copyOf(ids, ids.length + 1);
+                    grown[ids.length] = suggestion.id();
+                    postings.put(token, grown);
+                }
+            }
+        }
+    }
+
+    // Callers hold writeLock
+    private void unindex(long id, String[] tokens) {
+        for (String token : tokens) {
+            long[] ids = postings.get(token);
+            if (ids == null) {
+                continue;
+            }
+            long[] remaining = Arrays.stream(ids).filter(other -> other != id).toArray();
+            if (remaining.length == 0) {
+                postings.remove(token);
+            } else {
+                postings.put(token, remaining);
+            }
+        }
+    }
+
+    // Callers hold writeLock
+    private void markChanged(Long id) {
+        if (building) {
+            changedDuringBuild.add(id);
+        }
+    }
+
+    // Index changes are applied once the caller's transaction commits, as in QueueService
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static boolean matches(Entry entry, String[] words, Kind kind, Long clinicId) {
+        Suggestion suggestion = entry.suggestion();
+        if (kind != null && suggestion.kind() != kind) {
+            return false;
+        }
+        if (clinicId != null && suggestion.kind() == Kind.STAFF && !clinicId.equals(suggestion.clinicId())) {
+            return false;
+        }
+        for (String word : words) {
+            boolean found = false;
+            for (String token : entry.tokens()) {
+                if (token.startsWith(word)) {
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String[] tokens(Suggestion suggestion) {
+        Set<String> tokens = new HashSet<>(Arrays.asList(words(suggestion.name())));
+        if (suggestion.email() != null && !suggestion.email().isBlank()) {
+            tokens.add(suggestion.email().trim().toLowerCase(Locale.ROOT));
+        }
+        if (suggestion.patientIc() != null && !suggestion.patientIc().isBlank()) {
+            tokens.add(suggestion.patientIc().trim().toLowerCase(Locale.ROOT));
+        }
+        return tokens.toArray(String[]::new);
+    }
+
+    private static String[] words(String text) {
+        if (text == null || text.isBlank()) {
+            return new String[0];
+        }
+        return text.trim().toLowerCase(Locale.ROOT).split("\\s+");
+    }
+
+    private static String fullName(String fname, String lname) {
+        String first = fname != null ? fname.trim() : "";
+        String last = lname != null ? lname.trim() : "";
+        return (first + " " + last).trim();
+    }
+}
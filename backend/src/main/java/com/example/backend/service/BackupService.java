@@ -5,9 +5,10 @@ import com.example.backend.model.appointments.Appointment;
 import com.example.backend.model.clinic.Clinic;
 import com.example.backend.model.queue.QueueLog;
 import com.example.backend.repo.*;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.observation.annotation.Observed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -39,19 +40,22 @@ public class BackupService {
     private final ClinicRepository clinicRepository;
     private final AppointmentRepository appointmentRepository;
     private final QueueRepository queueRepository;
+    private final ClinicQueueIndex clinicQueueIndex;
+    private final ReferenceDataCache referenceDataCache;
+    private final PatientAgeHistogram patientAgeHistogram;
+    private final AutocompleteIndex autocompleteIndex;
 
     @Value("${backup.directory:./backups}")
     private String backupDirectory;
 
-    private final ObjectMapper objectMapper = new ObjectMapper()
-            .registerModule(new JavaTimeModule())
-            .enable(SerializationFeature.INDENT_OUTPUT)
-            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    // Spring-managed mapper: JavaTimeModule registered, dates written as ISO strings
+    private final ObjectMapper objectMapper;
 
     /**
      * Creates a full backup of all system data
      * @return Path to the backup file
      */
+    @Observed(name = "backup.duration", contextualName = "backup create", lowCardinalityKeyValues = { "operation", "create" })
     @Transactional(readOnly = true)
     public String createBackup() throws IOException {
         log.info("Starting full system backup...");
@@ -74,36 +78,36 @@ public class BackupService {
             BackupMetadata metadata = new BackupMetadata();
             metadata.setTimestamp(LocalDateTime.now());
             metadata.setVersion("1.0");
-            writeToZip(zos, "metadata.json", objectMapper.writeValueAsString(metadata));
+            writeToZip(zos, "metadata.json", metadata);
 
             // Backup all entities
             log.info("Backing up users...");
             List<User> users = userRepository.findAll();
-            writeToZip(zos, "users.json", objectMapper.writeValueAsString(users));
+            writeToZip(zos, "users.json", users);
 
             log.info("Backing up patients...");
             List<Patient> patients = patientRepository.findAll();
-            writeToZip(zos, "patients.json", objectMapper.writeValueAsString(patients));
+            writeToZip(zos, "patients.json", patients);
 
             log.info("Backing up staff...");
             List<Staff> staff = staffRepository.findAll();
-            writeToZip(zos, "staff.json", objectMapper.writeValueAsString(staff));
+            writeToZip(zos, "staff.json", staff);
 
             log.info("Backing up doctors...");
             List<Doctor> doctors = doctorRepository.findAll();
-            writeToZip(zos, "doctors.json", objectMapper.writeValueAsString(doctors));
+            writeToZip(zos, "doctors.json", doctors);
 
             log.info("Backing up clinics...");
             List<Clinic> clinics = clinicRepository.findAll();
-            writeToZip(zos, "clinics.json", objectMapper.writeValueAsString(clinics));
+            writeToZip(zos, "clinics.json", clinics);
 
             log.info("Backing up appointments...");
             List<Appointment> appointments = appointmentRepository.findAll();
-            writeToZip(zos, "appointments.json", objectMapper.writeValueAsString(appointments));
+            writeToZip(zos, "appointments.json", appointments);
 
             log.info("Backing up queue logs...");
             List<QueueLog> queueLogs = queueRepository.findAll();
-            writeToZip(zos, "queue_logs.json", objectMapper.writeValueAsString(queueLogs));
+            writeToZip(zos, "queue_logs.json", queueLogs);
         }
 
         log.info("Backup completed successfully: {}", backupFilePath);
@@ -140,6 +144,7 @@ public class BackupService {
      * Restores data from a backup file
      * WARNING: This will delete existing data!
      */
+    @Observed(name = "backup.duration", contextualName = "backup restore", lowCardinalityKeyValues = { "operation", "restore" })
     @Transactional
     public void restoreBackup(String backupFileName) throws IOException {
         log.warn("Starting restore from backup: {}", backupFileName);
@@ -226,6 +231,12 @@ public class BackupService {
             log.info("Restored {} queue logs", queueLogs.size());
         }
 
+        // Queue entries were replaced wholesale - rebuild the in-memory queue index lazily
+        clinicQueueIndex.invalidateAllAfterCommit();
+        referenceDataCache.evictAll();
+        patientAgeHistogram.evict();
+        autocompleteIndex.rebuildAfterCommit();
+
         log.info("Restore completed successfully");
     }
 
@@ -277,10 +288,13 @@ public class BackupService {
         return details;
     }
 
-    private void writeToZip(ZipOutputStream zos, String fileName, String content) throws IOException {
+    private void writeToZip(ZipOutputStream zos, String fileName, Object content) throws IOException {
         ZipEntry entry = new ZipEntry(fileName);
         zos.putNextEntry(entry);
-        zos.write(content.getBytes());
+        // Stream the JSON straight into the entry instead of building a String first
+        objectMapper.writer(SerializationFeature.INDENT_OUTPUT)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .writeValue(zos, content);
         zos.closeEntry();
     }
 
@@ -0,0 +1,119 @@
+package com.example.backend.service;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.backend.dto.QueuePositionDTO;
+import com.example.backend.event.QueueChangedEvent;
+
+/**
+ * Component: ClinicPositionSnapshots
+ *
+ * Purpose: One position computation per clinic queue change, shared by every
+ * position stream (the SseEmitter stream and the reactive stream)
+ *
+ * Key Features:
+ * - Each clinic has a version, bumped when a queue change commits (before any stream's
+ *   listener runs, so no stream reads the snapshot of the previous version)
+ * - The first reader of a version computes the positions; concurrent and later
+ *   readers of the same version wait for and reuse that result
+ * - Only the latest snapshot per clinic is kept
+ *
+ * Dependencies:
+ * - QueueService: One-pass position computation for a clinic
+ *
+ * Version: 1.0
+ */
+@Component
+public class ClinicPositionSnapshots {
+
+    /**
+     * Positions of all active entries of a clinic as of a version
+     */
+    public record Snapshot(long version, Map<Long, QueuePositionDTO> positions, LocalDateTime computedAt) {
+    }
+
+    private record Pending(long version, CompletableFuture<Snapshot> snapshot) {
+    }
+
+    private final QueueService queueService;
+
+    private final Map<Long, Long> versions = new ConcurrentHashMap<>();
+    private final Map<Long, Pending> latest = new ConcurrentHashMap<>();
+
+    private final AtomicLong computations = new AtomicLong();
+    private final AtomicLong sharedReads = new AtomicLong();
+
+    public ClinicPositionSnapshots(QueueService queueService) {
+        this.queueService = queueService;
+    }
+
+    /**
+     * Move the clinic to a new version once a queue change commits
+     */
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void handleQueueChanged(QueueChangedEvent event) {
+        if (event.getClinicId() != null) {
+            versions.merge(event.getClinicId(), 1L, Long::sum);
+        }
+    }
+
+    /**
+     * Positions of the clinic's current version, computed at most once per version
+     */
+    public Snapshot get(Long clinicId) {
+        long version = versions.getOrDefault(clinicId, 0L);
+        Pending created = new Pending(version, new CompletableFuture<>());
+        // A pending computation of a newer version is as good as our own
+        Pending pending = latest.merge(clinicId, created,
+                (existing, fresh) -> existing.version() >= fresh.version() ? existing : fresh);
+
+        if (pending != created) {
+            sharedReads.incrementAndGet();
+            return join(pending.snapshot());
+        }
+        try {
+            Snapshot snapshot = new Snapshot(version,
+                    Collections.unmodifiableMap(queueService.getClinicPositions(clinicId)), LocalDateTime.now());
+            computations.incrementAndGet();
+            created.snapshot().complete(snapshot);
+            return snapshot;
+        } catch (RuntimeException e) {
+            // The next reader retries instead of inheriting the failure
+            latest.remove(clinicId, created);
+            created.snapshot().completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("clinics", latest.size());
+        stats.put("computations", computations.get());
+        stats.put("sharedReads", sharedReads.get());
+        return stats;
+    }
+
+    private static Snapshot join(CompletableFuture<Snapshot> snapshot) {
+        try {
+            return snapshot.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,476 @@
+package com.example.backend.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.backend.model.queue.QueueLog;
+import com.example.backend.repo.QueueRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Component: ClinicQueueIndex
+ *
+ * Purpose: In-memory ordered index of waiting (IN_QUEUE) entries, split into
+ * per-doctor sub-queues plus a shared pool for patients without a preferred doctor
+ *
+ * Key Features:
+ * - One sorted set per sub-queue (priority DESC, createdAt ASC, queueId ASC)
+ * - Lanes: a doctor serves the merge of their own sub-queue and the shared pool
+ * - Atomic claim of the next patient per doctor (work stealing from the shared pool)
+ * - Running per-priority counts per sub-queue, so lane sizes and wait estimates are O(1)
+ * - Lazily loaded per clinic from the primary database, then kept in step after each commit
+ *
+ * Dependencies:
+ * - QueueRepository: Initial load of a clinic's waiting entries
+ * - PlatformTransactionManager: Runs that load in its own read-write transaction, so it is
+ *   never served by a lagging read replica even when called from a read-only transaction
+ *
+ * Version: 1.0
+ */
+@Component
+@Slf4j
+public class ClinicQueueIndex {
+
+    /**
+     * Immutable snapshot of a waiting queue entry
+     * doctorId is null for entries in the shared pool
+     */
+    public record QueuedEntry(Long queueId, Long appointmentId, Long doctorId, int priority,
+            LocalDateTime createdAt) {
+
+        static QueuedEntry of(QueueLog queueLog) {
+            return new QueuedEntry(queueLog.getQueueId(), queueLog.getAppointmentId(), queueLog.getDoctorId(),
+                    queueLog.getPriority() != null ? queueLog.getPriority() : QueueLog.PRIORITY_NORMAL,
+                    queueLog.getCreatedAt() != null ? queueLog.getCreatedAt() : LocalDateTime.MIN);
+        }
+    }
+
+    /**
+     * Queue order: priority DESC, then createdAt ASC, then queueId ASC as a tie-breaker
+     */
+    public static final Comparator<QueuedEntry> QUEUE_ORDER = Comparator
+            .comparingInt(QueuedEntry::priority).reversed()
+            .thenComparing(QueuedEntry::createdAt)
+            .thenComparing(QueuedEntry::queueId);
+
+    // Slots of the per-priority count arrays: 0 = all priorities, 1..3 = by priority
+    public static final int PRIORITY_SLOTS = QueueLog.PRIORITY_EMERGENCY + 1;
+
+    private final QueueRepository queueRepository;
+    private final TransactionOperations primaryLoad;
+
+    private final Map<Long, ClinicQueue> clinics = new ConcurrentHashMap<>();
+
+    // Bumped whenever a clinic's committed state changes while it is not loaded (per clinic) or
+    // when everything is dropped (epoch); a load that saw either change discards its snapshot
+    private final Map<Long, AtomicLong> generations = new ConcurrentHashMap<>();
+    private final AtomicLong epoch = new AtomicLong();
+
+    @Autowired
+    public ClinicQueueIndex(QueueRepository queueRepository, PlatformTransactionManager transactionManager) {
+        this(queueRepository, primaryLoadTransaction(transactionManager));
+    }
+
+    /**
+     * @param primaryLoad how a clinic's initial load is run (TransactionOperations.withoutTransaction()
+     *                    when there is no replica to avoid, e.g. in benchmarks)
+     */
+    public ClinicQueueIndex(QueueRepository queueRepository, TransactionOperations primaryLoad) {
+        this.queueRepository = queueRepository;
+        this.primaryLoad = primaryLoad;
+    }
+
+    // A new read-write transaction: replica routing only sends read-only transactions to the replica,
+    // and a fresh transaction sees everything committed so far rather than the caller's snapshot
+    private static TransactionOperations primaryLoadTransaction(PlatformTransactionManager transactionManager) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        template.setReadOnly(false);
+        return template;
+    }
+
+    /**
+     * Waiting entries of one clinic; all access is guarded by the instance monitor
+     */
+    private static final class ClinicQueue {
+        private final NavigableSet<QueuedEntry> shared = new TreeSet<>(QUEUE_ORDER);
+        private final Map<Long, NavigableSet<QueuedEntry>> byDoctor = new HashMap<>();
+        private final Map<Long, QueuedEntry> byQueueId = new HashMap<>();
+
+        // Waiting count per priority (index 0 = all priorities), for the shared pool and each doctor
+        private final int[] sharedCounts = new int[PRIORITY_SLOTS];
+        private final Map<Long, int[]> countsByDoctor = new HashMap<>();
+
+        private void count(QueuedEntry entry, int delta) {
+            int[] counts = entry.doctorId() == null
+                    ? sharedCounts
+                    : countsByDoctor.computeIfAbsent(entry.doctorId(), id -> new int[PRIORITY_SLOTS]);
+            counts[0] += delta;
+            counts[prioritySlot(entry.priority())] += delta;
+            if (counts[0] == 0 && entry.doctorId() != null) {
+                countsByDoctor.remove(entry.doctorId());
+            }
+        }
+
+        private NavigableSet<QueuedEntry> subQueue(Long doctorId) {
+            if (doctorId == null) {
+                return shared;
+            }
+            return byDoctor.computeIfAbsent(doctorId, id -> new TreeSet<>(QUEUE_ORDER));
+        }
+
+        private void put(QueuedEntry entry) {
+            remove(entry.queueId());
+            subQueue(entry.doctorId()).add(entry);
+            byQueueId.put(entry.queueId(), entry);
+            count(entry, 1);
+        }
+
+        private void remove(Long queueId) {
+            QueuedEntry existing = byQueueId.remove(queueId);
+            if (existing != null) {
+                count(existing, -1);
+                NavigableSet<QueuedEntry> set = subQueue(existing.doctorId());
+                set.remove(existing);
+                if (set.isEmpty() && existing.doctorId() != null) {
+                    byDoctor.remove(existing.doctorId());
+                }
+            }
+        }
+
+        private List<QueuedEntry> lane(Long doctorId) {
+            if (doctorId == null) {
+                return new ArrayList<>(shared);
+            }
+            NavigableSet<QueuedEntry> own = byDoctor.get(doctorId);
+            if (own == null || own.isEmpty()) {
+                return new ArrayList<>(shared);
+            }
+            TreeSet<QueuedEntry> merged = new TreeSet<>(QUEUE_ORDER);
+            merged.addAll(own);
+            merged.addAll(shared);
+            return new ArrayList<>(merged);
+        }
+
+        private List<QueuedEntry> all() {
+            TreeSet<QueuedEntry> merged = new TreeSet<>(QUEUE_ORDER);
+            merged.addAll(byQueueId.values());
+            return new ArrayList<>(merged);
+        }
+    }
+
+    /**
+     * Get all waiting entries of a clinic in queue order
+     */
+    public List<QueuedEntry> getClinicQueue(Long clinicId) {
+        ClinicQueue queue = load(clinicId);
+        synchronized (queue) {
+            return queue.all();
+        }
+    }
+
+    /**
+     * Get the lane a doctor serves: their own sub-queue merged with the shared pool
+     * A null doctorId returns only the shared pool
+     */
+    public List<QueuedEntry> getLane(Long clinicId, Long doctorId) {
+        ClinicQueue queue = load(clinicId);
+        synchronized (queue) {
+            return queue.lane(doctorId);
+        }
+    }
+
+    /**
+     * Waiting entries per priority in the lane a doctor serves (their sub-queue plus the
+     * shared pool; only the shared pool for a null doctorId), read from running counts
+     *
+     * @return counts indexed by priority, with index 0 holding the lane size
+     */
+    public int[] getLaneCounts(Long clinicId, Long doctorId) {
+        ClinicQueue queue = load(clinicId);
+        synchronized (queue) {
+            int[] counts = queue.sharedCounts.clone();
+            int[] own = doctorId != null ? queue.countsByDoctor.get(doctorId) : null;
+            if (own != null) {
+                for (int i = 0; i < PRIORITY_SLOTS; i++) {
+                    counts[i] += own[i];
+                }
+            }
+            return counts;
+        }
+    }
+
+    /**
+     * Get doctor IDs that currently have a non-empty sub-queue in a clinic
+     */
+    public Set<Long> getDoctorsWithWaitingPatients(Long clinicId) {
+        ClinicQueue queue = load(clinicId);
+        synchronized (queue) {
+            return new HashSet<>(queue.byDoctor.keySet());
+        }
+    }
+
+    /**
+     * Number of waiting entries of a clinic that is already loaded, without touching the database
+     *
+     * @return waiting count, or -1 if the clinic is not loaded
+     */
+    public int getLoadedSize(Long clinicId) {
+        ClinicQueue queue = clinics.get(clinicId);
+        if (queue == null) {
+            return -1;
+        }
+        synchronized (queue) {
+            return queue.byQueueId.size();
+        }
+    }
+
+    /**
+     * 1-based position of a queue entry within the lane it will be served from
+     *
+     * @return position, or 0 if the entry is not waiting
+     */
+    public int getLanePosition(Long clinicId, Long queueId) {
+        ClinicQueue queue = load(clinicId);
+        synchronized (queue) {
+            QueuedEntry entry = queue.byQueueId.get(queueId);
+            if (entry == null) {
+                return 0;
+            }
+            return queue.lane(entry.doctorId()).indexOf(entry) + 1;
+        }
+    }
+
+    /**
+     * Atomically take the next patient for a doctor: the better-ranked head of the
+     * doctor's own sub-queue and the shared pool. If the surrounding transaction
+     * rolls back, the entry is put back.
+     *
+     * @return the claimed entry, or null if nothing is waiting for this doctor
+     */
+    public QueuedEntry claimNext(Long clinicId, Long doctorId) {
+        ClinicQueue queue = load(clinicId);
+        QueuedEntry claimed;
+        synchronized (queue) {
+            NavigableSet<QueuedEntry> own = queue.byDoctor.get(doctorId);
+            QueuedEntry ownHead = own != null && !own.isEmpty() ? own.first() : null;
+            QueuedEntry sharedHead = queue.shared.isEmpty() ? null : queue.shared.first();
+
+            if (ownHead == null) {
+                claimed = sharedHead;
+            } else if (sharedHead == null) {
+                claimed = ownHead;
+            } else {
+                claimed = QUEUE_ORDER.compare(ownHead, sharedHead) <= 0 ? ownHead : sharedHead;
+            }
+            if (claimed != null) {
+                queue.remove(claimed.queueId());
+            }
+        }
+        putBackOnRollback(queue, claimed);
+        return claimed;
+    }
+
+    /**
+     * Atomically take the next patient of the whole clinic (single-line call-next):
+     * the best-ranked entry across the shared pool and every doctor's sub-queue.
+     * If the surrounding transaction rolls back, the entry is put back.
+     *
+     * @return the claimed entry, or null if nobody is waiting
+     */
+    public QueuedEntry claimNext(Long clinicId) {
+        ClinicQueue queue = load(clinicId);
+        QueuedEntry claimed = null;
+        synchronized (queue) {
+            for (QueuedEntry head : heads(queue)) {
+                if (claimed == null || QUEUE_ORDER.compare(head, claimed) < 0) {
+                    claimed = head;
+                }
+            }
+            if (claimed != null) {
+                queue.remove(claimed.queueId());
+            }
+        }
+        putBackOnRollback(queue, claimed);
+        return claimed;
+    }
+
+    // Callers hold the queue monitor
+    private static List<QueuedEntry> heads(ClinicQueue queue) {
+        List<QueuedEntry> heads = new ArrayList<>(queue.byDoctor.size() + 1);
+        if (!queue.shared.isEmpty()) {
+            heads.add(queue.shared.first());
+        }
+        for (NavigableSet<QueuedEntry> own : queue.byDoctor.values()) {
+            if (!own.isEmpty()) {
+                heads.add(own.first());
+            }
+        }
+        return heads;
+    }
+
+    private static void putBackOnRollback(ClinicQueue queue, QueuedEntry claimed) {
+        if (claimed != null && TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        synchronized (queue) {
+                            queue.put(claimed);
+                        }
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Reflect the saved state of a queue entry once the current transaction commits
+     * (immediately when called outside a transaction)
+     */
+    public void refreshAfterCommit(QueueLog queueLog) {
+        QueueLog snapshot = copyOf(queueLog);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    refresh(snapshot);
+                }
+            });
+        } else {
+            refresh(snapshot);
+        }
+    }
+
+    /**
+     * Forget all cached clinics once the current transaction commits (e.g. after a
+     * backup restore); clinics are reloaded from the database on next access
+     */
+    public void invalidateAllAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidateAll();
+                }
+            });
+        } else {
+            invalidateAll();
+        }
+    }
+
+    /**
+     * Forget one clinic immediately (changed by another backend node); it is reloaded
+     * from the database on next access
+     */
+    public void invalidateClinic(Long clinicId) {
+        if (clinicId != null) {
+            bumpGeneration(clinicId);
+            clinics.remove(clinicId);
+        }
+    }
+
+    private void invalidateAll() {
+        epoch.incrementAndGet();
+        clinics.clear();
+        log.info("Cleared in-memory clinic queue index");
+    }
+
+    private void refresh(QueueLog queueLog) {
+        Long clinicId = queueLog.getClinicId();
+        ClinicQueue queue = clinics.get(clinicId);
+        if (queue == null) {
+            // Not loaded: a load already in flight may have read the state before this commit,
+            // so make it retry; one that published in the meantime gets the change applied below
+            bumpGeneration(clinicId);
+            queue = clinics.get(clinicId);
+            if (queue == null) {
+                return;
+            }
+        }
+        synchronized (queue) {
+            if (QueueLog.STATUS_IN_QUEUE.equals(queueLog.getStatus())) {
+                queue.put(QueuedEntry.of(queueLog));
+            } else {
+                queue.remove(queueLog.getQueueId());
+            }
+        }
+    }
+
+    private ClinicQueue load(Long clinicId) {
+        while (true) {
+            ClinicQueue existing = clinics.get(clinicId);
+            if (existing != null) {
+                return existing;
+            }
+
+            // Query outside computeIfAbsent: a JDBC call inside the map's bin lock would pin a virtual thread
+            // and block every other clinic hashed to the same bin. Concurrent loaders race; the first one wins.
+            long generation = generation(clinicId);
+            ClinicQueue queue = new ClinicQueue();
+            List<QueueLog> waiting = primaryLoad.execute(
+                    status -> queueRepository.findByClinicIdAndStatus(clinicId, QueueLog.STATUS_IN_QUEUE));
+            for (QueueLog queueLog : waiting) {
+                queue.put(QueuedEntry.of(queueLog));
+            }
+            ClinicQueue winner = clinics.putIfAbsent(clinicId, queue);
+            if (winner != null) {
+                return winner;
+            }
+            // Checked after publishing: a change committed before this point either bumped the
+            // generation (and the snapshot is dropped) or found the published queue and was applied to it
+            if (generation(clinicId) == generation) {
+                log.debug("Loaded queue index for clinic {} ({} waiting)", clinicId, waiting.size());
+                return queue;
+            }
+            clinics.remove(clinicId, queue);
+            log.debug("Clinic {} changed while its queue index was loading; reloading", clinicId);
+        }
+    }
+
+    private long generation(Long clinicId) {
+        AtomicLong clinicGeneration = generations.get(clinicId);
+        return epoch.get() + (clinicGeneration != null ? clinicGeneration.get() : 0);
+    }
+
+    private void bumpGeneration(Long clinicId) {
+        generations.computeIfAbsent(clinicId, id -> new AtomicLong()).incrementAndGet();
+    }
+
+    private static int prioritySlot(int priority) {
+        return QueueLog.isValidPriority(priority) ? priority : QueueLog.PRIORITY_NORMAL;
+    }
+
+    private static QueueLog copyOf(QueueLog queueLog) {
+        QueueLog copy = new QueueLog();
+        copy.setQueueId(queueLog.getQueueId());
+        copy.setClinicId(queueLog.getClinicId());
+        copy.setAppointmentId(queueLog.getAppointmentId());
+        copy.setDoctorId(queueLog.getDoctorId());
+        copy.setStatus(queueLog.getStatus());
+        copy.setPriority(queueLog.getPriority());
+        copy.setCreatedAt(queueLog.getCreatedAt());
+        copy.setAppointmentStart(queueLog.getAppointmentStart());
+        return copy;
+    }
+}
@@ -1,10 +1,14 @@
 package com.example.backend.service;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.example.backend.dto.PageResponse;
 import com.example.backend.model.clinic.Clinic;
 import com.example.backend.model.clinic.ClinicType;
 import com.example.backend.repo.ClinicRepository;
@@ -16,6 +20,15 @@ import lombok.RequiredArgsConstructor;
 public class ClinicService {
 
     private final ClinicRepository clinicRepository;
+    private final ReferenceDataCache referenceDataCache;
+
+    // Sort keys accepted by listClinics
+    private static final Map<String, List<String>> LISTING_SORTS = Map.of(
+            "id", List.of("id"),
+            "name", List.of("name"),
+            "region", List.of("region", "name"),
+            "area", List.of("area", "name"),
+            "specialty", List.of("specialty", "name"));
 
     // Create a new clinic
     public Clinic createClinic(Clinic clinic) {
@@ -43,6 +56,21 @@ public class ClinicService {
         return clinicRepository.findAll();
     }
 
+    // Page of clinics matching the optional filters: ClinicSummaryDTO rows, or full records when detail is set
+    @Transactional(readOnly = true)
+    public PageResponse<?> listClinics(String query, String region, String area, String specialty, String clinicType,
+            boolean detail, int page, int size, String sort) {
+        Pageable pageable = PageRequests.of(page, size, sort, "name", LISTING_SORTS, "id");
+        String pattern = PageRequests.containsPattern(query);
+        region = PageRequests.blankToNull(region);
+        area = PageRequests.blankToNull(area);
+        specialty = PageRequests.blankToNull(specialty);
+        ClinicType type = PageRequests.blankToNull(clinicType) != null ? ClinicType.fromValue(clinicType.trim()) : null;
+        return detail
+                ? PageResponse.of(clinicRepository.findListing(pattern, region, area, specialty, type, pageable))
+                : PageResponse.of(clinicRepository.findSummaries(pattern, region, area, specialty, type, pageable));
+    }
+
     // Get clinics by region
     public List<Clinic> getClinicsByRegion(String region) {
         return clinicRepository.findByRegion(region);
@@ -135,7 +163,9 @@ public class ClinicService {
                     }
 
                     // @PreUpdate will automatically set updatedAt
-                    return clinicRepository.save(existingClinic);
+                    Clinic saved = clinicRepository.save(existingClinic);
+                    referenceDataCache.evictClinic(id);
+                    return saved;
                 });
     }
 
@@ -143,6 +173,7 @@ public class ClinicService {
     public boolean deleteClinic(Long id) {
         if (clinicRepository.existsById(id)) {
             clinicRepository.deleteById(id);
+            referenceDataCache.evictClinic(id);
             return true;
         }
         return false;
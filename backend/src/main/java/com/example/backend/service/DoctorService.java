@@ -1,14 +1,17 @@
 package com.example.backend.service;
 
-import java.util.HashSet;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.Set;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import com.example.backend.exception.ShiftOverlapException;
+import com.example.backend.dto.PageResponse;
 import com.example.backend.model.Doctor;
+import com.example.backend.model.DoctorShift;
 import com.example.backend.repo.DoctorRepository;
 
 import lombok.RequiredArgsConstructor;
@@ -18,8 +21,17 @@ import lombok.RequiredArgsConstructor;
 public class DoctorService {
 
     private final DoctorRepository doctorRepository;
+    private final DoctorShiftService doctorShiftService;
+    private final ReferenceDataCache referenceDataCache;
 
-    // Create a new doctor
+    // Sort keys accepted by listDoctors
+    private static final Map<String, List<String>> LISTING_SORTS = Map.of(
+            "id", List.of("id"),
+            "name", List.of("lname", "fname"),
+            "clinic", List.of("assignedClinic", "lname", "fname"));
+
+    // Create a new doctor (doctor row and shift rows commit together; overlap is checked once when the shifts are written)
+    @Transactional
     public Doctor createDoctor(Doctor doctor) {
         // Validate mandatory fields
         if (doctor.getFname() == null || doctor.getFname().isEmpty()) {
@@ -35,10 +47,12 @@ public class DoctorService {
         // Validate shift_days if provided
         if (doctor.getShiftDays() != null && !doctor.getShiftDays().isEmpty()) {
             validateShiftDays(doctor.getShiftDays());
-            checkShiftOverlap(doctor.getAssignedClinic(), doctor.getShiftDays(), null);
         }
 
-        return doctorRepository.save(doctor);
+        doctorShiftService.lockRosterUntilCompletion();
+        Doctor saved = doctorRepository.save(doctor);
+        syncShifts(saved);
+        return saved;
     }
 
     // Get doctor by ID
@@ -51,30 +65,36 @@ public class DoctorService {
         return doctorRepository.findAll();
     }
 
+    // Page of doctors matching the optional filters: DoctorSummaryDTO rows, or full records when detail is set
+    @Transactional(readOnly = true)
+    public PageResponse<?> listDoctors(String query, Long clinicId, boolean detail, int page, int size, String sort) {
+        Pageable pageable = PageRequests.of(page, size, sort, "name", LISTING_SORTS, "id");
+        String pattern = PageRequests.containsPattern(query);
+        return detail
+                ? PageResponse.of(doctorRepository.findListing(pattern, clinicId, pageable))
+                : PageResponse.of(doctorRepository.findSummaries(pattern, clinicId, pageable));
+    }
+
     // Get doctors by clinic
     public List<Doctor> getDoctorsByClinic(Long clinicId) {
         return doctorRepository.findByAssignedClinic(clinicId);
     }
 
-    // Update doctor
+    // Update doctor (the doctor row and its shift rows commit together)
+    @Transactional
     public Optional<Doctor> updateDoctor(Long id, Doctor updatedDoctor) {
+        // Roster lock before the doctor row is written, as in every roster write
+        doctorShiftService.lockRosterUntilCompletion();
         return doctorRepository.findById(id)
                 .map(existingDoctor -> {
-                    // Determine the clinic to check (use updated clinic if provided, otherwise existing)
-                    Long clinicToCheck = updatedDoctor.getAssignedClinic() != null 
-                            ? updatedDoctor.getAssignedClinic() 
-                            : existingDoctor.getAssignedClinic();
-                    
                     // Determine the shift days to check (use updated shift days if provided, otherwise existing)
                     List<Integer> shiftDaysToCheck = updatedDoctor.getShiftDays() != null 
                             ? updatedDoctor.getShiftDays() 
                             : existingDoctor.getShiftDays();
 
-                    // Validate shift_days if provided or if clinic is being changed
+                    // Validate shift_days if provided or if clinic is being changed (overlap is checked by syncShifts)
                     if (shiftDaysToCheck != null && !shiftDaysToCheck.isEmpty()) {
                         validateShiftDays(shiftDaysToCheck);
-                        // Check overlap excluding the current doctor being updated
-                        checkShiftOverlap(clinicToCheck, shiftDaysToCheck, id);
                     }
 
                     // Update fields
@@ -117,14 +137,53 @@ public class DoctorService {
                         existingDoctor.setShiftDays(updatedDoctor.getShiftDays());
                     }
 
-                    return doctorRepository.save(existingDoctor);
+                    Doctor saved = doctorRepository.save(existingDoctor);
+                    syncShifts(saved);
+                    referenceDataCache.evictDoctor(id);
+                    return saved;
+                });
+    }
+
+    // Replace a doctor's time-of-day shifts
+    @Transactional
+    public Optional<List<DoctorShift>> updateDoctorShifts(Long id, List<DoctorShift> shifts) {
+        doctorShiftService.lockRosterUntilCompletion();
+        return doctorRepository.findById(id)
+                .map(existingDoctor -> {
+                    if (existingDoctor.getAssignedClinic() == null) {
+                        throw new IllegalArgumentException("Doctor must be assigned to a clinic before setting shifts");
+                    }
+                    List<DoctorShift> saved = doctorShiftService.replaceDoctorShifts(
+                            id, existingDoctor.getAssignedClinic(), shifts);
+
+                    // Keep legacy shift_days in step with the detailed shifts
+                    existingDoctor.setShiftDays(saved.stream()
+                            .map(DoctorShift::getDayOfWeek)
+                            .distinct()
+                            .sorted()
+                            .toList());
+                    doctorRepository.save(existingDoctor);
+                    return saved;
                 });
     }
 
+    // Get a doctor's time-of-day shifts
+    public List<DoctorShift> getDoctorShifts(Long id) {
+        return doctorShiftService.getShiftsByDoctor(id);
+    }
+
+    // Get doctors on duty at a clinic at the given time
+    public List<Doctor> getDoctorsOnDuty(Long clinicId, LocalDateTime at) {
+        return doctorRepository.findAllById(doctorShiftService.getDoctorsOnDuty(clinicId, at));
+    }
+
     // Delete doctor by ID
+    @Transactional
     public boolean deleteDoctor(Long id) {
         if (doctorRepository.existsById(id)) {
+            doctorShiftService.removeDoctorShifts(id);
             doctorRepository.deleteById(id);
+            referenceDataCache.evictDoctor(id);
             return true;
         }
         return false;
@@ -147,46 +206,17 @@ public class DoctorService {
     }
 
     /**
-     * Checks if the given shift_days overlap with any existing doctor's shift_days in the same clinic
-     * @param clinicId The clinic ID to check
-     * @param newShiftDays The shift days to validate
-     * @param excludeDoctorId The doctor ID to exclude from the check (null for create operations)
+     * Brings the doctor's shift rows and index in line with the saved clinic and shift_days
+     * Days are expanded to the doctor's shifts (whole-day for new days); replaceDoctorShifts checks them
+     * for overlap against the in-memory shift index under the roster lock
      */
-    private void checkShiftOverlap(Long clinicId, List<Integer> newShiftDays, Long excludeDoctorId) {
-        if (newShiftDays == null || newShiftDays.isEmpty()) {
-            return; // No shift days means no overlap possible
-        }
-
-        // Get all doctors in the same clinic
-        List<Doctor> doctorsInClinic = doctorRepository.findByAssignedClinic(clinicId);
-        
-        // Convert new shift days to a set for efficient lookup
-        Set<Integer> newShiftDaysSet = new HashSet<>(newShiftDays);
-
-        // Check each doctor's shift days for overlaps
-        for (Doctor existingDoctor : doctorsInClinic) {
-            // Skip the doctor being updated
-            if (excludeDoctorId != null && existingDoctor.getId().equals(excludeDoctorId)) {
-                continue;
-            }
-
-            // Skip doctors without shift days
-            if (existingDoctor.getShiftDays() == null || existingDoctor.getShiftDays().isEmpty()) {
-                continue;
-            }
-
-            // Check for any overlapping days
-            Set<Integer> existingShiftDaysSet = new HashSet<>(existingDoctor.getShiftDays());
-            Set<Integer> overlap = new HashSet<>(newShiftDaysSet);
-            overlap.retainAll(existingShiftDaysSet);
-
-            if (!overlap.isEmpty()) {
-                String doctorName = existingDoctor.getFname() + " " + existingDoctor.getLname();
-                throw new ShiftOverlapException(
-                    String.format("Shift days overlap detected. Doctor '%s' (ID: %d) already works on day(s) %s. " +
-                        "No two doctors can work on the same shift in the same clinic.",
-                        doctorName, existingDoctor.getId(), overlap));
-            }
+    private void syncShifts(Doctor doctor) {
+        if (doctor.getAssignedClinic() == null || doctor.getShiftDays() == null || doctor.getShiftDays().isEmpty()) {
+            doctorShiftService.removeDoctorShifts(doctor.getId());
+            return;
         }
+        List<DoctorShift> shifts = doctorShiftService.buildShiftsForDays(
+                doctor.getId(), doctor.getAssignedClinic(), doctor.getShiftDays());
+        doctorShiftService.replaceDoctorShifts(doctor.getId(), doctor.getAssignedClinic(), shifts);
     }
 }
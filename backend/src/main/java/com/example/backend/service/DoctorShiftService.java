@@ -0,0 +1,284 @@
+package com.example.backend.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.backend.exception.ShiftOverlapException;
+import com.example.backend.model.Doctor;
+import com.example.backend.model.DoctorShift;
+import com.example.backend.repo.DoctorRepository;
+import com.example.backend.repo.DoctorShiftRepository;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Service: DoctorShiftService
+ *
+ * Purpose: Manages doctor shift intervals and the in-memory roster index
+ *
+ * Key Features:
+ * - Shifts stored as (dayOfWeek, start, end) rows in doctor_shift
+ * - Overlap checks against an in-memory per-clinic interval index (no clinic scan)
+ * - Roster writes hold the roster lock until their transaction completes and only
+ *   touch the index after commit, so a rolled-back edit never reaches the index
+ * - "Who is on duty at time T" lookups
+ * - Backfills whole-day shifts from legacy Doctor.shiftDays on startup
+ *
+ * Dependencies:
+ * - DoctorShiftRepository: Persistence of shift intervals
+ * - DoctorRepository: Doctor names for conflict messages and legacy backfill
+ *
+ * Version: 1.0
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DoctorShiftService {
+
+    private final DoctorShiftRepository doctorShiftRepository;
+    private final DoctorRepository doctorRepository;
+
+    private final ShiftIndex shiftIndex = new ShiftIndex();
+
+    // Serializes check-then-write so two concurrent edits cannot both pass the overlap check; held from the
+    // check until the writing transaction completes, so the next check sees the committed index
+    // (a ReentrantLock rather than synchronized so a virtual thread blocked on JDBC does not pin its carrier)
+    private final ReentrantLock rosterLock = new ReentrantLock();
+
+    /**
+     * Load all shifts into the in-memory index, backfilling legacy shift_days
+     */
+    @PostConstruct
+    public void loadIndex() {
+        try {
+            Map<Long, List<DoctorShift>> shiftsByDoctor = doctorShiftRepository.findAll().stream()
+                    .collect(Collectors.groupingBy(DoctorShift::getDoctorId));
+
+            for (Doctor doctor : doctorRepository.findAll()) {
+                List<DoctorShift> shifts = shiftsByDoctor.get(doctor.getId());
+                if (shifts == null && doctor.getAssignedClinic() != null
+                        && doctor.getShiftDays() != null && !doctor.getShiftDays().isEmpty()) {
+                    // Legacy doctor with whole-day shift_days only
+                    shifts = doctorShiftRepository.saveAll(
+                            buildShiftsForDays(doctor.getId(), doctor.getAssignedClinic(), doctor.getShiftDays()));
+                }
+                if (shifts != null && doctor.getAssignedClinic() != null) {
+                    shiftIndex.replaceDoctor(doctor.getId(), doctor.getAssignedClinic(), shifts);
+                }
+            }
+            log.info("Loaded doctor shift index ({} doctors with shifts)", shiftsByDoctor.size());
+        } catch (Exception e) {
+            log.error("Failed to load doctor shift index: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Get all shifts worked by a doctor, ordered by day and start time
+     */
+    public List<DoctorShift> getShiftsByDoctor(Long doctorId) {
+        return doctorShiftRepository.findByDoctorId(doctorId).stream()
+                .sorted(Comparator.comparing(DoctorShift::getDayOfWeek)
+                        .thenComparing(DoctorShift::getStartTime))
+                .toList();
+    }
+
+    /**
+     * Get doctors whose shift covers the given time at a clinic
+     *
+     * @param clinicId The clinic ID
+     * @param at       The date/time to check
+     * @return IDs of doctors on duty
+     */
+    public List<Long> getDoctorsOnDuty(Long clinicId, LocalDateTime at) {
+        int dayOfWeek = at.getDayOfWeek().getValue();
+        int minuteOfDay = at.getHour() * 60 + at.getMinute();
+        return shiftIndex.findDoctorsOnDuty(clinicId, dayOfWeek, minuteOfDay);
+    }
+
+    /**
+     * Build the shifts a doctor would have for the given whole days
+     * Keeps the doctor's existing time-of-day shifts on days that remain, and adds
+     * whole-day shifts for newly added days
+     */
+    public List<DoctorShift> buildShiftsForDays(Long doctorId, Long clinicId, List<Integer> shiftDays) {
+        Set<Integer> days = new TreeSet<>(shiftDays);
+        List<DoctorShift> existing = doctorId != null ? doctorShiftRepository.findByDoctorId(doctorId) : List.of();
+
+        List<DoctorShift> result = new ArrayList<>();
+        for (Integer day : days) {
+            List<DoctorShift> kept = existing.stream()
+                    .filter(shift -> day.equals(shift.getDayOfWeek()))
+                    .toList();
+            if (kept.isEmpty()) {
+                result.add(DoctorShift.wholeDay(doctorId, clinicId, day));
+            } else {
+                for (DoctorShift shift : kept) {
+                    result.add(new DoctorShift(doctorId, clinicId, day, shift.getStartTime(), shift.getEndTime()));
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Validates shift intervals: day in 1-7, start before end, no self-overlap
+     */
+    public void validateShifts(List<DoctorShift> shifts) {
+        if (shifts == null) {
+            return;
+        }
+
+        for (DoctorShift shift : shifts) {
+            Integer day = shift.getDayOfWeek();
+            if (day == null || day < 1 || day > 7) {
+                throw new IllegalArgumentException(
+                        "Shift day must be an integer between 1 and 7 (representing days of the week). Invalid value: "
+                                + day);
+            }
+            if (shift.getStartTime() == null || shift.getEndTime() == null) {
+                throw new IllegalArgumentException("Shift start time and end time are required");
+            }
+            if (ShiftIndex.toMinuteOfDay(shift.getStartTime(), false)
+                    >= ShiftIndex.toMinuteOfDay(shift.getEndTime(), true)) {
+                throw new IllegalArgumentException(
+                        "Shift start time must be before end time on day " + day + ": "
+                                + shift.getStartTime() + " - " + shift.getEndTime());
+            }
+        }
+
+        // A doctor cannot have two overlapping shifts of their own
+        List<ShiftIndex.Slot> slots = shifts.stream()
+                .map(shift -> ShiftIndex.toSlot(null, shift))
+                .sorted(Comparator.comparingInt(ShiftIndex.Slot::dayOfWeek)
+                        .thenComparingInt(ShiftIndex.Slot::start))
+                .toList();
+        for (int i = 1; i < slots.size(); i++) {
+            ShiftIndex.Slot previous = slots.get(i - 1);
+            ShiftIndex.Slot current = slots.get(i);
+            if (previous.dayOfWeek() == current.dayOfWeek() && current.start() < previous.end()) {
+                throw new IllegalArgumentException("Shifts overlap each other on day " + current.dayOfWeek());
+            }
+        }
+    }
+
+    /**
+     * Checks if the given shifts overlap with any other doctor's shifts in the same clinic
+     *
+     * @param clinicId        The clinic ID to check
+     * @param shifts          The shifts to validate
+     * @param excludeDoctorId The doctor ID to exclude from the check (null for create operations)
+     * @throws ShiftOverlapException if another doctor already works an overlapping interval
+     */
+    public void checkShiftOverlap(Long clinicId, List<DoctorShift> shifts, Long excludeDoctorId) {
+        if (clinicId == null || shifts == null || shifts.isEmpty()) {
+            return; // No shifts means no overlap possible
+        }
+
+        for (DoctorShift shift : shifts) {
+            ShiftIndex.Slot slot = ShiftIndex.toSlot(excludeDoctorId, shift);
+            List<ShiftIndex.Slot> overlaps = shiftIndex.findOverlaps(
+                    clinicId, slot.dayOfWeek(), slot.start(), slot.end(), excludeDoctorId);
+
+            if (!overlaps.isEmpty()) {
+                ShiftIndex.Slot conflict = overlaps.get(0);
+                String doctorName = doctorRepository.findById(conflict.doctorId())
+                        .map(doctor -> doctor.getFname() + " " + doctor.getLname())
+                        .orElse("Unknown");
+                throw new ShiftOverlapException(
+                        String.format("Shift overlap detected. Doctor '%s' (ID: %d) already works on day %d from %s to %s. " +
+                                "No two doctors can work on the same shift in the same clinic.",
+                                doctorName, conflict.doctorId(), conflict.dayOfWeek(),
+                                formatMinute(conflict.start()), formatMinute(conflict.end())));
+            }
+        }
+    }
+
+    /**
+     * Replace all shifts of a doctor, checking overlap under the roster lock
+     * Must run inside the caller's transaction; the index is updated once it commits
+     *
+     * @param doctorId The doctor ID
+     * @param clinicId The clinic the shifts belong to
+     * @param shifts   The new shifts (dayOfWeek, startTime, endTime)
+     * @return The saved shifts
+     * @throws ShiftOverlapException if another doctor already works an overlapping interval
+     */
+    @Transactional
+    public List<DoctorShift> replaceDoctorShifts(Long doctorId, Long clinicId, List<DoctorShift> shifts) {
+        validateShifts(shifts);
+        lockRosterUntilCompletion();
+
+        checkShiftOverlap(clinicId, shifts, doctorId);
+
+        List<DoctorShift> toSave = shifts.stream()
+                .map(shift -> new DoctorShift(doctorId, clinicId, shift.getDayOfWeek(),
+                        shift.getStartTime(), shift.getEndTime()))
+                .toList();
+
+        doctorShiftRepository.deleteByDoctorId(doctorId);
+        List<DoctorShift> saved = doctorShiftRepository.saveAll(toSave);
+        afterCommit(() -> shiftIndex.replaceDoctor(doctorId, clinicId, saved));
+
+        log.info("Replaced shifts for doctor {} in clinic {} ({} intervals)", doctorId, clinicId, saved.size());
+        return saved;
+    }
+
+    /**
+     * Remove all shifts of a doctor (unassigned or deleted)
+     */
+    @Transactional
+    public void removeDoctorShifts(Long doctorId) {
+        lockRosterUntilCompletion();
+        doctorShiftRepository.deleteByDoctorId(doctorId);
+        afterCommit(() -> shiftIndex.removeDoctor(doctorId));
+    }
+
+    /**
+     * Takes the roster lock for the rest of the current transaction (once per transaction);
+     * it is released in afterCompletion, after any afterCommit index update has run
+     * Callers that also write the doctor row take it before their first write or flush, so the
+     * roster lock is always acquired before any doctor or shift row lock
+     */
+    public void lockRosterUntilCompletion() {
+        if (rosterLock.isHeldByCurrentThread()) {
+            return;
+        }
+        rosterLock.lock();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                rosterLock.unlock();
+            }
+        });
+    }
+
+    private static void afterCommit(Runnable action) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static String formatMinute(int minuteOfDay) {
+        if (minuteOfDay >= ShiftIndex.MINUTES_PER_DAY) {
+            return "24:00";
+        }
+        return String.format("%02d:%02d", minuteOfDay / 60, minuteOfDay % 60);
+    }
+}
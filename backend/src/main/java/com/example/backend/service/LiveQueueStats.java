@@ -0,0 +1,404 @@
+package com.example.backend.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.backend.dto.LiveQueueStatsDTO;
+import com.example.backend.model.queue.QueueLog;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Component: LiveQueueStats
+ *
+ * Purpose: Rolling-window operations statistics per clinic for the live queue dashboard
+ *
+ * Key Features:
+ * - Ring buffer of per-minute counters per clinic (arrivals, calls, completions,
+ *   missed, wait and service time sums, doctor busy time, queue length)
+ * - Fed by QueueService with each committed status transition; no history scans
+ * - Each clinic's LiveQueueStatsDTO is rebuilt on every transition and once a minute
+ *   (to slide the window), so reads return a ready snapshot in O(1)
+ * - Per-clinic SSE stream pushing the snapshot whenever it is rebuilt; subscribing to a
+ *   clinic without activity does not create its window (it attaches once activity starts),
+ *   so unknown clinic IDs are never stored or ticked
+ *
+ * Counters are kept in memory, start empty after a restart and only see transitions
+ * made on this instance. Queue length is read from ClinicQueueIndex when the clinic
+ * is loaded there.
+ *
+ * Dependencies:
+ * - ClinicQueueIndex: Current waiting count per clinic
+ *
+ * Version: 1.1
+ */
+@Component
+public class LiveQueueStats {
+
+    /**
+     * A committed queue status change
+     *
+     * @param fromStatus  previous status, null for a new check-in
+     * @param checkedInAt when the entry joined (or re-joined) the queue
+     * @param calledAt    when the entry was called, null if never called
+     */
+    public record Transition(Long clinicId, Long queueId, String fromStatus, String toStatus,
+            LocalDateTime checkedInAt, LocalDateTime calledAt) {
+    }
+
+    private static final String EVENT_NAME = "stats-update";
+
+    private static final ServerSentEvent<LiveQueueStatsDTO> HEARTBEAT = ServerSentEvent.<LiveQueueStatsDTO>builder()
+            .comment("heartbeat")
+            .build();
+
+    // Longer consultations are treated as entries someone forgot to close (as in WaitTimeEstimator)
+    private static final long MAX_SERVICE_SECONDS = 240 * 60;
+
+    private final ClinicQueueIndex clinicQueueIndex;
+
+    @Value("${queue.live-stats.window-minutes:60}")
+    private int windowMinutes;
+
+    @Value("${queue.stream.heartbeat-seconds:15}")
+    private long heartbeatSeconds;
+
+    private final Map<Long, ClinicWindow> clinics = new ConcurrentHashMap<>();
+    private final AtomicInteger subscribers = new AtomicInteger();
+    // Clinic IDs whose window was just created, for streams waiting on a clinic's first activity
+    private final Sinks.Many<Long> windowsCreated = Sinks.many().multicast().directBestEffort();
+
+    public LiveQueueStats(ClinicQueueIndex clinicQueueIndex) {
+        this.clinicQueueIndex = clinicQueueIndex;
+    }
+
+    /**
+     * Counters of one minute
+     */
+    private static final class Bucket {
+        private int arrivals;
+        private int calls;
+        private int completions;
+        private int missed;
+        private long waitSeconds;
+        private int waitSamples;
+        private long serviceSeconds;
+        private int serviceSamples;
+        private long busySeconds;
+        private int peakServing;
+        private int queueLength;
+
+        void reset(int serving, int length) {
+            arrivals = 0;
+            calls = 0;
+            completions = 0;
+            missed = 0;
+            waitSeconds = 0;
+            waitSamples = 0;
+            serviceSeconds = 0;
+            serviceSamples = 0;
+            busySeconds = 0;
+            peakServing = serving;
+            queueLength = length;
+        }
+    }
+
+    /**
+     * Rolling window of one clinic; all state is guarded by the window's monitor
+     */
+    private final class ClinicWindow {
+        private final Long clinicId;
+        private final Bucket[] buckets;
+        private final long startMinute;
+        private final long startSecond;
+        private long currentMinute;
+        private long busyUpdatedSecond;
+
+        // queueId -> epoch second the entry started waiting
+        private final Map<Long, Long> waitingSince = new HashMap<>();
+        private long waitingSinceSum;
+        private final Set<Long> serving = new HashSet<>();
+
+        private final Sinks.Many<LiveQueueStatsDTO> updates = Sinks.many().replay().latest();
+        private volatile LiveQueueStatsDTO snapshot;
+
+        private ClinicWindow(Long clinicId, long now) {
+            this.clinicId = clinicId;
+            this.buckets = new Bucket[Math.max(1, windowMinutes)];
+            this.startSecond = now;
+            this.startMinute = now / 60;
+            this.currentMinute = startMinute;
+            this.busyUpdatedSecond = now;
+            int length = queueLength();
+            for (int i = 0; i < buckets.length; i++) {
+                buckets[i] = new Bucket();
+                buckets[i].reset(0, length);
+            }
+            rebuild(now);
+        }
+
+        synchronized void record(Transition transition, long now) {
+            advance(now);
+            Bucket bucket = current();
+            String from = transition.fromStatus();
+            String to = transition.toStatus();
+
+            if (QueueLog.STATUS_IN_QUEUE.equals(from)) {
+                stopWaiting(transition.queueId());
+            }
+            if (QueueLog.STATUS_CALLED.equals(from)) {
+                serving.remove(transition.queueId());
+            }
+
+            if (QueueLog.STATUS_IN_QUEUE.equals(to)) {
+                bucket.arrivals++;
+                stopWaiting(transition.queueId());
+                long since = transition.checkedInAt() != null ? epochSecond(transition.checkedInAt()) : now;
+                waitingSince.put(transition.queueId(), since);
+                waitingSinceSum += since;
+            } else if (QueueLog.STATUS_CALLED.equals(to)) {
+                bucket.calls++;
+                if (transition.checkedInAt() != null) {
+                    long calledAt = transition.calledAt() != null ? epochSecond(transition.calledAt()) : now;
+                    bucket.waitSeconds += Math.max(0, calledAt - epochSecond(transition.checkedInAt()));
+                    bucket.waitSamples++;
+                }
+                serving.add(transition.queueId());
+                bucket.peakServing = Math.max(bucket.peakServing, serving.size());
+            } else if (QueueLog.STATUS_DONE.equals(to)) {
+                bucket.completions++;
+                if (QueueLog.STATUS_CALLED.equals(from) && transition.calledAt() != null) {
+                    long service = now - epochSecond(transition.calledAt());
+                    if (service > 0 && service <= MAX_SERVICE_SECONDS) {
+                        bucket.serviceSeconds += service;
+                        bucket.serviceSamples++;
+                    }
+                }
+            } else if (QueueLog.STATUS_MISSED.equals(to)) {
+                bucket.missed++;
+            }
+
+            bucket.queueLength = queueLength();
+            rebuild(now);
+        }
+
+        synchronized void tick(long now) {
+            advance(now);
+            current().queueLength = queueLength();
+            rebuild(now);
+        }
+
+        /**
+         * Charge doctor busy time up to now to the current minute, then move to now's
+         * minute, recycling buckets that fall out of the window
+         */
+        private void advance(long now) {
+            current().busySeconds += serving.size() * Math.max(0, now - busyUpdatedSecond);
+            busyUpdatedSecond = now;
+
+            long minute = now / 60;
+            if (minute <= currentMinute) {
+                return;
+            }
+            int carriedLength = current().queueLength;
+            long steps = Math.min(minute - currentMinute, buckets.length);
+            for (long m = minute - steps + 1; m <= minute; m++) {
+                buckets[index(m)].reset(serving.size(), carriedLength);
+            }
+            currentMinute = minute;
+        }
+
+        private void stopWaiting(Long queueId) {
+            Long since = waitingSince.remove(queueId);
+            if (since != null) {
+                waitingSinceSum -= since;
+            }
+        }
+
+        private int queueLength() {
+            int loaded = clinicQueueIndex.getLoadedSize(clinicId);
+            return loaded >= 0 ? loaded : waitingSince.size();
+        }
+
+        private Bucket current() {
+            return buckets[index(currentMinute)];
+        }
+
+        private int index(long minute) {
+            return (int) Math.floorMod(minute, (long) buckets.length);
+        }
+
+        private void rebuild(long now) {
+            int covered = (int) Math.min(buckets.length, currentMinute - startMinute + 1);
+            long coveredSeconds = Math.max(60, Math.min(buckets.length * 60L, now - startSecond));
+
+            int arrivals = 0, calls = 0, completions = 0, missed = 0, waitSamples = 0, serviceSamples = 0, capacity = 0;
+            long waitSeconds = 0, serviceSeconds = 0, busySeconds = 0;
+            List<Integer> trend = new ArrayList<>(covered);
+            for (long m = currentMinute - covered + 1; m <= currentMinute; m++) {
+                Bucket bucket = buckets[index(m)];
+                arrivals += bucket.arrivals;
+                calls += bucket.calls;
+                completions += bucket.completions;
+                missed += bucket.missed;
+                waitSeconds += bucket.waitSeconds;
+                waitSamples += bucket.waitSamples;
+                serviceSeconds += bucket.serviceSeconds;
+                serviceSamples += bucket.serviceSamples;
+                busySeconds += bucket.busySeconds;
+                capacity = Math.max(capacity, bucket.peakServing);
+                trend.add(bucket.queueLength);
+            }
+
+            snapshot = LiveQueueStatsDTO.builder()
+                    .clinicId(clinicId)
+                    .windowMinutes(buckets.length)
+                    .coveredMinutes(covered)
+                    .arrivals(arrivals)
+                    .calls(calls)
+                    .completions(completions)
+                    .missed(missed)
+                    .arrivalRatePerHour(round(arrivals * 3600.0 / coveredSeconds))
+                    .serviceRatePerHour(round(completions * 3600.0 / coveredSeconds))
+                    .utilization(capacity == 0 ? null
+                            : Math.min(1.0, Math.round(busySeconds * 1000.0 / (capacity * coveredSeconds)) / 1000.0))
+                    .averageServiceMinutes(serviceSamples == 0 ? null : round(serviceSeconds / 60.0 / serviceSamples))
+                    .averageWaitMinutes(waitSamples == 0 ? null : round(waitSeconds / 60.0 / waitSamples))
+                    .currentWaitMinutes(waitingSince.isEmpty() ? null
+                            : round((now - (double) waitingSinceSum / waitingSince.size()) / 60.0))
+                    .queueLength(current().queueLength)
+                    .serving(serving.size())
+                    .queueLengthTrend(trend)
+                    .computedAt(LocalDateTime.now())
+                    .build();
+            updates.tryEmitNext(snapshot);
+        }
+    }
+
+    /**
+     * Apply a committed queue transition to the clinic's window
+     */
+    public void record(Transition transition) {
+        record(transition, Instant.now().getEpochSecond());
+    }
+
+    void record(Transition transition, long now) {
+        if (transition.clinicId() == null || transition.queueId() == null) {
+            return;
+        }
+        window(transition.clinicId(), now).record(transition, now);
+    }
+
+    /**
+     * Current statistics of a clinic (all zero if it has had no queue activity on this instance)
+     */
+    public LiveQueueStatsDTO getClinicStats(Long clinicId) {
+        ClinicWindow window = clinics.get(clinicId);
+        return window != null ? window.snapshot : new ClinicWindow(clinicId, Instant.now().getEpochSecond()).snapshot;
+    }
+
+    /**
+     * Current statistics of every clinic with queue activity on this instance, by clinic ID
+     */
+    public List<LiveQueueStatsDTO> getAllClinicStats() {
+        return clinics.values().stream()
+                .map(window -> window.snapshot)
+                .sorted(Comparator.comparing(LiveQueueStatsDTO::getClinicId))
+                .toList();
+    }
+
+    /**
+     * Stream a clinic's statistics: the current snapshot first, then every rebuild
+     * (each queue transition and once a minute), interleaved with heartbeats
+     */
+    public Flux<ServerSentEvent<LiveQueueStatsDTO>> streamClinicStats(Long clinicId) {
+        Flux<ServerSentEvent<LiveQueueStatsDTO>> updates = Flux.defer(() -> clinicUpdates(clinicId))
+                .onBackpressureLatest()
+                .map(stats -> ServerSentEvent.builder(stats).event(EVENT_NAME).build());
+
+        Flux<ServerSentEvent<LiveQueueStatsDTO>> heartbeats = Flux.interval(Duration.ofSeconds(heartbeatSeconds))
+                .onBackpressureDrop()
+                .map(tick -> HEARTBEAT);
+
+        return Flux.merge(1, updates, heartbeats)
+                .publishOn(Schedulers.boundedElastic(), 1)
+                .doOnSubscribe(subscription -> subscribers.incrementAndGet())
+                .doFinally(signal -> subscribers.decrementAndGet());
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.get();
+    }
+
+    /**
+     * Slide every clinic's window at the start of each minute
+     */
+    @Scheduled(cron = "0 * * * * *")
+    public void rollWindows() {
+        rollWindows(Instant.now().getEpochSecond());
+    }
+
+    void rollWindows(long now) {
+        clinics.values().forEach(window -> window.tick(now));
+    }
+
+    /**
+     * Snapshots of a clinic's window; for a clinic without one, an empty snapshot from a
+     * window that is not stored, then the real window's snapshots once its first transition
+     * creates it
+     */
+    private Flux<LiveQueueStatsDTO> clinicUpdates(Long clinicId) {
+        ClinicWindow window = clinics.get(clinicId);
+        if (window != null) {
+            return window.updates.asFlux();
+        }
+        LiveQueueStatsDTO empty = new ClinicWindow(clinicId, Instant.now().getEpochSecond()).snapshot;
+        // Subscribe to creations before re-checking the map, so a window created in between is not missed
+        Flux<LiveQueueStatsDTO> created = Flux.merge(windowsCreated.asFlux().filter(clinicId::equals), Flux.just(clinicId))
+                .mapNotNull(clinics::get)
+                .next()
+                .flatMapMany(clinicWindow -> clinicWindow.updates.asFlux());
+        return created.startWith(empty);
+    }
+
+    private ClinicWindow window(Long clinicId, long now) {
+        ClinicWindow window = clinics.get(clinicId);
+        if (window != null) {
+            return window;
+        }
+        window = clinics.computeIfAbsent(clinicId, id -> new ClinicWindow(id, now));
+        signalWindowCreated(clinicId);
+        return window;
+    }
+
+    // Sinks require serialized emission; transitions of different clinics commit on several threads
+    private synchronized void signalWindowCreated(Long clinicId) {
+        windowsCreated.tryEmitNext(clinicId);
+    }
+
+    private static long epochSecond(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toEpochSecond();
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 10) / 10.0;
+    }
+}
@@ -8,9 +8,12 @@ import com.sendgrid.SendGrid;
 import com.sendgrid.helpers.mail.Mail;
 import com.sendgrid.helpers.mail.objects.Content;
 import com.sendgrid.helpers.mail.objects.Email;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
@@ -20,6 +23,8 @@ import java.io.IOException;
  * 
  * Handles sending email notifications to patients using SendGrid API.
  * Implements notification templates as specified in Appendix A.
+ * Each send is observed as notification.email: a timer per email type and outcome,
+ * and a child span of the queue operation that triggered it.
  */
 @Service
 @RequiredArgsConstructor
@@ -27,6 +32,7 @@ import java.io.IOException;
 public class NotificationService {
 
     private final SendGrid sendGrid;
+    private final ObservationRegistry observationRegistry;
 
     @Value("${NOTIFICATION_SENDER_EMAIL:notifications@singhealth-clinic.sg}")
     private String senderEmail;
@@ -41,7 +47,7 @@ public class NotificationService {
      */
     public void sendThreePatientsAwayEmail(NotificationRequest request) throws IOException {
         String emailBody = buildThreePatientsAwayMessage(request);
-        sendEmail(request.getToEmail(), emailBody);
+        sendEmail("three_away", request.getToEmail(), emailBody);
         log.info("Sent '3 patients away' notification to: {}", request.getToEmail());
     }
 
@@ -53,7 +59,7 @@ public class NotificationService {
      */
     public void sendYourTurnEmail(NotificationRequest request) throws IOException {
         String emailBody = buildYourTurnMessage(request);
-        sendEmail(request.getToEmail(), emailBody);
+        sendEmail("your_turn", request.getToEmail(), emailBody);
         log.info("Sent 'your turn' notification to: {}", request.getToEmail());
     }
 
@@ -65,10 +71,57 @@ public class NotificationService {
      */
     public void sendAppointmentConfirmationEmail(NotificationRequest request) throws IOException {
         String emailBody = buildAppointmentConfirmationMessage(request);
-        sendEmail(request.getToEmail(), emailBody);
+        sendEmail("confirmation", request.getToEmail(), emailBody);
         log.info("Sent appointment confirmation to: {}", request.getToEmail());
     }
 
+    /**
+     * Sends "3 patients away" notification email on the async executor
+     * Used from queue operations so the SendGrid round trip does not hold the caller's
+     * request thread or database connection (virtual threads when spring.threads.virtual.enabled=true)
+     *
+     * @param request notification details
+     */
+    @Async
+    public void sendThreePatientsAwayEmailAsync(NotificationRequest request) {
+        try {
+            sendThreePatientsAwayEmail(request);
+        } catch (IOException e) {
+            log.error("Failed to send '3 patients away' notification to {} for appointment {}: {}",
+                    request.getToEmail(), request.getAppointmentNumber(), e.getMessage());
+        }
+    }
+
+    /**
+     * Sends "your turn" notification email on the async executor
+     *
+     * @param request notification details including room number
+     */
+    @Async
+    public void sendYourTurnEmailAsync(NotificationRequest request) {
+        try {
+            sendYourTurnEmail(request);
+        } catch (IOException e) {
+            log.error("Failed to send 'your turn' notification to {} for appointment {}: {}",
+                    request.getToEmail(), request.getAppointmentNumber(), e.getMessage());
+        }
+    }
+
+    /**
+     * Sends appointment confirmation email on the async executor
+     *
+     * @param request notification details
+     */
+    @Async
+    public void sendAppointmentConfirmationEmailAsync(NotificationRequest request) {
+        try {
+            sendAppointmentConfirmationEmail(request);
+        } catch (IOException e) {
+            log.error("Failed to send appointment confirmation to {} for appointment {}: {}",
+                    request.getToEmail(), request.getAppointmentNumber(), e.getMessage());
+        }
+    }
+
     /**
      * Builds email message for "3 patients away" notification
      * Format follows Appendix A specification
@@ -272,17 +325,25 @@ public class NotificationService {
     /**
      * Sends email using SendGrid API
      * 
+     * @param type    email type, the metric tag (three_away, your_turn, confirmation)
      * @param toEmail recipient email address
      * @param body    email message body
      * @throws IOException if SendGrid API call fails
      */
-    private void sendEmail(String toEmail, String body) throws IOException {
+    private void sendEmail(String type, String toEmail, String body) throws IOException {
         Email from = new Email(senderEmail);
         Email to = new Email(toEmail);
         Content content = new Content("text/html", body);
         Mail mail = new Mail(from, EMAIL_SUBJECT, to, content);
 
         Request request = new Request();
+        Observation observation = Observation.createNotStarted("notification.email", observationRegistry)
+                .contextualName("sendgrid " + type)
+                .lowCardinalityKeyValue("type", type)
+                .start();
+        String outcome = "failure";
+        // Makes the observation current on this thread while the request runs
+        Observation.Scope scope = observation.openScope();
         try {
             request.setMethod(Method.POST);
             request.setEndpoint("mail/send");
@@ -296,11 +357,16 @@ public class NotificationService {
                 throw new IOException("Failed to send email: HTTP " + response.getStatusCode());
             }
 
+            outcome = "success";
             log.debug("Email sent successfully. Status: {}", response.getStatusCode());
 
         } catch (IOException e) {
             log.error("Failed to send email to {}: {}", toEmail, e.getMessage());
+            observation.error(e);
             throw e;
+        } finally {
+            scope.close();
+            observation.lowCardinalityKeyValue("outcome", outcome).stop();
         }
     }
 }
@@ -0,0 +1,68 @@
+package com.example.backend.service;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Paging, sorting and filter-pattern rules shared by the admin listings
+ *
+ * Listing endpoints accept page, size (1..MAX_PAGE_SIZE) and sort=field[,asc|desc],
+ * where field is one of the listing's public sort keys. Sort keys are mapped to
+ * entity properties here so clients cannot sort on arbitrary (unindexed) columns,
+ * and the ID is always appended as a tie-break so pages are stable.
+ */
+public final class PageRequests {
+
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private PageRequests() {
+    }
+
+    /**
+     * @param sortable public sort key -> entity properties it orders by
+     * @throws IllegalArgumentException on out-of-range paging or an unknown sort key or direction
+     */
+    public static Pageable of(int page, int size, String sort, String defaultSort,
+            Map<String, List<String>> sortable, String idProperty) {
+        if (page < 0 || size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("page must be >= 0 and size between 1 and " + MAX_PAGE_SIZE);
+        }
+        String[] parts = (sort == null || sort.isBlank() ? defaultSort : sort).split(",");
+        List<String> properties = sortable.get(parts[0].trim());
+        if (properties == null || parts.length > 2) {
+            throw new IllegalArgumentException("sort must be one of " + sortable.keySet() + ", optionally followed by ,asc or ,desc");
+        }
+        Sort.Direction direction = parts.length == 2 ? Sort.Direction.fromString(parts[1].trim()) : Sort.Direction.ASC;
+
+        Sort order = Sort.by(direction, properties.toArray(String[]::new));
+        if (!properties.contains(idProperty)) {
+            order = order.and(Sort.by(idProperty));
+        }
+        return PageRequest.of(page, size, order);
+    }
+
+    /**
+     * Lower-cased LIKE pattern matching the text anywhere, or null when there is nothing to match
+     * (queries compare against lower(column), which the pg_trgm indexes cover for user names and emails)
+     */
+    public static String containsPattern(String text) {
+        if (text == null || text.isBlank()) {
+            return null;
+        }
+        String escaped = text.trim().toLowerCase(Locale.ROOT)
+                .replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+        return "%" + escaped + "%";
+    }
+
+    /**
+     * Blank filter values mean "no filter"
+     */
+    public static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+}
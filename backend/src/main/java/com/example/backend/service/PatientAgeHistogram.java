@@ -0,0 +1,141 @@
+package com.example.backend.service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.Period;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.backend.repo.PatientRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Component: PatientAgeHistogram
+ *
+ * Purpose: Patient counts per age bucket for demographic dashboards
+ *
+ * Key Features:
+ * - The database only groups patients by date of birth (one row per distinct date,
+ *   a few tens of thousands at most, read from idx_patient_date_of_birth); ages and
+ *   buckets are derived from those counts in memory
+ * - Cached per bucket width with time-to-live eviction (Caffeine), and recomputed
+ *   when the date changes, since ages do
+ * - Evicted by PatientService when patients are created, updated or deleted, once
+ *   the write commits; a histogram computed across an eviction is not cached (generation
+ *   check, as in ReferenceDataCache), so a pre-write histogram never outlives the write
+ *
+ * Dependencies:
+ * - PatientRepository: Date-of-birth counts
+ *
+ * Version: 1.1
+ */
+@Component
+public class PatientAgeHistogram {
+
+    public static final int MAX_BUCKET_YEARS = 100;
+
+    /**
+     * Patients whose age is within [minAge, maxAge]
+     */
+    public record AgeBucket(int minAge, int maxAge, long patients) {
+    }
+
+    /**
+     * Contiguous buckets from age 0 up to the oldest patient
+     *
+     * @param patients patients with a date of birth (the rest are not counted)
+     * @param asOf     date the ages were computed for
+     */
+    public record Histogram(int bucketYears, List<AgeBucket> buckets, long patients, LocalDate asOf) {
+    }
+
+    private final PatientRepository patientRepository;
+    private final Cache<Integer, Histogram> histograms;
+    // Bumped by every eviction; a histogram is only cached if no eviction happened while it was computed
+    private final AtomicLong generation = new AtomicLong();
+
+    public PatientAgeHistogram(PatientRepository patientRepository,
+            @Value("${cache.age-histogram.ttl-minutes:10}") long ttlMinutes) {
+        this.patientRepository = patientRepository;
+        this.histograms = Caffeine.newBuilder()
+                .maximumSize(MAX_BUCKET_YEARS)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .build();
+    }
+
+    /**
+     * Age histogram with buckets of the given width in years
+     *
+     * @throws IllegalArgumentException if bucketYears is not between 1 and MAX_BUCKET_YEARS
+     */
+    public Histogram get(int bucketYears) {
+        if (bucketYears < 1 || bucketYears > MAX_BUCKET_YEARS) {
+            throw new IllegalArgumentException("bucketYears must be between 1 and " + MAX_BUCKET_YEARS);
+        }
+        LocalDate today = LocalDate.now();
+        Histogram cached = histograms.getIfPresent(bucketYears);
+        if (cached != null && cached.asOf().equals(today)) {
+            return cached;
+        }
+        // Loaded outside the cache's compute lock, as in ReferenceDataCache
+        long loadGeneration = generation.get();
+        Histogram histogram = compute(bucketYears, today);
+        histograms.asMap().compute(bucketYears,
+                (key, existing) -> generation.get() == loadGeneration ? histogram : existing);
+        return histogram;
+    }
+
+    /**
+     * Drop every cached histogram (patients were added, changed or removed) once the current
+     * transaction commits, or immediately outside a transaction
+     */
+    public void evict() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidate();
+                }
+            });
+        } else {
+            invalidate();
+        }
+    }
+
+    // Bump before invalidating, so a concurrent computation either fails its check or is removed here
+    private void invalidate() {
+        generation.incrementAndGet();
+        histograms.invalidateAll();
+    }
+
+    private Histogram compute(int bucketYears, LocalDate today) {
+        List<Long> counts = new ArrayList<>();
+        long patients = 0;
+        for (Object[] row : patientRepository.countByDateOfBirth()) {
+            LocalDate dateOfBirth = (LocalDate) row[0];
+            long count = ((Number) row[1]).longValue();
+            if (dateOfBirth.isAfter(today)) {
+                continue;
+            }
+            int bucket = Period.between(dateOfBirth, today).getYears() / bucketYears;
+            while (counts.size() <= bucket) {
+                counts.add(0L);
+            }
+            counts.set(bucket, counts.get(bucket) + count);
+            patients += count;
+        }
+
+        List<AgeBucket> buckets = new ArrayList<>(counts.size());
+        for (int i = 0; i < counts.size(); i++) {
+            buckets.add(new AgeBucket(i * bucketYears, (i + 1) * bucketYears - 1, counts.get(i)));
+        }
+        return new Histogram(bucketYears, buckets, patients, today);
+    }
+}
@@ -1,13 +1,17 @@
 package com.example.backend.service;
 
 import com.example.backend.dto.CreatePatientRequestDTO;
+import com.example.backend.dto.PageResponse;
 import com.example.backend.model.Patient;
 import com.example.backend.repo.PatientRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
@@ -15,12 +19,37 @@ import java.util.Optional;
 public class PatientService {
     
     private final PatientRepository patientRepository;
+    private final ReferenceDataCache referenceDataCache;
+    private final PatientAgeHistogram patientAgeHistogram;
+    private final AutocompleteIndex autocompleteIndex;
+    
+    // Sort keys accepted by listPatients
+    private static final Map<String, List<String>> LISTING_SORTS = Map.of(
+            "id", List.of("userId"),
+            "name", List.of("lname", "fname"),
+            "email", List.of("email"),
+            "dateOfBirth", List.of("dateOfBirth"),
+            "createdAt", List.of("createdAt"));
     
     // Get all patients
+    @Transactional(readOnly = true)
     public List<Patient> getAllPatients() {
         return patientRepository.findAll();
     }
     
+    // Page of patients matching the optional filters: PatientSummaryDTO rows, or full records when detail is set
+    @Transactional(readOnly = true)
+    public PageResponse<?> listPatients(String query, String gender, String bloodType, boolean detail,
+            int page, int size, String sort) {
+        Pageable pageable = PageRequests.of(page, size, sort, "name", LISTING_SORTS, "userId");
+        String pattern = PageRequests.containsPattern(query);
+        gender = PageRequests.blankToNull(gender);
+        bloodType = PageRequests.blankToNull(bloodType);
+        return detail
+                ? PageResponse.of(patientRepository.findListing(pattern, gender, bloodType, pageable))
+                : PageResponse.of(patientRepository.findSummaries(pattern, gender, bloodType, pageable));
+    }
+    
     // Get patient by ID
     public Optional<Patient> getPatientById(Long patientId) {
         return patientRepository.findById(patientId);
@@ -42,11 +71,13 @@ public class PatientService {
     }
     
     // Get patients by gender
+    @Transactional(readOnly = true)
     public List<Patient> getPatientsByGender(String gender) {
         return patientRepository.findByGender(gender);
     }
     
     // Get patients by blood type
+    @Transactional(readOnly = true)
     public List<Patient> getPatientsByBloodType(String bloodType) {
         return patientRepository.findByBloodType(bloodType);
     }
@@ -72,7 +103,10 @@ public class PatientService {
             throw new IllegalArgumentException("Patient with IC " + patient.getPatientIc() + " already exists");
         }
         
-        return patientRepository.save(patient);
+        Patient saved = patientRepository.save(patient);
+        patientAgeHistogram.evict();
+        autocompleteIndex.putPatient(saved);
+        return saved;
     }
     
     // Create a new patient from DTO
@@ -115,12 +149,19 @@ public class PatientService {
             patient.setBloodType(requestDTO.getBloodType());
         }
         
-        return patientRepository.save(patient);
+        Patient saved = patientRepository.save(patient);
+        patientAgeHistogram.evict();
+        autocompleteIndex.putPatient(saved);
+        return saved;
     }
     
     // Update patient
     public Patient updatePatient(Patient patient) {
-        return patientRepository.save(patient);
+        Patient saved = patientRepository.save(patient);
+        referenceDataCache.evictPatient(saved.getUserId());
+        patientAgeHistogram.evict();
+        autocompleteIndex.putPatient(saved);
+        return saved;
     }
     
     // Update patient details by ID
@@ -173,13 +214,20 @@ public class PatientService {
                         existingPatient.setBloodType(updatedPatient.getBloodType());
                     }
                     
-                    return patientRepository.save(existingPatient);
+                    Patient saved = patientRepository.save(existingPatient);
+                    referenceDataCache.evictPatient(patientId);
+                    patientAgeHistogram.evict();
+                    autocompleteIndex.putPatient(saved);
+                    return saved;
                 });
     }
     
     // Delete patient by ID
     public void deletePatient(Long patientId) {
         patientRepository.deleteById(patientId);
+        referenceDataCache.evictPatient(patientId);
+        patientAgeHistogram.evict();
+        autocompleteIndex.remove(patientId);
     }
     
     // // Check if patient exists by email
@@ -202,17 +250,23 @@ public class PatientService {
         return patientRepository.count();
     }
     
-    // Get patients by age range (calculated from date of birth)
+    // Get patients by age range (inclusive), as a date-of-birth range query on idx_patient_date_of_birth
+    @Transactional(readOnly = true)
     public List<Patient> getPatientsByAgeRange(int minAge, int maxAge) {
-        LocalDate maxBirthDate = LocalDate.now().minusYears(minAge);
-        LocalDate minBirthDate = LocalDate.now().minusYears(maxAge + 1);
+        if (minAge < 0 || maxAge < minAge) {
+            throw new IllegalArgumentException("Age range must satisfy 0 <= minAge <= maxAge");
+        }
+        LocalDate today = LocalDate.now();
+        // Aged minAge or more: born on or before today minus minAge years
+        LocalDate latestBirthDate = today.minusYears(minAge);
+        // Aged maxAge or less: born after today minus (maxAge + 1) years
+        LocalDate earliestBirthDate = today.minusYears(maxAge + 1L).plusDays(1);
         
-        return patientRepository.findAll().stream()
-                .filter(patient -> patient.getDateOfBirth() != null)
-                .filter(patient -> {
-                    LocalDate birthDate = patient.getDateOfBirth();
-                    return !birthDate.isAfter(maxBirthDate) && !birthDate.isBefore(minBirthDate);
-                })
-                .toList();
+        return patientRepository.findByDateOfBirthBetween(earliestBirthDate, latestBirthDate);
+    }
+    
+    // Get patient counts per age bucket (cached, see PatientAgeHistogram)
+    public PatientAgeHistogram.Histogram getAgeHistogram(int bucketYears) {
+        return patientAgeHistogram.get(bucketYears);
     }
 }
@@ -0,0 +1,219 @@
+package com.example.backend.service;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.backend.event.QueueChangedEvent;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Service: QueueClusterRelay
+ *
+ * Purpose: Propagates queue changes between backend nodes with Postgres LISTEN/NOTIFY,
+ * so SSE subscribers hear about changes made on any node
+ *
+ * Key Features:
+ * - NOTIFY is sent inside the writing transaction: delivered only if it commits, and
+ *   Postgres folds repeated notifications for the same clinic in one transaction
+ * - One dedicated LISTEN connection outside the pool, reconnecting with backoff
+ * - Remote changes invalidate the clinic's in-memory queue index immediately
+ * - Remote changes are coalesced per clinic and re-published locally as
+ *   QueueChangedEvent(remote = true); stream services only recompute clinics they
+ *   have local subscribers for
+ * - Opt-in (queue.cluster.enabled=true); a single node needs none of this
+ *
+ * Dependencies:
+ * - JdbcTemplate: pg_notify in the current transaction
+ * - ClinicQueueIndex: Invalidation on remote changes
+ *
+ * Version: 1.0
+ */
+@Service
+@ConditionalOnProperty(name = "queue.cluster.enabled", havingValue = "true")
+@Slf4j
+public class QueueClusterRelay {
+
+    private static final int LISTEN_POLL_MS = 1000;
+    private static final long MAX_BACKOFF_MS = 30_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ClinicQueueIndex clinicQueueIndex;
+
+    @Value("${spring.datasource.url}")
+    private String url;
+
+    @Value("${spring.datasource.username}")
+    private String username;
+
+    @Value("${spring.datasource.password}")
+    private String password;
+
+    @Value("${queue.cluster.channel:queue_changed}")
+    private String channel;
+
+    // Identifies this node's own notifications, which are delivered back to it
+    private final String nodeId = UUID.randomUUID().toString().substring(0, 8);
+
+    private final Set<Long> pendingClinics = ConcurrentHashMap.newKeySet();
+    private final AtomicLong notificationsSent = new AtomicLong();
+    private final AtomicLong notificationsReceived = new AtomicLong();
+    private final AtomicLong remoteEventsPublished = new AtomicLong();
+    private final AtomicLong reconnects = new AtomicLong();
+
+    private volatile boolean running;
+    private volatile boolean listening;
+    private Thread listenerThread;
+
+    public QueueClusterRelay(JdbcTemplate jdbcTemplate, ApplicationEventPublisher eventPublisher,
+            ClinicQueueIndex clinicQueueIndex) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+        this.clinicQueueIndex = clinicQueueIndex;
+    }
+
+    @PostConstruct
+    void start() {
+        if (!channel.matches("[a-z_][a-z0-9_]*")) {
+            throw new IllegalStateException("queue.cluster.channel must be a lower-case identifier: " + channel);
+        }
+        running = true;
+        listenerThread = Thread.ofPlatform()
+                .daemon()
+                .name("queue-cluster-listener")
+                .start(this::listenLoop);
+        log.info("Queue cluster relay started (node {}, channel {})", nodeId, channel);
+    }
+
+    @PreDestroy
+    void stop() {
+        running = false;
+        if (listenerThread != null) {
+            listenerThread.interrupt();
+        }
+    }
+
+    /**
+     * Tell other nodes about a local queue change as part of the writing transaction
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void publishChange(QueueChangedEvent event) {
+        if (event.isRemote() || event.getClinicId() == null) {
+            return;
+        }
+        jdbcTemplate.queryForList("SELECT pg_notify(?, ?)", channel, nodeId + ":" + event.getClinicId());
+        notificationsSent.incrementAndGet();
+    }
+
+    /**
+     * Re-publish coalesced remote changes locally, at most once per clinic per interval
+     */
+    @Scheduled(fixedDelayString = "${queue.cluster.coalesce-ms:100}")
+    public void flushRemoteChanges() {
+        if (pendingClinics.isEmpty()) {
+            return;
+        }
+        for (Long clinicId : pendingClinics) {
+            pendingClinics.remove(clinicId);
+            eventPublisher.publishEvent(new QueueChangedEvent(clinicId, true));
+            remoteEventsPublished.incrementAndGet();
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", true);
+        stats.put("nodeId", nodeId);
+        stats.put("channel", channel);
+        stats.put("listening", listening);
+        stats.put("notificationsSent", notificationsSent.get());
+        stats.put("notificationsReceived", notificationsReceived.get());
+        stats.put("remoteEventsPublished", remoteEventsPublished.get());
+        stats.put("pendingClinics", pendingClinics.size());
+        stats.put("reconnects", reconnects.get());
+        return stats;
+    }
+
+    private void listenLoop() {
+        long backoffMs = 1000;
+        boolean connectedBefore = false;
+
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(url, username, password)) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                }
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                listening = true;
+                backoffMs = 1000;
+
+                if (connectedBefore) {
+                    // Notifications sent while disconnected are lost; drop everything cached
+                    log.info("Queue cluster listener reconnected, invalidating queue index");
+                    clinicQueueIndex.invalidateAllAfterCommit();
+                }
+                connectedBefore = true;
+
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(LISTEN_POLL_MS);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            onNotification(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (Exception e) {
+                listening = false;
+                if (!running) {
+                    break;
+                }
+                reconnects.incrementAndGet();
+                log.warn("Queue cluster listener disconnected ({}), retrying in {} ms", e.getMessage(), backoffMs);
+                try {
+                    Thread.sleep(backoffMs);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+                backoffMs = Math.min(backoffMs * 2, MAX_BACKOFF_MS);
+            }
+        }
+        listening = false;
+    }
+
+    private void onNotification(String payload) {
+        int separator = payload != null ? payload.indexOf(':') : -1;
+        if (separator < 0 || payload.substring(0, separator).equals(nodeId)) {
+            return;
+        }
+        try {
+            Long clinicId = Long.valueOf(payload.substring(separator + 1));
+            notificationsReceived.incrementAndGet();
+            clinicQueueIndex.invalidateClinic(clinicId);
+            pendingClinics.add(clinicId);
+        } catch (NumberFormatException e) {
+            log.warn("Ignoring malformed queue change notification: {}", payload);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.backend.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.example.backend.dto.QueueDeltaDTO;
+import com.example.backend.dto.QueuePositionDTO;
+
+/**
+ * Versioned position history of one clinic's queue for the delta-encoded position stream
+ *
+ * Every snapshot that differs from the previous one advances the sequence number
+ * and is kept in a fixed-size ring buffer. The sequence number is sent as the SSE
+ * event id; a reconnecting client sends it back as Last-Event-ID:
+ * - cursor within the ring buffer: the client's entry as of that cursor is known, so
+ *   only the fields that changed since are sent
+ * - cursor too old, unknown or from another server run: the full position is sent
+ * All methods are synchronized on the instance.
+ */
+public class QueueDeltaLog {
+
+    public static final String DELTA_EVENT = "queue-delta";
+
+    /**
+     * Entries by appointment ID as of a sequence number
+     */
+    public record State(long seq, Map<Long, QueueDeltaDTO> entries) {
+    }
+
+    private final List<Map<Long, QueueDeltaDTO>> ring;
+
+    private static final String RUN = Long.toString(System.currentTimeMillis(), 36);
+    private static final AtomicLong LOGS = new AtomicLong();
+
+    // Distinguishes sequence numbers of this log from those of an earlier log or server run
+    private final String epoch = RUN + "." + LOGS.incrementAndGet();
+
+    private long seq;
+    private Map<Long, QueueDeltaDTO> lastEntries;
+
+    private long resumes;
+    private long resyncs;
+
+    public QueueDeltaLog(int capacity) {
+        this.ring = new ArrayList<>(Collections.nCopies(Math.max(1, capacity), null));
+    }
+
+    /**
+     * Record a new snapshot of the clinic's positions
+     *
+     * @return true if it differed from the previous snapshot (sequence number advanced)
+     */
+    public synchronized boolean advance(Map<Long, QueuePositionDTO> positions) {
+        Map<Long, QueueDeltaDTO> entries = new LinkedHashMap<>();
+        positions.forEach((appointmentId, position) -> entries.put(appointmentId, QueueDeltaDTO.of(position)));
+
+        if (entries.equals(lastEntries)) {
+            return false;
+        }
+        seq++;
+        ring.set(slot(seq), entries);
+        lastEntries = entries;
+        return true;
+    }
+
+    /**
+     * The latest recorded entries, or null before the first snapshot
+     */
+    public synchronized State current() {
+        return lastEntries == null ? null : new State(seq, Collections.unmodifiableMap(lastEntries));
+    }
+
+    /**
+     * The entries as of a reconnecting client's Last-Event-ID, or null if the id is missing,
+     * from another server run, or no longer in the ring buffer (the client then needs a full position)
+     */
+    public synchronized Map<Long, QueueDeltaDTO> entriesAt(String lastEventId) {
+        long cursor = parseEventId(lastEventId);
+        if (cursor <= 0 || cursor > seq || seq - cursor >= ring.size()) {
+            if (lastEventId != null) {
+                resyncs++;
+            }
+            return null;
+        }
+        resumes++;
+        return Collections.unmodifiableMap(ring.get(slot(cursor)));
+    }
+
+    /**
+     * SSE event id for a sequence number
+     */
+    public String eventId(long seq) {
+        return epoch + "-" + seq;
+    }
+
+    /**
+     * Sequence number from a Last-Event-ID header, or -1 if missing or from another log
+     */
+    long parseEventId(String eventId) {
+        if (eventId == null || !eventId.startsWith(epoch + "-")) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(eventId.substring(epoch.length() + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    public synchronized Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("seq", seq);
+        stats.put("resumes", resumes);
+        stats.put("resyncs", resyncs);
+        return stats;
+    }
+
+    private int slot(long sequence) {
+        return (int) (sequence % ring.size());
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.backend.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.example.backend.event.QueueChangedEvent;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Component: QueueMetrics
+ *
+ * Purpose: Micrometer meters for the state of the queues
+ *
+ * Key Features:
+ * - queue.depth{clinic}: waiting entries per clinic, read from ClinicQueueIndex at
+ *   scrape time (registered on the clinic's first queue change; never hits the database)
+ * - queue.wait{priority}: check-in to call latency histogram, recorded only for
+ *   calls that commit
+ *
+ * Dependencies:
+ * - MeterRegistry: Actuator's registry (Prometheus)
+ * - ClinicQueueIndex: In-memory waiting entries per clinic
+ *
+ * Version: 1.0
+ */
+@Component
+public class QueueMetrics {
+
+    private final MeterRegistry registry;
+    private final ClinicQueueIndex clinicQueueIndex;
+    private final Set<Long> trackedClinics = ConcurrentHashMap.newKeySet();
+
+    public QueueMetrics(MeterRegistry registry, ClinicQueueIndex clinicQueueIndex) {
+        this.registry = registry;
+        this.clinicQueueIndex = clinicQueueIndex;
+    }
+
+    /**
+     * Start reporting a clinic's queue depth once its queue is in use
+     */
+    @EventListener
+    public void handleQueueChanged(QueueChangedEvent event) {
+        Long clinicId = event.getClinicId();
+        if (clinicId != null && trackedClinics.add(clinicId)) {
+            Gauge.builder("queue.depth", clinicQueueIndex, index -> {
+                int size = index.getLoadedSize(clinicId);
+                return size < 0 ? Double.NaN : size;
+            })
+                    .description("Patients waiting (IN_QUEUE) per clinic")
+                    .tag("clinic", clinicId.toString())
+                    .register(registry);
+        }
+    }
+
+    /**
+     * A patient was called (IN_QUEUE -> CALLED): record how long they waited since check-in
+     * Called after the call commits, with the entry's fields as of the call
+     */
+    public void recordCalled(WaitTimeEstimator.Visit visit) {
+        if (visit.createdAt() == null) {
+            return;
+        }
+        LocalDateTime calledAt = visit.appointmentStart() != null ? visit.appointmentStart() : LocalDateTime.now();
+        Duration waited = Duration.between(visit.createdAt(), calledAt);
+        if (waited.isNegative()) {
+            return;
+        }
+        Timer.builder("queue.wait")
+                .description("Time from check-in to being called")
+                .tag("priority", String.valueOf(visit.priority()))
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofSeconds(30))
+                .maximumExpectedValue(Duration.ofHours(4))
+                .register(registry)
+                .record(waited);
+    }
+}
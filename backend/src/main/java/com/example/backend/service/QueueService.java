@@ -1,33 +1,41 @@
 package com.example.backend.service;
 
-import java.io.IOException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import com.example.backend.config.ReplicaRouting;
+import com.example.backend.dto.ClinicBoardDTO;
 import com.example.backend.dto.QueueEntryDTO;
 import com.example.backend.event.QueueChangedEvent;
 import com.example.backend.dto.QueuePositionDTO;
 import com.example.backend.exception.QueueException;
-import com.example.backend.model.Patient;
-import com.example.backend.model.Doctor;
-import com.example.backend.model.clinic.Clinic;
 import com.example.backend.model.appointments.Appointment;
 import com.example.backend.model.appointments.AppointmentStatus;
 import com.example.backend.model.notification.NotificationRequest;
 import com.example.backend.model.queue.QueueLog;
 import com.example.backend.repo.AppointmentRepository;
-import com.example.backend.repo.ClinicRepository;
-import com.example.backend.repo.DoctorRepository;
-import com.example.backend.repo.PatientRepository;
 import com.example.backend.repo.QueueRepository;
 
+import io.micrometer.observation.annotation.Observed;
+
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -42,11 +50,20 @@ import lombok.extern.slf4j.Slf4j;
  * - Queue position calculation
  * - Status management with transition validation
  * - Missed patient return handling
+ * - Per-doctor sub-queues with parallel call-next and a shared pool fallback
  * - Transaction management for data consistency
  *
  * Dependencies:
  * - QueueRepository: Data access for queue entries
  * - AppointmentRepository: Validate appointment existence
+ * - ClinicQueueIndex: In-memory ordered index of waiting entries per doctor
+ * - WaitTimeEstimator: Adaptive wait-time estimates from observed service times
+ * - ReplicaRouting: Read-your-writes pinning when reads are served by a replica
+ * - ReferenceDataCache: Cached clinic, doctor and patient display data
+ * - QueueMetrics: Check-in to call wait histogram
+ * - LiveQueueStats: Rolling-window dashboard statistics, fed with each committed transition
+ *
+ * Queue operations are @Observed: each gets a trace span and a timer of the same name.
  *
  * Version: 1.0
  */
@@ -59,9 +76,12 @@ public class QueueService {
     private final AppointmentRepository appointmentRepository;
     private final ApplicationEventPublisher eventPublisher;
     private final NotificationService notificationService;
-    private final PatientRepository patientRepository;
-    private final ClinicRepository clinicRepository;
-    private final DoctorRepository doctorRepository;
+    private final ReferenceDataCache referenceDataCache;
+    private final ClinicQueueIndex clinicQueueIndex;
+    private final WaitTimeEstimator waitTimeEstimator;
+    private final ReplicaRouting replicaRouting;
+    private final QueueMetrics queueMetrics;
+    private final LiveQueueStats liveQueueStats;
 
     private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
 
@@ -76,6 +96,23 @@ public class QueueService {
      */
     @Transactional
     public QueueLog checkInPatient(Long appointmentId, Integer priority) {
+        return checkInPatient(appointmentId, priority, false);
+    }
+
+    /**
+     * Check in a patient - create a new queue entry routed to a doctor's sub-queue
+     *
+     * @param appointmentId ID of the patient's appointment
+     * @param priority      Priority level (1=Normal, 2=Elderly, 3=Emergency)
+     * @param anyDoctor     true to place the patient in the clinic's shared pool (served
+     *                      by whichever doctor is free first) instead of the appointment's doctor
+     * @return Created QueueLog entry
+     * @throws QueueException if appointment not found or duplicate IN_QUEUE entry
+     *                        exists
+     */
+    @Observed(name = "queue.check_in", contextualName = "queue check-in")
+    @Transactional
+    public QueueLog checkInPatient(Long appointmentId, Integer priority, boolean anyDoctor) {
         // Validate priority
         if (!QueueLog.isValidPriority(priority)) {
             throw new QueueException("Invalid priority. Must be 1 (Normal), 2 (Elderly), or 3 (Emergency)");
@@ -95,8 +132,12 @@ public class QueueService {
                 appointment.getClinicId(),
                 appointmentId,
                 priority);
+        queueEntry.setDoctorId(anyDoctor ? null : appointment.getDoctorId());
 
         QueueLog saved = queueRepository.save(queueEntry);
+        afterQueueWrite(saved);
+        recordWaitPrediction(saved);
+        recordTransition(saved, null);
 
         // Notify SSE listeners that queue changed
         eventPublisher.publishEvent(new QueueChangedEvent(appointment.getClinicId()));
@@ -116,6 +157,7 @@ public class QueueService {
      */
     @Transactional(readOnly = true)
     public List<QueueLog> getClinicQueue(Long clinicId) {
+        replicaRouting.preferPrimaryIfRecentlyWritten(clinicKey(clinicId));
         return queueRepository.findByClinicIdAndStatusOrderByPriorityDescCreatedAtAsc(
                 clinicId,
                 QueueLog.STATUS_IN_QUEUE);
@@ -130,14 +172,17 @@ public class QueueService {
     @Transactional(readOnly = true)
     public List<QueueEntryDTO> getClinicQueueWithDetails(Long clinicId) {
         List<QueueLog> queueEntries = getClinicQueue(clinicId);
-        long totalInQueue = queueEntries.size();
+        int totalInQueue = queueEntries.size();
+        Map<Long, Integer> waits = estimateLaneWaits(clinicId, queueEntries);
 
-        return queueEntries.stream()
-                .map((entry) -> {
-                    Integer position = queueEntries.indexOf(entry) + 1;
-                    return convertToQueueEntryDTO(entry, position, (int) totalInQueue);
-                })
-                .collect(Collectors.toList());
+        EntryDetails details = loadEntryDetails(queueEntries);
+
+        List<QueueEntryDTO> result = new ArrayList<>(totalInQueue);
+        for (int i = 0; i < totalInQueue; i++) {
+            QueueLog entry = queueEntries.get(i);
+            result.add(convertToQueueEntryDTO(entry, details, i + 1, totalInQueue, waits.get(entry.getQueueId())));
+        }
+        return result;
     }
 
     /**
@@ -150,6 +195,9 @@ public class QueueService {
      */
     @Transactional(readOnly = true)
     public QueuePositionDTO getQueuePosition(Long appointmentId) {
+        // Right after check-in the replica may not have the entry yet
+        replicaRouting.preferPrimaryIfRecentlyWritten(appointmentKey(appointmentId));
+
         // First try to find IN_QUEUE entry
         Optional<QueueLog> queueEntry = queueRepository.findByAppointmentIdAndStatus(
                 appointmentId,
@@ -172,25 +220,28 @@ public class QueueService {
         if (QueueLog.STATUS_CALLED.equals(entry.getStatus())) {
             // Get the full queue to calculate total (for context)
             List<QueueLog> clinicQueue = getClinicQueue(entry.getClinicId());
-            int totalInQueue = clinicQueue.size();
-
-            return QueuePositionDTO.builder()
-                    .appointmentId(appointmentId)
-                    .position(0) // Position 0 indicates called
-                    .status(entry.getStatus())
-                    .priority(entry.getPriority())
-                    .totalInQueue(totalInQueue)
-                    .estimatedWaitTimeMinutes(0) // No wait time when called
-                    .message("You have been called - please proceed to reception")
-                    .isQueued(true)
-                    .build();
+            return calledPosition(entry, clinicQueue.size());
         }
 
-        // For IN_QUEUE status, calculate position normally
-        // Get the full queue to calculate position
-        List<QueueLog> clinicQueue = getClinicQueue(entry.getClinicId());
-        int position = clinicQueue.indexOf(entry) + 1;
-        int totalInQueue = clinicQueue.size();
+        // For IN_QUEUE status, position is within the lane the patient will be served from
+        // (their doctor's sub-queue merged with the shared pool)
+        int position = clinicQueueIndex.getLanePosition(entry.getClinicId(), entry.getQueueId());
+        int totalInQueue;
+        int[] aheadByPriority;
+        if (position > 0) {
+            int[] laneCounts = clinicQueueIndex.getLaneCounts(entry.getClinicId(), entry.getDoctorId());
+            totalInQueue = laneCounts[0];
+            aheadByPriority = countAhead(laneCounts, entry.getPriority(), position);
+        } else {
+            // Not in the index yet (written by the current transaction) - fall back to the database
+            List<QueueLog> lane = laneOf(getClinicQueue(entry.getClinicId()), entry.getDoctorId());
+            position = lane.indexOf(entry) + 1;
+            totalInQueue = lane.size();
+            aheadByPriority = new int[ClinicQueueIndex.PRIORITY_SLOTS];
+            for (QueueLog ahead : lane.subList(0, Math.max(0, position - 1))) {
+                aheadByPriority[prioritySlot(ahead.getPriority())]++;
+            }
+        }
 
         // Build position DTO
         String message = buildPositionMessage(position);
@@ -201,12 +252,115 @@ public class QueueService {
                 .status(entry.getStatus())
                 .priority(entry.getPriority())
                 .totalInQueue(totalInQueue)
-                .estimatedWaitTimeMinutes(estimateWaitTime(position))
+                .estimatedWaitTimeMinutes(waitTimeEstimator.estimateWait(
+                        entry.getClinicId(), entry.getDoctorId(), aheadByPriority))
                 .message(message)
                 .isQueued(true)
                 .build();
     }
 
+    /**
+     * Positions of every active (CALLED or IN_QUEUE) entry of a clinic, computed in one
+     * pass over the in-memory index instead of one getQueuePosition call per patient
+     * Used to build queue snapshots that are shared by all stream subscribers
+     *
+     * @param clinicId ID of the clinic
+     * @return appointmentId -> position (same values getQueuePosition returns), called entries first
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, QueuePositionDTO> getClinicPositions(Long clinicId) {
+        replicaRouting.preferPrimaryIfRecentlyWritten(clinicKey(clinicId));
+        List<ClinicQueueIndex.QueuedEntry> waiting = clinicQueueIndex.getClinicQueue(clinicId);
+
+        Map<Long, QueuePositionDTO> positions = new LinkedHashMap<>();
+        for (QueueLog called : queueRepository.findByClinicIdAndStatus(clinicId, QueueLog.STATUS_CALLED)) {
+            positions.put(called.getAppointmentId(), calledPosition(called, waiting.size()));
+        }
+
+        // Lane sizes: shared entries are served from the shared pool, doctor entries from
+        // the doctor's sub-queue merged with the shared pool
+        int sharedTotal = 0;
+        Map<Long, Integer> doctorTotals = new HashMap<>();
+        for (ClinicQueueIndex.QueuedEntry entry : waiting) {
+            if (entry.doctorId() == null) {
+                sharedTotal++;
+            } else {
+                doctorTotals.merge(entry.doctorId(), 1, Integer::sum);
+            }
+        }
+
+        // Priorities already passed in queue order, per sub-queue (null key = shared pool)
+        Map<Long, Map<Integer, Integer>> passed = new HashMap<>();
+        for (ClinicQueueIndex.QueuedEntry entry : waiting) {
+            Long doctorId = entry.doctorId();
+            Map<Integer, Integer> sharedAhead = passed.getOrDefault(null, Map.of());
+            Map<Integer, Integer> ownAhead = doctorId != null ? passed.getOrDefault(doctorId, Map.of()) : Map.of();
+
+            int ahead = 0;
+            double minutes = waitTimeEstimator.remainingMinutes(clinicId, doctorId);
+            for (int priority = QueueLog.PRIORITY_NORMAL; priority <= QueueLog.PRIORITY_EMERGENCY; priority++) {
+                int count = sharedAhead.getOrDefault(priority, 0) + ownAhead.getOrDefault(priority, 0);
+                ahead += count;
+                if (count > 0) {
+                    minutes += count * waitTimeEstimator.serviceMinutes(clinicId, doctorId, priority);
+                }
+            }
+
+            int position = ahead + 1;
+            positions.put(entry.appointmentId(), QueuePositionDTO.builder()
+                    .appointmentId(entry.appointmentId())
+                    .position(position)
+                    .status(QueueLog.STATUS_IN_QUEUE)
+                    .priority(entry.priority())
+                    .totalInQueue(sharedTotal + (doctorId != null ? doctorTotals.get(doctorId) : 0))
+                    .estimatedWaitTimeMinutes((int) Math.round(minutes))
+                    .message(buildPositionMessage(position))
+                    .isQueued(true)
+                    .build());
+
+            passed.computeIfAbsent(doctorId, id -> new HashMap<>()).merge(entry.priority(), 1, Integer::sum);
+        }
+        return positions;
+    }
+
+    /**
+     * Compact board of a clinic for waiting-room displays: currently serving,
+     * the next waiting entries and re-queueable missed entries
+     * Built from the in-memory index plus two queries, without per-entry lookups
+     *
+     * @param clinicId  ID of the clinic
+     * @param nextCount Maximum number of waiting entries to list
+     * @return ClinicBoardDTO snapshot
+     */
+    @Transactional(readOnly = true)
+    public ClinicBoardDTO getClinicBoard(Long clinicId, int nextCount) {
+        replicaRouting.preferPrimaryIfRecentlyWritten(clinicKey(clinicId));
+        List<ClinicQueueIndex.QueuedEntry> waiting = clinicQueueIndex.getClinicQueue(clinicId);
+
+        List<ClinicBoardDTO.BoardEntry> serving = queueRepository.findByClinicIdAndStatus(clinicId, QueueLog.STATUS_CALLED)
+                .stream()
+                .sorted(Comparator.comparing(QueueLog::getQueueId))
+                .map(QueueService::toBoardEntry)
+                .toList();
+        List<ClinicBoardDTO.BoardEntry> next = waiting.stream()
+                .limit(Math.max(0, nextCount))
+                .map(entry -> new ClinicBoardDTO.BoardEntry(entry.queueId(), entry.appointmentId(),
+                        entry.doctorId(), entry.priority()))
+                .toList();
+        List<ClinicBoardDTO.BoardEntry> missed = queueRepository.findRequeueableMissedEntries(clinicId)
+                .stream()
+                .map(QueueService::toBoardEntry)
+                .toList();
+
+        return ClinicBoardDTO.builder()
+                .clinicId(clinicId)
+                .serving(serving)
+                .next(next)
+                .totalWaiting(waiting.size())
+                .missed(missed)
+                .build();
+    }
+
     /**
      * Mark queue entry as DONE by appointment ID
      * Finds active queue entry (IN_QUEUE or CALLED) and marks it as DONE
@@ -216,6 +370,7 @@ public class QueueService {
      * @return Updated QueueLog entry
      * @throws QueueException if no active queue entry found
      */
+    @Observed(name = "queue.status_change", contextualName = "queue done", lowCardinalityKeyValues = { "operation", "done" })
     @Transactional
     public QueueLog markAppointmentDone(Long appointmentId) {
         // Find active queue entry (IN_QUEUE or CALLED)
@@ -233,8 +388,12 @@ public class QueueService {
         }
 
         // Update to DONE
+        String previousStatus = queueEntry.getStatus();
+        recordLeavingStatus(queueEntry, QueueLog.STATUS_DONE);
         queueEntry.setStatus(QueueLog.STATUS_DONE);
         QueueLog saved = queueRepository.save(queueEntry);
+        afterQueueWrite(saved);
+        recordTransition(saved, previousStatus);
 
         // Notify SSE listeners that queue changed
         eventPublisher.publishEvent(new QueueChangedEvent(queueEntry.getClinicId()));
@@ -256,6 +415,7 @@ public class QueueService {
      * @return Updated QueueLog entry
      * @throws QueueException if queue entry not found or invalid transition
      */
+    @Observed(name = "queue.status_change", contextualName = "queue status change", lowCardinalityKeyValues = { "operation", "update" })
     @Transactional
     public QueueLog updateQueueStatus(Long queueId, String newStatus) {
         // Validate new status
@@ -287,8 +447,19 @@ public class QueueService {
         }
 
         // Update status
-        queueEntry.setStatus(newStatus);
+        String previousStatus = queueEntry.getStatus();
+        if (QueueLog.STATUS_CALLED.equals(newStatus)) {
+            queueEntry.setStatus(newStatus);
+        } else {
+            recordLeavingStatus(queueEntry, newStatus);
+            queueEntry.setStatus(newStatus);
+        }
         QueueLog saved = queueRepository.save(queueEntry);
+        afterQueueWrite(saved);
+        if (QueueLog.STATUS_CALLED.equals(newStatus)) {
+            recordCalled(saved);
+        }
+        recordTransition(saved, previousStatus);
 
         // If queue status is MISSED, update the appointment status to MISSED
         if (QueueLog.STATUS_MISSED.equals(newStatus)) {
@@ -330,6 +501,7 @@ public class QueueService {
      * @return Updated QueueLog entry
      * @throws QueueException if appointment or MISSED queue entry not found
      */
+    @Observed(name = "queue.status_change", contextualName = "queue requeue", lowCardinalityKeyValues = { "operation", "requeue" })
     @Transactional
     public QueueLog handleMissedPatientReturn(Long appointmentId, Integer newPriority) {
         // Validate priority
@@ -367,7 +539,11 @@ public class QueueService {
         queueEntry.setStatus(QueueLog.STATUS_IN_QUEUE);
         queueEntry.setPriority(newPriority);
         queueEntry.setCreatedAt(LocalDateTime.now()); // Update timestamp for queue ordering
+        queueEntry.setDoctorId(appointment.getDoctorId()); // Back to the appointment's doctor sub-queue
         QueueLog saved = queueRepository.save(queueEntry);
+        afterQueueWrite(saved);
+        recordWaitPrediction(saved);
+        recordTransition(saved, QueueLog.STATUS_MISSED);
 
         log.info("Updated MISSED queue entry {} (appointment {}) to IN_QUEUE with priority {}", 
                 saved.getQueueId(), appointmentId, newPriority);
@@ -389,10 +565,14 @@ public class QueueService {
      * 2. Call next waiting patient (position 1 IN_QUEUE) as CALLED
      * 3. Send "your turn" notification to newly called patient
      *
+     * Serves the clinic as a single line; clinics running several doctors at once
+     * should use callNextForDoctor() instead.
+     *
      * @param clinicId ID of the clinic
      * @return The newly called patient's QueueLog entry
      * @throws QueueException if no patients waiting in queue
      */
+    @Observed(name = "queue.call_next", contextualName = "queue call-next", lowCardinalityKeyValues = { "mode", "clinic" })
     @Transactional
     public QueueLog callNextQueueNumber(Long clinicId) {
         // Step 1: Mark current "being served" patient as DONE (if exists)
@@ -402,27 +582,31 @@ public class QueueService {
 
         if (currentlyServing.isPresent()) {
             QueueLog current = currentlyServing.get();
+            recordCompleted(current);
             current.setStatus(QueueLog.STATUS_DONE);
-            queueRepository.save(current);
+            QueueLog done = queueRepository.save(current);
+            afterQueueWrite(done);
+            recordTransition(done, QueueLog.STATUS_CALLED);
             log.info("Marked currently serving patient (queue {}) as DONE", current.getQueueId());
         }
 
-        // Step 2: Get next waiting patient (position 1 from IN_QUEUE)
-        List<QueueLog> waitingQueue = queueRepository
-                .findByClinicIdAndStatusOrderByPriorityDescCreatedAtAsc(
-                        clinicId,
-                        QueueLog.STATUS_IN_QUEUE);
-
-        if (waitingQueue.isEmpty()) {
-            throw new QueueException("No patients waiting in queue for clinic: " + clinicId);
+        // Step 2: Claim position 1 of the whole clinic, then mark it CALLED with the same conditional
+        // UPDATE as callNextForDoctor (keeping its lane); an entry another caller already moved on is skipped
+        QueueLog called = null;
+        while (called == null) {
+            ClinicQueueIndex.QueuedEntry claimed = clinicQueueIndex.claimNext(clinicId);
+            if (claimed == null) {
+                throw new QueueException("No patients waiting in queue for clinic: " + clinicId);
+            }
+            if (queueRepository.claimForDoctor(claimed.queueId(), claimed.doctorId(), LocalDateTime.now()) == 1) {
+                called = queueRepository.findById(claimed.queueId()).orElseThrow();
+            }
         }
 
-        QueueLog nextPatient = waitingQueue.get(0); // Position 1
-
-        // Step 3: Mark next patient as CALLED (being served) and set appointment start time
-        nextPatient.setStatus(QueueLog.STATUS_CALLED);
-        nextPatient.setAppointmentStart(LocalDateTime.now()); // Record when patient is called in
-        QueueLog called = queueRepository.save(nextPatient);
+        // Step 3: Keep the index, wait-time model and metrics in step with the claim
+        afterQueueWrite(called);
+        recordCalled(called);
+        recordTransition(called, QueueLog.STATUS_IN_QUEUE);
 
         // Step 4: Send "your turn" notification
         sendYourTurnNotification(called, 1); // Position 1
@@ -439,6 +623,104 @@ public class QueueService {
         return called;
     }
 
+    /**
+     * Call next patient for a specific doctor - parallel call-next per doctor
+     *
+     * Atomic operation:
+     * 1. Mark the patient this doctor is currently serving (CALLED) as DONE
+     * 2. Take the next patient from the doctor's own sub-queue or, if that patient
+     *    ranks lower, from the clinic's shared pool (work stealing)
+     * 3. Mark them CALLED for this doctor and send the "your turn" notification
+     *
+     * Different doctors in the same clinic do not block each other.
+     *
+     * @param clinicId ID of the clinic
+     * @param doctorId ID of the doctor calling the next patient
+     * @return The newly called patient's QueueLog entry
+     * @throws QueueException if no patients are waiting for this doctor
+     */
+    @Observed(name = "queue.call_next", contextualName = "queue call-next", lowCardinalityKeyValues = { "mode", "doctor" })
+    @Transactional
+    public QueueLog callNextForDoctor(Long clinicId, Long doctorId) {
+        // Step 1: Mark this doctor's current patient as DONE (if any)
+        for (QueueLog current : queueRepository.findByClinicIdAndDoctorIdAndStatus(
+                clinicId, doctorId, QueueLog.STATUS_CALLED)) {
+            recordCompleted(current);
+            current.setStatus(QueueLog.STATUS_DONE);
+            QueueLog done = queueRepository.save(current);
+            afterQueueWrite(done);
+            recordTransition(done, QueueLog.STATUS_CALLED);
+            log.info("Doctor {} finished with queue {}", doctorId, current.getQueueId());
+        }
+
+        // Step 2: Claim the next patient from the doctor's lane, then mark it CALLED by this doctor
+        // with a conditional UPDATE; an entry another caller already moved on is skipped
+        QueueLog called = null;
+        boolean stolen = false;
+        while (called == null) {
+            ClinicQueueIndex.QueuedEntry claimed = clinicQueueIndex.claimNext(clinicId, doctorId);
+            if (claimed == null) {
+                throw new QueueException("No patients waiting in queue for doctor " + doctorId
+                        + " in clinic: " + clinicId);
+            }
+            if (queueRepository.claimForDoctor(claimed.queueId(), doctorId, LocalDateTime.now()) == 1) {
+                called = queueRepository.findById(claimed.queueId()).orElseThrow();
+                stolen = claimed.doctorId() == null;
+            }
+        }
+
+        // Step 3: Keep the index, wait-time model and metrics in step with the claim
+        afterQueueWrite(called);
+        recordCalled(called);
+        recordTransition(called, QueueLog.STATUS_IN_QUEUE);
+
+        // Step 4: Send "your turn" notification
+        sendYourTurnNotification(called, 1);
+
+        // Step 5: Publish event for SSE updates
+        eventPublisher.publishEvent(new QueueChangedEvent(clinicId));
+
+        // Step 6: Check if new position 3 needs "three away" notification
+        checkAndSendQueueNotifications(clinicId);
+
+        log.info("Doctor {} called queue {} (appointment {}) in clinic {}{}",
+                doctorId, called.getQueueId(), called.getAppointmentId(), clinicId,
+                stolen ? " from the shared pool" : "");
+
+        return called;
+    }
+
+    /**
+     * Get the waiting lane of a doctor as DTOs: the doctor's sub-queue merged with the
+     * clinic's shared pool, in the order the doctor will call them
+     *
+     * @param clinicId ID of the clinic
+     * @param doctorId ID of the doctor
+     * @return List of QueueEntryDTOs with positions within the doctor's lane
+     */
+    @Transactional(readOnly = true)
+    public List<QueueEntryDTO> getDoctorQueueWithDetails(Long clinicId, Long doctorId) {
+        replicaRouting.preferPrimaryIfRecentlyWritten(clinicKey(clinicId));
+        List<ClinicQueueIndex.QueuedEntry> lane = clinicQueueIndex.getLane(clinicId, doctorId);
+        Map<Long, QueueLog> entries = queueRepository.findAllById(
+                lane.stream().map(ClinicQueueIndex.QueuedEntry::queueId).toList()).stream()
+                .collect(Collectors.toMap(QueueLog::getQueueId, Function.identity()));
+
+        EntryDetails details = loadEntryDetails(List.copyOf(entries.values()));
+
+        List<QueueEntryDTO> result = new ArrayList<>();
+        double waitMinutes = waitTimeEstimator.remainingMinutes(clinicId, doctorId);
+        for (ClinicQueueIndex.QueuedEntry queued : lane) {
+            QueueLog entry = entries.get(queued.queueId());
+            if (entry != null) {
+                result.add(convertToQueueEntryDTO(entry, details, result.size() + 1, lane.size(),
+                        (int) Math.round(waitMinutes)));
+            }
+            waitMinutes += waitTimeEstimator.serviceMinutes(clinicId, doctorId, queued.priority());
+        }
+        return result;
+    }
+
     /**
      * Call specific patient by appointment ID - staff manually selects patient
      *
@@ -449,6 +731,7 @@ public class QueueService {
      * @return The called patient's QueueLog entry
      * @throws QueueException if appointment not in queue
      */
+    @Observed(name = "queue.call_next", contextualName = "queue call appointment", lowCardinalityKeyValues = { "mode", "appointment" })
     @Transactional
     public QueueLog callByAppointmentId(Long appointmentId) {
         // Step 1: Find patient's queue entry (must be IN_QUEUE)
@@ -462,17 +745,20 @@ public class QueueService {
 
         QueueLog patient = queueEntry.get();
 
-        // Step 2: Get current position (for logging/notification context)
-        List<QueueLog> queue = queueRepository
+        // Step 2: Get current position within the patient's lane (for logging/notification context)
+        List<QueueLog> queue = laneOf(queueRepository
                 .findByClinicIdAndStatusOrderByPriorityDescCreatedAtAsc(
                         patient.getClinicId(),
-                        QueueLog.STATUS_IN_QUEUE);
+                        QueueLog.STATUS_IN_QUEUE), patient.getDoctorId());
         int position = queue.indexOf(patient) + 1;
 
         // Step 3: Mark patient as CALLED (being served) and set appointment start time
         patient.setStatus(QueueLog.STATUS_CALLED);
         patient.setAppointmentStart(LocalDateTime.now()); // Record when patient is called in
         QueueLog called = queueRepository.save(patient);
+        afterQueueWrite(called);
+        recordCalled(called);
+        recordTransition(called, QueueLog.STATUS_IN_QUEUE);
 
         // Step 4: Send "your turn" notification
         sendYourTurnNotification(called, position);
@@ -521,6 +807,7 @@ public class QueueService {
      */
     @Transactional(readOnly = true)
     public Optional<QueueLog> getCurrentlyServing(Long clinicId) {
+        replicaRouting.preferPrimaryIfRecentlyWritten(clinicKey(clinicId));
         return queueRepository.findCurrentlyServing(clinicId);
     }
 
@@ -540,8 +827,8 @@ public class QueueService {
      * Used to identify patients who didn't show up and can be re-queued
      * Excludes appointments that have a DONE status (already completed)
      * Excludes appointments that are currently IN_QUEUE (already re-queued)
-     * Groups by appointmentId and returns only the latest missed entry per
-     * appointment
+     * Excludes appointments that have been CANCELLED
+     * Returns only the latest missed entry per appointment, in a single query
      *
      * @param clinicId ID of the clinic
      * @return List of missed queue entries that can still be re-queued (one per
@@ -549,65 +836,99 @@ public class QueueService {
      */
     @Transactional(readOnly = true)
     public List<QueueLog> getMissedQueueEntries(Long clinicId) {
-        // Get all MISSED entries for the clinic
-        List<QueueLog> missedEntries = queueRepository.findByClinicIdAndStatus(clinicId, QueueLog.STATUS_MISSED);
-
-        // Group by appointmentId and keep only the latest missed entry (by createdAt)
-        // for each appointment
-        List<QueueLog> latestMissedEntries = missedEntries.stream()
-                .collect(Collectors.groupingBy(
-                        QueueLog::getAppointmentId,
-                        Collectors.collectingAndThen(
-                                Collectors.toList(),
-                                entries -> entries.stream()
-                                        .max((e1, e2) -> e1.getCreatedAt().compareTo(e2.getCreatedAt()))
-                                        .orElse(null))))
-                .values()
-                .stream()
-                .filter(entry -> entry != null)
-                .collect(Collectors.toList());
+        replicaRouting.preferPrimaryIfRecentlyWritten(clinicKey(clinicId));
+        return queueRepository.findRequeueableMissedEntries(clinicId);
+    }
 
-        // Filter out appointments that have a DONE status (already completed)
-        // Filter out appointments that are IN_QUEUE (already re-queued - they're in the
-        // queue section)
-        // Filter out appointments that have been CANCELLED
-        return latestMissedEntries.stream()
-                .filter(entry -> {
-                    // Check if this appointment has a DONE entry
-                    boolean hasDoneEntry = queueRepository.existsByAppointmentIdAndStatus(
-                            entry.getAppointmentId(),
-                            QueueLog.STATUS_DONE);
-                    // Check if this appointment is currently IN_QUEUE
-                    boolean isInQueue = queueRepository.existsByAppointmentIdAndStatus(
-                            entry.getAppointmentId(),
-                            QueueLog.STATUS_IN_QUEUE);
-                    // Check if the appointment itself has been cancelled
-                    Optional<Appointment> appointmentOpt = appointmentRepository.findById(entry.getAppointmentId());
-                    boolean isCancelled = appointmentOpt.isPresent() && 
-                                         AppointmentStatus.CANCELLED.equals(appointmentOpt.get().getApptStatus());
-                    // Only include if it doesn't have a DONE entry, is not currently IN_QUEUE, and is not cancelled
-                    return !hasDoneEntry && !isInQueue && !isCancelled;
-                })
-                .collect(Collectors.toList());
+    /**
+     * Get wait-time estimator statistics: service-time averages and prediction accuracy
+     * (mean absolute error of the check-in estimate vs the actual wait)
+     *
+     * @return Map of estimator statistics
+     */
+    public Map<String, Object> getWaitTimeStats() {
+        return waitTimeEstimator.getStats();
     }
 
     // Helper methods
 
+    /**
+     * Bookkeeping after a queue entry is saved: keep the in-memory index in step and
+     * pin follow-up reads of this appointment/clinic to primary while the replica catches up
+     */
+    private void afterQueueWrite(QueueLog saved) {
+        clinicQueueIndex.refreshAfterCommit(saved);
+        replicaRouting.recordWrite(appointmentKey(saved.getAppointmentId()));
+        replicaRouting.recordWrite(clinicKey(saved.getClinicId()));
+    }
+
+    private static String appointmentKey(Long appointmentId) {
+        return "appointment:" + appointmentId;
+    }
+
+    private static String clinicKey(Long clinicId) {
+        return "clinic:" + clinicId;
+    }
+
+    /**
+     * Filter a clinic's ordered waiting list down to one lane: entries routed to the
+     * doctor plus the shared pool (or only the shared pool for a null doctor)
+     */
+    private List<QueueLog> laneOf(List<QueueLog> clinicQueue, Long doctorId) {
+        return clinicQueue.stream()
+                .filter(entry -> entry.getDoctorId() == null || entry.getDoctorId().equals(doctorId))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Split a clinic's ordered waiting list into lanes keyed by doctor ID
+     * (null key = shared pool only, used when no doctor has a sub-queue)
+     */
+    private Map<Long, List<QueueLog>> buildLanes(List<QueueLog> clinicQueue) {
+        Map<Long, List<QueueLog>> lanes = new LinkedHashMap<>();
+        clinicQueue.stream()
+                .map(QueueLog::getDoctorId)
+                .filter(doctorId -> doctorId != null)
+                .distinct()
+                .forEach(doctorId -> lanes.put(doctorId, laneOf(clinicQueue, doctorId)));
+        if (lanes.isEmpty()) {
+            lanes.put(null, clinicQueue);
+        }
+        return lanes;
+    }
+
+    /**
+     * Appointments and patient display data behind a list of queue entries
+     */
+    private record EntryDetails(Map<Long, Appointment> appointments, Map<Long, ReferenceDataCache.PatientRef> patients) {
+    }
+
+    /**
+     * Load entry details in one appointment query plus one patient-name query for cache misses,
+     * instead of an appointment lookup and a patient lookup per row
+     */
+    private EntryDetails loadEntryDetails(List<QueueLog> entries) {
+        Map<Long, Appointment> appointments = appointmentRepository.findAllById(
+                entries.stream().map(QueueLog::getAppointmentId).filter(Objects::nonNull).distinct().toList()).stream()
+                .collect(Collectors.toMap(Appointment::getAppointmentId, Function.identity()));
+        Map<Long, ReferenceDataCache.PatientRef> patients = referenceDataCache.getPatients(
+                appointments.values().stream().map(Appointment::getPatientId).toList());
+        return new EntryDetails(appointments, patients);
+    }
+
     /**
      * Convert QueueLog entity to QueueEntryDTO with position information
      */
-    private QueueEntryDTO convertToQueueEntryDTO(QueueLog queueLog, Integer position, Integer totalInQueue) {
-        // Fetch appointment details if needed
-        Optional<Appointment> appointment = appointmentRepository.findById(queueLog.getAppointmentId());
+    private QueueEntryDTO convertToQueueEntryDTO(QueueLog queueLog, EntryDetails details, Integer position,
+            Integer totalInQueue, Integer estimatedWaitTimeMinutes) {
+        Appointment appointment = details.appointments().get(queueLog.getAppointmentId());
 
-        // Fetch patient details to get name
+        // Patient display name (cached)
         String patientName = null;
-        if (appointment.isPresent() && appointment.get().getPatientId() != null) {
-            Optional<Patient> patient = patientRepository.findById(appointment.get().getPatientId());
-            if (patient.isPresent()) {
-                String fname = patient.get().getFname() != null ? patient.get().getFname() : "";
-                String lname = patient.get().getLname() != null ? patient.get().getLname() : "";
-                patientName = (fname + " " + lname).trim();
+        if (appointment != null && appointment.getPatientId() != null) {
+            ReferenceDataCache.PatientRef patient = details.patients().get(appointment.getPatientId());
+            if (patient != null) {
+                patientName = formatFullName(patient.fname(), patient.lname());
                 if (patientName.isEmpty()) {
                     patientName = null;
                 }
@@ -618,16 +939,37 @@ public class QueueService {
                 .queueId(queueLog.getQueueId())
                 .clinicId(queueLog.getClinicId())
                 .appointmentId(queueLog.getAppointmentId())
-                .patientId(appointment.map(Appointment::getPatientId).orElse(null))
+                .patientId(appointment != null ? appointment.getPatientId() : null)
                 .patientName(patientName)
-                .doctorId(appointment.map(Appointment::getDoctorId).orElse(null))
-                .appointmentDateTime(appointment.map(Appointment::getDateTime).orElse(null))
+                .doctorId(appointment != null ? appointment.getDoctorId() : null)
+                .appointmentDateTime(appointment != null ? appointment.getDateTime() : null)
                 .status(queueLog.getStatus())
                 .priority(queueLog.getPriority())
                 .position(position)
                 .createdAt(queueLog.getCreatedAt())
                 .totalInQueue(totalInQueue)
-                .estimatedWaitTimeMinutes(estimateWaitTime(position))
+                .estimatedWaitTimeMinutes(estimatedWaitTimeMinutes)
+                .build();
+    }
+
+    private static ClinicBoardDTO.BoardEntry toBoardEntry(QueueLog queueLog) {
+        return new ClinicBoardDTO.BoardEntry(queueLog.getQueueId(), queueLog.getAppointmentId(),
+                queueLog.getDoctorId(), queueLog.getPriority());
+    }
+
+    /**
+     * Position response for an entry that has been called (position 0, no wait)
+     */
+    private QueuePositionDTO calledPosition(QueueLog entry, int totalInQueue) {
+        return QueuePositionDTO.builder()
+                .appointmentId(entry.getAppointmentId())
+                .position(0) // Position 0 indicates called
+                .status(entry.getStatus())
+                .priority(entry.getPriority())
+                .totalInQueue(totalInQueue)
+                .estimatedWaitTimeMinutes(0) // No wait time when called
+                .message("You have been called - please proceed to reception")
+                .isQueued(true)
                 .build();
     }
 
@@ -645,15 +987,111 @@ public class QueueService {
     }
 
     /**
-     * Estimate wait time based on position
-     * Simple calculation: 10 minutes per patient ahead
-     * Can be enhanced with historical data
+     * Estimate wait times for a clinic's ordered waiting list in one pass
+     * Each entry waits for the current patient of its lane plus everyone ahead of it
+     * in the lane (its doctor's sub-queue and the shared pool)
+     *
+     * @return queueId -> estimated wait in minutes
      */
-    private Integer estimateWaitTime(Integer position) {
-        if (position == 1) {
-            return 0;
+    private Map<Long, Integer> estimateLaneWaits(Long clinicId, List<QueueLog> clinicQueue) {
+        Map<Long, Integer> waits = new HashMap<>();
+        Map<Long, Double> doctorMinutes = new HashMap<>();
+        double sharedMinutes = 0;
+
+        for (QueueLog entry : clinicQueue) {
+            Long doctorId = entry.getDoctorId();
+            double ahead = sharedMinutes + (doctorId != null ? doctorMinutes.getOrDefault(doctorId, 0.0) : 0);
+            double wait = waitTimeEstimator.remainingMinutes(clinicId, doctorId) + ahead;
+            waits.put(entry.getQueueId(), (int) Math.round(wait));
+
+            double service = waitTimeEstimator.serviceMinutes(clinicId, doctorId, entry.getPriority());
+            if (doctorId == null) {
+                sharedMinutes += service;
+            } else {
+                doctorMinutes.merge(doctorId, service, Double::sum);
+            }
+        }
+        return waits;
+    }
+
+    /**
+     * Record the wait predicted for a newly queued entry so its accuracy can be measured
+     * A new entry is the latest arrival of its priority, so everyone of the same or higher
+     * priority already in its lane is ahead of it; the index's running counts give that
+     * without reading the queue back from the database
+     */
+    private void recordWaitPrediction(QueueLog queueEntry) {
+        int[] laneCounts = clinicQueueIndex.getLaneCounts(queueEntry.getClinicId(), queueEntry.getDoctorId());
+        int[] aheadByPriority = new int[ClinicQueueIndex.PRIORITY_SLOTS];
+        for (int priority = prioritySlot(queueEntry.getPriority()); priority < aheadByPriority.length; priority++) {
+            aheadByPriority[priority] = laneCounts[priority];
+        }
+        Long queueId = queueEntry.getQueueId();
+        int predicted = waitTimeEstimator.estimateWait(queueEntry.getClinicId(), queueEntry.getDoctorId(), aheadByPriority);
+        afterCommit(() -> waitTimeEstimator.recordPrediction(queueId, predicted));
+    }
+
+    /**
+     * Patients ahead per priority of a waiting entry at the given lane position: everyone of a
+     * higher priority in the lane, and the rest of the positions ahead are its own priority
+     */
+    private static int[] countAhead(int[] laneCounts, Integer priority, int position) {
+        int own = prioritySlot(priority);
+        int[] ahead = new int[ClinicQueueIndex.PRIORITY_SLOTS];
+        int higher = 0;
+        for (int p = own + 1; p < ahead.length; p++) {
+            ahead[p] = laneCounts[p];
+            higher += laneCounts[p];
+        }
+        ahead[own] = Math.max(0, position - 1 - higher);
+        return ahead;
+    }
+
+    private static int prioritySlot(Integer priority) {
+        return priority != null && QueueLog.isValidPriority(priority) ? priority : QueueLog.PRIORITY_NORMAL;
+    }
+
+    /**
+     * Start the lane's service clock, score the check-in prediction and record the
+     * queue.wait latency once the call commits (a rolled-back call records nothing)
+     */
+    private void recordCalled(QueueLog called) {
+        WaitTimeEstimator.Visit visit = WaitTimeEstimator.Visit.of(called);
+        afterCommit(() -> {
+            waitTimeEstimator.recordCalled(visit);
+            queueMetrics.recordCalled(visit);
+        });
+    }
+
+    /**
+     * Fold a finished consultation into the service-time averages once it commits
+     */
+    private void recordCompleted(QueueLog done) {
+        WaitTimeEstimator.Visit visit = WaitTimeEstimator.Visit.of(done);
+        afterCommit(() -> waitTimeEstimator.recordCompleted(visit));
+    }
+
+    /**
+     * Feed the live dashboard statistics once the status change commits
+     * Captures the entry's fields now, since the entity may change again before commit
+     */
+    private void recordTransition(QueueLog saved, String previousStatus) {
+        LiveQueueStats.Transition transition = new LiveQueueStats.Transition(saved.getClinicId(), saved.getQueueId(),
+                previousStatus, saved.getStatus(), saved.getCreatedAt(), saved.getAppointmentStart());
+        afterCommit(() -> liveQueueStats.record(transition));
+    }
+
+    /**
+     * Feed the estimator (after commit) when an entry leaves its current status for DONE or MISSED
+     * Only CALLED -> DONE counts as a consultation; a no-show after calling does not
+     */
+    private void recordLeavingStatus(QueueLog queueEntry, String newStatus) {
+        if (QueueLog.STATUS_CALLED.equals(queueEntry.getStatus()) && QueueLog.STATUS_DONE.equals(newStatus)) {
+            recordCompleted(queueEntry);
+        } else if (QueueLog.STATUS_IN_QUEUE.equals(queueEntry.getStatus())) {
+            Long queueId = queueEntry.getQueueId();
+            afterCommit(() -> waitTimeEstimator.discardPrediction(queueId));
         }
-        return (position - 1) * 10; // 10 minutes per patient
     }
 
     /**
@@ -674,6 +1112,24 @@ public class QueueService {
         }
     }
 
+    /**
+     * Runs an action once the current transaction commits, or immediately outside a transaction
+     * Notifications are handed to the async executor from here, so an email is never sent for a
+     * rolled-back queue change and the SendGrid call never holds a database connection
+     */
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
     /**
      * Sends "your turn" notification when patient is at position 1 in queue
      * or when their queue status changes to DONE
@@ -687,11 +1143,11 @@ public class QueueService {
                 return;
             }
 
-            Patient patient = patientRepository.findById(appointment.getPatientId()).orElse(null);
-            Clinic clinic = clinicRepository.findById(appointment.getClinicId()).orElse(null);
-            Doctor doctor = doctorRepository.findById(appointment.getDoctorId()).orElse(null);
+            ReferenceDataCache.PatientRef patient = referenceDataCache.getPatient(appointment.getPatientId()).orElse(null);
+            ReferenceDataCache.ClinicRef clinic = referenceDataCache.getClinic(appointment.getClinicId()).orElse(null);
+            ReferenceDataCache.DoctorRef doctor = referenceDataCache.getDoctor(appointment.getDoctorId()).orElse(null);
 
-            if (patient == null || clinic == null || doctor == null || patient.getEmail() == null) {
+            if (patient == null || clinic == null || doctor == null || patient.email() == null) {
                 log.warn(
                         "Cannot send 'your turn' notification: missing patient, clinic, doctor, or email for queue entry {}",
                         queueEntry.getQueueId());
@@ -699,29 +1155,24 @@ public class QueueService {
             }
 
             // Build notification request
-            String patientName = formatFullName(patient.getFname(), patient.getLname());
-            String doctorName = formatFullName(doctor.getFname(), doctor.getLname());
+            String patientName = formatFullName(patient.fname(), patient.lname());
+            String doctorName = formatFullName(doctor.fname(), doctor.lname());
             String appointmentDateTime = appointment.getDateTime().format(DATE_TIME_FORMATTER);
 
             NotificationRequest request = new NotificationRequest();
-            request.setToEmail(patient.getEmail());
+            request.setToEmail(patient.email());
             request.setPatientName(patientName);
-            request.setClinicName(clinic.getName());
+            request.setClinicName(clinic.name());
             request.setDoctorName(doctorName);
             request.setAppointmentDateTime(appointmentDateTime);
             request.setQueueNumber(queuePosition);
             request.setRoomNumber(null); // Room number - can be enhanced later if available
             request.setAppointmentNumber(appointment.getAppointmentId());
 
-            log.info("Attempting to send 'your turn' email to {} for appointment {} (queue entry {})",
-                    patient.getEmail(), appointment.getAppointmentId(), queueEntry.getQueueId());
-            notificationService.sendYourTurnEmail(request);
-            log.info("Successfully sent 'your turn' notification to {} for appointment {}", patient.getEmail(),
-                    appointment.getAppointmentId());
+            log.info("Queueing 'your turn' email to {} for appointment {} (queue entry {})",
+                    patient.email(), appointment.getAppointmentId(), queueEntry.getQueueId());
+            afterCommit(() -> notificationService.sendYourTurnEmailAsync(request));
 
-        } catch (IOException e) {
-            log.error("Failed to send 'your turn' notification for queue entry {}: {}",
-                    queueEntry.getQueueId(), e.getMessage());
         } catch (Exception e) {
             log.error("Unexpected error sending 'your turn' notification for queue entry {}: {}",
                     queueEntry.getQueueId(), e.getMessage());
@@ -740,15 +1191,17 @@ public class QueueService {
             List<QueueLog> queueEntries = getClinicQueue(clinicId);
             log.debug("Checking queue notifications for clinic {}, queue size: {}", clinicId, queueEntries.size());
 
-            for (int i = 0; i < queueEntries.size(); i++) {
-                int position = i + 1;
-                QueueLog queueEntry = queueEntries.get(i);
-
-                // Send "three away" notification to patient at position 3
-                if (position == 3) {
+            // Position 3 is per doctor lane; a shared-pool patient may sit at 3 in several lanes
+            Set<Long> notified = new HashSet<>();
+            for (List<QueueLog> lane : buildLanes(queueEntries).values()) {
+                if (lane.size() < 3) {
+                    continue;
+                }
+                QueueLog queueEntry = lane.get(2);
+                if (notified.add(queueEntry.getQueueId())) {
                     log.debug("Patient at position 3 found (appointment {}), sending 'three away' notification",
                             queueEntry.getAppointmentId());
-                    sendThreeAwayNotification(queueEntry, position);
+                    sendThreeAwayNotification(queueEntry, 3);
                 }
             }
         } catch (Exception e) {
@@ -769,11 +1222,11 @@ public class QueueService {
                 return;
             }
 
-            Patient patient = patientRepository.findById(appointment.getPatientId()).orElse(null);
-            Clinic clinic = clinicRepository.findById(appointment.getClinicId()).orElse(null);
-            Doctor doctor = doctorRepository.findById(appointment.getDoctorId()).orElse(null);
+            ReferenceDataCache.PatientRef patient = referenceDataCache.getPatient(appointment.getPatientId()).orElse(null);
+            ReferenceDataCache.ClinicRef clinic = referenceDataCache.getClinic(appointment.getClinicId()).orElse(null);
+            ReferenceDataCache.DoctorRef doctor = referenceDataCache.getDoctor(appointment.getDoctorId()).orElse(null);
 
-            if (patient == null || clinic == null || doctor == null || patient.getEmail() == null) {
+            if (patient == null || clinic == null || doctor == null || patient.email() == null) {
                 log.warn(
                         "Cannot send 'three away' notification: missing patient, clinic, doctor, or email for queue entry {}",
                         queueEntry.getQueueId());
@@ -781,27 +1234,24 @@ public class QueueService {
             }
 
             // Build notification request
-            String patientName = formatFullName(patient.getFname(), patient.getLname());
-            String doctorName = formatFullName(doctor.getFname(), doctor.getLname());
+            String patientName = formatFullName(patient.fname(), patient.lname());
+            String doctorName = formatFullName(doctor.fname(), doctor.lname());
             String appointmentDateTime = appointment.getDateTime().format(DATE_TIME_FORMATTER);
 
             NotificationRequest request = new NotificationRequest();
-            request.setToEmail(patient.getEmail());
+            request.setToEmail(patient.email());
             request.setPatientName(patientName);
-            request.setClinicName(clinic.getName());
+            request.setClinicName(clinic.name());
             request.setDoctorName(doctorName);
             request.setAppointmentDateTime(appointmentDateTime);
             request.setQueueNumber(position);
             request.setRoomNumber(null); // Room number not applicable
             request.setAppointmentNumber(appointment.getAppointmentId());
 
-            notificationService.sendThreePatientsAwayEmail(request);
-            log.info("Sent 'three away' notification to {} for appointment {}", patient.getEmail(),
+            afterCommit(() -> notificationService.sendThreePatientsAwayEmailAsync(request));
+            log.info("Queued 'three away' notification to {} for appointment {}", patient.email(),
                     appointment.getAppointmentId());
 
-        } catch (IOException e) {
-            log.error("Failed to send 'three away' notification for queue entry {}: {}",
-                    queueEntry.getQueueId(), e.getMessage());
         } catch (Exception e) {
             log.error("Unexpected error sending 'three away' notification for queue entry {}: {}",
                     queueEntry.getQueueId(), e.getMessage());
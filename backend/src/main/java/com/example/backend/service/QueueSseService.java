@@ -1,18 +1,29 @@
 package com.example.backend.service;
 
-import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
 
-import org.springframework.context.event.EventListener;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import com.example.backend.dto.QueueDeltaDTO;
 import com.example.backend.dto.QueuePositionDTO;
 import com.example.backend.event.QueueChangedEvent;
-import com.example.backend.exception.QueueException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.example.backend.exception.SseCapacityException;
+import com.example.backend.model.appointments.Appointment;
+import com.fasterxml.jackson.core.JsonProcessingException;
+
+import io.micrometer.observation.annotation.Observed;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -24,166 +35,306 @@ import lombok.extern.slf4j.Slf4j;
  * position updates
  *
  * Key Features:
- * - Maintains active SSE connections per appointment
  * - Event-driven updates (no polling)
- * - Broadcasts updates when queue changes
- * - Handles connection cleanup on disconnect
- * - Thread-safe connection management
+ * - Connections live in SseConnectionRegistry, indexed by clinic: a queue change
+ *   only touches the subscribers of that clinic
+ * - One position computation per clinic change, shared by all its subscribers and by
+ *   the reactive position stream (ClinicPositionSnapshots)
+ * - Delta protocol: the first event is the full position ("queue-update"); after that
+ *   a "queue-delta" carries only the fields that changed, and unchanged positions are
+ *   not re-sent. Every event id is the clinic queue's sequence number (QueueDeltaLog)
+ * - Reconnecting clients send Last-Event-ID and get one delta from the state they held
+ *   (kept in the clinic's replay ring buffer) instead of a recomputed full position
+ * - Frames are encoded straight to bytes with shared, pre-built ObjectWriters
+ * - Heartbeats, dead-connection reaping, maximum connection age and the per-node
+ *   connection cap are handled by the registry
+ * - Fan-out runs on the async executor after the queue change commits, so
+ *   writers never wait on slow clients (virtual threads when enabled)
+ * - Fan-out writes go out in parallel through the registry's sendAsync, each bounded by
+ *   the send timeout; a stalled client is dropped instead of holding up its clinic
+ * - One fan-out at a time per clinic: positions are read, recorded in the delta log and
+ *   sent in the order of the changes; changes arriving meanwhile fold into one more pass
+ *
+ * Dependencies:
+ * - SseConnectionRegistry: Connection lifecycle and metrics
+ * - ClinicPositionSnapshots: Per-change clinic positions
+ * - AppointmentService: Clinic of the tracked appointment
+ * - JsonFrameEncoder: Position and delta encoding
  *
- * Version: 2.0
+ * Version: 3.5
  */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class QueueSseService {
 
-    private final QueueService queueService;
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    private static final String EVENT_NAME = "queue-update";
+
+    private final SseConnectionRegistry connectionRegistry;
+    private final ClinicPositionSnapshots positionSnapshots;
+    private final AppointmentService appointmentService;
+    private final JsonFrameEncoder frameEncoder;
 
-    // Map of appointmentId -> SseEmitter
-    private final Map<Long, SseEmitter> activeConnections = new ConcurrentHashMap<>();
+    @Value("${queue.stream.replay-buffer-size:256}")
+    private int replayBufferSize;
+
+    // Delta log and fan-out state per clinic with subscribers; dropped when a change finds none,
+    // so a stale history is never used to resume (old cursors then get a full position)
+    private final Map<Long, ClinicFeed> feeds = new ConcurrentHashMap<>();
+
+    /**
+     * Delta log of one clinic and the serialization of its fan-outs
+     */
+    private final class ClinicFeed {
+        private final QueueDeltaLog deltaLog = new QueueDeltaLog(replayBufferSize);
+        // Held while positions are read, recorded and sent, so an older snapshot can never be
+        // recorded or sent after a newer one (a ReentrantLock so virtual threads are not pinned)
+        private final ReentrantLock lock = new ReentrantLock();
+        // Fan-outs requested and not yet run; only the thread that raised it from zero runs them
+        private final AtomicInteger requested = new AtomicInteger();
+    }
 
     /**
      * Create a new SSE connection for queue position updates
-     * Sends initial position immediately, then waits for event-driven updates
-     * 
+     * Sends the position immediately (in full, or as a delta from Last-Event-ID), then waits
+     * for event-driven updates
+     *
      * @param appointmentId ID of the appointment to track
+     * @param lastEventId   Last event id the client received before reconnecting (optional)
      * @return SseEmitter for the client connection
+     * @throws SseCapacityException if this node is at its connection limit
      */
-    public SseEmitter createConnection(Long appointmentId) {
-        // Remove any existing connection for this appointment
-        SseEmitter existing = activeConnections.remove(appointmentId);
-        if (existing != null) {
+    public SseEmitter createConnection(Long appointmentId, String lastEventId) {
+        Long clinicId = appointmentService.getAppointmentById(appointmentId)
+                .map(Appointment::getClinicId)
+                .orElse(null);
+        if (clinicId == null) {
+            SseEmitter emitter = new SseEmitter(0L);
             try {
-                existing.complete();
+                emitter.send(SseEmitter.event().name(EVENT_NAME).data(notFoundJson(appointmentId)));
+                emitter.complete();
             } catch (Exception e) {
-                log.debug("Closed existing connection for appointment {}", appointmentId);
+                emitter.completeWithError(e);
             }
+            return emitter;
         }
 
-        // Create new emitter with no timeout (long-lived connection)
-        SseEmitter emitter = new SseEmitter(Long.MAX_VALUE);
-        activeConnections.put(appointmentId, emitter);
-
-        // Set up completion and timeout handlers
-        emitter.onCompletion(() -> {
-            log.debug("SSE connection completed for appointment {}", appointmentId);
-            activeConnections.remove(appointmentId);
-        });
-
-        emitter.onTimeout(() -> {
-            log.debug("SSE connection timeout for appointment {}", appointmentId);
-            activeConnections.remove(appointmentId);
-            emitter.complete();
-        });
-
-        emitter.onError((ex) -> {
-            log.error("SSE connection error for appointment {}: {}", appointmentId, ex.getMessage());
-            activeConnections.remove(appointmentId);
-            emitter.completeWithError(ex);
-        });
-
-        // Send initial position immediately
+        ClinicFeed feed = feeds.computeIfAbsent(clinicId, id -> new ClinicFeed());
+        feed.lock.lock();
         try {
-            QueuePositionDTO initialPosition = queueService.getQueuePosition(appointmentId);
-            sendUpdate(appointmentId, initialPosition);
-        } catch (QueueException e) {
-            // Not in queue yet, that's ok - will update when they check in
-            log.debug("Appointment {} not in queue yet", appointmentId);
-        } catch (Exception e) {
-            log.error("Error sending initial position: {}", e.getMessage());
+            return openConnection(appointmentId, clinicId, lastEventId, feed.deltaLog);
+        } finally {
+            feed.lock.unlock();
         }
-
-        return emitter;
     }
 
-    /**
-     * Send queue position update to a specific appointment
-     */
-    public void sendUpdate(Long appointmentId, QueuePositionDTO position) {
-        SseEmitter emitter = activeConnections.get(appointmentId);
-        if (emitter != null) {
-            try {
-                SseEmitter.SseEventBuilder event = SseEmitter.event()
-                        .name("queue-update")
-                        .data(objectMapper.writeValueAsString(position));
-                emitter.send(event);
-            } catch (IOException e) {
-                log.error("Error sending SSE update for appointment {}: {}", appointmentId, e.getMessage());
-                activeConnections.remove(appointmentId);
-                emitter.completeWithError(e);
+    // Callers hold the clinic's feed lock
+    private SseEmitter openConnection(Long appointmentId, Long clinicId, String lastEventId, QueueDeltaLog deltaLog) {
+        SseConnectionRegistry.Connection connection = connectionRegistry.register(appointmentId, clinicId);
+
+        // Resume: the client already holds its entry as of the cursor, so it only needs what changed since
+        QueueDeltaLog.State current = deltaLog.current();
+        Map<Long, QueueDeltaDTO> held = current != null ? deltaLog.entriesAt(lastEventId) : null;
+        if (held != null) {
+            QueueDeltaDTO entry = current.entries().get(appointmentId);
+            if (entry != null) {
+                sendChanges(connection, held.get(appointmentId), entry, deltaLog.eventId(current.seq())).join();
+            } else if (held.containsKey(appointmentId)) {
+                // Left the queue while the client was disconnected
+                sendNotInQueue(connection).join();
             }
+            return connection.getEmitter();
         }
+
+        // Send initial position immediately; not in queue yet is fine, it updates on check-in
+        Map<Long, QueuePositionDTO> positions = positionSnapshots.get(clinicId).positions();
+        deltaLog.advance(positions);
+        QueuePositionDTO initialPosition = positions.get(appointmentId);
+        if (initialPosition != null) {
+            sendPosition(connection, initialPosition, deltaLog.eventId(deltaLog.current().seq())).join();
+        } else {
+            log.debug("Appointment {} not in queue yet", appointmentId);
+        }
+
+        return connection.getEmitter();
     }
 
     /**
      * Listen for queue change events and notify all connected clients
      * This is called automatically when queue status changes (check-in, done,
-     * missed, requeue)
+     * missed, requeue), once the change has committed so positions are read
+     * from committed state
      */
-    @EventListener
+    @Async
+    @Observed(name = "sse.fanout", contextualName = "sse position fan-out")
+    @TransactionalEventListener(fallbackExecution = true)
     public void handleQueueChanged(QueueChangedEvent event) {
-        Long clinicId = event.getClinicId();
-        notifyClinicQueueChanged(clinicId);
+        notifyClinicQueueChanged(event.getClinicId());
     }
 
     /**
-     * Notify all appointments in a clinic that queue has changed
-     * This is called when queue status changes (check-in, done, missed, requeue)
+     * Run the clinic's fan-out, unless one is already running: that one then makes one more
+     * pass, which reads positions committed after this change
      */
-    private void notifyClinicQueueChanged(Long clinicId) {
-        // Get all appointments currently in queue for this clinic
-        List<com.example.backend.model.queue.QueueLog> queueEntries = queueService.getClinicQueue(clinicId);
-
-        // Update all connected clients for appointments in this clinic's queue
-        for (com.example.backend.model.queue.QueueLog entry : queueEntries) {
-            Long appointmentId = entry.getAppointmentId();
-            if (activeConnections.containsKey(appointmentId)) {
-                try {
-                    QueuePositionDTO position = queueService.getQueuePosition(appointmentId);
-                    sendUpdate(appointmentId, position);
-                } catch (QueueException e) {
-                    // Appointment no longer in queue, send error and close
-                    SseEmitter emitter = activeConnections.get(appointmentId);
-                    if (emitter != null) {
-                        try {
-                            SseEmitter.SseEventBuilder event = SseEmitter.event()
-                                    .name("queue-update")
-                                    .data("{\"error\":\"Not in queue\",\"appointmentId\":" + appointmentId + "}");
-                            emitter.send(event);
-                            activeConnections.remove(appointmentId);
-                            emitter.complete();
-                        } catch (IOException ioEx) {
-                            log.error("Error sending error event: {}", ioEx.getMessage());
-                            activeConnections.remove(appointmentId);
-                            emitter.completeWithError(ioEx);
-                        }
-                    }
-                } catch (Exception e) {
-                    log.error("Error updating position for appointment {}: {}", appointmentId, e.getMessage());
+    void notifyClinicQueueChanged(Long clinicId) {
+        if (clinicId == null) {
+            return;
+        }
+        if (!connectionRegistry.hasClinicConnections(clinicId)) {
+            feeds.remove(clinicId);
+            return;
+        }
+
+        ClinicFeed feed = feeds.computeIfAbsent(clinicId, id -> new ClinicFeed());
+        if (feed.requested.getAndIncrement() != 0) {
+            return;
+        }
+        int pending = 1;
+        do {
+            feed.lock.lock();
+            try {
+                fanOut(clinicId, feed.deltaLog);
+            } catch (RuntimeException e) {
+                // Keep draining: an exception here must not leave the clinic's fan-out marked as running
+                log.error("Error fanning out queue positions for clinic {}: {}", clinicId, e.getMessage(), e);
+            } finally {
+                feed.lock.unlock();
+            }
+            pending = feed.requested.addAndGet(-pending);
+        } while (pending != 0);
+    }
+
+    /**
+     * Push position changes to the clinic's subscribers
+     * Subscribers whose entry left the queue get a final "Not in queue" event and are closed;
+     * subscribers that have not checked in yet stay connected
+     * Callers hold the clinic's feed lock
+     */
+    private void fanOut(Long clinicId, QueueDeltaLog deltaLog) {
+        Map<Long, QueuePositionDTO> positions;
+        try {
+            positions = positionSnapshots.get(clinicId).positions();
+        } catch (Exception e) {
+            log.error("Error computing queue positions for clinic {}: {}", clinicId, e.getMessage());
+            return;
+        }
+
+        if (!deltaLog.advance(positions)) {
+            return; // Nothing in the clinic's queue changed
+        }
+        String eventId = deltaLog.eventId(deltaLog.current().seq());
+
+        List<CompletableFuture<Boolean>> sends = new ArrayList<>();
+        for (SseConnectionRegistry.Connection connection : connectionRegistry.getClinicConnections(clinicId)) {
+            QueuePositionDTO position = positions.get(connection.getAppointmentId());
+            if (position != null) {
+                if (connection.getLastEntry() == null) {
+                    sends.add(sendPosition(connection, position, eventId));
+                } else {
+                    sends.add(sendChanges(connection, connection.getLastEntry(), QueueDeltaDTO.of(position), eventId));
                 }
+            } else if (connection.getLastEntry() != null) {
+                // Appointment no longer in queue, send error and close
+                sends.add(sendNotInQueue(connection));
             }
         }
+        // Bounded by the send timeout; the next fan-out must see every client's updated entry
+        CompletableFuture.allOf(sends.toArray(new CompletableFuture<?>[0])).join();
     }
 
     /**
      * Manually close connection for an appointment
      */
     public void closeConnection(Long appointmentId) {
-        SseEmitter emitter = activeConnections.remove(appointmentId);
-        if (emitter != null) {
-            try {
-                emitter.complete();
-            } catch (Exception e) {
-                log.debug("Error closing connection: {}", e.getMessage());
-            }
-        }
+        connectionRegistry.get(appointmentId).ifPresent(connectionRegistry::close);
     }
 
     /**
      * Get count of active connections (for monitoring)
      */
     public int getActiveConnectionCount() {
-        return activeConnections.size();
+        return connectionRegistry.size();
+    }
+
+    /**
+     * Connection registry metrics (for monitoring)
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>(connectionRegistry.getStats());
+        stats.put("deltaLogClinics", feeds.size());
+        long resumes = 0;
+        long resyncs = 0;
+        for (ClinicFeed feed : feeds.values()) {
+            Map<String, Object> logStats = feed.deltaLog.getStats();
+            resumes += (Long) logStats.get("resumes");
+            resyncs += (Long) logStats.get("resyncs");
+        }
+        stats.put("deltaResumes", resumes);
+        stats.put("deltaResyncs", resyncs);
+        return stats;
+    }
+
+    /**
+     * Send the full position; completes with true once written (the client then holds it)
+     */
+    private CompletableFuture<Boolean> sendPosition(SseConnectionRegistry.Connection connection,
+            QueuePositionDTO position, String eventId) {
+        try {
+            byte[] data = frameEncoder.encodePosition(position);
+            return connectionRegistry.sendAsync(connection,
+                    SseEmitter.event().id(eventId).name(EVENT_NAME).data(data, MediaType.APPLICATION_JSON))
+                    .thenApply(written -> held(connection, QueueDeltaDTO.of(position), written));
+        } catch (JsonProcessingException e) {
+            log.error("Error serializing queue position for appointment {}: {}",
+                    connection.getAppointmentId(), e.getMessage());
+            return CompletableFuture.completedFuture(false);
+        }
+    }
+
+    /**
+     * Send the fields that differ between what the client holds and the current entry (nothing if equal)
+     */
+    private CompletableFuture<Boolean> sendChanges(SseConnectionRegistry.Connection connection, QueueDeltaDTO held,
+            QueueDeltaDTO current, String eventId) {
+        QueueDeltaDTO changes = QueueDeltaDTO.changes(held, current);
+        if (changes == null) {
+            return CompletableFuture.completedFuture(held(connection, current, true));
+        }
+        try {
+            byte[] data = frameEncoder.encodeDelta(changes);
+            return connectionRegistry.sendAsync(connection,
+                    SseEmitter.event().id(eventId).name(QueueDeltaLog.DELTA_EVENT).data(data, MediaType.APPLICATION_JSON))
+                    .thenApply(written -> held(connection, current, written));
+        } catch (JsonProcessingException e) {
+            log.error("Error serializing queue delta for appointment {}: {}",
+                    connection.getAppointmentId(), e.getMessage());
+            return CompletableFuture.completedFuture(false);
+        }
+    }
+
+    private CompletableFuture<Boolean> sendNotInQueue(SseConnectionRegistry.Connection connection) {
+        return connectionRegistry.sendAsync(connection,
+                SseEmitter.event().name(EVENT_NAME).data(notInQueueJson(connection.getAppointmentId())))
+                .thenApply(written -> {
+                    if (written) {
+                        connectionRegistry.close(connection);
+                    }
+                    return written;
+                });
+    }
+
+    private static boolean held(SseConnectionRegistry.Connection connection, QueueDeltaDTO entry, boolean written) {
+        if (written) {
+            connection.setLastEntry(entry);
+        }
+        return written;
+    }
+
+    private static String notInQueueJson(Long appointmentId) {
+        return "{\"error\":\"Not in queue\",\"appointmentId\":" + appointmentId + "}";
+    }
+
+    private static String notFoundJson(Long appointmentId) {
+        return "{\"error\":\"Appointment not found\",\"appointmentId\":" + appointmentId + "}";
     }
 }
@@ -0,0 +1,311 @@
+package com.example.backend.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.backend.dto.ClinicBoardDTO;
+import com.example.backend.dto.QueuePositionDTO;
+import com.example.backend.event.QueueChangedEvent;
+import com.example.backend.model.appointments.Appointment;
+import com.fasterxml.jackson.core.JsonProcessingException;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Service: QueueStreamService
+ *
+ * Purpose: Reactive queue position and clinic board streams backed by one hot
+ * snapshot Flux per clinic
+ *
+ * Key Features:
+ * - One snapshot per queue change, shared by every subscriber of the clinic and by the
+ *   SseEmitter position stream (ClinicPositionSnapshots)
+ * - Bursts of changes coalesce into a single recomputation (latest-wins)
+ * - Each subscriber maps the shared snapshot to its own position, sending only changes
+ * - Slow clients skip straight to the latest position instead of buffering
+ * - Heartbeat comments keep idle connections alive through proxies
+ * - Clinic board frames are encoded to bytes once and the same bytes are written
+ *   to every display, only when the board actually changed
+ * - A clinic's snapshot pipeline stops shortly after its last subscriber leaves, and
+ *   its stream is dropped then; boards are only streamed for clinics that exist
+ *
+ * Dependencies:
+ * - ClinicPositionSnapshots: Per-change clinic positions shared with QueueSseService
+ * - QueueService: Clinic board
+ * - AppointmentService: Resolving the clinic of an appointment
+ * - ReferenceDataCache: Checking that a board's clinic exists
+ * - JsonFrameEncoder: Encoding board frames
+ *
+ * Version: 1.4
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class QueueStreamService {
+
+    /**
+     * Positions of all active entries of a clinic at one point in time
+     */
+    public record QueueSnapshot(Long clinicId, Map<Long, QueuePositionDTO> positions, LocalDateTime computedAt) {
+
+        QueuePositionDTO positionOf(Long appointmentId) {
+            QueuePositionDTO position = positions.get(appointmentId);
+            return position != null ? position : notQueued(appointmentId);
+        }
+    }
+
+    private static final String EVENT_NAME = "queue-update";
+    private static final String BOARD_EVENT_NAME = "board-update";
+
+    private static final ServerSentEvent<QueuePositionDTO> HEARTBEAT = ServerSentEvent.<QueuePositionDTO>builder()
+            .comment("heartbeat")
+            .build();
+
+    private static final ServerSentEvent<byte[]> FRAME_HEARTBEAT = ServerSentEvent.<byte[]>builder()
+            .comment("heartbeat")
+            .build();
+
+    private final QueueService queueService;
+    private final ClinicPositionSnapshots positionSnapshots;
+    private final AppointmentService appointmentService;
+    private final ReferenceDataCache referenceDataCache;
+    private final JsonFrameEncoder frameEncoder;
+
+    @Value("${queue.stream.heartbeat-seconds:15}")
+    private long heartbeatSeconds;
+
+    @Value("${queue.stream.idle-grace-seconds:30}")
+    private long idleGraceSeconds;
+
+    @Value("${queue.board.next-count:10}")
+    private int boardNextCount;
+
+    private final Map<Long, ClinicStream> streams = new ConcurrentHashMap<>();
+    private final AtomicInteger subscribers = new AtomicInteger();
+    private final AtomicLong changeSignals = new AtomicLong();
+    private final AtomicLong snapshotsComputed = new AtomicLong();
+    private final AtomicInteger boardSubscribers = new AtomicInteger();
+    private final AtomicLong boardFramesSerialized = new AtomicLong();
+
+    /**
+     * Hot snapshot streams (positions and board) of one clinic
+     * Change signals are dropped while a recomputation is pending beyond the latest one,
+     * and new subscribers immediately receive the most recent snapshot
+     * Removed from streams once it has no subscribers and a pipeline stops after the grace period
+     */
+    private final class ClinicStream {
+        private final Long clinicId;
+        // Position and board subscribers; only read and written inside streams.compute for clinicId
+        private int subscribers;
+        private final Sinks.Many<Long> changes = Sinks.many().multicast().directBestEffort();
+        private final Flux<QueueSnapshot> snapshots;
+        private final Flux<byte[]> boardFrames;
+
+        private ClinicStream(Long clinicId) {
+            this.clinicId = clinicId;
+            this.snapshots = changes.asFlux()
+                    .startWith(clinicId)
+                    .onBackpressureLatest()
+                    .concatMap(ignored -> computeSnapshot(clinicId), 1)
+                    .doFinally(signal -> retireIfIdle(this))
+                    .replay(1)
+                    .refCount(1, Duration.ofSeconds(idleGraceSeconds));
+            this.boardFrames = changes.asFlux()
+                    .startWith(clinicId)
+                    .onBackpressureLatest()
+                    .concatMap(ignored -> computeBoard(clinicId), 1)
+                    .distinctUntilChanged()
+                    .concatMap(QueueStreamService.this::serializeBoard, 1)
+                    .doFinally(signal -> retireIfIdle(this))
+                    .replay(1)
+                    .refCount(1, Duration.ofSeconds(idleGraceSeconds));
+        }
+
+        // Sinks require serialized emission; queue changes can commit on several threads at once
+        private synchronized void signalChanged() {
+            changes.tryEmitNext(clinicId);
+        }
+    }
+
+    /**
+     * Stream position updates for an appointment
+     * Emits the current position first, then a new event whenever it changes
+     *
+     * @param appointmentId ID of the appointment to track
+     * @return SSE events of QueuePositionDTO, interleaved with heartbeat comments
+     */
+    public Flux<ServerSentEvent<QueuePositionDTO>> streamPosition(Long appointmentId) {
+        Long clinicId = appointmentService.getAppointmentById(appointmentId)
+                .map(Appointment::getClinicId)
+                .orElse(null);
+        if (clinicId == null) {
+            return Flux.just(ServerSentEvent.builder(notQueued(appointmentId)).event(EVENT_NAME).build());
+        }
+
+        Flux<ServerSentEvent<QueuePositionDTO>> updates = shared(clinicId, stream -> stream.snapshots)
+                .map(snapshot -> snapshot.positionOf(appointmentId))
+                .distinctUntilChanged()
+                .onBackpressureLatest()
+                .map(position -> ServerSentEvent.builder(position).event(EVENT_NAME).build());
+
+        Flux<ServerSentEvent<QueuePositionDTO>> heartbeats = Flux.interval(Duration.ofSeconds(heartbeatSeconds))
+                .onBackpressureDrop()
+                .map(tick -> HEARTBEAT);
+
+        // Writes to the servlet response block, so they happen on boundedElastic rather than
+        // on the thread that computed the snapshot or the shared interval timer
+        return Flux.merge(1, updates, heartbeats)
+                .publishOn(Schedulers.boundedElastic(), 1)
+                .doOnSubscribe(subscription -> subscribers.incrementAndGet())
+                .doFinally(signal -> subscribers.decrementAndGet());
+    }
+
+    /**
+     * Stream the queue board of a clinic (waiting-room displays, staff dashboards)
+     * Emits the current board first, then a new frame only when the board changes
+     *
+     * @param clinicId ID of the clinic
+     * @return SSE events carrying the pre-encoded ClinicBoardDTO JSON, interleaved with heartbeats,
+     *         or a single error event if the clinic does not exist
+     */
+    public Flux<ServerSentEvent<byte[]>> streamClinicBoard(Long clinicId) {
+        if (referenceDataCache.getClinic(clinicId).isEmpty()) {
+            byte[] notFound = ("{\"error\":\"Clinic not found\",\"clinicId\":" + clinicId + "}")
+                    .getBytes(StandardCharsets.UTF_8);
+            return Flux.just(ServerSentEvent.builder(notFound).event(BOARD_EVENT_NAME).build());
+        }
+
+        Flux<ServerSentEvent<byte[]>> updates = shared(clinicId, stream -> stream.boardFrames)
+                .onBackpressureLatest()
+                .map(frame -> ServerSentEvent.builder(frame).event(BOARD_EVENT_NAME).build());
+
+        Flux<ServerSentEvent<byte[]>> heartbeats = Flux.interval(Duration.ofSeconds(heartbeatSeconds))
+                .onBackpressureDrop()
+                .map(tick -> FRAME_HEARTBEAT);
+
+        return Flux.merge(1, updates, heartbeats)
+                .publishOn(Schedulers.boundedElastic(), 1)
+                .doOnSubscribe(subscription -> boardSubscribers.incrementAndGet())
+                .doFinally(signal -> boardSubscribers.decrementAndGet());
+    }
+
+    /**
+     * Recompute the snapshots of a clinic with subscribers once a queue change commits
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void handleQueueChanged(QueueChangedEvent event) {
+        ClinicStream stream = streams.get(event.getClinicId());
+        if (stream != null) {
+            changeSignals.incrementAndGet();
+            stream.signalChanged();
+        }
+    }
+
+    /**
+     * Subscriber and snapshot counters
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("clinics", streams.size());
+        stats.put("subscribers", subscribers.get());
+        stats.put("changeSignals", changeSignals.get());
+        stats.put("snapshotsComputed", snapshotsComputed.get());
+        stats.put("boardSubscribers", boardSubscribers.get());
+        stats.put("boardFramesSerialized", boardFramesSerialized.get());
+        return stats;
+    }
+
+    /**
+     * One of the clinic's hot streams, keeping the clinic's stream registered while subscribed
+     */
+    private <T> Flux<T> shared(Long clinicId, Function<ClinicStream, Flux<T>> select) {
+        return Flux.defer(() -> {
+            ClinicStream stream = streams.compute(clinicId, (id, existing) -> {
+                ClinicStream acquired = existing != null ? existing : new ClinicStream(id);
+                acquired.subscribers++;
+                return acquired;
+            });
+            // Released before the cancel reaches the shared pipeline, so its stop sees the final count
+            AtomicBoolean released = new AtomicBoolean();
+            Runnable release = () -> {
+                if (released.compareAndSet(false, true)) {
+                    streams.computeIfPresent(clinicId, (id, current) -> {
+                        if (current == stream) {
+                            current.subscribers--;
+                        }
+                        return current;
+                    });
+                }
+            };
+            return select.apply(stream)
+                    .doOnCancel(release)
+                    .doOnTerminate(release);
+        });
+    }
+
+    /**
+     * Drop a clinic's stream once one of its pipelines stopped with nobody subscribed
+     * (a subscriber arriving first keeps it, and its subscription restarts the pipeline)
+     */
+    private void retireIfIdle(ClinicStream stream) {
+        streams.computeIfPresent(stream.clinicId,
+                (id, current) -> current == stream && current.subscribers == 0 ? null : current);
+    }
+
+    private Mono<QueueSnapshot> computeSnapshot(Long clinicId) {
+        return Mono.fromCallable(() -> positionSnapshots.get(clinicId))
+                .map(shared -> new QueueSnapshot(clinicId, shared.positions(), shared.computedAt()))
+                .subscribeOn(Schedulers.boundedElastic())
+                .doOnNext(snapshot -> snapshotsComputed.incrementAndGet())
+                .onErrorResume(e -> {
+                    log.error("Error computing queue snapshot for clinic {}: {}", clinicId, e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    private Mono<ClinicBoardDTO> computeBoard(Long clinicId) {
+        return Mono.fromCallable(() -> queueService.getClinicBoard(clinicId, boardNextCount))
+                .subscribeOn(Schedulers.boundedElastic())
+                .onErrorResume(e -> {
+                    log.error("Error computing queue board for clinic {}: {}", clinicId, e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    private Mono<byte[]> serializeBoard(ClinicBoardDTO board) {
+        try {
+            byte[] frame = frameEncoder.encodeBoard(board);
+            boardFramesSerialized.incrementAndGet();
+            return Mono.just(frame);
+        } catch (JsonProcessingException e) {
+            log.error("Error serializing queue board for clinic {}: {}", board.getClinicId(), e.getMessage());
+            return Mono.empty();
+        }
+    }
+
+    private static QueuePositionDTO notQueued(Long appointmentId) {
+        return QueuePositionDTO.builder()
+                .appointmentId(appointmentId)
+                .message("Not in queue")
+                .isQueued(false)
+                .build();
+    }
+}
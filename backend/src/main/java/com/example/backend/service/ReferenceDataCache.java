@@ -0,0 +1,272 @@
+package com.example.backend.service;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.backend.dto.PatientNameDTO;
+import com.example.backend.repo.ClinicRepository;
+import com.example.backend.repo.DoctorRepository;
+import com.example.backend.repo.PatientRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Service: ReferenceDataCache
+ *
+ * Purpose: Cached display data for clinics, doctors and patients used on the
+ * queue and notification paths
+ *
+ * Key Features:
+ * - Immutable snapshots (names, email) instead of managed entities; patients are
+ *   loaded with a flat projection query, never as Patient entities
+ * - Batch lookup for lists (one query for all misses)
+ * - Size-bounded with time-to-live eviction (Caffeine)
+ * - Evicted by the services that update or delete the underlying rows, once their
+ *   transaction commits (a reader in between would otherwise re-cache the old row)
+ * - Generation-checked fills: a value loaded before an eviction is never cached after it
+ * - Hit/miss statistics per cache
+ *
+ * Dependencies:
+ * - ClinicRepository, DoctorRepository, PatientRepository: Loading on cache miss
+ *
+ * Version: 1.0
+ */
+@Service
+@Slf4j
+public class ReferenceDataCache {
+
+    public record ClinicRef(Long id, String name) {
+    }
+
+    public record DoctorRef(Long id, String fname, String lname) {
+    }
+
+    public record PatientRef(Long id, String fname, String lname, String email) {
+    }
+
+    private final ClinicRepository clinicRepository;
+    private final DoctorRepository doctorRepository;
+    private final PatientRepository patientRepository;
+
+    private final Cache<Long, ClinicRef> clinics;
+    private final Cache<Long, DoctorRef> doctors;
+    private final Cache<Long, PatientRef> patients;
+
+    private final Generations clinicGenerations = new Generations();
+    private final Generations doctorGenerations = new Generations();
+    private final Generations patientGenerations = new Generations();
+
+    /**
+     * Eviction counters striped by key: an eviction bumps its key's stripe, and a value loaded
+     * while the stripe moved is dropped instead of cached (bounded memory; an unrelated key in
+     * the same stripe only costs a later cache miss)
+     */
+    private static final class Generations {
+        private static final int STRIPES = 1024;
+
+        private final AtomicLongArray stripes = new AtomicLongArray(STRIPES);
+
+        long get(Long id) {
+            return stripes.get(stripe(id));
+        }
+
+        void bump(Long id) {
+            stripes.incrementAndGet(stripe(id));
+        }
+
+        void bumpAll() {
+            for (int i = 0; i < STRIPES; i++) {
+                stripes.incrementAndGet(i);
+            }
+        }
+
+        private static int stripe(Long id) {
+            return Long.hashCode(id) & (STRIPES - 1);
+        }
+    }
+
+    public ReferenceDataCache(ClinicRepository clinicRepository,
+            DoctorRepository doctorRepository,
+            PatientRepository patientRepository,
+            @Value("${cache.reference.max-size:10000}") long maxSize,
+            @Value("${cache.reference.ttl-minutes:30}") long ttlMinutes) {
+        this.clinicRepository = clinicRepository;
+        this.doctorRepository = doctorRepository;
+        this.patientRepository = patientRepository;
+        this.clinics = newCache(maxSize, ttlMinutes);
+        this.doctors = newCache(maxSize, ttlMinutes);
+        this.patients = newCache(maxSize, ttlMinutes);
+    }
+
+    public Optional<ClinicRef> getClinic(Long clinicId) {
+        if (clinicId == null) {
+            return Optional.empty();
+        }
+        return getOrLoad(clinics, clinicGenerations, clinicId, id -> clinicRepository.findById(id)
+                .map(clinic -> new ClinicRef(clinic.getId(), clinic.getName())));
+    }
+
+    public Optional<DoctorRef> getDoctor(Long doctorId) {
+        if (doctorId == null) {
+            return Optional.empty();
+        }
+        return getOrLoad(doctors, doctorGenerations, doctorId, id -> doctorRepository.findById(id)
+                .map(doctor -> new DoctorRef(doctor.getId(), doctor.getFname(), doctor.getLname())));
+    }
+
+    public Optional<PatientRef> getPatient(Long patientId) {
+        if (patientId == null) {
+            return Optional.empty();
+        }
+        return getOrLoad(patients, patientGenerations, patientId, id -> patientRepository.findNameById(id).map(ReferenceDataCache::toRef));
+    }
+
+    /**
+     * Patients by ID for a list of rows; unknown IDs are absent from the result
+     * Cache misses are loaded together in one query
+     */
+    public Map<Long, PatientRef> getPatients(Collection<Long> patientIds) {
+        Map<Long, PatientRef> found = new HashMap<>();
+        Map<Long, Long> missing = new HashMap<>(); // id -> generation before the load
+        for (Long id : patientIds) {
+            if (id == null || found.containsKey(id) || missing.containsKey(id)) {
+                continue;
+            }
+            PatientRef cached = patients.getIfPresent(id);
+            if (cached != null) {
+                found.put(id, cached);
+            } else {
+                missing.put(id, patientGenerations.get(id));
+            }
+        }
+        if (!missing.isEmpty()) {
+            for (PatientNameDTO row : patientRepository.findNamesByUserIdIn(missing.keySet())) {
+                PatientRef ref = toRef(row);
+                putIfCurrent(patients, patientGenerations, ref.id(), ref, missing.get(ref.id()));
+                found.put(ref.id(), ref);
+            }
+        }
+        return found;
+    }
+
+    public void evictClinic(Long clinicId) {
+        evictAfterCommit(clinics, clinicGenerations, clinicId);
+    }
+
+    public void evictDoctor(Long doctorId) {
+        evictAfterCommit(doctors, doctorGenerations, doctorId);
+    }
+
+    public void evictPatient(Long patientId) {
+        evictAfterCommit(patients, patientGenerations, patientId);
+    }
+
+    public void evictAll() {
+        clinicGenerations.bumpAll();
+        doctorGenerations.bumpAll();
+        patientGenerations.bumpAll();
+        clinics.invalidateAll();
+        doctors.invalidateAll();
+        patients.invalidateAll();
+        log.info("Cleared reference data cache");
+    }
+
+    /**
+     * Hit rate, hits, misses, evictions and size per cache
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("clinics", snapshot(clinics));
+        stats.put("doctors", snapshot(doctors));
+        stats.put("patients", snapshot(patients));
+        return stats;
+    }
+
+    /**
+     * Look up a cached value, loading it on a miss
+     * The repository call runs outside the cache (not via Cache.get(key, loader)), whose compute
+     * holds a map bin lock for the duration of the load and would pin a virtual thread on JDBC I/O
+     */
+    private static <V> Optional<V> getOrLoad(Cache<Long, V> cache, Generations generations, Long id,
+            Function<Long, Optional<V>> loader) {
+        V cached = cache.getIfPresent(id);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        long generation = generations.get(id);
+        Optional<V> loaded = loader.apply(id);
+        loaded.ifPresent(value -> putIfCurrent(cache, generations, id, value, generation));
+        return loaded;
+    }
+
+    /**
+     * Cache a loaded value unless the key was evicted since the load started
+     * The check and the write are one atomic map operation (no I/O inside); an eviction bumps the
+     * generation before invalidating, so it either stops this write or removes what it wrote
+     */
+    private static <V> void putIfCurrent(Cache<Long, V> cache, Generations generations, Long id, V value,
+            long generation) {
+        cache.asMap().compute(id, (key, existing) -> generations.get(key) == generation ? value : existing);
+    }
+
+    /**
+     * Invalidate an entry once the current transaction commits (immediately outside a transaction)
+     */
+    private static void evictAfterCommit(Cache<Long, ?> cache, Generations generations, Long id) {
+        if (id == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(cache, generations, id);
+                }
+            });
+        } else {
+            evict(cache, generations, id);
+        }
+    }
+
+    private static void evict(Cache<Long, ?> cache, Generations generations, Long id) {
+        generations.bump(id);
+        cache.invalidate(id);
+    }
+
+    private static PatientRef toRef(PatientNameDTO row) {
+        return new PatientRef(row.getUserId(), row.getFname(), row.getLname(), row.getEmail());
+    }
+
+    private static <V> Cache<Long, V> newCache(long maxSize, long ttlMinutes) {
+        return Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .recordStats()
+                .build();
+    }
+
+    private static Map<String, Object> snapshot(Cache<Long, ?> cache) {
+        CacheStats stats = cache.stats();
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("size", cache.estimatedSize());
+        snapshot.put("hits", stats.hitCount());
+        snapshot.put("misses", stats.missCount());
+        snapshot.put("hitRate", Math.round(stats.hitRate() * 1000) / 1000.0);
+        snapshot.put("evictions", stats.evictionCount());
+        return snapshot;
+    }
+}
@@ -8,6 +8,7 @@ import java.util.List;
 import java.util.Optional;
 
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.example.backend.model.appointments.Appointment;
 import com.example.backend.model.clinic.Clinic;
@@ -17,6 +18,8 @@ import com.example.backend.repo.AppointmentRepository;
 import com.example.backend.repo.ClinicRepository;
 import com.example.backend.repo.QueueRepository;
 
+import io.micrometer.observation.annotation.Observed;
+
 import lombok.RequiredArgsConstructor;
 
 /**
@@ -52,6 +55,8 @@ public class ReportService {
      * @param date     The report date (defaults to today if null)
      * @return DailyReport with aggregated metrics
      */
+    @Observed(name = "report.generation", contextualName = "daily report", lowCardinalityKeyValues = { "report", "daily" })
+    @Transactional(readOnly = true)
     public DailyReport generateReport(Long clinicId, LocalDate date) {
         if (date == null) {
             date = LocalDate.now();
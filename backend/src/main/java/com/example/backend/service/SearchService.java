@@ -0,0 +1,122 @@
+package com.example.backend.service;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.backend.config.SearchIndexInitializer;
+import com.example.backend.repo.PatientRepository;
+import com.example.backend.repo.StaffRepository;
+
+import io.micrometer.observation.annotation.Observed;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Service: SearchService
+ *
+ * Purpose: Ranked, paginated patient and staff lookup for reception and admin screens
+ *
+ * Key Features:
+ * - Backed by Postgres pg_trgm GIN indexes (see SearchIndexInitializer); no full scans:
+ *   patient candidates are a UNION of per-index lookups, joined and ranked afterwards
+ * - Name: substring and fuzzy (word similarity) matching on first and last name,
+ *   using the longest word of the query to find candidates
+ * - Email and IC: prefix matching
+ * - Ranking: email/IC prefix, then name prefix, then similarity of the full name
+ *   to the whole query
+ * - Pages are fetched with one extra row to report hasMore instead of counting matches
+ *
+ * Dependencies:
+ * - PatientRepository, StaffRepository: Native search queries
+ * - SearchIndexInitializer: Whether pg_trgm is installed
+ *
+ * Version: 1.0
+ */
+@Service
+@RequiredArgsConstructor
+public class SearchService {
+
+    public static final int MIN_QUERY_LENGTH = 2;
+    public static final int MAX_PAGE_SIZE = 50;
+
+    /**
+     * One page of ranked results
+     */
+    public record SearchResults<T>(String query, int page, int size, boolean hasMore, List<T> results) {
+    }
+
+    private final PatientRepository patientRepository;
+    private final StaffRepository staffRepository;
+    private final SearchIndexInitializer searchIndexInitializer;
+
+    /**
+     * Search patients by name, email or IC
+     *
+     * @throws IllegalArgumentException if the query is too short or paging is out of range
+     * @throws IllegalStateException    if pg_trgm is not installed
+     */
+    @Observed(name = "search.query", contextualName = "patient search", lowCardinalityKeyValues = { "entity", "patient" })
+    @Transactional(readOnly = true)
+    public SearchResults<PatientRepository.SearchHit> searchPatients(String query, int page, int size) {
+        Terms terms = terms(query, page, size);
+        List<PatientRepository.SearchHit> hits = patientRepository.search(terms.query(), terms.term(),
+                terms.contains(), terms.prefix(), size + 1, (long) page * size);
+        return page(terms.query(), page, size, hits);
+    }
+
+    /**
+     * Search staff by name or email, optionally within one clinic
+     *
+     * @throws IllegalArgumentException if the query is too short or paging is out of range
+     * @throws IllegalStateException    if pg_trgm is not installed
+     */
+    @Observed(name = "search.query", contextualName = "staff search", lowCardinalityKeyValues = { "entity", "staff" })
+    @Transactional(readOnly = true)
+    public SearchResults<StaffRepository.SearchHit> searchStaff(String query, Long clinicId, int page, int size) {
+        Terms terms = terms(query, page, size);
+        List<StaffRepository.SearchHit> hits = staffRepository.search(terms.query(), terms.term(),
+                terms.contains(), terms.prefix(), clinicId, size + 1, (long) page * size);
+        return page(terms.query(), page, size, hits);
+    }
+
+    /**
+     * Normalized query plus the LIKE patterns derived from it
+     *
+     * @param term longest word of the query, used to find name candidates
+     */
+    private record Terms(String query, String term, String contains, String prefix) {
+    }
+
+    private Terms terms(String rawQuery, int page, int size) {
+        if (!searchIndexInitializer.isTrigramAvailable()) {
+            throw new IllegalStateException("Search is unavailable: the pg_trgm extension is not installed");
+        }
+        String query = rawQuery == null ? "" : rawQuery.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+        if (query.length() < MIN_QUERY_LENGTH) {
+            throw new IllegalArgumentException("Search query must be at least " + MIN_QUERY_LENGTH + " characters");
+        }
+        if (page < 0 || size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("page must be >= 0 and size between 1 and " + MAX_PAGE_SIZE);
+        }
+        String term = Arrays.stream(query.split(" "))
+                .max(Comparator.comparingInt(String::length))
+                .orElse(query);
+        return new Terms(query, term, "%" + escapeLike(term) + "%", escapeLike(query) + "%");
+    }
+
+    private static <T> SearchResults<T> page(String query, int page, int size, List<T> hits) {
+        boolean hasMore = hits.size() > size;
+        return new SearchResults<>(query, page, size, hasMore, hasMore ? hits.subList(0, size) : hits);
+    }
+
+    /**
+     * Escape LIKE wildcards so they match literally (Postgres' default escape character is \)
+     */
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,205 @@
+package com.example.backend.service;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.example.backend.model.DoctorShift;
+
+/**
+ * In-memory interval index of doctor shifts, partitioned by clinic and day of week
+ *
+ * Each (clinic, day) holds an immutable array of intervals sorted by start minute
+ * together with a prefix maximum of end minutes. Overlap and "on duty at" lookups
+ * are a binary search plus a backwards scan that stops as soon as no earlier
+ * interval can reach the query, so cost is O(log n + k) per lookup.
+ *
+ * Reads are lock-free (copy-on-write arrays); writes are serialized.
+ */
+public class ShiftIndex {
+
+    public static final int MINUTES_PER_DAY = 24 * 60;
+    private static final int DAYS_PER_WEEK = 7;
+
+    /**
+     * A single indexed shift interval [start, end) in minutes of day
+     */
+    public record Slot(Long doctorId, int dayOfWeek, int start, int end) {
+    }
+
+    private static final class DaySlots {
+        private static final DaySlots EMPTY = new DaySlots(new Slot[0]);
+
+        private final Slot[] slots;
+        private final int[] maxEnd;
+
+        private DaySlots(Slot[] slots) {
+            this.slots = slots;
+            this.maxEnd = new int[slots.length];
+            int max = 0;
+            for (int i = 0; i < slots.length; i++) {
+                max = Math.max(max, slots[i].end());
+                maxEnd[i] = max;
+            }
+        }
+    }
+
+    // clinicId -> slots per day (index 0 = Monday)
+    private final Map<Long, DaySlots[]> clinics = new ConcurrentHashMap<>();
+
+    // doctorId -> clinicId the doctor's slots are currently indexed under
+    private final Map<Long, Long> doctorClinic = new ConcurrentHashMap<>();
+
+    /**
+     * Find indexed intervals in a clinic that overlap [start, end) on the given day
+     *
+     * @param excludeDoctorId doctor whose own intervals are ignored (null to include all)
+     */
+    public List<Slot> findOverlaps(Long clinicId, int dayOfWeek, int start, int end, Long excludeDoctorId) {
+        List<Slot> result = new ArrayList<>();
+        DaySlots day = getDay(clinicId, dayOfWeek);
+
+        // Everything before 'hi' starts before the query ends
+        int hi = firstStartAtOrAfter(day.slots, end);
+        for (int i = hi - 1; i >= 0 && day.maxEnd[i] > start; i--) {
+            Slot slot = day.slots[i];
+            if (slot.end() > start && !slot.doctorId().equals(excludeDoctorId)) {
+                result.add(slot);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Find doctors whose shift covers the given minute of the given day
+     */
+    public List<Long> findDoctorsOnDuty(Long clinicId, int dayOfWeek, int minuteOfDay) {
+        return findOverlaps(clinicId, dayOfWeek, minuteOfDay, minuteOfDay + 1, null).stream()
+                .map(Slot::doctorId)
+                .distinct()
+                .toList();
+    }
+
+    /**
+     * Replace all indexed shifts of a doctor (moving them to the given clinic)
+     */
+    public synchronized void replaceDoctor(Long doctorId, Long clinicId, Collection<DoctorShift> shifts) {
+        removeDoctor(doctorId);
+        if (clinicId == null || shifts == null || shifts.isEmpty()) {
+            return;
+        }
+
+        DaySlots[] current = clinics.get(clinicId);
+        DaySlots[] days = current != null ? current.clone() : emptyWeek();
+        for (int d = 1; d <= DAYS_PER_WEEK; d++) {
+            List<Slot> added = new ArrayList<>();
+            for (DoctorShift shift : shifts) {
+                if (shift.getDayOfWeek() != null && shift.getDayOfWeek() == d) {
+                    added.add(toSlot(doctorId, shift));
+                }
+            }
+            if (!added.isEmpty()) {
+                List<Slot> merged = new ArrayList<>(Arrays.asList(days[d - 1].slots));
+                merged.addAll(added);
+                days[d - 1] = sorted(merged);
+            }
+        }
+        // Publish a fresh week array so lock-free readers never see a partial update
+        clinics.put(clinicId, days);
+        doctorClinic.put(doctorId, clinicId);
+    }
+
+    /**
+     * Remove all indexed shifts of a doctor
+     */
+    public synchronized void removeDoctor(Long doctorId) {
+        Long clinicId = doctorClinic.remove(doctorId);
+        if (clinicId == null) {
+            return;
+        }
+        DaySlots[] current = clinics.get(clinicId);
+        if (current == null) {
+            return;
+        }
+        DaySlots[] days = current.clone();
+        for (int d = 0; d < DAYS_PER_WEEK; d++) {
+            List<Slot> kept = new ArrayList<>();
+            for (Slot slot : days[d].slots) {
+                if (!slot.doctorId().equals(doctorId)) {
+                    kept.add(slot);
+                }
+            }
+            if (kept.size() != days[d].slots.length) {
+                days[d] = sorted(kept);
+            }
+        }
+        clinics.put(clinicId, days);
+    }
+
+    /**
+     * Drop everything from the index
+     */
+    public synchronized void clear() {
+        clinics.clear();
+        doctorClinic.clear();
+    }
+
+    /**
+     * Convert a shift entity into an indexed slot
+     */
+    public static Slot toSlot(Long doctorId, DoctorShift shift) {
+        return new Slot(doctorId, shift.getDayOfWeek(),
+                toMinuteOfDay(shift.getStartTime(), false),
+                toMinuteOfDay(shift.getEndTime(), true));
+    }
+
+    /**
+     * Convert a time to minute of day; an end time of 23:59 or later means end of day
+     */
+    public static int toMinuteOfDay(LocalTime time, boolean isEnd) {
+        int minute = time.getHour() * 60 + time.getMinute();
+        if (isEnd && minute >= MINUTES_PER_DAY - 1) {
+            return MINUTES_PER_DAY;
+        }
+        return minute;
+    }
+
+    private DaySlots getDay(Long clinicId, int dayOfWeek) {
+        DaySlots[] days = clinics.get(clinicId);
+        if (days == null || dayOfWeek < 1 || dayOfWeek > DAYS_PER_WEEK) {
+            return DaySlots.EMPTY;
+        }
+        return days[dayOfWeek - 1];
+    }
+
+    private static DaySlots[] emptyWeek() {
+        DaySlots[] days = new DaySlots[DAYS_PER_WEEK];
+        Arrays.fill(days, DaySlots.EMPTY);
+        return days;
+    }
+
+    private static DaySlots sorted(List<Slot> slots) {
+        Slot[] array = slots.toArray(new Slot[0]);
+        Arrays.sort(array, Comparator.comparingInt(Slot::start).thenComparingInt(Slot::end));
+        return new DaySlots(array);
+    }
+
+    private static int firstStartAtOrAfter(Slot[] slots, int minute) {
+        int lo = 0;
+        int hi = slots.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (slots[mid].start() < minute) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+}
@@ -0,0 +1,317 @@
+package com.example.backend.service;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.example.backend.dto.QueueDeltaDTO;
+import com.example.backend.exception.SseCapacityException;
+
+import jakarta.annotation.PreDestroy;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Component: SseConnectionRegistry
+ *
+ * Purpose: Lifecycle of the per-appointment SSE position connections
+ *
+ * Key Features:
+ * - Connections indexed by appointment and by clinic, so fan-out only touches
+ *   the subscribers of the clinic that changed
+ * - Heartbeat comments on connections that have been quiet for a heartbeat interval;
+ *   the shared scheduler only dispatches them, each write runs on its own virtual
+ *   thread, so one slow client never stalls other scheduled tasks
+ * - Fan-out writes (sendAsync) run the same way, so one slow client never holds up
+ *   the rest of its clinic
+ * - A failed write, or one that does not finish within the send timeout, reaps the connection
+ * - Connections expire after a maximum age (clients reconnect)
+ * - Per-node connection cap
+ * - Metrics: open, opened, closed, reaped, stalled, expired, rejected, send failures, send latency
+ *
+ * Version: 1.2
+ */
+@Component
+@Slf4j
+public class SseConnectionRegistry {
+
+    /**
+     * One open SSE connection
+     */
+    @Getter
+    public static final class Connection {
+        private final Long appointmentId;
+        private final Long clinicId;
+        private final SseEmitter emitter;
+        private final long openedAt = System.currentTimeMillis();
+        private volatile long lastSentAt = openedAt;
+        // Last entry state the client holds, so only changed fields are sent
+        private volatile QueueDeltaDTO lastEntry;
+        // At most one heartbeat write in flight, so a stuck client does not pile up threads
+        @Getter(AccessLevel.NONE)
+        private final AtomicBoolean heartbeatPending = new AtomicBoolean();
+
+        private Connection(Long appointmentId, Long clinicId, SseEmitter emitter) {
+            this.appointmentId = appointmentId;
+            this.clinicId = clinicId;
+            this.emitter = emitter;
+        }
+
+        public void setLastEntry(QueueDeltaDTO lastEntry) {
+            this.lastEntry = lastEntry;
+        }
+    }
+
+    @Value("${sse.max-connections:10000}")
+    private int maxConnections;
+
+    @Value("${sse.heartbeat-interval-ms:15000}")
+    private long heartbeatIntervalMs;
+
+    @Value("${sse.send-timeout-ms:5000}")
+    private long sendTimeoutMs;
+
+    @Value("${sse.max-age-minutes:240}")
+    private long maxAgeMinutes;
+
+    private final ExecutorService sendExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final Map<Long, Connection> byAppointment = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Connection>> byClinic = new ConcurrentHashMap<>();
+
+    private final AtomicLong opened = new AtomicLong();
+    private final AtomicLong closed = new AtomicLong();
+    private final AtomicLong reaped = new AtomicLong();
+    private final AtomicLong stalled = new AtomicLong();
+    private final AtomicLong expired = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong sends = new AtomicLong();
+    private final AtomicLong sendFailures = new AtomicLong();
+    private final AtomicLong sendNanosTotal = new AtomicLong();
+    private final AtomicLong sendNanosMax = new AtomicLong();
+
+    /**
+     * Open a connection for an appointment, replacing any existing one
+     *
+     * @throws SseCapacityException if this node already holds the maximum number of connections
+     */
+    public Connection register(Long appointmentId, Long clinicId) {
+        if (byAppointment.size() >= maxConnections && !byAppointment.containsKey(appointmentId)) {
+            rejected.incrementAndGet();
+            throw new SseCapacityException("SSE connection limit reached (" + maxConnections + ")");
+        }
+
+        SseEmitter emitter = new SseEmitter(TimeUnit.MINUTES.toMillis(maxAgeMinutes));
+        Connection connection = new Connection(appointmentId, clinicId, emitter);
+
+        Connection previous = byAppointment.put(appointmentId, connection);
+        if (previous != null) {
+            unindex(previous);
+            completeQuietly(previous);
+        }
+        byClinic.compute(clinicId, (id, connections) -> {
+            Set<Connection> set = connections != null ? connections : ConcurrentHashMap.newKeySet();
+            set.add(connection);
+            return set;
+        });
+        opened.incrementAndGet();
+
+        emitter.onCompletion(() -> remove(connection));
+        emitter.onTimeout(() -> {
+            expired.incrementAndGet();
+            remove(connection);
+            emitter.complete();
+        });
+        emitter.onError(ex -> {
+            log.debug("SSE connection error for appointment {}: {}", appointmentId, ex.getMessage());
+            remove(connection);
+        });
+        return connection;
+    }
+
+    public Optional<Connection> get(Long appointmentId) {
+        return Optional.ofNullable(byAppointment.get(appointmentId));
+    }
+
+    /**
+     * Connections of one clinic (snapshot)
+     */
+    public List<Connection> getClinicConnections(Long clinicId) {
+        Set<Connection> connections = byClinic.get(clinicId);
+        return connections != null ? List.copyOf(connections) : List.of();
+    }
+
+    public boolean hasClinicConnections(Long clinicId) {
+        return byClinic.containsKey(clinicId);
+    }
+
+    public int size() {
+        return byAppointment.size();
+    }
+
+    /**
+     * Send an event, timing the write; a failed write closes and forgets the connection
+     *
+     * @return true if the event was written
+     */
+    public boolean send(Connection connection, SseEmitter.SseEventBuilder event) {
+        long start = System.nanoTime();
+        try {
+            connection.emitter.send(event);
+            long elapsed = System.nanoTime() - start;
+            sends.incrementAndGet();
+            sendNanosTotal.addAndGet(elapsed);
+            sendNanosMax.accumulateAndGet(elapsed, Math::max);
+            connection.lastSentAt = System.currentTimeMillis();
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            sendFailures.incrementAndGet();
+            log.debug("SSE send failed for appointment {}: {}", connection.appointmentId, e.getMessage());
+            remove(connection);
+            try {
+                connection.emitter.completeWithError(e);
+            } catch (Exception ignored) {
+                // already completed
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Send an event on its own virtual thread, bounded by the send timeout
+     * A write still blocked when the timeout expires reaps the connection (counted as stalled)
+     *
+     * @return completes with true if the event was written, false if it failed or timed out
+     */
+    public CompletableFuture<Boolean> sendAsync(Connection connection, SseEmitter.SseEventBuilder event) {
+        return dispatch(connection, event).exceptionally(ex -> false);
+    }
+
+    /**
+     * Close a connection normally
+     */
+    public void close(Connection connection) {
+        remove(connection);
+        completeQuietly(connection);
+    }
+
+    /**
+     * Heartbeat connections that have been quiet for a heartbeat interval
+     * Runs on the shared scheduler but only dispatches: every write runs on a virtual thread
+     * and is bounded by the send timeout. Dead TCP connections surface as write failures
+     * and are reaped; stalled ones are reaped when the timeout expires.
+     */
+    @Scheduled(fixedDelayString = "${sse.heartbeat-interval-ms:15000}")
+    public void heartbeat() {
+        long now = System.currentTimeMillis();
+        for (Connection connection : byAppointment.values()) {
+            if (now - connection.lastSentAt >= heartbeatIntervalMs
+                    && connection.heartbeatPending.compareAndSet(false, true)) {
+                dispatch(connection, SseEmitter.event().comment("heartbeat"))
+                        .whenComplete((written, ex) -> heartbeatDone(connection, written, ex));
+            }
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        sendExecutor.shutdownNow();
+    }
+
+    public Map<String, Object> getStats() {
+        long sendCount = sends.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("open", byAppointment.size());
+        stats.put("clinics", byClinic.size());
+        stats.put("maxConnections", maxConnections);
+        stats.put("opened", opened.get());
+        stats.put("closed", closed.get());
+        stats.put("reaped", reaped.get());
+        stats.put("stalled", stalled.get());
+        stats.put("expired", expired.get());
+        stats.put("rejected", rejected.get());
+        stats.put("sends", sendCount);
+        stats.put("sendFailures", sendFailures.get());
+        stats.put("avgSendMs", sendCount == 0 ? 0.0
+                : Math.round(sendNanosTotal.get() / 1_000_000.0 / sendCount * 1000) / 1000.0);
+        stats.put("maxSendMs", Math.round(sendNanosMax.get() / 1_000_000.0 * 1000) / 1000.0);
+        return stats;
+    }
+
+    private CompletableFuture<Boolean> dispatch(Connection connection, SseEmitter.SseEventBuilder event) {
+        return CompletableFuture.supplyAsync(() -> send(connection, event), sendExecutor)
+                .orTimeout(sendTimeoutMs, TimeUnit.MILLISECONDS)
+                .whenComplete((written, ex) -> {
+                    if (ex instanceof TimeoutException) {
+                        abortStalled(connection, ex);
+                    }
+                });
+    }
+
+    /**
+     * The write is still blocked on the client: forget the connection so fan-out skips it,
+     * and abort it on another virtual thread (completion may wait for the blocked write)
+     */
+    private void abortStalled(Connection connection, Throwable ex) {
+        stalled.incrementAndGet();
+        log.debug("SSE send timed out for appointment {}", connection.appointmentId);
+        remove(connection);
+        sendExecutor.execute(() -> {
+            try {
+                connection.emitter.completeWithError(ex);
+            } catch (Exception ignored) {
+                // already completed
+            }
+        });
+    }
+
+    private void heartbeatDone(Connection connection, Boolean written, Throwable ex) {
+        if (ex != null && (ex instanceof TimeoutException || ex.getCause() instanceof TimeoutException)) {
+            return; // Already counted as stalled and reaped
+        }
+        connection.heartbeatPending.set(false);
+        if (ex != null || !Boolean.TRUE.equals(written)) {
+            reaped.incrementAndGet();
+        }
+    }
+
+    private void remove(Connection connection) {
+        if (byAppointment.remove(connection.appointmentId, connection)) {
+            closed.incrementAndGet();
+        }
+        unindex(connection);
+    }
+
+    private void unindex(Connection connection) {
+        byClinic.computeIfPresent(connection.clinicId, (id, connections) -> {
+            connections.remove(connection);
+            return connections.isEmpty() ? null : connections;
+        });
+    }
+
+    private static void completeQuietly(Connection connection) {
+        try {
+            connection.emitter.complete();
+        } catch (Exception e) {
+            log.debug("Closed connection for appointment {}", connection.appointmentId);
+        }
+    }
+}
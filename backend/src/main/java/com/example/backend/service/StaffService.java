@@ -3,13 +3,18 @@ package com.example.backend.service;
 import com.example.backend.model.Staff;
 import com.example.backend.model.clinic.Clinic;
 import com.example.backend.dto.CreateStaffRequestDTO;
+import com.example.backend.dto.PageResponse;
+import com.example.backend.dto.StaffDTO;
 import com.example.backend.dto.UpdateStaffRequestDTO;
 import com.example.backend.repo.StaffRepository;
 import com.example.backend.service.ClinicService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
@@ -18,12 +23,34 @@ public class StaffService {
 
     private final StaffRepository staffRepository;
     private final ClinicService clinicService;
+    private final AutocompleteIndex autocompleteIndex;
+    
+    // Sort keys accepted by listStaff
+    private static final Map<String, List<String>> LISTING_SORTS = Map.of(
+            "id", List.of("userId"),
+            "name", List.of("lname", "fname"),
+            "email", List.of("email"),
+            "role", List.of("role"),
+            "createdAt", List.of("createdAt"));
     
     // Get all staff
+    @Transactional(readOnly = true)
     public List<Staff> getAllStaff() {
         return staffRepository.findAll();
     }
     
+    // Page of staff matching the optional filters: StaffSummaryDTO rows, or StaffDTO when detail is set
+    @Transactional(readOnly = true)
+    public PageResponse<?> listStaff(String query, String role, Long clinicId, boolean detail,
+            int page, int size, String sort) {
+        Pageable pageable = PageRequests.of(page, size, sort, "name", LISTING_SORTS, "userId");
+        String pattern = PageRequests.containsPattern(query);
+        role = PageRequests.blankToNull(role);
+        return detail
+                ? PageResponse.of(staffRepository.findListing(pattern, role, clinicId, pageable).map(StaffDTO::fromStaff))
+                : PageResponse.of(staffRepository.findSummaries(pattern, role, clinicId, pageable));
+    }
+    
     // Get staff by ID
     public Optional<Staff> getStaffById(Long staffId) {
         return staffRepository.findById(staffId);
@@ -40,11 +67,13 @@ public class StaffService {
     }
     
     // Get staff by clinic ID
+    @Transactional(readOnly = true)
     public List<Staff> getStaffByClinicId(Long clinicId) {
         return staffRepository.findByClinicId(clinicId);
     }
     
     // Get staff by clinic ID (ordered by first name)
+    @Transactional(readOnly = true)
     public List<Staff> getStaffByClinicIdOrdered(Long clinicId) {
         return staffRepository.findByClinicIdOrderByFnameAsc(clinicId);
     }
@@ -60,11 +89,13 @@ public class StaffService {
     }
     
     // Search staff by name
+    @Transactional(readOnly = true)
     public List<Staff> searchStaffByName(String name) {
         return staffRepository.findByNameContainingIgnoreCase(name);
     }
     
     // Search staff by name in specific clinic
+    @Transactional(readOnly = true)
     public List<Staff> searchStaffByNameInClinic(Long clinicId, String name) {
         return staffRepository.findByClinicIdAndNameContainingIgnoreCase(clinicId, name);
     }
@@ -90,7 +121,9 @@ public class StaffService {
             throw new IllegalArgumentException("Clinic assignment is required for staff");
         }
         
-        return staffRepository.save(staff);
+        Staff saved = staffRepository.save(staff);
+        autocompleteIndex.putStaff(saved);
+        return saved;
     }
     
     // Create a new staff member from DTO
@@ -113,12 +146,16 @@ public class StaffService {
         clinic.setId(requestDTO.getClinicId());
         staff.setClinic(clinic);
         
-        return staffRepository.save(staff);
+        Staff saved = staffRepository.save(staff);
+        autocompleteIndex.putStaff(saved);
+        return saved;
     }
     
     // Update staff
     public Staff updateStaff(Staff staff) {
-        return staffRepository.save(staff);
+        Staff saved = staffRepository.save(staff);
+        autocompleteIndex.putStaff(saved);
+        return saved;
     }
     
     // Update staff details by ID
@@ -147,7 +184,9 @@ public class StaffService {
                         existingStaff.setClinic(updatedStaff.getClinic());
                     }
                     
-                    return staffRepository.save(existingStaff);
+                    Staff saved = staffRepository.save(existingStaff);
+                    autocompleteIndex.putStaff(saved);
+                    return saved;
                 });
     }
     
@@ -179,13 +218,16 @@ public class StaffService {
                         existingStaff.setClinic(clinic);
                     }
                     
-                    return staffRepository.save(existingStaff);
+                    Staff saved = staffRepository.save(existingStaff);
+                    autocompleteIndex.putStaff(saved);
+                    return saved;
                 });
     }
     
     // Delete staff by ID
     public void deleteStaff(Long staffId) {
         staffRepository.deleteById(staffId);
+        autocompleteIndex.remove(staffId);
     }
     
     // Check if staff exists by email
@@ -218,7 +260,9 @@ public class StaffService {
         return staffRepository.findById(staffId)
                 .map(staff -> {
                     staff.setClinic(newClinic);
-                    return staffRepository.save(staff);
+                    Staff saved = staffRepository.save(staff);
+                    autocompleteIndex.putStaff(saved);
+                    return saved;
                 });
     }
 }
@@ -5,8 +5,10 @@ import com.example.backend.model.queue.QueueLog;
 import com.example.backend.model.report.SystemUsageReport;
 import com.example.backend.repo.AppointmentRepository;
 import com.example.backend.repo.QueueRepository;
+import io.micrometer.observation.annotation.Observed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -42,6 +44,8 @@ public class SystemUsageReportService {
      * @param endDate End date of reporting period (defaults to today)
      * @return SystemUsageReport with all aggregated metrics
      */
+    @Observed(name = "report.generation", contextualName = "system usage report", lowCardinalityKeyValues = { "report", "system_usage" })
+    @Transactional(readOnly = true)
     public SystemUsageReport generateSystemUsageReport(LocalDate startDate, LocalDate endDate) {
         // Set defaults if not provided
         if (startDate == null) {
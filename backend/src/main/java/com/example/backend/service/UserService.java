@@ -1,5 +1,6 @@
 package com.example.backend.service;
 
+import com.example.backend.dto.UserSummaryDTO;
 import com.example.backend.model.User;
 import com.example.backend.repo.UserRepository;
 import lombok.RequiredArgsConstructor;
@@ -13,12 +14,19 @@ import java.util.Optional;
 public class UserService {
     
     private final UserRepository userRepository;
+    private final ReferenceDataCache referenceDataCache;
+    private final AutocompleteIndex autocompleteIndex;
     
     // Get all users
     public List<User> getAllUsers() {
         return userRepository.findAll();
     }
     
+    // Get all users as flat rows (user columns only, no patient/staff joins)
+    public List<UserSummaryDTO> getAllUserSummaries() {
+        return userRepository.findAllSummaries();
+    }
+    
     // Get user by ID
     public Optional<User> getUserById(Long userId) {
         return userRepository.findById(userId);
@@ -41,7 +49,10 @@ public class UserService {
     
     // Update user
     public User updateUser(User user) {
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        referenceDataCache.evictPatient(saved.getUserId()); // Patients share user_id with their user row
+        autocompleteIndex.updateUser(saved);
+        return saved;
     }
     
     // Update user details by ID
@@ -62,13 +73,18 @@ public class UserService {
                         existingUser.setRole(updatedUser.getRole());
                     }
                     // Note: authUuid and createdAt are not updated as they should remain unchanged
-                    return userRepository.save(existingUser);
+                    User saved = userRepository.save(existingUser);
+                    referenceDataCache.evictPatient(userId); // Patients share user_id with their user row
+                    autocompleteIndex.updateUser(saved);
+                    return saved;
                 });
     }
     
     // Delete user by ID
     public void deleteUser(Long userId) {
         userRepository.deleteById(userId);
+        referenceDataCache.evictPatient(userId);
+        autocompleteIndex.remove(userId);
     }
     
     // Check if user exists by email
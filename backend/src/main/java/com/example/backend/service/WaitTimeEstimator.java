@@ -0,0 +1,279 @@
+package com.example.backend.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.stereotype.Component;
+
+import com.example.backend.model.queue.QueueLog;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Component: WaitTimeEstimator
+ *
+ * Purpose: Online estimate of queue wait times from observed service times
+ *
+ * Key Features:
+ * - Exponentially weighted service-time averages per clinic and per doctor, split by priority
+ * - Updated incrementally on CALLED -> DONE transitions (no history scans)
+ * - Queue-mix-aware prediction: expected service time per priority times the number of
+ *   patients of that priority ahead, plus the remaining time of the patient being served
+ * - Fed by QueueService after commit, so rolled-back calls never skew the averages
+ * - Accuracy tracking: mean absolute error of the check-in prediction vs the actual wait
+ *
+ * Statistics are kept in memory and start from the default of 10 minutes per patient
+ * after a restart.
+ *
+ * Version: 1.0
+ */
+@Component
+@Slf4j
+public class WaitTimeEstimator {
+
+    static final double DEFAULT_SERVICE_MINUTES = 10.0;
+    static final double ALPHA = 0.2;
+    static final int MIN_SAMPLES = 5;
+
+    // Samples above this are treated as entries someone forgot to close, not real consultations
+    static final double MAX_SERVICE_MINUTES = 240.0;
+
+    // Predictions of entries that never get called (e.g. rolled-back check-ins) are dropped past this size
+    private static final int MAX_PENDING_PREDICTIONS = 10_000;
+
+    /**
+     * Exponentially weighted moving average with a sample count
+     */
+    private static final class Ewma {
+        private double mean;
+        private long samples;
+
+        synchronized void add(double value) {
+            mean = samples == 0 ? value : mean + ALPHA * (value - mean);
+            samples++;
+        }
+
+        synchronized double mean() {
+            return mean;
+        }
+
+        synchronized long samples() {
+            return samples;
+        }
+    }
+
+    /**
+     * Running prediction error: lifetime MAE plus an EWMA of recent absolute errors
+     */
+    private static final class Accuracy {
+        private final Ewma recent = new Ewma();
+        private double totalAbsError;
+        private long samples;
+
+        synchronized void add(double absError) {
+            totalAbsError += absError;
+            samples++;
+            recent.add(absError);
+        }
+
+        synchronized Map<String, Object> snapshot() {
+            Map<String, Object> stats = new HashMap<>();
+            stats.put("samples", samples);
+            stats.put("maeMinutes", samples == 0 ? null : round(totalAbsError / samples));
+            stats.put("recentMaeMinutes", samples == 0 ? null : round(recent.mean()));
+            return stats;
+        }
+    }
+
+    private record LaneKey(Long clinicId, Long doctorId) {
+    }
+
+    /**
+     * The fields of a queue entry the estimator reads, captured when the status change is made
+     */
+    public record Visit(Long queueId, Long clinicId, Long doctorId, Integer priority,
+            LocalDateTime createdAt, LocalDateTime appointmentStart) {
+
+        public static Visit of(QueueLog queueLog) {
+            return new Visit(queueLog.getQueueId(), queueLog.getClinicId(), queueLog.getDoctorId(),
+                    queueLog.getPriority(), queueLog.getCreatedAt(), queueLog.getAppointmentStart());
+        }
+    }
+
+    // Index 0 = all priorities, 1..3 = by priority
+    private final Map<Long, Ewma[]> clinicServiceTimes = new ConcurrentHashMap<>();
+    private final Map<Long, Ewma[]> doctorServiceTimes = new ConcurrentHashMap<>();
+
+    // When the patient currently being served in a lane was called
+    private final Map<LaneKey, LocalDateTime> servingSince = new ConcurrentHashMap<>();
+
+    // queueId -> wait predicted at check-in, in minutes
+    private final Map<Long, Integer> pendingPredictions = new ConcurrentHashMap<>();
+
+    private final Accuracy overallAccuracy = new Accuracy();
+    private final Map<Long, Accuracy> clinicAccuracy = new ConcurrentHashMap<>();
+
+    /**
+     * Expected consultation length for a patient of the given priority
+     * Uses the doctor's own statistics once warmed up, then the clinic's, then the default
+     */
+    public double serviceMinutes(Long clinicId, Long doctorId, Integer priority) {
+        int slot = priority != null && QueueLog.isValidPriority(priority) ? priority : 0;
+
+        Double estimate = doctorId != null ? warmMean(doctorServiceTimes.get(doctorId), slot) : null;
+        if (estimate == null) {
+            estimate = warmMean(clinicServiceTimes.get(clinicId), slot);
+        }
+        return estimate != null ? estimate : DEFAULT_SERVICE_MINUTES;
+    }
+
+    /**
+     * Expected minutes left for the patient currently being served in a lane
+     */
+    public double remainingMinutes(Long clinicId, Long doctorId) {
+        LocalDateTime since = servingSince.get(new LaneKey(clinicId, doctorId));
+        if (since == null && doctorId != null) {
+            since = servingSince.get(new LaneKey(clinicId, null));
+        }
+        if (since == null) {
+            return 0;
+        }
+        double elapsed = Duration.between(since, LocalDateTime.now()).toSeconds() / 60.0;
+        return Math.max(0, serviceMinutes(clinicId, doctorId, null) - elapsed);
+    }
+
+    /**
+     * Estimate the wait of a patient given how many patients of each priority are ahead in their lane
+     *
+     * @param aheadByPriority patients ahead indexed by priority (index 0 is ignored)
+     * @return estimated wait in whole minutes
+     */
+    public int estimateWait(Long clinicId, Long doctorId, int[] aheadByPriority) {
+        double minutes = remainingMinutes(clinicId, doctorId);
+        for (int priority = QueueLog.PRIORITY_NORMAL; priority < aheadByPriority.length; priority++) {
+            if (aheadByPriority[priority] > 0) {
+                minutes += aheadByPriority[priority] * serviceMinutes(clinicId, doctorId, priority);
+            }
+        }
+        return (int) Math.round(minutes);
+    }
+
+    /**
+     * Remember the wait predicted when a patient joined the queue, to score it later
+     */
+    public void recordPrediction(Long queueId, int predictedMinutes) {
+        if (queueId == null) {
+            return;
+        }
+        if (pendingPredictions.size() >= MAX_PENDING_PREDICTIONS) {
+            log.warn("Dropping {} stale wait-time predictions", pendingPredictions.size());
+            pendingPredictions.clear();
+        }
+        pendingPredictions.put(queueId, predictedMinutes);
+    }
+
+    /**
+     * A waiting patient left the queue without being called (MISSED or closed directly)
+     */
+    public void discardPrediction(Long queueId) {
+        if (queueId != null) {
+            pendingPredictions.remove(queueId);
+        }
+    }
+
+    /**
+     * A patient was called (IN_QUEUE -> CALLED): score the prediction and start the service clock
+     */
+    public void recordCalled(Visit visit) {
+        LocalDateTime calledAt = visit.appointmentStart() != null ? visit.appointmentStart() : LocalDateTime.now();
+        servingSince.put(new LaneKey(visit.clinicId(), visit.doctorId()), calledAt);
+
+        Integer predicted = pendingPredictions.remove(visit.queueId());
+        if (predicted != null && visit.createdAt() != null) {
+            double actual = Duration.between(visit.createdAt(), calledAt).toSeconds() / 60.0;
+            double absError = Math.abs(actual - predicted);
+            overallAccuracy.add(absError);
+            clinicAccuracy.computeIfAbsent(visit.clinicId(), id -> new Accuracy()).add(absError);
+        }
+    }
+
+    /**
+     * A consultation finished (CALLED -> DONE): fold its duration into the service-time averages
+     */
+    public void recordCompleted(Visit visit) {
+        if (visit.appointmentStart() == null) {
+            return;
+        }
+        servingSince.remove(new LaneKey(visit.clinicId(), visit.doctorId()), visit.appointmentStart());
+
+        double minutes = Duration.between(visit.appointmentStart(), LocalDateTime.now()).toSeconds() / 60.0;
+        if (minutes <= 0 || minutes > MAX_SERVICE_MINUTES) {
+            log.debug("Ignoring service time sample of {} minutes for queue {}", minutes, visit.queueId());
+            return;
+        }
+
+        int slot = visit.priority() != null && QueueLog.isValidPriority(visit.priority()) ? visit.priority() : 0;
+        addSample(clinicServiceTimes, visit.clinicId(), slot, minutes);
+        if (visit.doctorId() != null) {
+            addSample(doctorServiceTimes, visit.doctorId(), slot, minutes);
+        }
+    }
+
+    /**
+     * Snapshot of estimator state and accuracy for monitoring
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>(overallAccuracy.snapshot());
+        stats.put("pendingPredictions", pendingPredictions.size());
+
+        Map<Long, Object> clinics = new HashMap<>();
+        clinicServiceTimes.forEach((clinicId, averages) -> {
+            Map<String, Object> clinicStats = new HashMap<>();
+            clinicStats.put("serviceMinutes", averages[0].samples() == 0 ? null : round(averages[0].mean()));
+            clinicStats.put("serviceSamples", averages[0].samples());
+            Accuracy accuracy = clinicAccuracy.get(clinicId);
+            if (accuracy != null) {
+                clinicStats.put("accuracy", accuracy.snapshot());
+            }
+            clinics.put(clinicId, clinicStats);
+        });
+        stats.put("clinics", clinics);
+        return stats;
+    }
+
+    private static void addSample(Map<Long, Ewma[]> stats, Long key, int slot, double minutes) {
+        Ewma[] averages = stats.computeIfAbsent(key, k -> newAverages());
+        averages[0].add(minutes);
+        if (slot != 0) {
+            averages[slot].add(minutes);
+        }
+    }
+
+    private static Double warmMean(Ewma[] averages, int slot) {
+        if (averages == null) {
+            return null;
+        }
+        if (slot != 0 && averages[slot].samples() >= MIN_SAMPLES) {
+            return averages[slot].mean();
+        }
+        if (averages[0].samples() >= MIN_SAMPLES) {
+            return averages[0].mean();
+        }
+        return null;
+    }
+
+    private static Ewma[] newAverages() {
+        Ewma[] averages = new Ewma[QueueLog.PRIORITY_EMERGENCY + 1];
+        for (int i = 0; i < averages.length; i++) {
+            averages[i] = new Ewma();
+        }
+        return averages;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 10) / 10.0;
+    }
+}
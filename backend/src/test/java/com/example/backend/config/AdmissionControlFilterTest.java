@@ -0,0 +1,53 @@
+package com.example.backend.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import com.example.backend.config.AdmissionControlFilter.RequestClass;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the request classes used by admission control
+ */
+class AdmissionControlFilterTest {
+
+    private final AdmissionControlFilter filter = new AdmissionControlFilter(new ObjectMapper());
+
+    private RequestClass classify(String method, String path) {
+        return filter.classify(new MockHttpServletRequest(method, path));
+    }
+
+    @Test
+    void queueWritesAreCritical() {
+        assertEquals(RequestClass.CRITICAL, classify("POST", "/api/queue/check-in"));
+        assertEquals(RequestClass.CRITICAL, classify("PUT", "/api/queue/clinic/1/call-next"));
+        assertEquals(RequestClass.CRITICAL, classify("PATCH", "/api/queue/5/status"));
+    }
+
+    @Test
+    void queueReadsAreStandard() {
+        assertEquals(RequestClass.STANDARD, classify("GET", "/api/queue/position/9"));
+        assertEquals(RequestClass.STANDARD, classify("GET", "/api/clinics"));
+        assertEquals(RequestClass.STANDARD, classify("POST", "/api/appointments"));
+    }
+
+    @Test
+    void reportsBackupsAndAdminReadsAreHeavy() {
+        assertEquals(RequestClass.HEAVY, classify("GET", "/api/reports/clinic/1"));
+        assertEquals(RequestClass.HEAVY, classify("POST", "/api/admin/backup"));
+        assertEquals(RequestClass.HEAVY, classify("GET", "/api/admin/users"));
+        // Admin writes other than backups are ordinary requests
+        assertEquals(RequestClass.STANDARD, classify("PUT", "/api/admin/users/3"));
+    }
+
+    @Test
+    void streamsHealthPreflightAndNonApiPathsBypassAdmission() {
+        assertNull(classify("GET", "/api/queue/appointment/9/stream"));
+        assertNull(classify("GET", "/api/health"));
+        assertNull(classify("OPTIONS", "/api/queue/check-in"));
+        assertNull(classify("GET", "/actuator/prometheus"));
+        assertNull(classify("GET", "/index.html"));
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.backend.config;
+
+import java.sql.PreparedStatement;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for what QueryProfiler writes to the slow-query log
+ */
+class QueryProfilerTest {
+
+    private static final String PATIENT_IC = "S1234567D";
+
+    private final QueryProfiler profiler = new QueryProfiler();
+    private final Logger logger = (Logger) LoggerFactory.getLogger(QueryProfiler.class);
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+
+    @BeforeEach
+    void captureLog() {
+        ReflectionTestUtils.setField(profiler, "slowQueryMs", 200L);
+        appender.start();
+        logger.addAppender(appender);
+    }
+
+    @AfterEach
+    void releaseLog() {
+        logger.detachAppender(appender);
+    }
+
+    private void runSlowLookupByIc() throws NoSuchMethodException {
+        QueryInfo queryInfo = new QueryInfo("SELECT * FROM patients WHERE patient_ic = ?");
+        queryInfo.getParametersList().add(List.of(new ParameterSetOperation(
+                PreparedStatement.class.getMethod("setString", int.class, String.class),
+                new Object[] { 1, PATIENT_IC })));
+        ExecutionInfo execInfo = new ExecutionInfo();
+        execInfo.setElapsedTime(450);
+        execInfo.setSuccess(true);
+        profiler.afterQuery(execInfo, List.of(queryInfo));
+    }
+
+    @Test
+    void bindValuesAreNotLoggedByDefault() throws NoSuchMethodException {
+        runSlowLookupByIc();
+
+        assertEquals(1, appender.list.size());
+        String line = appender.list.get(0).getFormattedMessage();
+        assertTrue(line.contains("patient_ic = ?"));
+        assertFalse(line.contains(PATIENT_IC));
+        assertEquals(0.0, profiler.getStats().get("bindSampleRate"));
+    }
+
+    @Test
+    void bindValuesAreLoggedOnlyWhenOptedIn() throws NoSuchMethodException {
+        ReflectionTestUtils.setField(profiler, "bindSampleRate", 1.0);
+        runSlowLookupByIc();
+
+        assertTrue(appender.list.get(0).getFormattedMessage().contains("params=[1=" + PATIENT_IC + "]"));
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.backend.config;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for how SearchIndexInitializer handles existing and invalid indexes
+ */
+class SearchIndexInitializerTest {
+
+    private static final String NAME = "idx_user_fname_trgm";
+    private static final String DEFINITION = "ON \"user\" USING gin (lower(fname) gin_trgm_ops)";
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final SearchIndexInitializer initializer = new SearchIndexInitializer(jdbcTemplate);
+
+    private void indexState(List<Boolean> indisvalid) {
+        when(jdbcTemplate.queryForList(anyString(), eq(Boolean.class), eq(NAME))).thenReturn(indisvalid);
+    }
+
+    @Test
+    void missingOrValidIndexIsOnlyCreatedIfNotExists() {
+        indexState(List.of());
+        initializer.createIndex(NAME, DEFINITION);
+        indexState(List.of(true));
+        initializer.createIndex(NAME, DEFINITION);
+
+        verify(jdbcTemplate, times(2)).execute("CREATE INDEX CONCURRENTLY IF NOT EXISTS " + NAME + " " + DEFINITION);
+        verify(jdbcTemplate, never()).execute(startsWith("DROP"));
+    }
+
+    @Test
+    void invalidIndexFromAnInterruptedBuildIsDroppedAndRebuilt() {
+        indexState(List.of(false));
+        initializer.createIndex(NAME, DEFINITION);
+
+        InOrder inOrder = inOrder(jdbcTemplate);
+        inOrder.verify(jdbcTemplate).execute("DROP INDEX CONCURRENTLY IF EXISTS " + NAME);
+        inOrder.verify(jdbcTemplate).execute("CREATE INDEX CONCURRENTLY IF NOT EXISTS " + NAME + " " + DEFINITION);
+    }
+
+    @Test
+    void failedBuildIsLoggedNotThrown() {
+        indexState(List.of());
+        doThrow(new DataAccessResourceFailureException("canceling statement due to lock timeout"))
+                .when(jdbcTemplate).execute(startsWith("CREATE INDEX"));
+
+        assertDoesNotThrow(() -> initializer.createIndex(NAME, DEFINITION));
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.backend.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.backend.model.Patient;
+import com.example.backend.repo.PatientRepository;
+import com.example.backend.repo.StaffRepository;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for AutocompleteIndex lookups and writes made while a build is loading
+ */
+class AutocompleteIndexTest {
+
+    private final PatientRepository patientRepository = mock(PatientRepository.class);
+    private final StaffRepository staffRepository = mock(StaffRepository.class);
+    private final AutocompleteIndex index = new AutocompleteIndex(patientRepository, staffRepository);
+
+    AutocompleteIndexTest() {
+        ReflectionTestUtils.setField(index, "enabled", true);
+        when(patientRepository.findAutocompleteRows(anyLong(), any())).thenReturn(List.of());
+        when(staffRepository.findAutocompleteRows(anyLong(), any())).thenReturn(List.of());
+    }
+
+    private static Object[] patientRow(long id, String fname, String lname) {
+        return new Object[] { id, fname, lname, fname.toLowerCase() + "@example.com", "S000000" + id + "A" };
+    }
+
+    private static Object[] staffRow(long id, String fname, String lname, Long clinicId) {
+        return new Object[] { id, fname, lname, fname.toLowerCase() + "@clinic.com", clinicId };
+    }
+
+    private static Patient patient(long id, String fname, String lname) {
+        Patient patient = new Patient();
+        patient.setUserId(id);
+        patient.setFname(fname);
+        patient.setLname(lname);
+        return patient;
+    }
+
+    private List<Long> suggestIds(String query, AutocompleteIndex.Kind kind, Long clinicId) {
+        return index.suggest(query, kind, clinicId, AutocompleteIndex.MAX_LIMIT).stream()
+                .map(AutocompleteIndex.Suggestion::id).sorted().toList();
+    }
+
+    @Test
+    void prefixesMatchEveryWordAndFilterByKindAndClinic() {
+        when(patientRepository.findAutocompleteRows(anyLong(), any()))
+                .thenReturn(List.of(patientRow(1, "Alice", "Tan"), patientRow(2, "Alan", "Lim")));
+        when(staffRepository.findAutocompleteRows(anyLong(), any()))
+                .thenReturn(List.of(staffRow(3, "Albert", "Tan", 10L), staffRow(4, "Alvin", "Ng", 20L)));
+        index.rebuild();
+
+        assertEquals(List.of(1L, 2L, 3L, 4L), suggestIds("al", null, null));
+        assertEquals(List.of(1L, 3L), suggestIds("tan al", null, null));
+        assertEquals(List.of(1L, 2L), suggestIds("al", AutocompleteIndex.Kind.PATIENT, null));
+        // The clinic filter narrows staff only
+        assertEquals(List.of(1L, 2L, 3L), suggestIds("al", null, 10L));
+        assertEquals(List.of(), suggestIds("  ", null, null));
+        assertThrows(IllegalArgumentException.class, () -> index.suggest("al", null, null, 0));
+    }
+
+    @Test
+    void lookupsFailUntilTheFirstBuildCompletes() {
+        assertThrows(IllegalStateException.class, () -> index.suggest("al", null, null, 5));
+        index.rebuild();
+        assertEquals(List.of(), suggestIds("al", null, null));
+    }
+
+    @Test
+    void writesMadeWhileLoadingWinOverTheLoadedRows() {
+        index.rebuild();
+        when(patientRepository.findAutocompleteRows(anyLong(), any())).thenAnswer(invocation -> {
+            // Committed after the build read these rows: a rename, a new patient and a deletion
+            index.putPatient(patient(1, "Beatrice", "Tan"));
+            index.putPatient(patient(5, "Bella", "Koh"));
+            index.remove(2L);
+            List<Object[]> rows = new ArrayList<>();
+            rows.add(patientRow(1, "Alice", "Tan"));
+            rows.add(patientRow(2, "Alan", "Lim"));
+            rows.add(patientRow(3, "Bernard", "Ong"));
+            return rows;
+        });
+
+        index.rebuild();
+
+        assertEquals(List.of(1L, 3L, 5L), suggestIds("b", null, null));
+        assertEquals(List.of(), suggestIds("alice", null, null));
+        assertEquals(List.of(), suggestIds("alan", null, null));
+        assertEquals(3, index.getStats().get("entries"));
+    }
+
+    @Test
+    void writesBeforeABuildDoNotOutliveIt() {
+        index.rebuild();
+        index.putPatient(patient(7, "Carol", "Yeo"));
+        assertEquals(List.of(7L), suggestIds("carol", null, null));
+
+        // The database no longer has the row, and nothing changed during this load
+        index.rebuild();
+        assertEquals(List.of(), suggestIds("carol", null, null));
+    }
+}
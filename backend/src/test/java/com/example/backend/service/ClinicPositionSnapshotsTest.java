@@ -0,0 +1,73 @@
+package com.example.backend.service;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.backend.dto.QueuePositionDTO;
+import com.example.backend.event.QueueChangedEvent;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for sharing one position computation per clinic queue change
+ */
+class ClinicPositionSnapshotsTest {
+
+    private static final Long CLINIC = 3L;
+
+    private final QueueService queueService = mock(QueueService.class);
+    private final ClinicPositionSnapshots snapshots = new ClinicPositionSnapshots(queueService);
+
+    private static Map<Long, QueuePositionDTO> positions(int position) {
+        return Map.of(10L, QueuePositionDTO.builder().appointmentId(10L).position(position).build());
+    }
+
+    @Test
+    void positionsAreComputedOncePerChange() {
+        when(queueService.getClinicPositions(CLINIC)).thenReturn(positions(2), positions(1));
+
+        ClinicPositionSnapshots.Snapshot first = snapshots.get(CLINIC);
+        assertSame(first, snapshots.get(CLINIC));
+        verify(queueService, times(1)).getClinicPositions(CLINIC);
+
+        snapshots.handleQueueChanged(new QueueChangedEvent(CLINIC));
+        ClinicPositionSnapshots.Snapshot second = snapshots.get(CLINIC);
+        assertEquals(first.version() + 1, second.version());
+        assertEquals(1, (int) second.positions().get(10L).getPosition());
+        verify(queueService, times(2)).getClinicPositions(CLINIC);
+    }
+
+    @Test
+    void concurrentReadersOfAChangeShareOneComputation() throws Exception {
+        CountDownLatch computing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(queueService.getClinicPositions(CLINIC)).thenAnswer(invocation -> {
+            computing.countDown();
+            assertTrue(release.await(5, TimeUnit.SECONDS));
+            return positions(4);
+        });
+
+        CompletableFuture<ClinicPositionSnapshots.Snapshot> sse = CompletableFuture.supplyAsync(() -> snapshots.get(CLINIC));
+        assertTrue(computing.await(5, TimeUnit.SECONDS));
+        CompletableFuture<ClinicPositionSnapshots.Snapshot> reactive = CompletableFuture.supplyAsync(() -> snapshots.get(CLINIC));
+        release.countDown();
+
+        assertSame(sse.get(5, TimeUnit.SECONDS), reactive.get(5, TimeUnit.SECONDS));
+        verify(queueService, times(1)).getClinicPositions(CLINIC);
+        assertEquals(1L, snapshots.getStats().get("sharedReads"));
+    }
+
+    @Test
+    void failedComputationIsRetriedByTheNextReader() {
+        when(queueService.getClinicPositions(CLINIC)).thenThrow(new IllegalStateException("replica down"))
+                .thenReturn(positions(1));
+
+        assertThrows(IllegalStateException.class, () -> snapshots.get(CLINIC));
+        assertEquals(1, (int) snapshots.get(CLINIC).positions().get(10L).getPosition());
+    }
+}
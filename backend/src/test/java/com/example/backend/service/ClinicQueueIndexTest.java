@@ -0,0 +1,203 @@
+package com.example.backend.service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.backend.model.queue.QueueLog;
+import com.example.backend.repo.QueueRepository;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for lane ordering and work stealing in the ClinicQueueIndex claims
+ */
+class ClinicQueueIndexTest {
+
+    private static final Long CLINIC = 7L;
+    private static final Long DOCTOR_A = 100L;
+    private static final Long DOCTOR_B = 200L;
+    private static final LocalDateTime OPEN = LocalDateTime.of(2026, 1, 5, 9, 0);
+
+    private final QueueRepository queueRepository = mock(QueueRepository.class);
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static QueueLog waiting(long queueId, Long doctorId, int priority, int minutesAfterOpen) {
+        QueueLog queueLog = new QueueLog(CLINIC, queueId + 1000, priority);
+        queueLog.setQueueId(queueId);
+        queueLog.setDoctorId(doctorId);
+        queueLog.setCreatedAt(OPEN.plusMinutes(minutesAfterOpen));
+        return queueLog;
+    }
+
+    private ClinicQueueIndex indexWith(QueueLog... entries) {
+        when(queueRepository.findByClinicIdAndStatus(CLINIC, QueueLog.STATUS_IN_QUEUE)).thenReturn(List.of(entries));
+        return new ClinicQueueIndex(queueRepository, TransactionOperations.withoutTransaction());
+    }
+
+    private static Long claim(ClinicQueueIndex index, Long doctorId) {
+        ClinicQueueIndex.QueuedEntry entry = index.claimNext(CLINIC, doctorId);
+        return entry != null ? entry.queueId() : null;
+    }
+
+    @Test
+    void doctorTakesOwnSubQueueAndSharedPoolInArrivalOrder() {
+        ClinicQueueIndex index = indexWith(
+                waiting(1, DOCTOR_A, QueueLog.PRIORITY_NORMAL, 0),
+                waiting(2, null, QueueLog.PRIORITY_NORMAL, 1),
+                waiting(3, DOCTOR_A, QueueLog.PRIORITY_NORMAL, 2),
+                waiting(4, DOCTOR_B, QueueLog.PRIORITY_NORMAL, 3));
+
+        assertEquals(1L, claim(index, DOCTOR_A));
+        assertEquals(2L, claim(index, DOCTOR_A));
+        assertEquals(3L, claim(index, DOCTOR_A));
+        // Doctor B's own patient is never taken by doctor A
+        assertNull(claim(index, DOCTOR_A));
+        assertEquals(4L, claim(index, DOCTOR_B));
+    }
+
+    @Test
+    void higherPriorityInSharedPoolIsStolenBeforeOwnHead() {
+        ClinicQueueIndex index = indexWith(
+                waiting(1, DOCTOR_A, QueueLog.PRIORITY_NORMAL, 0),
+                waiting(2, null, QueueLog.PRIORITY_EMERGENCY, 5));
+
+        assertEquals(2L, claim(index, DOCTOR_A));
+        assertEquals(1L, claim(index, DOCTOR_A));
+    }
+
+    @Test
+    void doctorWithEmptySubQueueStealsFromSharedPoolOnly() {
+        ClinicQueueIndex index = indexWith(
+                waiting(1, DOCTOR_A, QueueLog.PRIORITY_EMERGENCY, 0),
+                waiting(2, null, QueueLog.PRIORITY_NORMAL, 1));
+
+        assertEquals(2L, claim(index, DOCTOR_B));
+        assertNull(claim(index, DOCTOR_B));
+        assertEquals(List.of(1L), index.getClinicQueue(CLINIC).stream()
+                .map(ClinicQueueIndex.QueuedEntry::queueId).toList());
+    }
+
+    @Test
+    void queueIdBreaksTiesBetweenSimultaneousArrivals() {
+        ClinicQueueIndex index = indexWith(
+                waiting(9, null, QueueLog.PRIORITY_NORMAL, 0),
+                waiting(8, DOCTOR_A, QueueLog.PRIORITY_NORMAL, 0));
+
+        assertEquals(8L, claim(index, DOCTOR_A));
+        assertEquals(9L, claim(index, DOCTOR_A));
+    }
+
+    @Test
+    void clinicWideClaimTakesTheBestHeadOfEveryLane() {
+        ClinicQueueIndex index = indexWith(
+                waiting(1, DOCTOR_A, QueueLog.PRIORITY_NORMAL, 0),
+                waiting(2, null, QueueLog.PRIORITY_NORMAL, 1),
+                waiting(3, DOCTOR_B, QueueLog.PRIORITY_EMERGENCY, 2));
+
+        assertEquals(3L, index.claimNext(CLINIC).queueId());
+        assertEquals(1L, index.claimNext(CLINIC).queueId());
+        // A doctor calling at the same time cannot be handed an entry the clinic-wide call took
+        assertEquals(2L, claim(index, DOCTOR_A));
+        assertNull(index.claimNext(CLINIC));
+    }
+
+    @Test
+    void claimIsReturnedToTheLaneWhenTheTransactionRollsBack() {
+        ClinicQueueIndex index = indexWith(
+                waiting(1, null, QueueLog.PRIORITY_NORMAL, 0),
+                waiting(2, null, QueueLog.PRIORITY_NORMAL, 1));
+
+        TransactionSynchronizationManager.initSynchronization();
+        assertEquals(1L, claim(index, DOCTOR_A));
+        assertEquals(2L, claim(index, DOCTOR_B));
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+        }
+        TransactionSynchronizationManager.clearSynchronization();
+
+        assertEquals(1L, claim(index, DOCTOR_B));
+        assertEquals(2L, claim(index, DOCTOR_A));
+    }
+
+    @Test
+    void laneCountsFollowPutsClaimsAndRefreshes() {
+        ClinicQueueIndex index = indexWith(
+                waiting(1, DOCTOR_A, QueueLog.PRIORITY_NORMAL, 0),
+                waiting(2, null, QueueLog.PRIORITY_EMERGENCY, 1),
+                waiting(3, DOCTOR_B, QueueLog.PRIORITY_ELDERLY, 2));
+
+        assertArrayEquals(new int[] { 2, 1, 0, 1 }, index.getLaneCounts(CLINIC, DOCTOR_A));
+        assertArrayEquals(new int[] { 1, 0, 0, 1 }, index.getLaneCounts(CLINIC, null));
+
+        assertEquals(2L, claim(index, DOCTOR_B));
+        assertArrayEquals(new int[] { 1, 0, 1, 0 }, index.getLaneCounts(CLINIC, DOCTOR_B));
+
+        QueueLog arrival = waiting(4, DOCTOR_A, QueueLog.PRIORITY_ELDERLY, 3);
+        index.refreshAfterCommit(arrival);
+        assertArrayEquals(new int[] { 2, 1, 1, 0 }, index.getLaneCounts(CLINIC, DOCTOR_A));
+
+        arrival.setStatus(QueueLog.STATUS_CALLED);
+        index.refreshAfterCommit(arrival);
+        assertEquals(1L, claim(index, DOCTOR_A));
+        assertArrayEquals(new int[] { 0, 0, 0, 0 }, index.getLaneCounts(CLINIC, DOCTOR_A));
+    }
+
+    @Test
+    void clinicIsLoadedOnceThroughThePrimaryLoadTransaction() {
+        when(queueRepository.findByClinicIdAndStatus(CLINIC, QueueLog.STATUS_IN_QUEUE))
+                .thenReturn(List.of(waiting(1, null, QueueLog.PRIORITY_NORMAL, 0)));
+        int[] loads = new int[1];
+        TransactionOperations primaryLoad = new TransactionOperations() {
+            @Override
+            public <T> T execute(TransactionCallback<T> action) {
+                loads[0]++;
+                return action.doInTransaction(null);
+            }
+        };
+        ClinicQueueIndex index = new ClinicQueueIndex(queueRepository, primaryLoad);
+
+        assertEquals(1, index.getLaneCounts(CLINIC, null)[0]);
+        assertEquals(1L, claim(index, DOCTOR_A));
+        assertEquals(1, loads[0]);
+        verify(queueRepository, times(1)).findByClinicIdAndStatus(CLINIC, QueueLog.STATUS_IN_QUEUE);
+    }
+
+    @Test
+    void loadThatMissedAConcurrentCommitIsRepeated() {
+        QueueLog lateArrival = waiting(2, null, QueueLog.PRIORITY_NORMAL, 1);
+        ClinicQueueIndex[] holder = new ClinicQueueIndex[1];
+        // The first load reads its snapshot, then a check-in commits before the snapshot is published
+        when(queueRepository.findByClinicIdAndStatus(CLINIC, QueueLog.STATUS_IN_QUEUE)).thenAnswer(invocation -> {
+            holder[0].refreshAfterCommit(lateArrival);
+            return List.of(waiting(1, null, QueueLog.PRIORITY_NORMAL, 0));
+        }).thenReturn(List.of(waiting(1, null, QueueLog.PRIORITY_NORMAL, 0), lateArrival));
+        holder[0] = new ClinicQueueIndex(queueRepository, TransactionOperations.withoutTransaction());
+
+        assertEquals(2, holder[0].getLaneCounts(CLINIC, null)[0]);
+        verify(queueRepository, times(2)).findByClinicIdAndStatus(CLINIC, QueueLog.STATUS_IN_QUEUE);
+    }
+
+    @Test
+    void invalidatedClinicIsReloadedFromTheDatabase() {
+        ClinicQueueIndex index = indexWith(waiting(1, null, QueueLog.PRIORITY_NORMAL, 0));
+        assertEquals(1, index.getLaneCounts(CLINIC, null)[0]);
+
+        when(queueRepository.findByClinicIdAndStatus(CLINIC, QueueLog.STATUS_IN_QUEUE)).thenReturn(List.of());
+        index.invalidateClinic(CLINIC);
+        assertEquals(0, index.getLaneCounts(CLINIC, null)[0]);
+    }
+}
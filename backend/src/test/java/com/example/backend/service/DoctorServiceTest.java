@@ -0,0 +1,64 @@
+package com.example.backend.service;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import com.example.backend.model.Doctor;
+import com.example.backend.model.DoctorShift;
+import com.example.backend.repo.DoctorRepository;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the order in which DoctorService takes the roster lock and writes the doctor row
+ */
+class DoctorServiceTest {
+
+    private final DoctorRepository doctorRepository = mock(DoctorRepository.class);
+    private final DoctorShiftService doctorShiftService = mock(DoctorShiftService.class);
+    private final DoctorService doctorService = new DoctorService(doctorRepository, doctorShiftService,
+            mock(ReferenceDataCache.class));
+
+    private static Doctor doctor(List<Integer> shiftDays) {
+        Doctor doctor = new Doctor();
+        doctor.setId(3L);
+        doctor.setFname("Wei");
+        doctor.setLname("Lim");
+        doctor.setAssignedClinic(1L);
+        doctor.setShiftDays(shiftDays);
+        return doctor;
+    }
+
+    @Test
+    void updateTakesTheRosterLockBeforeWritingTheDoctor() {
+        Doctor existing = doctor(List.of(1));
+        when(doctorRepository.findById(3L)).thenReturn(Optional.of(existing));
+        when(doctorRepository.save(existing)).thenReturn(existing);
+        when(doctorShiftService.buildShiftsForDays(3L, 1L, List.of(1, 2))).thenReturn(List.of(DoctorShift.wholeDay(3L, 1L, 1)));
+
+        Doctor update = new Doctor();
+        update.setShiftDays(List.of(1, 2));
+        assertTrue(doctorService.updateDoctor(3L, update).isPresent());
+
+        InOrder inOrder = inOrder(doctorShiftService, doctorRepository);
+        inOrder.verify(doctorShiftService).lockRosterUntilCompletion();
+        inOrder.verify(doctorRepository).save(existing);
+        inOrder.verify(doctorShiftService).buildShiftsForDays(3L, 1L, List.of(1, 2));
+    }
+
+    @Test
+    void createTakesTheRosterLockBeforeWritingTheDoctor() {
+        Doctor created = doctor(List.of(5));
+        when(doctorRepository.save(created)).thenReturn(created);
+
+        doctorService.createDoctor(created);
+
+        InOrder inOrder = inOrder(doctorShiftService, doctorRepository);
+        inOrder.verify(doctorShiftService).lockRosterUntilCompletion();
+        inOrder.verify(doctorRepository).save(created);
+    }
+}
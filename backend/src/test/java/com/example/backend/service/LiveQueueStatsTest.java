@@ -0,0 +1,120 @@
+package com.example.backend.service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.backend.dto.LiveQueueStatsDTO;
+import com.example.backend.model.queue.QueueLog;
+
+import reactor.core.Disposable;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the per-minute buckets and streams of LiveQueueStats
+ */
+class LiveQueueStatsTest {
+
+    private static final Long CLINIC = 4L;
+    // Start of a minute, so offsets below land in predictable buckets
+    private static final long T0 = 29_000_000L * 60;
+
+    private final ClinicQueueIndex clinicQueueIndex = mock(ClinicQueueIndex.class);
+    private final LiveQueueStats stats = new LiveQueueStats(clinicQueueIndex);
+
+    LiveQueueStatsTest() {
+        ReflectionTestUtils.setField(stats, "windowMinutes", 3);
+        ReflectionTestUtils.setField(stats, "heartbeatSeconds", 3600L);
+        // Not loaded in the index: queue length comes from the window's own waiting set
+        when(clinicQueueIndex.getLoadedSize(anyLong())).thenReturn(-1);
+    }
+
+    private static LocalDateTime at(long epochSecond) {
+        return LocalDateTime.ofInstant(Instant.ofEpochSecond(epochSecond), ZoneId.systemDefault());
+    }
+
+    private void checkIn(long queueId, long now) {
+        stats.record(new LiveQueueStats.Transition(CLINIC, queueId, null, QueueLog.STATUS_IN_QUEUE, at(now), null), now);
+    }
+
+    private void call(long queueId, long checkedIn, long now) {
+        stats.record(new LiveQueueStats.Transition(CLINIC, queueId, QueueLog.STATUS_IN_QUEUE, QueueLog.STATUS_CALLED,
+                at(checkedIn), at(now)), now);
+    }
+
+    @Test
+    void bucketsLeaveTheWindowAsMinutesPass() {
+        checkIn(1, T0);
+        checkIn(2, T0 + 10);
+        call(1, T0, T0 + 70);
+
+        LiveQueueStatsDTO twoMinutesIn = stats.getClinicStats(CLINIC);
+        assertEquals(2, twoMinutesIn.getArrivals());
+        assertEquals(1, twoMinutesIn.getCalls());
+        assertEquals(2, twoMinutesIn.getCoveredMinutes());
+        assertEquals(List.of(2, 1), twoMinutesIn.getQueueLengthTrend());
+
+        // Minute 3 recycles minute 0's bucket: its check-ins drop out, the call stays
+        stats.rollWindows(T0 + 180);
+        LiveQueueStatsDTO rolled = stats.getClinicStats(CLINIC);
+        assertEquals(0, rolled.getArrivals());
+        assertEquals(1, rolled.getCalls());
+        assertEquals(3, rolled.getCoveredMinutes());
+        // Empty minutes carry the last known queue length
+        assertEquals(List.of(1, 1, 1), rolled.getQueueLengthTrend());
+        assertEquals(1, rolled.getQueueLength());
+        assertEquals(1, rolled.getServing());
+    }
+
+    @Test
+    void longGapResetsEveryBucketOnce() {
+        checkIn(1, T0);
+        call(1, T0, T0 + 30);
+
+        stats.rollWindows(T0 + 3600);
+        LiveQueueStatsDTO idle = stats.getClinicStats(CLINIC);
+        assertEquals(0, idle.getArrivals());
+        assertEquals(0, idle.getCalls());
+        assertEquals(List.of(0, 0, 0), idle.getQueueLengthTrend());
+        assertEquals(1, idle.getServing());
+    }
+
+    @Test
+    void streamingAnInactiveClinicDoesNotStoreAWindow() throws InterruptedException {
+        List<LiveQueueStatsDTO> received = new CopyOnWriteArrayList<>();
+        Disposable subscription = stats.streamClinicStats(CLINIC)
+                .subscribe(event -> received.add(event.data()));
+        try {
+            await(received, 0);
+            assertEquals(1, received.size());
+            assertTrue(stats.getAllClinicStats().isEmpty());
+
+            // The stream attaches to the clinic's window once its first transition creates it
+            checkIn(1, T0);
+            await(received, 1);
+            assertEquals(1, stats.getAllClinicStats().size());
+        } finally {
+            subscription.dispose();
+        }
+    }
+
+    /**
+     * Wait until the latest received snapshot shows the given number of arrivals
+     */
+    private static void await(List<LiveQueueStatsDTO> received, int arrivals) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while ((received.isEmpty() || received.get(received.size() - 1).getArrivals() != arrivals)
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertFalse(received.isEmpty());
+        assertEquals(arrivals, received.get(received.size() - 1).getArrivals());
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.backend.service;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the paging and sort rules of the admin listings
+ */
+class PageRequestsTest {
+
+    private static final Map<String, List<String>> SORTABLE = Map.of(
+            "name", List.of("lname", "fname"),
+            "created", List.of("createdAt"),
+            "id", List.of("userId"));
+
+    private static Pageable of(String sort) {
+        return PageRequests.of(0, 20, sort, "name", SORTABLE, "userId");
+    }
+
+    @Test
+    void sortKeyMapsToItsPropertiesWithTheIdAsTieBreak() {
+        assertEquals(Sort.by(Sort.Direction.DESC, "createdAt").and(Sort.by("userId")), of("created,desc").getSort());
+        assertEquals(Sort.by("lname", "fname", "userId"), of(" name , ASC ").getSort());
+    }
+
+    @Test
+    void blankSortUsesTheDefault() {
+        assertEquals(Sort.by("lname", "fname", "userId"), of(null).getSort());
+        assertEquals(of(null).getSort(), of(" ").getSort());
+    }
+
+    @Test
+    void idIsNotAppendedTwice() {
+        assertEquals(Sort.by(Sort.Direction.DESC, "userId"), of("id,desc").getSort());
+    }
+
+    @Test
+    void unknownKeysAndMalformedSortsAreRejected() {
+        // Entity properties are not sort keys
+        assertThrows(IllegalArgumentException.class, () -> of("lname"));
+        assertThrows(IllegalArgumentException.class, () -> of("name,asc,fname"));
+        assertThrows(IllegalArgumentException.class, () -> of("name,sideways"));
+    }
+
+    @Test
+    void pageAndSizeAreBounded() {
+        Pageable largest = PageRequests.of(3, PageRequests.MAX_PAGE_SIZE, null, "name", SORTABLE, "userId");
+        assertEquals(3, largest.getPageNumber());
+        assertEquals(PageRequests.MAX_PAGE_SIZE, largest.getPageSize());
+
+        assertThrows(IllegalArgumentException.class, () -> PageRequests.of(-1, 20, null, "name", SORTABLE, "userId"));
+        assertThrows(IllegalArgumentException.class, () -> PageRequests.of(0, 0, null, "name", SORTABLE, "userId"));
+        assertThrows(IllegalArgumentException.class,
+                () -> PageRequests.of(0, PageRequests.MAX_PAGE_SIZE + 1, null, "name", SORTABLE, "userId"));
+    }
+
+    @Test
+    void containsPatternEscapesLikeWildcards() {
+        assertEquals("%tan%", PageRequests.containsPattern("  TAN "));
+        assertEquals("%50\\%\\_off\\\\%", PageRequests.containsPattern("50%_off\\"));
+        assertNull(PageRequests.containsPattern(" "));
+        assertNull(PageRequests.containsPattern(null));
+    }
+
+    @Test
+    void blankFiltersMeanNoFilter() {
+        assertNull(PageRequests.blankToNull("  "));
+        assertNull(PageRequests.blankToNull(null));
+        assertEquals("CALLED", PageRequests.blankToNull(" CALLED "));
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.backend.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.backend.repo.PatientRepository;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for PatientAgeHistogram bucketing and eviction timing
+ */
+class PatientAgeHistogramTest {
+
+    private final PatientRepository patientRepository = mock(PatientRepository.class);
+    private final PatientAgeHistogram histogram = new PatientAgeHistogram(patientRepository, 10);
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    /**
+     * Date-of-birth rows for patients of the given ages, one patient each
+     */
+    private static List<Object[]> patientsAged(int... ages) {
+        LocalDate today = LocalDate.now();
+        List<Object[]> rows = new ArrayList<>();
+        for (int age : ages) {
+            rows.add(new Object[] { today.minusYears(age).minusDays(1), 1L });
+        }
+        return rows;
+    }
+
+    private long patientsCounted() {
+        return histogram.get(10).patients();
+    }
+
+    @Test
+    void agesAreGroupedIntoContiguousBuckets() {
+        when(patientRepository.countByDateOfBirth()).thenReturn(patientsAged(3, 9, 10, 34));
+
+        PatientAgeHistogram.Histogram result = histogram.get(10);
+        assertEquals(4, result.patients());
+        assertEquals(List.of(2L, 1L, 0L, 1L), result.buckets().stream().map(PatientAgeHistogram.AgeBucket::patients).toList());
+        assertEquals(30, result.buckets().get(3).minAge());
+        assertEquals(39, result.buckets().get(3).maxAge());
+        assertThrows(IllegalArgumentException.class, () -> histogram.get(0));
+    }
+
+    @Test
+    void evictionInsideATransactionWaitsForCommit() {
+        when(patientRepository.countByDateOfBirth()).thenReturn(patientsAged(20), patientsAged(20, 40));
+        assertEquals(1, patientsCounted());
+
+        TransactionSynchronizationManager.initSynchronization();
+        histogram.evict();
+        // Readers keep the committed histogram until the write commits
+        assertEquals(1, patientsCounted());
+
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCommit();
+        }
+        TransactionSynchronizationManager.clearSynchronization();
+        assertEquals(2, patientsCounted());
+    }
+
+    @Test
+    void histogramComputedAcrossAnEvictionIsNotCached() {
+        // A new patient commits (and evicts) while this reader is still counting the old rows
+        when(patientRepository.countByDateOfBirth()).thenAnswer(invocation -> {
+            histogram.evict();
+            return patientsAged(20);
+        }).thenReturn(patientsAged(20, 40));
+
+        assertEquals(1, patientsCounted());
+        assertEquals(2, patientsCounted());
+        assertEquals(2, patientsCounted());
+        verify(patientRepository, times(2)).countByDateOfBirth();
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.backend.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.backend.dto.QueueDeltaDTO;
+import com.example.backend.dto.QueuePositionDTO;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the replay ring buffer and resync rules of QueueDeltaLog
+ */
+class QueueDeltaLogTest {
+
+    private static final Long FIRST = 1L;
+    private static final Long SECOND = 2L;
+
+    /**
+     * Positions of a queue in arrival order, with a 5-minute estimate per patient ahead
+     */
+    private static Map<Long, QueuePositionDTO> queueOf(Long... appointmentIds) {
+        Map<Long, QueuePositionDTO> positions = new LinkedHashMap<>();
+        for (int i = 0; i < appointmentIds.length; i++) {
+            positions.put(appointmentIds[i], QueuePositionDTO.builder()
+                    .appointmentId(appointmentIds[i])
+                    .position(i + 1)
+                    .status("IN_QUEUE")
+                    .priority(1)
+                    .totalInQueue(appointmentIds.length)
+                    .estimatedWaitTimeMinutes(i * 5)
+                    .build());
+        }
+        return positions;
+    }
+
+    private static String currentId(QueueDeltaLog deltaLog) {
+        return deltaLog.eventId(deltaLog.current().seq());
+    }
+
+    @Test
+    void sequenceAdvancesOnlyWhenTheQueueChanges() {
+        QueueDeltaLog deltaLog = new QueueDeltaLog(4);
+        assertNull(deltaLog.current());
+
+        assertTrue(deltaLog.advance(queueOf(FIRST, SECOND)));
+        assertFalse(deltaLog.advance(queueOf(FIRST, SECOND)));
+        assertEquals(1L, deltaLog.current().seq());
+
+        assertTrue(deltaLog.advance(queueOf(SECOND)));
+        assertEquals(2L, deltaLog.current().seq());
+        assertEquals(0, deltaLog.current().entries().get(SECOND).getEstimatedWaitTimeMinutes());
+    }
+
+    @Test
+    void cursorInTheRingReturnsTheStateTheClientHeld() {
+        QueueDeltaLog deltaLog = new QueueDeltaLog(4);
+        deltaLog.advance(queueOf(FIRST, SECOND));
+        String heldId = currentId(deltaLog);
+        deltaLog.advance(queueOf(SECOND));
+
+        Map<Long, QueueDeltaDTO> held = deltaLog.entriesAt(heldId);
+        assertNotNull(held);
+        assertEquals(2, held.get(SECOND).getPosition());
+        assertEquals(1, deltaLog.current().entries().get(SECOND).getPosition());
+        assertEquals(1L, deltaLog.getStats().get("resumes"));
+    }
+
+    @Test
+    void cursorThatLeftTheRingNeedsAFullPosition() {
+        QueueDeltaLog deltaLog = new QueueDeltaLog(2);
+        deltaLog.advance(queueOf(FIRST, SECOND));
+        String oldId = currentId(deltaLog);
+        deltaLog.advance(queueOf(SECOND));
+        String recentId = currentId(deltaLog);
+        deltaLog.advance(queueOf(SECOND, FIRST));
+
+        // Slot of sequence 1 has been overwritten by sequence 3
+        assertNull(deltaLog.entriesAt(oldId));
+        assertNotNull(deltaLog.entriesAt(recentId));
+        assertEquals(1L, deltaLog.getStats().get("resyncs"));
+    }
+
+    @Test
+    void idsFromAnotherLogOrGarbageNeedAFullPosition() {
+        QueueDeltaLog earlier = new QueueDeltaLog(4);
+        earlier.advance(queueOf(FIRST));
+        QueueDeltaLog deltaLog = new QueueDeltaLog(4);
+        deltaLog.advance(queueOf(FIRST));
+
+        // Same sequence number, but issued by the log of an earlier subscription period
+        assertNull(deltaLog.entriesAt(currentId(earlier)));
+        assertNull(deltaLog.entriesAt("not-an-id"));
+        assertNull(deltaLog.entriesAt(deltaLog.eventId(7)));
+        assertNull(deltaLog.entriesAt(null));
+        assertNotNull(deltaLog.entriesAt(currentId(deltaLog)));
+        // A client that never had an id is a first connection, not a resync
+        assertEquals(3L, deltaLog.getStats().get("resyncs"));
+    }
+
+    @Test
+    void changesCarryOnlyTheFieldsThatDiffer() {
+        QueueDeltaDTO before = QueueDeltaDTO.of(queueOf(FIRST, SECOND).get(SECOND));
+        QueueDeltaDTO after = QueueDeltaDTO.of(queueOf(SECOND).get(SECOND));
+
+        QueueDeltaDTO changes = QueueDeltaDTO.changes(before, after);
+        assertEquals(SECOND, changes.getAppointmentId());
+        assertEquals(1, changes.getPosition());
+        assertEquals(1, changes.getTotalInQueue());
+        assertEquals(0, changes.getEstimatedWaitTimeMinutes());
+        assertNull(changes.getStatus());
+        assertNull(changes.getPriority());
+
+        assertNull(QueueDeltaDTO.changes(after, QueueDeltaDTO.of(queueOf(SECOND).get(SECOND))));
+        assertSame(after, QueueDeltaDTO.changes(null, after));
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.backend.service;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.backend.model.queue.QueueLog;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the queue.wait latency recorded by QueueMetrics
+ */
+class QueueMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final QueueMetrics queueMetrics = new QueueMetrics(registry, mock(ClinicQueueIndex.class));
+
+    private static WaitTimeEstimator.Visit call(int priority, LocalDateTime checkedIn, LocalDateTime calledAt) {
+        return new WaitTimeEstimator.Visit(1L, 2L, null, priority, checkedIn, calledAt);
+    }
+
+    private Timer waitTimer(int priority) {
+        return registry.find("queue.wait").tag("priority", String.valueOf(priority)).timer();
+    }
+
+    @Test
+    void recordsCheckInToCallLatencyPerPriority() {
+        LocalDateTime checkedIn = LocalDateTime.of(2026, 3, 2, 9, 0);
+        queueMetrics.recordCalled(call(QueueLog.PRIORITY_NORMAL, checkedIn, checkedIn.plusMinutes(12)));
+        queueMetrics.recordCalled(call(QueueLog.PRIORITY_NORMAL, checkedIn, checkedIn.plusMinutes(18)));
+        queueMetrics.recordCalled(call(QueueLog.PRIORITY_EMERGENCY, checkedIn, checkedIn.plusMinutes(1)));
+
+        assertEquals(2, waitTimer(QueueLog.PRIORITY_NORMAL).count());
+        assertEquals(30, waitTimer(QueueLog.PRIORITY_NORMAL).totalTime(TimeUnit.MINUTES), 0.001);
+        assertEquals(1, waitTimer(QueueLog.PRIORITY_EMERGENCY).count());
+    }
+
+    @Test
+    void skipsCallsWithoutACheckInTimeOrWithClockSkew() {
+        LocalDateTime checkedIn = LocalDateTime.of(2026, 3, 2, 9, 0);
+        queueMetrics.recordCalled(call(QueueLog.PRIORITY_NORMAL, null, checkedIn));
+        queueMetrics.recordCalled(call(QueueLog.PRIORITY_NORMAL, checkedIn, checkedIn.minusMinutes(1)));
+
+        assertNull(waitTimer(QueueLog.PRIORITY_NORMAL));
+    }
+}
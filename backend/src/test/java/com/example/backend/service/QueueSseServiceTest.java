@@ -0,0 +1,85 @@
+package com.example.backend.service;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.backend.dto.QueuePositionDTO;
+import com.example.backend.model.appointments.Appointment;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the per-clinic ordering of QueueSseService fan-outs
+ */
+class QueueSseServiceTest {
+
+    private static final Long CLINIC = 4L;
+    private static final Long APPOINTMENT = 10L;
+
+    private final SseConnectionRegistry connectionRegistry = new SseConnectionRegistry();
+    private final ClinicPositionSnapshots positionSnapshots = mock(ClinicPositionSnapshots.class);
+    private final AppointmentService appointmentService = mock(AppointmentService.class);
+    private final QueueSseService sseService = new QueueSseService(connectionRegistry, positionSnapshots,
+            appointmentService, new JsonFrameEncoder(new ObjectMapper()));
+
+    QueueSseServiceTest() {
+        ReflectionTestUtils.setField(connectionRegistry, "maxConnections", 10);
+        ReflectionTestUtils.setField(connectionRegistry, "maxAgeMinutes", 60L);
+        ReflectionTestUtils.setField(connectionRegistry, "sendTimeoutMs", 5000L);
+        ReflectionTestUtils.setField(sseService, "replayBufferSize", 16);
+        when(appointmentService.getAppointmentById(APPOINTMENT))
+                .thenReturn(Optional.of(new Appointment(1L, CLINIC, LocalDateTime.of(2026, 3, 2, 9, 0))));
+    }
+
+    @AfterEach
+    void stopRegistry() {
+        connectionRegistry.stop();
+    }
+
+    private static ClinicPositionSnapshots.Snapshot at(long version, int position) {
+        QueuePositionDTO dto = QueuePositionDTO.builder()
+                .appointmentId(APPOINTMENT).position(position).status("IN_QUEUE").totalInQueue(position).build();
+        return new ClinicPositionSnapshots.Snapshot(version, Map.of(APPOINTMENT, dto), LocalDateTime.now());
+    }
+
+    private int heldPosition() {
+        return connectionRegistry.get(APPOINTMENT).orElseThrow().getLastEntry().getPosition();
+    }
+
+    @Test
+    void changeDuringAFanOutIsFoldedIntoOneMorePassInOrder() {
+        when(positionSnapshots.get(CLINIC)).thenReturn(at(0, 3));
+        sseService.createConnection(APPOINTMENT, null);
+        assertEquals(3, heldPosition());
+
+        when(positionSnapshots.get(CLINIC)).thenAnswer(invocation -> {
+            // Another change commits while this fan-out is reading positions; it must not run its own
+            sseService.notifyClinicQueueChanged(CLINIC);
+            return at(1, 2);
+        }).thenReturn(at(2, 1));
+
+        sseService.notifyClinicQueueChanged(CLINIC);
+
+        verify(positionSnapshots, times(3)).get(CLINIC);
+        assertEquals(1, heldPosition());
+        assertEquals(0L, sseService.getStats().get("deltaResyncs"));
+    }
+
+    @Test
+    void feedIsDroppedWhenAChangeFindsNoSubscribers() {
+        when(positionSnapshots.get(CLINIC)).thenReturn(at(0, 3));
+        sseService.createConnection(APPOINTMENT, null);
+        assertEquals(1, sseService.getStats().get("deltaLogClinics"));
+
+        sseService.closeConnection(APPOINTMENT);
+        sseService.notifyClinicQueueChanged(CLINIC);
+        assertEquals(0, sseService.getStats().get("deltaLogClinics"));
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.backend.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.backend.dto.ClinicBoardDTO;
+import com.example.backend.event.QueueChangedEvent;
+
+import reactor.core.Disposable;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the lifetime of QueueStreamService's per-clinic streams
+ */
+class QueueStreamServiceTest {
+
+    private static final Long CLINIC = 4L;
+    private static final byte[] FRAME = "{\"clinicId\":4}".getBytes(StandardCharsets.UTF_8);
+
+    private final QueueService queueService = mock(QueueService.class);
+    private final ReferenceDataCache referenceDataCache = mock(ReferenceDataCache.class);
+    private final JsonFrameEncoder frameEncoder = mock(JsonFrameEncoder.class);
+    private final QueueStreamService streamService = new QueueStreamService(queueService,
+            mock(ClinicPositionSnapshots.class), mock(AppointmentService.class), referenceDataCache, frameEncoder);
+
+    QueueStreamServiceTest() throws Exception {
+        ReflectionTestUtils.setField(streamService, "heartbeatSeconds", 3600L);
+        ReflectionTestUtils.setField(streamService, "idleGraceSeconds", 0L);
+        ReflectionTestUtils.setField(streamService, "boardNextCount", 5);
+        when(referenceDataCache.getClinic(anyLong())).thenReturn(Optional.empty());
+        when(referenceDataCache.getClinic(CLINIC)).thenReturn(Optional.of(new ReferenceDataCache.ClinicRef(CLINIC, "Central")));
+        when(queueService.getClinicBoard(CLINIC, 5)).thenReturn(ClinicBoardDTO.builder().clinicId(CLINIC).build());
+        when(frameEncoder.encodeBoard(any())).thenReturn(FRAME);
+    }
+
+    private int clinicStreams() {
+        return (Integer) streamService.getStats().get("clinics");
+    }
+
+    @Test
+    void unknownClinicGetsOneErrorEventAndNoStream() {
+        List<ServerSentEvent<byte[]>> events = streamService.streamClinicBoard(99L).collectList().block();
+
+        assertEquals(1, events.size());
+        assertTrue(new String(events.get(0).data(), StandardCharsets.UTF_8).contains("Clinic not found"));
+        assertEquals(0, clinicStreams());
+    }
+
+    @Test
+    void clinicStreamIsDroppedAfterItsLastSubscriberLeaves() throws InterruptedException {
+        List<ServerSentEvent<byte[]>> received = new CopyOnWriteArrayList<>();
+        Disposable display = streamService.streamClinicBoard(CLINIC).subscribe(received::add);
+        await(() -> received.size() == 1);
+        assertEquals(1, clinicStreams());
+
+        display.dispose();
+        await(() -> clinicStreams() == 0);
+
+        // Changes for a clinic nobody watches do not bring the stream back
+        streamService.handleQueueChanged(new QueueChangedEvent(CLINIC));
+        assertEquals(0, clinicStreams());
+
+        // A later display starts a fresh stream
+        List<ServerSentEvent<byte[]>> next = new CopyOnWriteArrayList<>();
+        Disposable again = streamService.streamClinicBoard(CLINIC).subscribe(next::add);
+        try {
+            await(() -> next.size() == 1);
+            assertArrayEquals(FRAME, next.get(0).data());
+        } finally {
+            again.dispose();
+        }
+    }
+
+    private interface Condition {
+        boolean met();
+    }
+
+    private static void await(Condition condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.met() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(condition.met());
+    }
+}
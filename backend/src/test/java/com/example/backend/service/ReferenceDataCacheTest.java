@@ -0,0 +1,128 @@
+package com.example.backend.service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.backend.dto.PatientNameDTO;
+import com.example.backend.repo.ClinicRepository;
+import com.example.backend.repo.DoctorRepository;
+import com.example.backend.repo.PatientRepository;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ReferenceDataCache loading and eviction timing
+ */
+class ReferenceDataCacheTest {
+
+    private static final Long PATIENT = 42L;
+
+    private final PatientRepository patientRepository = mock(PatientRepository.class);
+    private final ReferenceDataCache cache = new ReferenceDataCache(
+            mock(ClinicRepository.class), mock(DoctorRepository.class), patientRepository, 100, 30);
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private void patientNamed(String fname) {
+        when(patientRepository.findNameById(PATIENT))
+                .thenReturn(Optional.of(new PatientNameDTO(PATIENT, fname, "Tan", "p@example.com")));
+    }
+
+    private String cachedName() {
+        return cache.getPatient(PATIENT).map(ReferenceDataCache.PatientRef::fname).orElse(null);
+    }
+
+    private static void completeTransaction(boolean committed) {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (committed) {
+                synchronization.afterCommit();
+            }
+            synchronization.afterCompletion(committed
+                    ? TransactionSynchronization.STATUS_COMMITTED
+                    : TransactionSynchronization.STATUS_ROLLED_BACK);
+        }
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    void evictionOutsideATransactionIsImmediate() {
+        patientNamed("Mei");
+        assertEquals("Mei", cachedName());
+
+        patientNamed("May");
+        cache.evictPatient(PATIENT);
+        assertEquals("May", cachedName());
+    }
+
+    @Test
+    void evictionInsideATransactionWaitsForCommit() {
+        patientNamed("Mei");
+        assertEquals("Mei", cachedName());
+
+        TransactionSynchronizationManager.initSynchronization();
+        patientNamed("May");
+        cache.evictPatient(PATIENT);
+        // Other readers keep the committed name until the rename commits
+        assertEquals("Mei", cachedName());
+
+        completeTransaction(true);
+        assertEquals("May", cachedName());
+    }
+
+    @Test
+    void rolledBackWriteLeavesTheCacheAlone() {
+        patientNamed("Mei");
+        assertEquals("Mei", cachedName());
+
+        TransactionSynchronizationManager.initSynchronization();
+        cache.evictPatient(PATIENT);
+        completeTransaction(false);
+
+        assertEquals("Mei", cachedName());
+        verify(patientRepository, times(1)).findNameById(PATIENT);
+    }
+
+    @Test
+    void valueLoadedAcrossAnEvictionIsNotCached() {
+        // The rename commits (and evicts) while this reader is still loading the old name
+        when(patientRepository.findNameById(PATIENT)).thenAnswer(invocation -> {
+            cache.evictPatient(PATIENT);
+            return Optional.of(new PatientNameDTO(PATIENT, "Mei", "Tan", "p@example.com"));
+        }).thenReturn(Optional.of(new PatientNameDTO(PATIENT, "May", "Tan", "p@example.com")));
+
+        assertEquals("Mei", cachedName());
+        assertEquals("May", cachedName());
+        assertEquals("May", cachedName());
+        verify(patientRepository, times(2)).findNameById(PATIENT);
+    }
+
+    @Test
+    void batchLoadSkipsOnlyTheKeysEvictedDuringTheLoad() {
+        Long other = 43L;
+        when(patientRepository.findNamesByUserIdIn(anyCollection())).thenAnswer(invocation -> {
+            cache.evictPatient(PATIENT);
+            return List.of(new PatientNameDTO(PATIENT, "Mei", "Tan", "p@example.com"),
+                    new PatientNameDTO(other, "Ali", "Lim", "a@example.com"));
+        });
+
+        Map<Long, ReferenceDataCache.PatientRef> first = cache.getPatients(List.of(PATIENT, other, PATIENT));
+        assertEquals(2, first.size());
+
+        patientNamed("May");
+        assertEquals("May", cachedName());
+        assertEquals("Ali", cache.getPatient(other).map(ReferenceDataCache.PatientRef::fname).orElse(null));
+        verify(patientRepository, never()).findNameById(other);
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.backend.service;
+
+import java.time.LocalTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.backend.model.DoctorShift;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the in-memory doctor shift interval index
+ */
+class ShiftIndexTest {
+
+    private static final Long CLINIC = 1L;
+    private static final int MONDAY = 1;
+    private static final int TUESDAY = 2;
+
+    private static DoctorShift shift(Long doctorId, int day, int startHour, int startMinute, int endHour, int endMinute) {
+        return new DoctorShift(doctorId, CLINIC, day, LocalTime.of(startHour, startMinute), LocalTime.of(endHour, endMinute));
+    }
+
+    private static List<Long> overlappingDoctors(ShiftIndex index, DoctorShift candidate, Long excludeDoctorId) {
+        ShiftIndex.Slot slot = ShiftIndex.toSlot(excludeDoctorId, candidate);
+        return index.findOverlaps(CLINIC, slot.dayOfWeek(), slot.start(), slot.end(), excludeDoctorId).stream()
+                .map(ShiftIndex.Slot::doctorId)
+                .toList();
+    }
+
+    @Test
+    void touchingIntervalsDoNotOverlap() {
+        ShiftIndex index = new ShiftIndex();
+        index.replaceDoctor(10L, CLINIC, List.of(shift(10L, MONDAY, 9, 0, 12, 0)));
+
+        assertTrue(overlappingDoctors(index, shift(20L, MONDAY, 12, 0, 17, 0), null).isEmpty());
+        assertTrue(overlappingDoctors(index, shift(20L, MONDAY, 7, 0, 9, 0), null).isEmpty());
+        assertEquals(List.of(10L), overlappingDoctors(index, shift(20L, MONDAY, 11, 59, 17, 0), null));
+    }
+
+    @Test
+    void longEarlyIntervalStillFoundPastShorterOnes() {
+        ShiftIndex index = new ShiftIndex();
+        index.replaceDoctor(10L, CLINIC, List.of(shift(10L, MONDAY, 0, 0, 23, 59)));
+        index.replaceDoctor(20L, CLINIC, List.of(shift(20L, MONDAY, 8, 0, 9, 0)));
+
+        // The 10:00 query must scan back past doctor 20's short shift to reach the whole-day one
+        assertEquals(List.of(10L), overlappingDoctors(index, shift(30L, MONDAY, 10, 0, 11, 0), null));
+    }
+
+    @Test
+    void overnightShiftSplitAtMidnightCoversBothDays() {
+        ShiftIndex index = new ShiftIndex();
+        // A 22:00-06:00 night shift is stored as the end of Monday plus the start of Tuesday
+        index.replaceDoctor(10L, CLINIC, List.of(
+                shift(10L, MONDAY, 22, 0, 23, 59),
+                shift(10L, TUESDAY, 0, 0, 6, 0)));
+
+        assertEquals(List.of(10L), index.findDoctorsOnDuty(CLINIC, MONDAY, 23 * 60 + 59));
+        assertEquals(List.of(10L), index.findDoctorsOnDuty(CLINIC, TUESDAY, 0));
+        assertEquals(List.of(10L), index.findDoctorsOnDuty(CLINIC, TUESDAY, 5 * 60 + 59));
+        assertTrue(index.findDoctorsOnDuty(CLINIC, TUESDAY, 6 * 60).isEmpty());
+
+        // 23:59 as an end time means end of day, so a Tuesday shift from midnight touches but does not overlap
+        assertTrue(overlappingDoctors(index, shift(20L, TUESDAY, 6, 0, 12, 0), null).isEmpty());
+        assertEquals(List.of(10L), overlappingDoctors(index, shift(20L, MONDAY, 23, 0, 23, 59), null));
+    }
+
+    @Test
+    void replaceDoctorDropsOldSlotsAndMovesClinic() {
+        ShiftIndex index = new ShiftIndex();
+        index.replaceDoctor(10L, CLINIC, List.of(shift(10L, MONDAY, 9, 0, 12, 0)));
+        index.replaceDoctor(10L, CLINIC, List.of(shift(10L, MONDAY, 13, 0, 17, 0)));
+
+        assertTrue(index.findDoctorsOnDuty(CLINIC, MONDAY, 10 * 60).isEmpty());
+        assertEquals(List.of(10L), index.findDoctorsOnDuty(CLINIC, MONDAY, 14 * 60));
+
+        index.replaceDoctor(10L, 2L, List.of(shift(10L, MONDAY, 13, 0, 17, 0)));
+        assertTrue(index.findDoctorsOnDuty(CLINIC, MONDAY, 14 * 60).isEmpty());
+        assertEquals(List.of(10L), index.findDoctorsOnDuty(2L, MONDAY, 14 * 60));
+    }
+
+    @Test
+    void overlapCheckExcludesTheDoctorBeingReplaced() {
+        ShiftIndex index = new ShiftIndex();
+        index.replaceDoctor(10L, CLINIC, List.of(shift(10L, MONDAY, 9, 0, 12, 0)));
+        index.replaceDoctor(20L, CLINIC, List.of(shift(20L, MONDAY, 12, 0, 15, 0)));
+
+        assertTrue(overlappingDoctors(index, shift(10L, MONDAY, 8, 0, 12, 0), 10L).isEmpty());
+        assertEquals(List.of(20L), overlappingDoctors(index, shift(10L, MONDAY, 8, 0, 13, 0), 10L));
+    }
+}
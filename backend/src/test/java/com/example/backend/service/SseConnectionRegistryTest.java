@@ -0,0 +1,76 @@
+package com.example.backend.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for heartbeat and fan-out send dispatch in SseConnectionRegistry
+ */
+class SseConnectionRegistryTest {
+
+    private final SseConnectionRegistry registry = new SseConnectionRegistry();
+
+    SseConnectionRegistryTest() {
+        ReflectionTestUtils.setField(registry, "maxConnections", 10);
+        ReflectionTestUtils.setField(registry, "heartbeatIntervalMs", 0L);
+        ReflectionTestUtils.setField(registry, "sendTimeoutMs", 5000L);
+        ReflectionTestUtils.setField(registry, "maxAgeMinutes", 1L);
+    }
+
+    @AfterEach
+    void stopExecutor() {
+        registry.stop();
+    }
+
+    private long stat(String name) {
+        return ((Number) registry.getStats().get(name)).longValue();
+    }
+
+    private void awaitStat(String name, long expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (stat(name) < expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(expected, stat(name));
+    }
+
+    @Test
+    void heartbeatIsWrittenOffTheSchedulerThread() throws InterruptedException {
+        registry.register(1L, 7L);
+        registry.register(2L, 7L);
+
+        registry.heartbeat();
+        awaitStat("sends", 2);
+        assertEquals(0, stat("reaped"));
+        assertEquals(2, stat("open"));
+    }
+
+    @Test
+    void failedHeartbeatReapsTheConnection() throws InterruptedException {
+        SseConnectionRegistry.Connection closed = registry.register(1L, 7L);
+        registry.register(2L, 7L);
+        closed.getEmitter().complete();
+
+        registry.heartbeat();
+        awaitStat("reaped", 1);
+        assertEquals(1, stat("open"));
+        assertTrue(registry.get(1L).isEmpty());
+        assertEquals(1, registry.getClinicConnections(7L).size());
+    }
+
+    @Test
+    void fanOutSendReportsWhetherTheEventWasWritten() {
+        SseConnectionRegistry.Connection open = registry.register(1L, 7L);
+        SseConnectionRegistry.Connection closed = registry.register(2L, 7L);
+        closed.getEmitter().complete();
+
+        assertTrue(registry.sendAsync(open, SseEmitter.event().name("queue-update").data("{}")).join());
+        assertFalse(registry.sendAsync(closed, SseEmitter.event().name("queue-update").data("{}")).join());
+        assertEquals(1, stat("sendFailures"));
+        assertEquals(1, registry.getClinicConnections(7L).size());
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.backend.service;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.backend.model.queue.QueueLog;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the online wait-time estimator
+ */
+class WaitTimeEstimatorTest {
+
+    private static final Long CLINIC = 3L;
+    private static final Long DOCTOR = 30L;
+
+    private final WaitTimeEstimator estimator = new WaitTimeEstimator();
+
+    private static WaitTimeEstimator.Visit visit(long queueId, Long doctorId, int priority,
+            LocalDateTime createdAt, LocalDateTime appointmentStart) {
+        return new WaitTimeEstimator.Visit(queueId, CLINIC, doctorId, priority, createdAt, appointmentStart);
+    }
+
+    private void completeConsultations(Long doctorId, int priority, int count, int minutes) {
+        for (int i = 0; i < count; i++) {
+            LocalDateTime start = LocalDateTime.now().minusMinutes(minutes);
+            estimator.recordCompleted(visit(i, doctorId, priority, start.minusMinutes(5), start));
+        }
+    }
+
+    private static int[] ahead(int normal, int elderly, int emergency) {
+        return new int[] { normal + elderly + emergency, normal, elderly, emergency };
+    }
+
+    @Test
+    void usesDefaultUntilWarmedUp() {
+        completeConsultations(null, QueueLog.PRIORITY_NORMAL, WaitTimeEstimator.MIN_SAMPLES - 1, 4);
+
+        assertEquals(WaitTimeEstimator.DEFAULT_SERVICE_MINUTES,
+                estimator.serviceMinutes(CLINIC, null, QueueLog.PRIORITY_NORMAL));
+        assertEquals(30, estimator.estimateWait(CLINIC, null, ahead(3, 0, 0)));
+    }
+
+    @Test
+    void estimateWeighsEachPriorityByItsOwnServiceTime() {
+        completeConsultations(null, QueueLog.PRIORITY_NORMAL, WaitTimeEstimator.MIN_SAMPLES, 4);
+        completeConsultations(null, QueueLog.PRIORITY_EMERGENCY, WaitTimeEstimator.MIN_SAMPLES, 20);
+
+        assertEquals(4.0, estimator.serviceMinutes(CLINIC, null, QueueLog.PRIORITY_NORMAL), 0.1);
+        assertEquals(20.0, estimator.serviceMinutes(CLINIC, null, QueueLog.PRIORITY_EMERGENCY), 0.1);
+        // Elderly has no samples of its own and falls back to the all-priority average
+        double overall = estimator.serviceMinutes(CLINIC, null, QueueLog.PRIORITY_ELDERLY);
+
+        int expected = (int) Math.round(2 * 4.0 + overall + 20.0);
+        assertEquals(expected, estimator.estimateWait(CLINIC, null, ahead(2, 1, 1)));
+        assertEquals(0, estimator.estimateWait(CLINIC, null, ahead(0, 0, 0)));
+    }
+
+    @Test
+    void doctorStatisticsOverrideClinicOnceWarm() {
+        completeConsultations(null, QueueLog.PRIORITY_NORMAL, WaitTimeEstimator.MIN_SAMPLES, 10);
+        completeConsultations(DOCTOR, QueueLog.PRIORITY_NORMAL, WaitTimeEstimator.MIN_SAMPLES, 6);
+
+        assertEquals(6.0, estimator.serviceMinutes(CLINIC, DOCTOR, QueueLog.PRIORITY_NORMAL), 0.1);
+        assertTrue(estimator.serviceMinutes(CLINIC, 99L, QueueLog.PRIORITY_NORMAL) > 6.5);
+    }
+
+    @Test
+    void ignoresImplausibleServiceTimes() {
+        completeConsultations(null, QueueLog.PRIORITY_NORMAL, WaitTimeEstimator.MIN_SAMPLES,
+                (int) WaitTimeEstimator.MAX_SERVICE_MINUTES + 60);
+
+        assertEquals(WaitTimeEstimator.DEFAULT_SERVICE_MINUTES,
+                estimator.serviceMinutes(CLINIC, null, QueueLog.PRIORITY_NORMAL));
+    }
+
+    @Test
+    void servingPatientAddsRemainingTimeUntilCompleted() {
+        LocalDateTime calledAt = LocalDateTime.now().minusMinutes(4);
+        WaitTimeEstimator.Visit serving = visit(1, DOCTOR, QueueLog.PRIORITY_NORMAL, calledAt.minusMinutes(10), calledAt);
+
+        estimator.recordCalled(serving);
+        assertEquals(6, estimator.estimateWait(CLINIC, DOCTOR, ahead(0, 0, 0)));
+
+        estimator.recordCompleted(serving);
+        assertEquals(0, estimator.estimateWait(CLINIC, DOCTOR, ahead(0, 0, 0)));
+    }
+
+    @Test
+    void scoresPredictionWhenPatientIsCalled() {
+        LocalDateTime checkedIn = LocalDateTime.now().minusMinutes(30);
+        estimator.recordPrediction(5L, 20);
+        estimator.recordPrediction(6L, 10);
+        estimator.discardPrediction(6L);
+
+        estimator.recordCalled(visit(5, DOCTOR, QueueLog.PRIORITY_NORMAL, checkedIn, checkedIn.plusMinutes(26)));
+
+        Map<String, Object> stats = estimator.getStats();
+        assertEquals(1L, stats.get("samples"));
+        assertEquals(6.0, stats.get("maeMinutes"));
+        assertEquals(0, stats.get("pendingPredictions"));
+    }
+}
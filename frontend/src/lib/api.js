@@ -100,35 +100,72 @@ export const appointmentAPI = {
 
 // Queue API
 export const queueAPI = {
-	checkIn: (appointmentId, priority = 1) =>
+	checkIn: (appointmentId, priority = 1, anyDoctor = false) =>
 		apiCall(
-			`/queue/check-in?appointmentId=${appointmentId}&priority=${priority}`,
+			`/queue/check-in?appointmentId=${appointmentId}&priority=${priority}&anyDoctor=${anyDoctor}`,
 			{
 				method: "POST",
 			}
 		),
 	getClinicQueue: (clinicId) => apiCall(`/queue/clinic/${clinicId}`),
+	getDoctorQueue: (clinicId, doctorId) =>
+		apiCall(`/queue/clinic/${clinicId}/doctor/${doctorId}`),
 	getQueuePosition: (appointmentId) =>
 		apiCall(`/queue/position/${appointmentId}`),
 	// SSE connection for real-time queue position updates
+	// The first "queue-update" is the full position; "queue-delta" events carry only the
+	// changed fields and are merged into it. The connection is left open on transport errors
+	// so EventSource reconnects with Last-Event-ID and the server sends only what changed.
 	streamQueuePosition: (appointmentId, onUpdate, onError) => {
 		const eventSource = new EventSource(
 			`${API_BASE_URL}/queue/position/${appointmentId}/stream`
 		);
+		let position = null;
 
 		eventSource.addEventListener("queue-update", (event) => {
 			try {
 				const data = JSON.parse(event.data);
 				if (data.error) {
+					eventSource.close();
 					onError?.(new Error(data.error));
 				} else {
-					onUpdate(data);
+					position = data;
+					onUpdate(position);
 				}
 			} catch (err) {
 				onError?.(err);
 			}
 		});
 
+		eventSource.addEventListener("queue-delta", (event) => {
+			try {
+				position = { ...position, ...JSON.parse(event.data) };
+				onUpdate(position);
+			} catch (err) {
+				onError?.(err);
+			}
+		});
+
+		eventSource.onerror = (error) => {
+			onError?.(error);
+		};
+
+		return eventSource;
+	},
+	// SSE connection for the clinic queue board (serving, next waiting, missed)
+	streamClinicBoard: (clinicId, onUpdate, onError) => {
+		const eventSource = new EventSource(
+			`${API_BASE_URL}/queue/clinic/${clinicId}/stream`
+		);
+
+		eventSource.addEventListener("board-update", (event) => {
+			try {
+				onUpdate(JSON.parse(event.data));
+			} catch (err) {
+				onError?.(err);
+			}
+		});
+
 		eventSource.onerror = (error) => {
 			onError?.(error);
 			eventSource.close();
@@ -153,6 +190,10 @@ export const queueAPI = {
 	getMissed: (clinicId) => apiCall(`/queue/clinic/${clinicId}/missed`),
 	callNext: (clinicId) =>
 		apiCall(`/queue/clinic/${clinicId}/call-next`, { method: "POST" }),
+	callNextForDoctor: (clinicId, doctorId) =>
+		apiCall(`/queue/clinic/${clinicId}/doctor/${doctorId}/call-next`, {
+			method: "POST",
+		}),
 	callByAppointmentId: (appointmentId) =>
 		apiCall(`/queue/call-appointment/${appointmentId}`, { method: "POST" }),
 	markAppointmentDone: (appointmentId) =>
@@ -9,6 +9,7 @@ export default function StaffDisplay() {
   const [clinicName, setClinicName] = useState('')
   const [currentServing, setCurrentServing] = useState(null)
   const [queue, setQueue] = useState([])
+  const [queueTotal, setQueueTotal] = useState(0)
   const [missed, setMissed] = useState([])
   const [loading, setLoading] = useState(false)
   const [error, setError] = useState('')
@@ -21,18 +22,47 @@ export default function StaffDisplay() {
 
   useEffect(() => {
     if (clinicId) {
-      fetchQueue()
-      fetchCurrentlyServing()
-      fetchMissed()
-      const interval = setInterval(() => {
-        fetchQueue()
-        fetchCurrentlyServing()
-        fetchMissed()
-      }, 5000)
-      return () => clearInterval(interval)
+      let interval = null
+      // Board updates are pushed over SSE; fall back to polling if the stream fails
+      const eventSource = queueAPI.streamClinicBoard(
+        clinicId,
+        (board) => {
+          applyBoard(board)
+          setError('')
+        },
+        (err) => {
+          console.error('Board stream failed, falling back to polling', err)
+          if (!interval) {
+            fetchAll()
+            interval = setInterval(fetchAll, 5000)
+          }
+        }
+      )
+      return () => {
+        eventSource.close()
+        if (interval) clearInterval(interval)
+      }
     }
   }, [clinicId])
 
+  const fetchAll = () => {
+    fetchQueue()
+    fetchCurrentlyServing()
+    fetchMissed()
+  }
+
+  const applyBoard = (board) => {
+    const serving = board.serving?.[0]
+    setCurrentServing(
+      serving
+        ? { clinicId: board.clinicId, appointmentId: serving.appointmentId, status: 'SERVING' }
+        : { clinicId: board.clinicId, status: 'QUEUE_EMPTY' }
+    )
+    setQueue(board.next || [])
+    setQueueTotal(board.totalWaiting ?? (board.next || []).length)
+    setMissed(board.missed || [])
+  }
+
   const fetchStaffClinic = async () => {
     try {
       const staff = await adminAPI.getStaffByEmail(userProfile.email)
@@ -52,6 +82,7 @@ export default function StaffDisplay() {
     try {
       const data = await queueAPI.getClinicQueue(clinicId)
       setQueue(data.queue || [])
+      setQueueTotal((data.queue || []).length)
       setError('')
     } catch (err) {
       setError('Failed to load queue')
@@ -108,7 +139,7 @@ export default function StaffDisplay() {
       <div className="display-sections-container">
         {/* Queue List */}
         <div className="display-section queue-section">
-          <h2>Queue ({queue.length})</h2>
+          <h2>Queue ({queueTotal})</h2>
           {loading ? (
             <div className="loading">Loading...</div>
           ) : queue.length === 0 ? (